@@ -0,0 +1,93 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /data/leaked/scan 오토마톤 스캔 처리량.
+ *
+ * 한 번 호출에 TEXT_MB MB 를 스캔하므로 결과(ops/s)가 곧 코어당 MB/s 다.
+ * 실행: ./gradlew jmh -Pjmh.includes=AhoCorasick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AhoCorasickAutomatonBenchmark {
+
+    private static final int TEXT_MB = 16;
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    @Param({"10000", "100000"})
+    private int keywords;
+
+    // 본문에 IOC 가 섞여 있는 비율 (1,000줄당)
+    @Param({"0", "10"})
+    private int hitsPerThousandLines;
+
+    private AhoCorasickAutomaton automaton;
+    private byte[] text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<AhoCorasickAutomaton.Keyword> seeds = new ArrayList<>(keywords);
+        List<String> values = new ArrayList<>(keywords);
+        for (int i = 0; i < keywords; i++) {
+            String value = switch (i % 4) {
+                case 0 -> (10 + random.nextInt(200)) + "." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+                case 1 -> "c2-" + Integer.toHexString(random.nextInt()) + ".example" + (i % 97) + ".net";
+                case 2 -> "http://" + Integer.toHexString(random.nextInt()) + ".onion/panel/" + i;
+                default -> Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong())
+                        + Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+            };
+            values.add(value);
+            seeds.add(new AhoCorasickAutomaton.Keyword(value, "bench", List.of("leak" + i)));
+        }
+        automaton = AhoCorasickAutomaton.build(seeds);
+
+        // 웹 서버 접근 로그 형태의 본문
+        StringBuilder log = new StringBuilder(TEXT_MB * 1024 * 1024 + 256);
+        int line = 0;
+        while (log.length() < TEXT_MB * 1024 * 1024) {
+            log.append(random.nextInt(256)).append('.').append(random.nextInt(256)).append(".0.")
+                    .append(random.nextInt(256)).append(" - - [12/Mar/2025:10:").append(line % 60)
+                    .append(":00 +0900] \"GET /static/app.").append(Integer.toHexString(random.nextInt()))
+                    .append(".js HTTP/1.1\" 200 ").append(random.nextInt(100000)).append(" \"Mozilla/5.0\"");
+            if (random.nextInt(1000) < hitsPerThousandLines) {
+                log.append(' ').append(values.get(random.nextInt(values.size())));
+            }
+            log.append('\n');
+            line++;
+        }
+        text = log.substring(0, TEXT_MB * 1024 * 1024).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TEXT_MB)
+    public void scan(Blackhole blackhole) {
+        AhoCorasickAutomaton.Scanner scanner = automaton.scanner();
+        AhoCorasickAutomaton.HitListener listener = (offset, keyword) -> {
+            blackhole.consume(offset);
+            return true;
+        };
+        for (int offset = 0; offset < text.length; offset += CHUNK_SIZE) {
+            scanner.feed(text, offset, Math.min(CHUNK_SIZE, text.length - offset), listener);
+        }
+        scanner.finish(listener);
+    }
+}
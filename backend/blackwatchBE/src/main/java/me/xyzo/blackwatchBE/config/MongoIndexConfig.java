@@ -23,6 +23,10 @@ public class MongoIndexConfig implements ApplicationRunner {
         try {
             createLeakedDataIndexes();
             createVulnerabilityDataIndexes();
+            createPersonalDataLookupIndexes();
+            createEmailDomainIndexes();
+            createNameKeyIndexes();
+            createStatsRollupIndexes();
             createContributorSessionIndexes();
             createChallengeIndexes();
             createSessionIndexes();
@@ -77,6 +81,28 @@ public class MongoIndexConfig implements ApplicationRunner {
             if (!hasIndexForField(existingIndexes, "leaked.username")) {
                 indexOps.ensureIndex(new Index().on("leaked.username", org.springframework.data.domain.Sort.Direction.ASC));
             }
+
+            // contentHash 백필 대상(필드 없음) 조회용
+            if (!hasIndexForField(existingIndexes, "contentHash")) {
+                indexOps.ensureIndex(new Index().on("contentHash", org.springframework.data.domain.Sort.Direction.ASC));
+            }
+
+            // IOC 정확히 일치 조회 (멀티키) 및 백필 대상 조회용
+            if (!hasIndexForField(existingIndexes, "iocKeys")) {
+                indexOps.ensureIndex(new Index().on("iocKeys", org.springframework.data.domain.Sort.Direction.ASC));
+            }
+
+            // host / author 동등 조건 + 최신순 정렬용 복합 인덱스 (타입 필드 기준)
+            createFilterSortIndexes(indexOps, "uploadDateTs");
+
+            // 기간 + 레코드 수 범위 조회용 복합 인덱스 (정렬은 uploadDateTs 인덱스 순회)
+            try {
+                indexOps.ensureIndex(new Index()
+                        .on("uploadDateTs", org.springframework.data.domain.Sort.Direction.DESC)
+                        .on("recordsCountNum", org.springframework.data.domain.Sort.Direction.ASC));
+            } catch (Exception e) {
+                // 복합 인덱스가 이미 존재하는 경우 무시
+            }
         } catch (Exception e) {
             System.out.println("Some leaked data indexes already exist: " + e.getMessage());
         }
@@ -114,15 +140,139 @@ public class MongoIndexConfig implements ApplicationRunner {
                 indexOps.ensureIndex(new Index().on("cvss", org.springframework.data.domain.Sort.Direction.ASC));
             }
 
+            // 정규화된 CVE ID 배열 (멀티키) / 숫자 CVSS 인덱스
+            if (!hasIndexForField(existingIndexes, "cveIdList")) {
+                indexOps.ensureIndex(new Index().on("cveIdList", org.springframework.data.domain.Sort.Direction.ASC));
+            }
+
+            try {
+                indexOps.ensureIndex(new Index()
+                        .on("cvssScore", org.springframework.data.domain.Sort.Direction.DESC)
+                        .on("uploadDateTs", org.springframework.data.domain.Sort.Direction.DESC));
+            } catch (Exception e) {
+                // 복합 인덱스가 이미 존재하는 경우 무시
+            }
+
             // 취약점 분류 검색용 인덱스
             if (!hasIndexForField(existingIndexes, "vulnerabilityClass")) {
                 indexOps.ensureIndex(new Index().on("vulnerabilityClass", org.springframework.data.domain.Sort.Direction.ASC));
             }
+
+            if (!hasIndexForField(existingIndexes, "products")) {
+                indexOps.ensureIndex(new Index().on("products", org.springframework.data.domain.Sort.Direction.ASC));
+            }
+
+            if (!hasIndexForField(existingIndexes, "exploitationTechnique")) {
+                indexOps.ensureIndex(new Index().on("exploitationTechnique", org.springframework.data.domain.Sort.Direction.ASC));
+            }
+
+            if (!hasIndexForField(existingIndexes, "contentHash")) {
+                indexOps.ensureIndex(new Index().on("contentHash", org.springframework.data.domain.Sort.Direction.ASC));
+            }
+
+            // 날짜 범위 / 정렬 및 백필 대상 조회용 (타입 필드)
+            if (!hasIndexForField(existingIndexes, "uploadDateTs")) {
+                indexOps.ensureIndex(new Index().on("uploadDateTs", org.springframework.data.domain.Sort.Direction.DESC));
+            }
+
+            // host / author 동등 조건 + 최신순 정렬용 복합 인덱스 (타입 필드 기준)
+            createFilterSortIndexes(indexOps, "uploadDateTs");
         } catch (Exception e) {
             System.out.println("Some vulnerability data indexes already exist: " + e.getMessage());
         }
     }
 
+    private void createPersonalDataLookupIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps("col_pii_lookup");
+            List<IndexInfo> existingIndexes = indexOps.getIndexInfo();
+
+            // (type, value) $in 조회가 인덱스만으로 끝나도록 leakId 까지 포함 (중복 항목 방지용 unique)
+            try {
+                indexOps.ensureIndex(new Index()
+                        .on("type", org.springframework.data.domain.Sort.Direction.ASC)
+                        .on("value", org.springframework.data.domain.Sort.Direction.ASC)
+                        .on("leakId", org.springframework.data.domain.Sort.Direction.ASC)
+                        .unique());
+            } catch (Exception e) {
+                // 복합 인덱스가 이미 존재하는 경우 무시
+            }
+
+            // 유출 건 단위 재색인 / 삭제용
+            if (!hasIndexForField(existingIndexes, "leakId")) {
+                indexOps.ensureIndex(new Index().on("leakId", org.springframework.data.domain.Sort.Direction.ASC));
+            }
+        } catch (Exception e) {
+            System.out.println("Some personal data lookup indexes already exist: " + e.getMessage());
+        }
+    }
+
+    private void createEmailDomainIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps("col_email_domain");
+            List<IndexInfo> existingIndexes = indexOps.getIndexInfo();
+
+            // 도메인별 유출 건 조회 (도메인 + 유출 건당 하나)
+            try {
+                indexOps.ensureIndex(new Index()
+                        .on("domain", org.springframework.data.domain.Sort.Direction.ASC)
+                        .on("leakId", org.springframework.data.domain.Sort.Direction.ASC)
+                        .unique());
+            } catch (Exception e) {
+                // 복합 인덱스가 이미 존재하는 경우 무시
+            }
+
+            // 하위 도메인 포함 조회 (뒤집은 도메인 접두사 범위)
+            if (!hasIndexForField(existingIndexes, "reversedDomain")) {
+                indexOps.ensureIndex(new Index().on("reversedDomain", org.springframework.data.domain.Sort.Direction.ASC));
+            }
+
+            if (!hasIndexForField(existingIndexes, "leakId")) {
+                indexOps.ensureIndex(new Index().on("leakId", org.springframework.data.domain.Sort.Direction.ASC));
+            }
+        } catch (Exception e) {
+            System.out.println("Some email domain indexes already exist: " + e.getMessage());
+        }
+    }
+
+    private void createNameKeyIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps("col_name_key");
+
+            // 이름 키 $in 조회 (k, v 만 읽으므로 인덱스로 처리됨), 같은 (키, 이름) 중복 방지
+            try {
+                indexOps.ensureIndex(new Index()
+                        .on("k", org.springframework.data.domain.Sort.Direction.ASC)
+                        .on("v", org.springframework.data.domain.Sort.Direction.ASC)
+                        .unique());
+            } catch (Exception e) {
+                // 복합 인덱스가 이미 존재하는 경우 무시
+            }
+        } catch (Exception e) {
+            System.out.println("Some name key indexes already exist: " + e.getMessage());
+        }
+    }
+
+    private void createStatsRollupIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps("col_stats_rollup");
+
+            // 집계 행 upsert 키이자 (유형, 차원, 기간) 조회용
+            try {
+                indexOps.ensureIndex(new Index()
+                        .on("t", org.springframework.data.domain.Sort.Direction.ASC)
+                        .on("dim", org.springframework.data.domain.Sort.Direction.ASC)
+                        .on("d", org.springframework.data.domain.Sort.Direction.ASC)
+                        .on("k", org.springframework.data.domain.Sort.Direction.ASC)
+                        .unique());
+            } catch (Exception e) {
+                // 복합 인덱스가 이미 존재하는 경우 무시
+            }
+        } catch (Exception e) {
+            System.out.println("Some stats rollup indexes already exist: " + e.getMessage());
+        }
+    }
+
     private void createContributorSessionIndexes() {
         try {
             IndexOperations indexOps = mongoTemplate.indexOps("contributor_sessions");
@@ -225,6 +375,37 @@ public class MongoIndexConfig implements ApplicationRunner {
         }
     }
 
+    /**
+     * DataQueryBuilder 가 만드는 host / author 조건($in, 접두사 정규식)과 업로드 날짜 정렬을
+     * 하나의 인덱스로 처리하기 위한 복합 인덱스
+     */
+    private void createFilterSortIndexes(IndexOperations indexOps, String dateField) {
+        // 커서 페이지네이션 (날짜, _id) seek 용
+        try {
+            indexOps.ensureIndex(new Index()
+                    .on(dateField, org.springframework.data.domain.Sort.Direction.DESC)
+                    .on("_id", org.springframework.data.domain.Sort.Direction.DESC));
+        } catch (Exception e) {
+            // 복합 인덱스가 이미 존재하는 경우 무시
+        }
+
+        try {
+            indexOps.ensureIndex(new Index()
+                    .on("host", org.springframework.data.domain.Sort.Direction.ASC)
+                    .on(dateField, org.springframework.data.domain.Sort.Direction.DESC));
+        } catch (Exception e) {
+            // 복합 인덱스가 이미 존재하는 경우 무시
+        }
+
+        try {
+            indexOps.ensureIndex(new Index()
+                    .on("author", org.springframework.data.domain.Sort.Direction.ASC)
+                    .on(dateField, org.springframework.data.domain.Sort.Direction.DESC));
+        } catch (Exception e) {
+            // 복합 인덱스가 이미 존재하는 경우 무시
+        }
+    }
+
     /**
      * 특정 필드에 대한 인덱스가 이미 존재하는지 확인
      */
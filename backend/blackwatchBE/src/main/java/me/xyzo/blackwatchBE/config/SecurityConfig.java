@@ -51,6 +51,8 @@ public class SecurityConfig {
                         // 1. 공용 접근 허용 (인증 불필요)
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers(SWAGGER_LIST).permitAll()
+                        // 메트릭에는 인덱스 크기 / 캐시 / JVM 내부 정보가 담기므로 관리자만 조회
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
                         .requestMatchers("/actuator/**", "/error", "/", "/favicon.ico").permitAll()
 
                         // 2. [중요] 관리자 전용 API 보호
@@ -51,4 +51,22 @@ public class AdminController {
         adminService.resetApplicationToPending(userId);
         return ResponseEntity.ok(new MessageResponseDto("Application status has been reset to pending."));
     }
+
+    @PostMapping("/pii-index/rebuild")
+    @Operation(summary = "Rebuild personal data lookup index", description = "Rebuild the personal data lookup index from all leaked data in the background")
+    public ResponseEntity<MessageResponseDto> rebuildPersonalDataIndex() {
+        boolean started = adminService.rebuildPersonalDataIndex();
+        return ResponseEntity.ok(new MessageResponseDto(started
+                ? "Personal data index rebuild has been started."
+                : "Personal data index rebuild is already in progress."));
+    }
+
+    @PostMapping("/stats/rebuild")
+    @Operation(summary = "Rebuild statistics rollups", description = "Recompute /data/stats rollups from all leaked and vulnerability data in the background")
+    public ResponseEntity<MessageResponseDto> rebuildStatsRollup() {
+        boolean started = adminService.rebuildStatsRollup();
+        return ResponseEntity.ok(new MessageResponseDto(started
+                ? "Statistics rollup rebuild has been started."
+                : "Statistics rollup rebuild is already in progress."));
+    }
 }
@@ -2,38 +2,86 @@ package me.xyzo.blackwatchBE.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import me.xyzo.blackwatchBE.document.LeakedDataDocument;
 import me.xyzo.blackwatchBE.document.VulnerabilityDataDocument;
+import me.xyzo.blackwatchBE.dto.CountMode;
+import me.xyzo.blackwatchBE.dto.DataStreamFilterDto;
+import me.xyzo.blackwatchBE.dto.EmailDomainExposureDto;
+import me.xyzo.blackwatchBE.dto.EntityClusterDto;
+import me.xyzo.blackwatchBE.dto.EntityGraphDto;
+import me.xyzo.blackwatchBE.dto.ExportFormat;
+import me.xyzo.blackwatchBE.dto.FacetCountDto;
+import me.xyzo.blackwatchBE.dto.FuzzyNameMatchDto;
+import me.xyzo.blackwatchBE.dto.FuzzyNameSearchDto;
+import me.xyzo.blackwatchBE.dto.IocSearchDto;
+import me.xyzo.blackwatchBE.dto.IocSearchResultDto;
+import me.xyzo.blackwatchBE.dto.LeakedDataFilterDto;
 import me.xyzo.blackwatchBE.dto.PersonalDataSearchDto;
 import me.xyzo.blackwatchBE.dto.PersonalDataSearchResultDto;
+import me.xyzo.blackwatchBE.dto.StatsBucketDto;
+import me.xyzo.blackwatchBE.dto.TrendingDto;
+import me.xyzo.blackwatchBE.dto.VulnerabilityDataFilterDto;
+import me.xyzo.blackwatchBE.dto.VulnerabilityFacetsDto;
+import me.xyzo.blackwatchBE.exception.BadRequestException;
 import me.xyzo.blackwatchBE.service.DataService;
+import me.xyzo.blackwatchBE.service.FullTextSearchService;
+import me.xyzo.blackwatchBE.service.HashRangeIndexService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/data")
 @Tag(name = "Data", description = "MongoDB direct connection based data query API")
 public class DataController {
 
+    // 응답 total 의 성격 (exact / approx / none)
+    private static final String COUNT_MODE_HEADER = "X-Count-Mode";
+
+    private static final int MAX_DOMAINS = 100;
+    private static final int MAX_FUZZY_NAMES = 100;
+    private static final int MAX_STATS_BUCKETS = 5000;
+    private static final int MAX_FACET_VALUES = 1000;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_CLUSTERS = 100;
+    private static final int MAX_TRENDING = 100;
+
     @Autowired
     private DataService dataService;
 
+    @Value("${data.hash-range.refresh-seconds:300}")
+    private long rangeCacheSeconds;
+
     @GetMapping("/leaked")
-    @Operation(summary = "Get leaked data", description = "Search leaked data directly from MongoDB")
-    public ResponseEntity<Page<Map<String, Object>>> getLeakedData(
+    @Operation(summary = "Get leaked data",
+            description = "Search leaked data directly from MongoDB. cursor=true (or after=<nextCursor>) switches to keyset pagination, " +
+                    "count=exact|approx|none selects how the total is computed. q is a full-text query (\"phrase\", -exclude, prefix*) " +
+                    "ranked by relevance with score / highlight per item unless another sort is given")
+    public ResponseEntity<?> getLeakedData(
             @RequestParam(required = false) LocalDateTime from,
             @RequestParam(required = false) LocalDateTime to,
-            @RequestParam(defaultValue = "-uploadDate") String sort,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "200") int limit,
             @RequestParam(required = false) String host,
@@ -43,30 +91,232 @@ public class DataController {
             @RequestParam(required = false) Integer recordMin,
             @RequestParam(required = false) Integer recordMax,
             @RequestParam(required = false) String iocContains,
+            @RequestParam(required = false) String ioc,
             @RequestParam(required = false) String q,
-            @RequestParam(required = false) String projection) {
+            @RequestParam(required = false) String projection,
+            @RequestParam(defaultValue = "false") boolean cursor,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest webRequest) {
 
-        Sort sortObj = sort.startsWith("-")
-                ? Sort.by(Sort.Direction.DESC, sort.substring(1))
-                : Sort.by(Sort.Direction.ASC, sort);
+        Sort.Order order = parseSortOrder(sort, q);
 
+        if (limit < 1) limit = 1;
         if (limit > 1000) limit = 1000;
-        Pageable pageable = PageRequest.of(page, limit, sortObj);
 
-        List<String> hosts = host != null ? Arrays.asList(host.split(",")) : null;
+        LeakedDataFilterDto filter = leakedFilter(from, to, host, pathContains, titleContains, author,
+                recordMin, recordMax, iocContains, ioc, q);
 
-        Page<Map<String, Object>> result = dataService.getLeakedData(
-                from, to, hosts, pathContains, titleContains, author,
-                recordMin, recordMax, iocContains, q, projection, pageable);
+        // 커서 모드: skip/count 없이 after 토큰 이후를 인덱스 범위로 조회
+        if (cursor || after != null) {
+            String etag = dataService.getLeakedDataCursorVersion(filter, projection, order, after, limit);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(dataService.getLeakedDataByCursor(filter, projection, order, after, limit));
+        }
 
-        return ResponseEntity.ok(result);
+        CountMode countMode = CountMode.from(count);
+        Pageable pageable = PageRequest.of(page, limit, Sort.by(order));
+
+        // 목록 문서를 읽기 전에 (id, contentHash) 만으로 ETag 를 비교한다
+        String etag = dataService.getLeakedDataVersion(filter, projection, pageable, countMode);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        Slice<Map<String, Object>> result = dataService.getLeakedData(filter, projection, pageable, countMode);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .header(COUNT_MODE_HEADER, countMode.name().toLowerCase())
+                .body(result);
+    }
+
+    @GetMapping("/leaked/export")
+    @Operation(summary = "Export leaked data",
+            description = "Stream every leaked data matching the filters as NDJSON or CSV (personal data removed)")
+    public ResponseEntity<StreamingResponseBody> exportLeakedData(
+            @RequestParam(required = false) LocalDateTime from,
+            @RequestParam(required = false) LocalDateTime to,
+            @RequestParam(required = false) String host,
+            @RequestParam(required = false) String pathContains,
+            @RequestParam(required = false) String titleContains,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Integer recordMin,
+            @RequestParam(required = false) Integer recordMax,
+            @RequestParam(required = false) String iocContains,
+            @RequestParam(required = false) String ioc,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String projection,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        LeakedDataFilterDto filter = leakedFilter(from, to, host, pathContains, titleContains, author,
+                recordMin, recordMax, iocContains, ioc, q);
+
+        StreamingResponseBody body = dataService.exportLeakedData(filter, projection, exportFormat);
+        return exportResponse("leaked", exportFormat, body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Live ingest feed",
+            description = "Server-Sent Events feed of newly ingested leaked / vulnerability data (personal data removed). " +
+                    "Events are named leaked or vulnerability; slow clients are disconnected and should reconnect")
+    public SseEmitter streamData(
+            @RequestParam(required = false) String types,
+            @RequestParam(required = false) String host,
+            @RequestParam(required = false) String leakType,
+            @RequestParam(required = false) String vulnClass,
+            @RequestParam(required = false) Double cvssMin) {
+
+        DataStreamFilterDto filter = new DataStreamFilterDto();
+        List<String> typeList = splitParam(types);
+        if (typeList != null) {
+            for (String type : typeList) {
+                if (!"leaked".equals(type) && !"vulnerability".equals(type)) {
+                    throw new BadRequestException("types 는 leaked, vulnerability 중에서 선택해주세요.");
+                }
+            }
+            filter.setLeaked(typeList.contains("leaked"));
+            filter.setVulnerability(typeList.contains("vulnerability"));
+        }
+        filter.setHosts(splitParam(host));
+        filter.setLeakTypes(splitParam(leakType));
+        filter.setVulnerabilityClasses(splitParam(vulnClass));
+        filter.setCvssMin(cvssMin);
+
+        return dataService.streamData(filter);
+    }
+
+    @GetMapping("/stats/{type}")
+    @Operation(summary = "Leaked / vulnerability statistics",
+            description = "Pre-aggregated counts for type=leaked (dimension=day|host|leakType, with summed recordsCount) " +
+                    "or type=vulnerability (dimension=day|host|vulnerabilityClass|cvss). from / to are upload dates (UTC, inclusive); " +
+                    "cvss buckets are integer score ranges")
+    public ResponseEntity<List<StatsBucketDto>> getStats(
+            @PathVariable String type,
+            @RequestParam(defaultValue = "day") String dimension,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        if (!"leaked".equals(type) && !"vulnerability".equals(type)) {
+            throw new BadRequestException("type 은 leaked, vulnerability 중에서 선택해주세요.");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from 은 to 보다 이후일 수 없습니다.");
+        }
+        if (limit < 1) limit = 1;
+        if (limit > MAX_STATS_BUCKETS) limit = MAX_STATS_BUCKETS;
+
+        return ResponseEntity.ok(dataService.getStats(type, dimension, from, to, limit));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Filter value suggestions",
+            description = "Top completions by document count for field=host|author|product|cve starting with prefix (case-insensitive). " +
+                    "type=leaked|vulnerability restricts the source collection; without it host / author counts are combined. " +
+                    "Answered from memory; new ingests appear within seconds")
+    public ResponseEntity<List<FacetCountDto>> suggest(
+            @RequestParam String field,
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        if (limit < 1) limit = 1;
+        if (limit > MAX_SUGGESTIONS) limit = MAX_SUGGESTIONS;
+
+        // 같은 접두사 입력이 반복되므로 잠시 브라우저 캐시를 허용한다
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(10, TimeUnit.SECONDS).cachePrivate())
+                .body(dataService.suggest(type, field, prefix, limit));
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "Trending CVEs, hosts and IOCs",
+            description = "Values mentioned most by newly ingested leaks / vulnerabilities in the last window=hour|day, " +
+                    "ranked by how far the count exceeds its usual (EWMA) rate. type=cve|host|ioc restricts the list; " +
+                    "spikesOnly keeps only values at least spike-ratio times their usual rate. Counts are sketch estimates " +
+                    "(never below the true count)")
+    public ResponseEntity<TrendingDto> getTrending(
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "hour") String window,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean spikesOnly) {
+
+        if (limit < 1) limit = 1;
+        if (limit > MAX_TRENDING) limit = MAX_TRENDING;
+
+        // 구간(1분) 단위로만 바뀌므로 잠시 브라우저 캐시를 허용한다
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(30, TimeUnit.SECONDS).cachePrivate())
+                .body(dataService.getTrending(type, window, limit, spikesOnly));
+    }
+
+    @GetMapping("/graph/neighbors")
+    @Operation(summary = "Entity neighborhood",
+            description = "Authors, hosts, IOCs and CVEs within hops of the given entity (type=author|host|ioc|cve), " +
+                    "linked when they appear in the same leak or vulnerability. Edge documents = shared document count. " +
+                    "Answered from an in-memory graph; limit caps the number of nodes")
+    public ResponseEntity<EntityGraphDto> getEntityNeighbors(
+            @RequestParam String type,
+            @RequestParam String value,
+            @RequestParam(defaultValue = "1") int hops,
+            @RequestParam(defaultValue = "200") int limit) {
+
+        if (limit < 1) limit = 1;
+        return ResponseEntity.ok(dataService.getEntityNeighbors(type, value, hops, limit));
+    }
+
+    @GetMapping("/graph/path")
+    @Operation(summary = "Shortest entity path",
+            description = "Shortest chain of shared leaks / vulnerabilities connecting two entities, with one evidence " +
+                    "document per step. Empty nodes when they are not connected within maxHops")
+    public ResponseEntity<EntityGraphDto> getEntityPath(
+            @RequestParam String fromType,
+            @RequestParam String from,
+            @RequestParam String toType,
+            @RequestParam String to,
+            @RequestParam(defaultValue = "4") int maxHops) {
+
+        return ResponseEntity.ok(dataService.getEntityPath(fromType, from, toType, to, maxHops));
+    }
+
+    @GetMapping("/graph/clusters")
+    @Operation(summary = "Shared-IOC author clusters",
+            description = "Groups of authors connected by reusing the same IOCs, largest first. With type=author|ioc and value " +
+                    "only the cluster containing that entity is returned. IOCs shared by very many authors are ignored")
+    public ResponseEntity<List<EntityClusterDto>> getIocClusters(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String value,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        if (limit < 1) limit = 1;
+        if (limit > MAX_CLUSTERS) limit = MAX_CLUSTERS;
+        return ResponseEntity.ok(dataService.getIocClusters(type, value, limit));
     }
 
     @GetMapping("/leaked/{id}")
     @Operation(summary = "Get leaked data details", description = "Get detailed data directly from MongoDB")
-    public ResponseEntity<LeakedDataDocument> getLeakedDataDetail(@PathVariable String id) {
+    public ResponseEntity<LeakedDataDocument> getLeakedDataDetail(@PathVariable String id, WebRequest webRequest) {
+        // contentHash 만 읽어 비교하고, 일치하면 본문 문서를 읽지 않고 304
+        String etag = dataService.getLeakedDataDetailVersion(id);
+        if (etag == null) {
+            return ResponseEntity.ok(dataService.getLeakedDataDetail(id));
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         LeakedDataDocument result = dataService.getLeakedDataDetail(id);
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(result);
     }
 
     @PostMapping("/leaked/find")
@@ -76,12 +326,112 @@ public class DataController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/leaked/find/names")
+    @Operation(summary = "Fuzzy name leak search",
+            description = "Find leaks containing names within maxDistance jamo/letter edits (spacing, case and typo " +
+                    "variants) or with the same phonetic key (Korean romanization variants such as 이지은 / Lee Ji-eun); " +
+                    "truncated is set when the candidate cap was reached (exact matches are read first)")
+    public ResponseEntity<List<FuzzyNameMatchDto>> findPersonalDataByName(@RequestBody FuzzyNameSearchDto request) {
+        if (request.getNames() != null && request.getNames().size() > MAX_FUZZY_NAMES) {
+            throw new BadRequestException("names 는 최대 " + MAX_FUZZY_NAMES + "개까지 조회할 수 있습니다.");
+        }
+        return ResponseEntity.ok(dataService.findPersonalDataByName(request));
+    }
+
+    @PostMapping("/leaked/find/iocs")
+    @Operation(summary = "Bulk IOC lookup",
+            description = "Match up to thousands of IOCs (ip, domain, url, hash, wallet; defanged forms such as hxxp / [.] accepted) " +
+                    "against normalized leak IOCs in one request. Domain / IP indicators also match URLs on that host")
+    public ResponseEntity<IocSearchResultDto> findLeaksByIocs(@RequestBody IocSearchDto request) {
+        return ResponseEntity.ok(dataService.findLeaksByIocs(request));
+    }
+
+    @PostMapping(value = "/leaked/scan", consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Scan text for known IOCs",
+            description = "Upload a log or any text body; every known leak IOC found in it (case-insensitive, on token " +
+                    "boundaries) is streamed back as NDJSON with its byte offset and leak IDs, followed by a summary line")
+    public ResponseEntity<StreamingResponseBody> scanIocs(HttpServletRequest request) throws IOException {
+        StreamingResponseBody body = dataService.scanIocs(request.getInputStream());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportFormat.NDJSON.getContentType()))
+                .body(body);
+    }
+
+    @PostMapping(value = "/leaked/find/bulk", consumes = {"application/x-ndjson", "text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = "Bulk check personal data leak",
+            description = "Upload emails / usernames / names as NDJSON ({\"email\": ...} per line) or CSV (header with email, " +
+                    "username, name columns). Results are streamed back as NDJSON while batches complete, followed by a summary line")
+    public ResponseEntity<StreamingResponseBody> findPersonalDataBulk(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean onlyFound,
+            HttpServletRequest request) throws IOException {
+
+        // format 파라미터가 없으면 Content-Type 으로 판단
+        ExportFormat inputFormat = format != null
+                ? ExportFormat.from(format)
+                : (contentType.toLowerCase().contains("csv") ? ExportFormat.CSV : ExportFormat.NDJSON);
+
+        StreamingResponseBody body = dataService.findPersonalDataBulk(request.getInputStream(), inputFormat, onlyFound);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ExportFormat.NDJSON.getContentType()))
+                .body(body);
+    }
+
+    @GetMapping("/leaked/domains")
+    @Operation(summary = "Email domain exposure",
+            description = "Leaks containing any address of the given domain(s) with per-leak address counts " +
+                    "(comma separated, up to 100). includeSubdomains=true also counts sub.domain addresses")
+    public ResponseEntity<List<EmailDomainExposureDto>> getEmailDomainExposure(
+            @RequestParam String domain,
+            @RequestParam(defaultValue = "false") boolean includeSubdomains) {
+
+        List<String> domains = splitParam(domain);
+        if (domains == null) {
+            throw new BadRequestException("domain 을 입력해주세요.");
+        }
+        if (domains.size() > MAX_DOMAINS) {
+            throw new BadRequestException("domain 은 최대 " + MAX_DOMAINS + "개까지 조회할 수 있습니다.");
+        }
+
+        return ResponseEntity.ok(dataService.findEmailDomainExposure(domains, includeSubdomains));
+    }
+
+    @GetMapping("/leaked/range/{prefix}")
+    @Operation(summary = "Leaked data hash range",
+            description = "k-anonymity lookup modeled on the Pwned Passwords range API. Send the first 5 hex characters of the " +
+                    "SHA-1/SHA-256 hash of a normalized (trimmed, lower-cased) email or leaked file hash; the response lists " +
+                    "every hash suffix in that bucket as SUFFIX:leakId,leakId lines")
+    public ResponseEntity<String> getLeakedHashRange(
+            @PathVariable String prefix,
+            @RequestParam(defaultValue = "email") String type,
+            @RequestParam(defaultValue = "sha1") String algorithm,
+            WebRequest webRequest) {
+
+        HashRangeIndexService.Bucket bucket = dataService.getLeakedHashRange(type, algorithm, prefix);
+
+        // 버킷 내용은 인덱스 버전이 바뀔 때만 달라지므로 버전 기반 ETag 로 재검증
+        String etag = "\"" + type + "-" + algorithm + "-" + prefix.toUpperCase() + "-" + bucket.version() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_PLAIN)
+                .cacheControl(CacheControl.maxAge(rangeCacheSeconds, TimeUnit.SECONDS).cachePrivate())
+                .eTag(etag)
+                .body(bucket.body());
+    }
+
     @GetMapping("/vulnerability")
-    @Operation(summary = "Get vulnerability data", description = "Search vulnerability data directly from MongoDB")
-    public ResponseEntity<Page<Map<String, Object>>> getVulnerabilityData(
+    @Operation(summary = "Get vulnerability data",
+            description = "Search vulnerability data directly from MongoDB. cursor=true (or after=<nextCursor>) switches to keyset pagination, " +
+                    "count=exact|approx|none selects how the total is computed. q is a full-text query (\"phrase\", -exclude, prefix*) " +
+                    "ranked by relevance with score / highlight per item unless another sort is given")
+    public ResponseEntity<?> getVulnerabilityData(
             @RequestParam(required = false) LocalDateTime from,
             @RequestParam(required = false) LocalDateTime to,
-            @RequestParam(defaultValue = "-uploadDate") String sort,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "200") int limit,
             @RequestParam(required = false) String host,
@@ -92,30 +442,194 @@ public class DataController {
             @RequestParam(required = false) Double cvssMin,
             @RequestParam(required = false) Double cvssMax,
             @RequestParam(required = false) String vulnClass,
+            @RequestParam(required = false) String product,
+            @RequestParam(required = false) String technique,
             @RequestParam(required = false) String q,
-            @RequestParam(required = false) String projection) {
+            @RequestParam(required = false) String projection,
+            @RequestParam(defaultValue = "false") boolean cursor,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest webRequest) {
 
-        Sort sortObj = sort.startsWith("-")
-                ? Sort.by(Sort.Direction.DESC, sort.substring(1))
-                : Sort.by(Sort.Direction.ASC, sort);
+        Sort.Order order = parseSortOrder(sort, q);
 
+        if (limit < 1) limit = 1;
         if (limit > 1000) limit = 1000;
-        Pageable pageable = PageRequest.of(page, limit, sortObj);
 
-        List<String> hosts = host != null ? Arrays.asList(host.split(",")) : null;
-        List<String> cves = cve != null ? Arrays.asList(cve.split(",")) : null;
+        VulnerabilityDataFilterDto filter = vulnerabilityFilter(from, to, host, pathContains, titleContains, author,
+                cve, cvssMin, cvssMax, vulnClass, product, technique, q);
 
-        Page<Map<String, Object>> result = dataService.getVulnerabilityData(
-                from, to, hosts, pathContains, titleContains, author,
-                cves, cvssMin, cvssMax, vulnClass, q, projection, pageable);
+        // 커서 모드: skip/count 없이 after 토큰 이후를 인덱스 범위로 조회
+        if (cursor || after != null) {
+            String etag = dataService.getVulnerabilityDataCursorVersion(filter, projection, order, after, limit);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(etag)
+                    .body(dataService.getVulnerabilityDataByCursor(filter, projection, order, after, limit));
+        }
 
-        return ResponseEntity.ok(result);
+        CountMode countMode = CountMode.from(count);
+        Pageable pageable = PageRequest.of(page, limit, Sort.by(order));
+
+        // 목록 문서를 읽기 전에 (id, contentHash) 만으로 ETag 를 비교한다
+        String etag = dataService.getVulnerabilityDataVersion(filter, projection, pageable, countMode);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        Slice<Map<String, Object>> result = dataService.getVulnerabilityData(filter, projection, pageable, countMode);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .header(COUNT_MODE_HEADER, countMode.name().toLowerCase())
+                .body(result);
+    }
+
+    @GetMapping("/vulnerability/export")
+    @Operation(summary = "Export vulnerability data",
+            description = "Stream every vulnerability data matching the filters as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportVulnerabilityData(
+            @RequestParam(required = false) LocalDateTime from,
+            @RequestParam(required = false) LocalDateTime to,
+            @RequestParam(required = false) String host,
+            @RequestParam(required = false) String pathContains,
+            @RequestParam(required = false) String titleContains,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) String cve,
+            @RequestParam(required = false) Double cvssMin,
+            @RequestParam(required = false) Double cvssMax,
+            @RequestParam(required = false) String vulnClass,
+            @RequestParam(required = false) String product,
+            @RequestParam(required = false) String technique,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String projection,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        VulnerabilityDataFilterDto filter = vulnerabilityFilter(from, to, host, pathContains, titleContains, author,
+                cve, cvssMin, cvssMax, vulnClass, product, technique, q);
+
+        StreamingResponseBody body = dataService.exportVulnerabilityData(filter, projection, exportFormat);
+        return exportResponse("vulnerability", exportFormat, body);
+    }
+
+    @GetMapping("/vulnerability/facets")
+    @Operation(summary = "Vulnerability facet counts",
+            description = "Value counts per facet (host, author, vulnerabilityClass, cve, products, exploitationTechnique) " +
+                    "for the filter sidebar, answered from the in-memory replica. Each facet is counted without its own filter; " +
+                    "q / pathContains / titleContains are not supported")
+    public ResponseEntity<VulnerabilityFacetsDto> getVulnerabilityFacets(
+            @RequestParam(required = false) LocalDateTime from,
+            @RequestParam(required = false) LocalDateTime to,
+            @RequestParam(required = false) String host,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) String cve,
+            @RequestParam(required = false) Double cvssMin,
+            @RequestParam(required = false) Double cvssMax,
+            @RequestParam(required = false) String vulnClass,
+            @RequestParam(required = false) String product,
+            @RequestParam(required = false) String technique,
+            @RequestParam(required = false) String facets,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        if (limit < 1) limit = 1;
+        if (limit > MAX_FACET_VALUES) limit = MAX_FACET_VALUES;
+
+        VulnerabilityDataFilterDto filter = vulnerabilityFilter(from, to, host, null, null, author,
+                cve, cvssMin, cvssMax, vulnClass, product, technique, null);
+        return ResponseEntity.ok(dataService.getVulnerabilityFacets(filter, splitParam(facets), limit));
     }
 
     @GetMapping("/vulnerability/{id}")
     @Operation(summary = "Get vulnerability data details", description = "Get detailed data directly from MongoDB")
-    public ResponseEntity<VulnerabilityDataDocument> getVulnerabilityDataDetail(@PathVariable String id) {
+    public ResponseEntity<VulnerabilityDataDocument> getVulnerabilityDataDetail(@PathVariable String id,
+                                                                                WebRequest webRequest) {
+        // contentHash 만 읽어 비교하고, 일치하면 본문 문서를 읽지 않고 304
+        String etag = dataService.getVulnerabilityDataDetailVersion(id);
+        if (etag == null) {
+            return ResponseEntity.ok(dataService.getVulnerabilityDataDetail(id));
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
         VulnerabilityDataDocument result = dataService.getVulnerabilityDataDetail(id);
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(etag)
+                .body(result);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportFormat format,
+                                                                StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+    private LeakedDataFilterDto leakedFilter(LocalDateTime from, LocalDateTime to, String host,
+                                             String pathContains, String titleContains, String author,
+                                             Integer recordMin, Integer recordMax, String iocContains,
+                                             String ioc, String q) {
+        LeakedDataFilterDto filter = new LeakedDataFilterDto();
+        filter.setFrom(from);
+        filter.setTo(to);
+        filter.setHosts(splitParam(host));
+        filter.setPathContains(pathContains);
+        filter.setTitleContains(titleContains);
+        filter.setAuthors(splitParam(author));
+        filter.setRecordMin(recordMin);
+        filter.setRecordMax(recordMax);
+        filter.setIocContains(iocContains);
+        filter.setIocs(splitParam(ioc));
+        filter.setQ(q);
+        return filter;
+    }
+
+    private VulnerabilityDataFilterDto vulnerabilityFilter(LocalDateTime from, LocalDateTime to, String host,
+                                                           String pathContains, String titleContains, String author,
+                                                           String cve, Double cvssMin, Double cvssMax,
+                                                           String vulnClass, String product, String technique,
+                                                           String q) {
+        VulnerabilityDataFilterDto filter = new VulnerabilityDataFilterDto();
+        filter.setFrom(from);
+        filter.setTo(to);
+        filter.setHosts(splitParam(host));
+        filter.setPathContains(pathContains);
+        filter.setTitleContains(titleContains);
+        filter.setAuthors(splitParam(author));
+        filter.setCves(splitParam(cve));
+        filter.setCvssMin(cvssMin);
+        filter.setCvssMax(cvssMax);
+        filter.setVulnClasses(splitParam(vulnClass));
+        filter.setProducts(splitParam(product));
+        filter.setTechniques(splitParam(technique));
+        filter.setQ(q);
+        return filter;
+    }
+
+    // "-field" 는 내림차순, "field" 는 오름차순. 지정하지 않으면 q 검색은 관련도순, 그 외는 최신순
+    private Sort.Order parseSortOrder(String sort, String q) {
+        if (sort == null || sort.isBlank()) {
+            sort = q != null && !q.isBlank() ? FullTextSearchService.SORT_RELEVANCE : "-uploadDate";
+        }
+        return sort.startsWith("-")
+                ? new Sort.Order(Sort.Direction.DESC, sort.substring(1))
+                : new Sort.Order(Sort.Direction.ASC, sort);
+    }
+
+    // 콤마로 구분된 파라미터를 공백 제거 후 리스트로 변환 (값이 없으면 null)
+    private List<String> splitParam(String value) {
+        if (value == null || value.isBlank()) return null;
+        List<String> values = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .toList();
+        return values.isEmpty() ? null : values;
     }
 }
\ No newline at end of file
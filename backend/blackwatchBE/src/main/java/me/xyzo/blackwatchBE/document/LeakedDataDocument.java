@@ -1,10 +1,12 @@
 package me.xyzo.blackwatchBE.document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -31,7 +33,24 @@ public class LeakedDataDocument {
     @Field("recordsCount")
     private String recordsCount;  // DB diagram에서 string으로 보임
 
+    // uploadDate / recordsCount 를 정규화한 타입 필드 (범위 조회·정렬용, TypedFieldNormalizer 가 채움)
+    @Field("uploadDateTs")
+    private Date uploadDateTs;
+
+    @Field("recordsCountNum")
+    private Long recordsCountNum;
+
+    // 크롤러가 쓴 필드의 내용 해시 (ETag 기준, DocumentContentHash 참고)
+    @JsonIgnore
+    @Field("contentHash")
+    private String contentHash;
+
     private List<String> iocs;  // array로 변경
+
+    // 정규화된 IOC 키 ("유형:값", IocNormalizer 참고)
+    @JsonIgnore
+    @Field("iocKeys")
+    private List<String> iocKeys;
     private String price;
     private String article;
     private List<String> ref;
@@ -70,9 +89,21 @@ public class LeakedDataDocument {
     public String getRecordsCount() { return recordsCount; }
     public void setRecordsCount(String recordsCount) { this.recordsCount = recordsCount; }
 
+    public Date getUploadDateTs() { return uploadDateTs; }
+    public void setUploadDateTs(Date uploadDateTs) { this.uploadDateTs = uploadDateTs; }
+
+    public Long getRecordsCountNum() { return recordsCountNum; }
+    public void setRecordsCountNum(Long recordsCountNum) { this.recordsCountNum = recordsCountNum; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
     public List<String> getIocs() { return iocs; }
     public void setIocs(List<String> iocs) { this.iocs = iocs; }
 
+    public List<String> getIocKeys() { return iocKeys; }
+    public void setIocKeys(List<String> iocKeys) { this.iocKeys = iocKeys; }
+
     public String getPrice() { return price; }
     public void setPrice(String price) { this.price = price; }
 
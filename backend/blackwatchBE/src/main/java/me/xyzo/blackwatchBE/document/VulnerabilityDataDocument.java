@@ -1,9 +1,11 @@
 package me.xyzo.blackwatchBE.document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.util.Date;
 import java.util.List;
 
 @Document(collection = "col_vulnerability")
@@ -29,6 +31,21 @@ public class VulnerabilityDataDocument {
     @Field("cvss")
     private String cvss;  // PDF에서 string으로 정의됨
 
+    // uploadDate / cveIds / cvss 를 정규화한 타입 필드 (인덱스 조회·정렬용, TypedFieldNormalizer 가 채움)
+    @Field("uploadDateTs")
+    private Date uploadDateTs;
+
+    @Field("cveIdList")
+    private List<String> cveIdList;
+
+    @Field("cvssScore")
+    private Double cvssScore;
+
+    // 파생 필드를 뺀 문서 내용의 해시 (상세 / 목록 ETag 에 사용)
+    @JsonIgnore
+    @Field("contentHash")
+    private String contentHash;
+
     @Field("vulnerabilityClass")
     private List<String> vulnerabilityClass;
 
@@ -71,6 +88,18 @@ public class VulnerabilityDataDocument {
     public String getCvss() { return cvss; }
     public void setCvss(String cvss) { this.cvss = cvss; }
 
+    public Date getUploadDateTs() { return uploadDateTs; }
+    public void setUploadDateTs(Date uploadDateTs) { this.uploadDateTs = uploadDateTs; }
+
+    public List<String> getCveIdList() { return cveIdList; }
+    public void setCveIdList(List<String> cveIdList) { this.cveIdList = cveIdList; }
+
+    public Double getCvssScore() { return cvssScore; }
+    public void setCvssScore(Double cvssScore) { this.cvssScore = cvssScore; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
     public List<String> getVulnerabilityClass() { return vulnerabilityClass; }
     public void setVulnerabilityClass(List<String> vulnerabilityClass) { this.vulnerabilityClass = vulnerabilityClass; }
 
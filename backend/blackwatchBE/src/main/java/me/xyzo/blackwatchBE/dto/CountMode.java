@@ -0,0 +1,22 @@
+package me.xyzo.blackwatchBE.dto;
+
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+
+/**
+ * 목록 조회 시 전체 건수 계산 방식.
+ * EXACT: countDocuments 로 정확한 total (기본값)
+ * NONE: count 없이 hasNext 만 제공하는 Slice
+ * APPROX: 필터가 없으면 estimatedDocumentCount, 있으면 주기적으로 갱신되는 캐시된 count
+ */
+public enum CountMode {
+    EXACT, NONE, APPROX;
+
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) return EXACT;
+        try {
+            return CountMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("지원하지 않는 count 모드입니다: " + value);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+/**
+ * /data/stream 구독 필터. null 인 항목은 검사하지 않는다.
+ * leakType 은 유출 데이터에만, vulnerabilityClass / cvssMin 은 취약점 데이터에만 적용된다.
+ */
+public class DataStreamFilterDto {
+    private boolean leaked = true;
+    private boolean vulnerability = true;
+    private List<String> hosts;
+    private List<String> leakTypes;
+    private List<String> vulnerabilityClasses;
+    private Double cvssMin;
+
+    public boolean isLeaked() { return leaked; }
+    public void setLeaked(boolean leaked) { this.leaked = leaked; }
+
+    public boolean isVulnerability() { return vulnerability; }
+    public void setVulnerability(boolean vulnerability) { this.vulnerability = vulnerability; }
+
+    public List<String> getHosts() { return hosts; }
+    public void setHosts(List<String> hosts) { this.hosts = hosts; }
+
+    public List<String> getLeakTypes() { return leakTypes; }
+    public void setLeakTypes(List<String> leakTypes) { this.leakTypes = leakTypes; }
+
+    public List<String> getVulnerabilityClasses() { return vulnerabilityClasses; }
+    public void setVulnerabilityClasses(List<String> vulnerabilityClasses) { this.vulnerabilityClasses = vulnerabilityClasses; }
+
+    public Double getCvssMin() { return cvssMin; }
+    public void setCvssMin(Double cvssMin) { this.cvssMin = cvssMin; }
+}
@@ -0,0 +1,29 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+public class EmailDomainExposureDto {
+    private String domain;
+    private int leakCount;
+    private long emailCount;
+    private List<EmailDomainLeakDto> leaks;
+
+    public EmailDomainExposureDto(String domain, int leakCount, long emailCount, List<EmailDomainLeakDto> leaks) {
+        this.domain = domain;
+        this.leakCount = leakCount;
+        this.emailCount = emailCount;
+        this.leaks = leaks;
+    }
+
+    public String getDomain() { return domain; }
+    public void setDomain(String domain) { this.domain = domain; }
+
+    public int getLeakCount() { return leakCount; }
+    public void setLeakCount(int leakCount) { this.leakCount = leakCount; }
+
+    public long getEmailCount() { return emailCount; }
+    public void setEmailCount(long emailCount) { this.emailCount = emailCount; }
+
+    public List<EmailDomainLeakDto> getLeaks() { return leaks; }
+    public void setLeaks(List<EmailDomainLeakDto> leaks) { this.leaks = leaks; }
+}
@@ -0,0 +1,17 @@
+package me.xyzo.blackwatchBE.dto;
+
+public class EmailDomainLeakDto {
+    private String leakId;
+    private long count;
+
+    public EmailDomainLeakDto(String leakId, long count) {
+        this.leakId = leakId;
+        this.count = count;
+    }
+
+    public String getLeakId() { return leakId; }
+    public void setLeakId(String leakId) { this.leakId = leakId; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
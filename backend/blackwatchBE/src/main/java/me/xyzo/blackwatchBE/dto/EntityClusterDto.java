@@ -0,0 +1,28 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+/**
+ * 같은 IOC 를 재사용한 작성자 묶음 (/data/graph/clusters).
+ * iocs 는 묶음 안의 작성자 둘 이상이 함께 쓴 IOC, documents 는 그 IOC 가 나온 유출 건 수.
+ */
+public class EntityClusterDto {
+    private List<EntityGraphNodeDto> authors;
+    private List<EntityGraphNodeDto> iocs;
+    private int documents;
+
+    public EntityClusterDto(List<EntityGraphNodeDto> authors, List<EntityGraphNodeDto> iocs, int documents) {
+        this.authors = authors;
+        this.iocs = iocs;
+        this.documents = documents;
+    }
+
+    public List<EntityGraphNodeDto> getAuthors() { return authors; }
+    public void setAuthors(List<EntityGraphNodeDto> authors) { this.authors = authors; }
+
+    public List<EntityGraphNodeDto> getIocs() { return iocs; }
+    public void setIocs(List<EntityGraphNodeDto> iocs) { this.iocs = iocs; }
+
+    public int getDocuments() { return documents; }
+    public void setDocuments(int documents) { this.documents = documents; }
+}
@@ -0,0 +1,27 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+/**
+ * /data/graph/neighbors, /data/graph/path 응답. truncated 는 노드 / 방문 한도 때문에 탐색을 중간에 멈췄는지 여부.
+ */
+public class EntityGraphDto {
+    private List<EntityGraphNodeDto> nodes;
+    private List<EntityGraphEdgeDto> edges;
+    private boolean truncated;
+
+    public EntityGraphDto(List<EntityGraphNodeDto> nodes, List<EntityGraphEdgeDto> edges, boolean truncated) {
+        this.nodes = nodes;
+        this.edges = edges;
+        this.truncated = truncated;
+    }
+
+    public List<EntityGraphNodeDto> getNodes() { return nodes; }
+    public void setNodes(List<EntityGraphNodeDto> nodes) { this.nodes = nodes; }
+
+    public List<EntityGraphEdgeDto> getEdges() { return edges; }
+    public void setEdges(List<EntityGraphEdgeDto> edges) { this.edges = edges; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+}
@@ -0,0 +1,33 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+/**
+ * nodes 목록의 두 엔티티(source / target 위치) 가 함께 나오는 관계. documents 는 함께 나오는 문서 수,
+ * documentRefs 는 근거 문서 ("leaked:id" / "vulnerability:id", 경로 조회에서만 채운다).
+ */
+public class EntityGraphEdgeDto {
+    private int source;
+    private int target;
+    private int documents;
+    private List<String> documentRefs;
+
+    public EntityGraphEdgeDto(int source, int target, int documents, List<String> documentRefs) {
+        this.source = source;
+        this.target = target;
+        this.documents = documents;
+        this.documentRefs = documentRefs;
+    }
+
+    public int getSource() { return source; }
+    public void setSource(int source) { this.source = source; }
+
+    public int getTarget() { return target; }
+    public void setTarget(int target) { this.target = target; }
+
+    public int getDocuments() { return documents; }
+    public void setDocuments(int documents) { this.documents = documents; }
+
+    public List<String> getDocumentRefs() { return documentRefs; }
+    public void setDocumentRefs(List<String> documentRefs) { this.documentRefs = documentRefs; }
+}
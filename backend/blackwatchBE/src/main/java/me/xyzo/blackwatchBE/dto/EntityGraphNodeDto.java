@@ -0,0 +1,31 @@
+package me.xyzo.blackwatchBE.dto;
+
+/**
+ * 엔티티 그래프의 엔티티 하나 (type: author, host, ioc, cve).
+ * hops 는 시작 엔티티로부터의 거리, documents 는 엔티티가 나오는 유출 건 / 취약점 수.
+ */
+public class EntityGraphNodeDto {
+    private String type;
+    private String value;
+    private int hops;
+    private int documents;
+
+    public EntityGraphNodeDto(String type, String value, int hops, int documents) {
+        this.type = type;
+        this.value = value;
+        this.hops = hops;
+        this.documents = documents;
+    }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+
+    public int getHops() { return hops; }
+    public void setHops(int hops) { this.hops = hops; }
+
+    public int getDocuments() { return documents; }
+    public void setDocuments(int documents) { this.documents = documents; }
+}
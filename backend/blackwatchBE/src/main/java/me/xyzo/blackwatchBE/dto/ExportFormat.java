@@ -0,0 +1,31 @@
+package me.xyzo.blackwatchBE.dto;
+
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+
+/**
+ * /data/leaked/export, /data/vulnerability/export 응답 형식 (/data/leaked/find/bulk 입력 형식으로도 사용)
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+    public String getExtension() { return extension; }
+
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) return NDJSON;
+        try {
+            return ExportFormat.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("지원하지 않는 export 형식입니다: " + value);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package me.xyzo.blackwatchBE.dto;
+
+/**
+ * 패싯 값 하나와 해당 건수.
+ */
+public class FacetCountDto {
+    private String value;
+    private long count;
+
+    public FacetCountDto(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
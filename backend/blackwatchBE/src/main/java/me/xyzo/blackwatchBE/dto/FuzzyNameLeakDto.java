@@ -0,0 +1,22 @@
+package me.xyzo.blackwatchBE.dto;
+
+public class FuzzyNameLeakDto {
+    private String leakId;
+    private int distance;
+    private String matchType;
+
+    public FuzzyNameLeakDto(String leakId, int distance, String matchType) {
+        this.leakId = leakId;
+        this.distance = distance;
+        this.matchType = matchType;
+    }
+
+    public String getLeakId() { return leakId; }
+    public void setLeakId(String leakId) { this.leakId = leakId; }
+
+    public int getDistance() { return distance; }
+    public void setDistance(int distance) { this.distance = distance; }
+
+    public String getMatchType() { return matchType; }
+    public void setMatchType(String matchType) { this.matchType = matchType; }
+}
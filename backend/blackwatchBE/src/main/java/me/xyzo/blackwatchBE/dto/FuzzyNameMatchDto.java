@@ -0,0 +1,30 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+public class FuzzyNameMatchDto {
+    private String name;
+    private boolean found;
+    private List<FuzzyNameLeakDto> leaks;
+    // 후보 한도에 걸려 leaks 가 전부가 아닐 수 있음
+    private boolean truncated;
+
+    public FuzzyNameMatchDto(String name, boolean found, List<FuzzyNameLeakDto> leaks, boolean truncated) {
+        this.name = name;
+        this.found = found;
+        this.leaks = leaks;
+        this.truncated = truncated;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public boolean isFound() { return found; }
+    public void setFound(boolean found) { this.found = found; }
+
+    public List<FuzzyNameLeakDto> getLeaks() { return leaks; }
+    public void setLeaks(List<FuzzyNameLeakDto> leaks) { this.leaks = leaks; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+}
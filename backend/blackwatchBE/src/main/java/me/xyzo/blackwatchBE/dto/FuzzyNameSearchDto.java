@@ -0,0 +1,14 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+public class FuzzyNameSearchDto {
+    private List<String> names;
+    private Integer maxDistance;
+
+    public List<String> getNames() { return names; }
+    public void setNames(List<String> names) { this.names = names; }
+
+    public Integer getMaxDistance() { return maxDistance; }
+    public void setMaxDistance(Integer maxDistance) { this.maxDistance = maxDistance; }
+}
@@ -0,0 +1,37 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+/**
+ * 입력 IOC 하나의 조회 결과. type / normalized 는 정규화 결과 (ip, domain, url, hash, wallet, other).
+ */
+public class IocMatchDto {
+    private String ioc;
+    private String type;
+    private String normalized;
+    private boolean found;
+    private List<String> leakIds;
+
+    public IocMatchDto(String ioc, String type, String normalized, boolean found, List<String> leakIds) {
+        this.ioc = ioc;
+        this.type = type;
+        this.normalized = normalized;
+        this.found = found;
+        this.leakIds = leakIds;
+    }
+
+    public String getIoc() { return ioc; }
+    public void setIoc(String ioc) { this.ioc = ioc; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getNormalized() { return normalized; }
+    public void setNormalized(String normalized) { this.normalized = normalized; }
+
+    public boolean isFound() { return found; }
+    public void setFound(boolean found) { this.found = found; }
+
+    public List<String> getLeakIds() { return leakIds; }
+    public void setLeakIds(List<String> leakIds) { this.leakIds = leakIds; }
+}
@@ -0,0 +1,17 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+/**
+ * /data/leaked/find/iocs 요청. onlyFound 이면 일치한 IOC 만 응답한다.
+ */
+public class IocSearchDto {
+    private List<String> iocs;
+    private boolean onlyFound;
+
+    public List<String> getIocs() { return iocs; }
+    public void setIocs(List<String> iocs) { this.iocs = iocs; }
+
+    public boolean isOnlyFound() { return onlyFound; }
+    public void setOnlyFound(boolean onlyFound) { this.onlyFound = onlyFound; }
+}
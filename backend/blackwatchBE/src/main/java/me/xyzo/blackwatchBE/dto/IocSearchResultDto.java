@@ -0,0 +1,24 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+
+public class IocSearchResultDto {
+    private List<IocMatchDto> matches;
+    private int checked;
+    private int totalFound;
+
+    public IocSearchResultDto(List<IocMatchDto> matches, int checked, int totalFound) {
+        this.matches = matches;
+        this.checked = checked;
+        this.totalFound = totalFound;
+    }
+
+    public List<IocMatchDto> getMatches() { return matches; }
+    public void setMatches(List<IocMatchDto> matches) { this.matches = matches; }
+
+    public int getChecked() { return checked; }
+    public void setChecked(int checked) { this.checked = checked; }
+
+    public int getTotalFound() { return totalFound; }
+    public void setTotalFound(int totalFound) { this.totalFound = totalFound; }
+}
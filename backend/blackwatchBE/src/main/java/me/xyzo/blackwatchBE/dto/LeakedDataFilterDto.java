@@ -0,0 +1,54 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * /data/leaked 검색 필터. null 인 항목은 쿼리에서 제외된다.
+ */
+public class LeakedDataFilterDto {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<String> hosts;
+    private String pathContains;
+    private String titleContains;
+    private List<String> authors;
+    private Integer recordMin;
+    private Integer recordMax;
+    private String iocContains;
+    private List<String> iocs;
+    private String q;
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public List<String> getHosts() { return hosts; }
+    public void setHosts(List<String> hosts) { this.hosts = hosts; }
+
+    public String getPathContains() { return pathContains; }
+    public void setPathContains(String pathContains) { this.pathContains = pathContains; }
+
+    public String getTitleContains() { return titleContains; }
+    public void setTitleContains(String titleContains) { this.titleContains = titleContains; }
+
+    public List<String> getAuthors() { return authors; }
+    public void setAuthors(List<String> authors) { this.authors = authors; }
+
+    public Integer getRecordMin() { return recordMin; }
+    public void setRecordMin(Integer recordMin) { this.recordMin = recordMin; }
+
+    public Integer getRecordMax() { return recordMax; }
+    public void setRecordMax(Integer recordMax) { this.recordMax = recordMax; }
+
+    public String getIocContains() { return iocContains; }
+    public void setIocContains(String iocContains) { this.iocContains = iocContains; }
+
+    public List<String> getIocs() { return iocs; }
+    public void setIocs(List<String> iocs) { this.iocs = iocs; }
+
+    public String getQ() { return q; }
+    public void setQ(String q) { this.q = q; }
+}
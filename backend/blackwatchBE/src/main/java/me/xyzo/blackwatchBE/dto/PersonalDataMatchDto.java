@@ -5,12 +5,18 @@ import java.util.List;
 public class PersonalDataMatchDto {
     private String email;
     private String name;
+    private String username;
     private boolean found;
     private List<String> leakIds;
 
     public PersonalDataMatchDto(String email, String name, boolean found, List<String> leakIds) {
+        this(email, name, null, found, leakIds);
+    }
+
+    public PersonalDataMatchDto(String email, String name, String username, boolean found, List<String> leakIds) {
         this.email = email;
         this.name = name;
+        this.username = username;
         this.found = found;
         this.leakIds = leakIds;
     }
@@ -21,6 +27,9 @@ public class PersonalDataMatchDto {
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
     public boolean isFound() { return found; }
     public void setFound(boolean found) { this.found = found; }
 
@@ -5,10 +5,14 @@ import java.util.List;
 public class PersonalDataSearchDto {
     private List<String> emails;
     private List<String> names;
+    private List<String> usernames;
 
     public List<String> getEmails() { return emails; }
     public void setEmails(List<String> emails) { this.emails = emails; }
 
     public List<String> getNames() { return names; }
     public void setNames(List<String> names) { this.names = names; }
+
+    public List<String> getUsernames() { return usernames; }
+    public void setUsernames(List<String> usernames) { this.usernames = usernames; }
 }
@@ -0,0 +1,25 @@
+package me.xyzo.blackwatchBE.dto;
+
+/**
+ * /data/stats 집계 한 항목. records 는 유출 데이터의 recordsCount 합계 (취약점은 null).
+ */
+public class StatsBucketDto {
+    private String key;
+    private long count;
+    private Long records;
+
+    public StatsBucketDto(String key, long count, Long records) {
+        this.key = key;
+        this.count = count;
+        this.records = records;
+    }
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public Long getRecords() { return records; }
+    public void setRecords(Long records) { this.records = records; }
+}
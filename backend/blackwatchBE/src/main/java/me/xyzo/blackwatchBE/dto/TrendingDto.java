@@ -0,0 +1,29 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /data/trending 응답. items 는 유형(cve, host, ioc) 별 급상승 순서 목록이고,
+ * warmingUp 이면 평소 빈도(baseline) 가 아직 충분히 쌓이지 않아 spiking 판단이 부정확할 수 있다.
+ */
+public class TrendingDto {
+    private String window;
+    private boolean warmingUp;
+    private Map<String, List<TrendingItemDto>> items;
+
+    public TrendingDto(String window, boolean warmingUp, Map<String, List<TrendingItemDto>> items) {
+        this.window = window;
+        this.warmingUp = warmingUp;
+        this.items = items;
+    }
+
+    public String getWindow() { return window; }
+    public void setWindow(String window) { this.window = window; }
+
+    public boolean isWarmingUp() { return warmingUp; }
+    public void setWarmingUp(boolean warmingUp) { this.warmingUp = warmingUp; }
+
+    public Map<String, List<TrendingItemDto>> getItems() { return items; }
+    public void setItems(Map<String, List<TrendingItemDto>> items) { this.items = items; }
+}
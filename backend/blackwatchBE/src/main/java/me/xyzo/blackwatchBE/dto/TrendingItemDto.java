@@ -0,0 +1,42 @@
+package me.xyzo.blackwatchBE.dto;
+
+/**
+ * 최근 창에서 많이 나온 값 하나 (/data/trending).
+ * count 는 창 안의 언급 수(근사, 실제보다 작지 않음), expected 는 평소(EWMA) 기준 같은 길이 창의 언급 수,
+ * ratio = (count + 1) / (expected + 1), score 는 평소 대비 증가 정도로 정렬 기준이다.
+ */
+public class TrendingItemDto {
+    private String value;
+    private long count;
+    private double expected;
+    private double ratio;
+    private double score;
+    private boolean spiking;
+
+    public TrendingItemDto(String value, long count, double expected, double ratio, double score, boolean spiking) {
+        this.value = value;
+        this.count = count;
+        this.expected = expected;
+        this.ratio = ratio;
+        this.score = score;
+        this.spiking = spiking;
+    }
+
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public double getExpected() { return expected; }
+    public void setExpected(double expected) { this.expected = expected; }
+
+    public double getRatio() { return ratio; }
+    public void setRatio(double ratio) { this.ratio = ratio; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+
+    public boolean isSpiking() { return spiking; }
+    public void setSpiking(boolean spiking) { this.spiking = spiking; }
+}
@@ -0,0 +1,62 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * /data/vulnerability 검색 필터. null 인 항목은 쿼리에서 제외된다.
+ */
+public class VulnerabilityDataFilterDto {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<String> hosts;
+    private String pathContains;
+    private String titleContains;
+    private List<String> authors;
+    private List<String> cves;
+    private Double cvssMin;
+    private Double cvssMax;
+    private List<String> vulnClasses;
+    private List<String> products;
+    private List<String> techniques;
+    private String q;
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public List<String> getHosts() { return hosts; }
+    public void setHosts(List<String> hosts) { this.hosts = hosts; }
+
+    public String getPathContains() { return pathContains; }
+    public void setPathContains(String pathContains) { this.pathContains = pathContains; }
+
+    public String getTitleContains() { return titleContains; }
+    public void setTitleContains(String titleContains) { this.titleContains = titleContains; }
+
+    public List<String> getAuthors() { return authors; }
+    public void setAuthors(List<String> authors) { this.authors = authors; }
+
+    public List<String> getCves() { return cves; }
+    public void setCves(List<String> cves) { this.cves = cves; }
+
+    public Double getCvssMin() { return cvssMin; }
+    public void setCvssMin(Double cvssMin) { this.cvssMin = cvssMin; }
+
+    public Double getCvssMax() { return cvssMax; }
+    public void setCvssMax(Double cvssMax) { this.cvssMax = cvssMax; }
+
+    public List<String> getVulnClasses() { return vulnClasses; }
+    public void setVulnClasses(List<String> vulnClasses) { this.vulnClasses = vulnClasses; }
+
+    public List<String> getProducts() { return products; }
+    public void setProducts(List<String> products) { this.products = products; }
+
+    public List<String> getTechniques() { return techniques; }
+    public void setTechniques(List<String> techniques) { this.techniques = techniques; }
+
+    public String getQ() { return q; }
+    public void setQ(String q) { this.q = q; }
+}
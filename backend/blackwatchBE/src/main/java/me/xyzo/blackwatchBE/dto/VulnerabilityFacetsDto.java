@@ -0,0 +1,24 @@
+package me.xyzo.blackwatchBE.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /data/vulnerability/facets 응답. total 은 필터 전체에 일치하는 건수이고,
+ * 각 패싯의 건수는 그 패싯 자신의 조건만 빼고 계산한다 (선택한 값 외의 다른 값 건수도 보이도록).
+ */
+public class VulnerabilityFacetsDto {
+    private long total;
+    private Map<String, List<FacetCountDto>> facets;
+
+    public VulnerabilityFacetsDto(long total, Map<String, List<FacetCountDto>> facets) {
+        this.total = total;
+        this.facets = facets;
+    }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Map<String, List<FacetCountDto>> getFacets() { return facets; }
+    public void setFacets(Map<String, List<FacetCountDto>> facets) { this.facets = facets; }
+}
@@ -0,0 +1,70 @@
+package me.xyzo.blackwatchBE.event;
+
+import org.bson.Document;
+
+import java.util.Set;
+
+/**
+ * col_leaked / col_vulnerability 변경 이벤트 (MongoDB change stream 에서 변환)
+ */
+public class DataChangeEvent {
+
+    public enum Operation { INSERT, UPDATE, REPLACE, DELETE }
+
+    public static final String LEAKED_COLLECTION = "col_leaked";
+    public static final String VULNERABILITY_COLLECTION = "col_vulnerability";
+
+    private final String collection;
+    private final Operation operation;
+    private final String documentId;
+    private final Document fullDocument;
+    private final Set<String> updatedFields;
+
+    public DataChangeEvent(String collection, Operation operation, String documentId,
+                           Document fullDocument, Set<String> updatedFields) {
+        this.collection = collection;
+        this.operation = operation;
+        this.documentId = documentId;
+        this.fullDocument = fullDocument;
+        this.updatedFields = updatedFields;
+    }
+
+    public String getCollection() { return collection; }
+    public Operation getOperation() { return operation; }
+    public String getDocumentId() { return documentId; }
+
+    // update 의 경우 변경 직후 조회한 문서 (그 사이 삭제되었으면 null)
+    public Document getFullDocument() { return fullDocument; }
+
+    // update 에서 변경/삭제된 필드 경로 (insert / replace / delete 는 빈 집합)
+    public Set<String> getUpdatedFields() { return updatedFields; }
+
+    public boolean isLeaked() {
+        return LEAKED_COLLECTION.equals(collection);
+    }
+
+    public boolean isVulnerability() {
+        return VULNERABILITY_COLLECTION.equals(collection);
+    }
+
+    /**
+     * 이 이벤트가 field (또는 그 하위 필드) 를 바꿨을 수 있는지 여부.
+     * insert / replace / delete 는 문서 전체가 바뀐 것으로 본다.
+     */
+    public boolean touches(String field) {
+        if (operation != Operation.UPDATE) return true;
+        for (String updated : updatedFields) {
+            if (updated.equals(field) || updated.startsWith(field + ".") || field.startsWith(updated + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 변경 필드가 모두 주어진 필드 중 하나인 update 인지 여부 (백필 등 파생 필드만 바뀐 경우)
+     */
+    public boolean onlyTouches(Set<String> fields) {
+        return operation == Operation.UPDATE && !updatedFields.isEmpty() && fields.containsAll(updatedFields);
+    }
+}
@@ -0,0 +1,10 @@
+package me.xyzo.blackwatchBE.event;
+
+/**
+ * DataChangeStreamService 가 col_leaked / col_vulnerability 변경을 전달하는 대상.
+ * change stream 스레드에서 순서대로 호출되므로 오래 걸리는 작업은 별도 스레드로 넘겨야 한다.
+ */
+public interface DataChangeListener {
+
+    void onDataChange(DataChangeEvent event);
+}
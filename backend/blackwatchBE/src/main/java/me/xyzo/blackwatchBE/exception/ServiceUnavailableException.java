@@ -0,0 +1,7 @@
+package me.xyzo.blackwatchBE.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
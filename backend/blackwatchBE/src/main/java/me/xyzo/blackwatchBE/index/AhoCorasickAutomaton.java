@@ -0,0 +1,411 @@
+package me.xyzo.blackwatchBE.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 다중 키워드 바이트 스캐너 (Aho-Corasick).
+ *
+ * 키워드를 UTF-8 바이트 트라이로 만든 뒤 실패 링크를 모두 풀어 완전한 DFA 전이표(int 배열 하나)로 만든다.
+ * 바이트는 키워드에 나오는 값만 클래스로 압축하고, ASCII 대문자는 소문자와 같은 클래스로 두어
+ * 대소문자를 따로 비교하지 않는다. 본문 한 바이트당 배열 조회 한 번과 비교 한 번이면 되고,
+ * 출력이 있는 상태를 번호 뒤쪽에 모아 두어 일치 여부도 상태 번호 비교로 끝난다.
+ *
+ * 일치는 앞뒤 바이트가 영숫자 / '-' / '_' 가 아닐 때만 인정한다 (1.1.1.1 이 11.1.1.15 안에서 잡히지 않도록).
+ * 생성 후에는 바뀌지 않으며, 키워드가 바뀌면 새로 만들어 교체한다.
+ *
+ * 전이표는 상태 수 x 클래스 수 크기이고 생성 중에는 두 벌이 동시에 있으므로, 할당 전에 정렬한 키워드의
+ * 공통 접두사로 실제 트라이 상태 수를 세어 maxTableBytes 를 넘으면 IllegalArgumentException 으로 거절한다.
+ */
+public final class AhoCorasickAutomaton {
+
+    public static final AhoCorasickAutomaton EMPTY = build(List.of());
+
+    private static final boolean[] WORD = new boolean[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            WORD[b] = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '-' || b == '_';
+        }
+    }
+
+    private final int classCount;
+    private final int[] classes;        // 바이트 → 클래스 (0 은 키워드에 없는 바이트)
+    private final int[] delta;          // 상태 * classCount + 클래스 → 다음 상태 * classCount
+    private final int firstOutput;      // 이 값 이상인 (곱해진) 상태 번호는 출력이 있다
+    private final int[] keywordAt;      // 상태 → 여기서 끝나는 키워드 (-1 없음)
+    private final int[] nextOutput;     // 상태 → 실패 링크를 따라 다음 출력 상태 (-1 없음)
+
+    private final String[] texts;
+    private final String[] tags;
+    private final int[] lengths;        // 키워드 UTF-8 바이트 길이
+    private final int[] refOffsets;     // 키워드 → refs 구간 (CSR)
+    private final String[] refs;
+    private final int maxLength;
+
+    private AhoCorasickAutomaton(int classCount, int[] classes, int[] delta, int firstOutput, int[] keywordAt,
+                                 int[] nextOutput, String[] texts, String[] tags, int[] lengths, int[] refOffsets,
+                                 String[] refs, int maxLength) {
+        this.classCount = classCount;
+        this.classes = classes;
+        this.delta = delta;
+        this.firstOutput = firstOutput;
+        this.keywordAt = keywordAt;
+        this.nextOutput = nextOutput;
+        this.texts = texts;
+        this.tags = tags;
+        this.lengths = lengths;
+        this.refOffsets = refOffsets;
+        this.refs = refs;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * 키워드 하나. text 는 소문자로 정규화된 값, tag 는 호출 측 분류(IOC 유형 등), refs 는 연결된 문서 id.
+     */
+    public record Keyword(String text, String tag, Collection<String> refs) {}
+
+    /**
+     * 본문에서 찾은 키워드 하나. 반환값이 false 면 스캔을 멈춘다.
+     */
+    @FunctionalInterface
+    public interface HitListener {
+        boolean onHit(long offset, int keyword);
+    }
+
+    public static AhoCorasickAutomaton build(Collection<Keyword> keywords) {
+        return build(keywords, Long.MAX_VALUE);
+    }
+
+    /**
+     * 같은 text 의 키워드는 하나로 합치고 refs 를 모은다 (tag 는 먼저 나온 값).
+     * 생성 중 전이표 크기(두 벌)가 maxTableBytes 를 넘으면 할당하지 않고 IllegalArgumentException.
+     */
+    public static AhoCorasickAutomaton build(Collection<Keyword> keywords, long maxTableBytes) {
+        Map<String, Merged> merged = new LinkedHashMap<>();
+        for (Keyword keyword : keywords) {
+            if (keyword.text() == null || keyword.text().isEmpty()) continue;
+            Merged entry = merged.computeIfAbsent(keyword.text(), k -> new Merged(keyword.tag()));
+            if (keyword.refs() != null) entry.refs.addAll(keyword.refs());
+        }
+
+        int count = merged.size();
+        String[] texts = new String[count];
+        String[] tags = new String[count];
+        byte[][] bytes = new byte[count][];
+        int[] lengths = new int[count];
+        int[] refOffsets = new int[count + 1];
+        List<String> refs = new ArrayList<>();
+        int maxLength = 0;
+        int k = 0;
+        for (Map.Entry<String, Merged> entry : merged.entrySet()) {
+            texts[k] = entry.getKey();
+            tags[k] = entry.getValue().tag;
+            bytes[k] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            lengths[k] = bytes[k].length;
+            refs.addAll(entry.getValue().refs);
+            refOffsets[k + 1] = refs.size();
+            maxLength = Math.max(maxLength, lengths[k]);
+            k++;
+        }
+
+        // 바이트 클래스 압축 (대문자는 소문자 클래스와 공유)
+        int[] classes = new int[256];
+        int classCount = 1;
+        for (byte[] keyword : bytes) {
+            for (byte b : keyword) {
+                int folded = fold(b & 0xff);
+                if (classes[folded] == 0) classes[folded] = classCount++;
+            }
+        }
+        for (int b = 'A'; b <= 'Z'; b++) {
+            classes[b] = classes[b + ('a' - 'A')];
+        }
+
+        long states = countStates(bytes);
+        long tableBytes = 2 * states * classCount * Integer.BYTES;
+        if (states * classCount > Integer.MAX_VALUE - 8 || tableBytes > maxTableBytes) {
+            throw new IllegalArgumentException("키워드가 너무 많습니다: " + count + "개, " + states + " states x "
+                    + classCount + " classes (" + (tableBytes >> 20) + "MB, 한도 " + (maxTableBytes >> 20) + "MB)");
+        }
+
+        // 1. 트라이 (-1 은 아직 전이 없음)
+        int[] trie = new int[(int) states * classCount];
+        Arrays.fill(trie, -1);
+        int[] terminal = new int[(int) states];
+        Arrays.fill(terminal, -1);
+        int used = 1;
+        for (int i = 0; i < count; i++) {
+            int state = 0;
+            for (byte b : bytes[i]) {
+                int slot = state * classCount + classes[b & 0xff];
+                if (trie[slot] < 0) trie[slot] = used++;
+                state = trie[slot];
+            }
+            terminal[state] = i;
+        }
+
+        // 2. BFS 로 실패 링크를 계산하며 빈 전이를 실패 상태의 전이로 채운다 (DFA)
+        int[] fail = new int[used];
+        int[] dictLink = new int[used];
+        Arrays.fill(dictLink, -1);
+        int[] queue = new int[used];
+        int head = 0;
+        int tail = 0;
+        for (int c = 0; c < classCount; c++) {
+            int child = trie[c];
+            if (child < 0) {
+                trie[c] = 0;
+            } else {
+                fail[child] = 0;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            int failBase = fail[state] * classCount;
+            for (int c = 0; c < classCount; c++) {
+                int slot = state * classCount + c;
+                int child = trie[slot];
+                if (child < 0) {
+                    trie[slot] = trie[failBase + c];
+                } else {
+                    int childFail = trie[failBase + c];
+                    fail[child] = childFail;
+                    dictLink[child] = terminal[childFail] >= 0 ? childFail : dictLink[childFail];
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        // 3. 출력이 없는 상태를 앞(루트 = 0), 있는 상태를 뒤로 재배치
+        int[] renumbered = new int[used];
+        int next = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int state = 0; state < used; state++) {
+                boolean output = terminal[state] >= 0 || dictLink[state] >= 0;
+                if (output == (pass == 1)) renumbered[state] = next++;
+            }
+        }
+        int firstOutputState = used;
+        for (int state = 0; state < used; state++) {
+            if (terminal[state] >= 0 || dictLink[state] >= 0) {
+                firstOutputState = Math.min(firstOutputState, renumbered[state]);
+            }
+        }
+
+        int[] delta = new int[used * classCount];
+        int[] keywordAt = new int[used];
+        int[] nextOutput = new int[used];
+        for (int state = 0; state < used; state++) {
+            int target = renumbered[state];
+            for (int c = 0; c < classCount; c++) {
+                delta[target * classCount + c] = renumbered[trie[state * classCount + c]] * classCount;
+            }
+            keywordAt[target] = terminal[state];
+            nextOutput[target] = dictLink[state] >= 0 ? renumbered[dictLink[state]] : -1;
+        }
+
+        return new AhoCorasickAutomaton(classCount, classes, delta, firstOutputState * classCount, keywordAt,
+                nextOutput, texts, tags, lengths, refOffsets, refs.toArray(new String[0]), maxLength);
+    }
+
+    public int keywordCount() {
+        return texts.length;
+    }
+
+    public int stateCount() {
+        return keywordAt.length;
+    }
+
+    public String text(int keyword) {
+        return texts[keyword];
+    }
+
+    public String tag(int keyword) {
+        return tags[keyword];
+    }
+
+    public int length(int keyword) {
+        return lengths[keyword];
+    }
+
+    public List<String> refs(int keyword) {
+        return Arrays.asList(refs).subList(refOffsets[keyword], refOffsets[keyword + 1]);
+    }
+
+    /**
+     * text 와 정확히 같은 키워드 번호 (-1 없음). 트라이 경로를 따라가 끝 상태의 키워드를 확인한다.
+     */
+    public int indexOf(String text) {
+        if (text == null || text.isEmpty()) return -1;
+        int state = 0;
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+            state = delta[state + classes[b & 0xff]];
+        }
+        int keyword = keywordAt[state / classCount];
+        return keyword >= 0 && texts[keyword].equals(text) ? keyword : -1;
+    }
+
+    public long memoryBytes() {
+        long bytes = (long) delta.length * Integer.BYTES
+                + (long) (keywordAt.length + nextOutput.length) * Integer.BYTES
+                + (long) (lengths.length + refOffsets.length) * Integer.BYTES
+                + (long) refs.length * 8;
+        for (String text : texts) {
+            bytes += 40L + text.length();
+        }
+        return bytes;
+    }
+
+    public Scanner scanner() {
+        return new Scanner();
+    }
+
+    /**
+     * 스트림 하나의 스캔 상태. 청크 경계에 걸친 키워드도 찾도록 상태와 직전 바이트를 이어간다.
+     * 스레드 하나에서만 사용한다.
+     */
+    public final class Scanner {
+
+        private int state;
+        private long position;                          // 지금까지 읽은 바이트 수
+        private final byte[] tail = new byte[maxLength + 1];
+        private int tailLength;
+        private final List<long[]> pending = new ArrayList<>();  // 뒤 경계를 아직 모르는 일치 {시작, 키워드}
+        private boolean stopped;
+
+        public long position() {
+            return position;
+        }
+
+        /**
+         * data[offset, offset + length) 를 이어서 스캔한다. listener 가 멈추면 false.
+         */
+        public boolean feed(byte[] data, int offset, int length, HitListener listener) {
+            if (stopped) return false;
+            if (length <= 0) return true;
+            if (!pending.isEmpty() && !flushPending(WORD[data[offset] & 0xff], listener)) return false;
+
+            final int[] delta = AhoCorasickAutomaton.this.delta;
+            final int[] classes = AhoCorasickAutomaton.this.classes;
+            final int firstOutput = AhoCorasickAutomaton.this.firstOutput;
+            final int end = offset + length;
+            final long base = position - offset;       // data[i] 의 절대 위치 = base + i
+            int s = state;
+
+            for (int i = offset; i < end; i++) {
+                s = delta[s + classes[data[i] & 0xff]];
+                if (s >= firstOutput && !emit(s / classCount, data, offset, end, base, i, listener)) {
+                    state = s;
+                    advance(data, offset, length);
+                    stopped = true;
+                    return false;
+                }
+            }
+            state = s;
+            advance(data, offset, length);
+            return true;
+        }
+
+        /**
+         * 입력 끝. 마지막 바이트에서 끝난 일치를 내보낸다.
+         */
+        public boolean finish(HitListener listener) {
+            if (stopped) return false;
+            return flushPending(false, listener);
+        }
+
+        // i 에서 끝나는 모든 키워드 (실패 링크 체인) 중 앞뒤 경계가 맞는 것만 알린다
+        private boolean emit(int output, byte[] data, int offset, int end, long base, int i, HitListener listener) {
+            for (int s = output; s >= 0; s = nextOutput[s]) {
+                int keyword = keywordAt[s];
+                if (keyword < 0) continue;
+                long start = base + i + 1 - lengths[keyword];
+                if (start > 0 && WORD[byteAt(start - 1, data, offset, base)]) continue;
+                if (i + 1 == end) {
+                    pending.add(new long[]{start, keyword});
+                } else if (!WORD[data[i + 1] & 0xff] && !listener.onHit(start, keyword)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean flushPending(boolean nextIsWord, HitListener listener) {
+            List<long[]> hits = new ArrayList<>(pending);
+            pending.clear();
+            if (nextIsWord) return true;
+            for (long[] hit : hits) {
+                if (!listener.onHit(hit[0], (int) hit[1])) {
+                    stopped = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int byteAt(long absolute, byte[] data, int offset, long base) {
+            long index = absolute - base;
+            if (index >= offset) return data[(int) index] & 0xff;
+            // 이전 청크 (tail 의 마지막 바이트가 position - 1)
+            return tail[tailLength - (int) (position - absolute)] & 0xff;
+        }
+
+        // 다음 청크의 앞 경계 확인용으로 마지막 maxLength + 1 바이트를 남긴다
+        private void advance(byte[] data, int offset, int length) {
+            int keep = tail.length;
+            if (length >= keep) {
+                System.arraycopy(data, offset + length - keep, tail, 0, keep);
+                tailLength = keep;
+            } else {
+                int fromTail = Math.min(tailLength, keep - length);
+                System.arraycopy(tail, tailLength - fromTail, tail, 0, fromTail);
+                System.arraycopy(data, offset, tail, fromTail, length);
+                tailLength = fromTail + length;
+            }
+            position += length;
+        }
+    }
+
+    // 대소문자를 접은 키워드를 정렬해 이웃과의 공통 접두사를 빼면 트라이 상태 수(루트 포함)가 된다
+    private static long countStates(byte[][] keywords) {
+        byte[][] folded = new byte[keywords.length][];
+        for (int i = 0; i < keywords.length; i++) {
+            folded[i] = new byte[keywords[i].length];
+            for (int j = 0; j < keywords[i].length; j++) {
+                folded[i][j] = (byte) fold(keywords[i][j] & 0xff);
+            }
+        }
+        Arrays.sort(folded, Arrays::compareUnsigned);
+
+        long states = 1;
+        byte[] previous = new byte[0];
+        for (byte[] keyword : folded) {
+            int common = Arrays.mismatch(previous, keyword);
+            states += common < 0 ? 0 : keyword.length - common;
+            previous = keyword;
+        }
+        return states;
+    }
+
+    private static int fold(int b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+
+    private static final class Merged {
+        private final String tag;
+        private final Set<String> refs = new LinkedHashSet<>();
+
+        Merged(String tag) {
+            this.tag = tag;
+        }
+    }
+}
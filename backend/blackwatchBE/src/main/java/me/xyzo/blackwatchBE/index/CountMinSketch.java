@@ -0,0 +1,100 @@
+package me.xyzo.blackwatchBE.index;
+
+import java.util.Arrays;
+
+/**
+ * 고정 크기 Count-Min sketch (depth 행 x width 열 카운터).
+ *
+ * 값마다 행별로 한 칸씩 (ScalableBloomFilter 와 같은 MurmurHash3 + Kirsch-Mitzenmacher) 더하고,
+ * 추정치는 그 칸들의 최솟값이다. 실제 빈도보다 작게 나오지 않으며, 초과분은 전체 합의 약 e / width 이하다.
+ * 같은 크기의 sketch 끼리는 칸 단위로 빼거나 더할 수 있어 시간 구간별 sketch 를 합쳐 창(window)을 만든다.
+ * 값 하나의 칸 위치는 cells() 로 한 번 계산해 여러 sketch 에 재사용한다. 동기화는 호출하는 쪽에서 한다.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int[] counters;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) throw new IllegalArgumentException("depth and width must be positive");
+        this.depth = depth;
+        this.width = width;
+        this.counters = new int[depth * width];
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    /**
+     * key 가 행마다 차지하는 칸 (counters 배열 위치)
+     */
+    public int[] cells(String key) {
+        long[] hash = ScalableBloomFilter.hash(key);
+        int[] cells = new int[depth];
+        long combined = hash[0];
+        for (int row = 0; row < depth; row++) {
+            cells[row] = row * width + (int) ((combined & Long.MAX_VALUE) % width);
+            combined += hash[1];
+        }
+        return cells;
+    }
+
+    public void add(int[] cells, int count) {
+        for (int cell : cells) {
+            counters[cell] += count;
+        }
+    }
+
+    public long estimate(int[] cells) {
+        long estimate = Long.MAX_VALUE;
+        for (int cell : cells) {
+            estimate = Math.min(estimate, counters[cell]);
+        }
+        return estimate;
+    }
+
+    // other 의 카운터를 그대로 뺀다 (other 가 이 sketch 에 더해졌던 경우에만 의미가 있다)
+    public void subtract(CountMinSketch other) {
+        requireSameShape(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+    }
+
+    /**
+     * baseline 의 각 칸을 이 sketch 의 같은 칸 값 쪽으로 지수 이동 평균한다 (baseline = (1 - alpha) * baseline + alpha * count).
+     */
+    public void blendInto(double[] baseline, double alpha) {
+        if (baseline.length != counters.length) throw new IllegalArgumentException("baseline shape mismatch");
+        for (int i = 0; i < counters.length; i++) {
+            baseline[i] += alpha * (counters[i] - baseline[i]);
+        }
+    }
+
+    // cells 칸 위치로 읽은 baseline 추정치 (최솟값)
+    public static double estimate(double[] baseline, int[] cells) {
+        double estimate = Double.MAX_VALUE;
+        for (int cell : cells) {
+            estimate = Math.min(estimate, baseline[cell]);
+        }
+        return estimate;
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    public long memoryBytes() {
+        return (long) counters.length * Integer.BYTES;
+    }
+
+    private void requireSameShape(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) throw new IllegalArgumentException("sketch shape mismatch");
+    }
+}
@@ -0,0 +1,542 @@
+package me.xyzo.blackwatchBE.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 작성자 / 호스트 / IOC / CVE 엔티티와 이들이 함께 나오는 문서(유출 건, 취약점)의 이분 그래프.
+ *
+ * 엔티티와 문서에는 int 번호를 붙이고, 엔티티 → 문서 번호 배열과 문서 → 엔티티 번호 배열을 양방향으로 둔다.
+ * 두 엔티티가 한 문서에 함께 나오면 이웃이며, 탐색은 엔티티 → 문서 → 엔티티 순서로 한 hop 씩 진행한다.
+ * 문서는 통째로 바꾸거나(put) 지우며(remove), 더 이상 문서가 없는 엔티티 번호는 다음 재구축 때 정리된다.
+ */
+public final class EntityGraph {
+
+    public static final String TYPE_AUTHOR = "author";
+    public static final String TYPE_HOST = "host";
+    public static final String TYPE_IOC = "ioc";
+    public static final String TYPE_CVE = "cve";
+
+    public static final List<String> TYPES = List.of(TYPE_AUTHOR, TYPE_HOST, TYPE_IOC, TYPE_CVE);
+
+    private static final int AUTHOR = TYPES.indexOf(TYPE_AUTHOR);
+    private static final int IOC = TYPES.indexOf(TYPE_IOC);
+    private static final int[] EMPTY = new int[0];
+    private static final long ROOT = -1L;
+
+    // 엔티티: "type:value" → 번호, 번호 → 유형 / 값 / 문서 번호 배열 (앞 degree 개만 유효)
+    private final Map<String, Integer> entityIds = new HashMap<>();
+    private byte[] entityTypes = new byte[1024];
+    private String[] entityValues = new String[1024];
+    private int[][] adjacency = new int[1024][];
+    private int[] degrees = new int[1024];
+    private int entityCount;
+
+    // 문서: "source:id" → 번호, 번호 → 키 / 엔티티 번호 배열. 지운 번호는 재사용한다
+    private final Map<String, Integer> documentIds = new HashMap<>();
+    private String[] documentKeys = new String[1024];
+    private int[][] documentEntities = new int[1024][];
+    private int[] freeDocuments = new int[64];
+    private int freeCount;
+    private int documentSlots;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 탐색 결과의 엔티티. hops 는 시작 엔티티로부터의 거리, documents 는 엔티티가 나오는 문서 수.
+     */
+    public record Node(String type, String value, int hops, int documents) {}
+
+    /**
+     * nodes 목록 안의 두 엔티티(위치) 를 잇는 관계. documents 는 함께 나오는 문서 수,
+     * documentKeys 는 근거 문서 ("source:id", 최단 경로에서만 채운다).
+     */
+    public record Edge(int source, int target, int documents, List<String> documentKeys) {}
+
+    public record Neighborhood(List<Node> nodes, List<Edge> edges, boolean truncated) {}
+
+    /**
+     * 최단 경로. 찾지 못했으면 nodes 가 비어 있고, truncated 는 방문 한도 때문에 멈췄는지 여부.
+     */
+    public record Path(List<Node> nodes, List<Edge> edges, boolean truncated) {}
+
+    /**
+     * 같은 IOC 를 쓴 작성자 묶음. iocs 는 묶음 안의 작성자 둘 이상이 함께 쓴 IOC, documents 는 그 IOC 가 나온 문서 수.
+     */
+    public record Cluster(List<Node> authors, List<Node> iocs, int documents) {}
+
+    public static String documentKey(String source, String id) {
+        return source + ":" + id;
+    }
+
+    /**
+     * 문서 하나의 엔티티를 entities(유형 → 값 목록) 로 바꾼다 (없으면 추가).
+     */
+    public void put(String documentKey, Map<String, ? extends Collection<String>> entities) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = documentIds.get(documentKey);
+            int document;
+            if (existing != null) {
+                document = existing;
+                detach(document);
+            } else {
+                document = allocateDocument(documentKey);
+            }
+
+            Set<Integer> linked = new LinkedHashSet<>();
+            for (Map.Entry<String, ? extends Collection<String>> entry : entities.entrySet()) {
+                int type = TYPES.indexOf(entry.getKey());
+                if (type < 0) continue;
+                for (String value : entry.getValue()) {
+                    if (value != null && !value.isEmpty()) linked.add(entity(type, value));
+                }
+            }
+            int[] linkedArray = linked.stream().mapToInt(Integer::intValue).toArray();
+            documentEntities[document] = linkedArray;
+            for (int entity : linkedArray) {
+                attach(entity, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String documentKey) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documentIds.remove(documentKey);
+            if (document == null) return;
+            detach(document);
+            documentEntities[document] = null;
+            documentKeys[document] = null;
+            if (freeCount == freeDocuments.length) freeDocuments = Arrays.copyOf(freeDocuments, freeCount * 2);
+            freeDocuments[freeCount++] = document;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int entityCount() {
+        lock.readLock().lock();
+        try {
+            return entityCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documentIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 문서와 엔티티 사이의 연결 수
+    public long edgeCount() {
+        lock.readLock().lock();
+        try {
+            long edges = 0;
+            for (int entity = 0; entity < entityCount; entity++) {
+                edges += degrees[entity];
+            }
+            return edges;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 대략적인 힙 사용량 (배열 + 키 맵)
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) entityTypes.length * (1 + 8 + 8 + 4) + (long) documentKeys.length * (8 + 8);
+            for (int entity = 0; entity < entityCount; entity++) {
+                bytes += 16 + (long) adjacency[entity].length * 4 + 48 + entityValues[entity].length() * 2L + 64;
+            }
+            for (int document = 0; document < documentSlots; document++) {
+                int[] linked = documentEntities[document];
+                if (linked != null) bytes += 16 + (long) linked.length * 4 + 48 + documentKeys[document].length() * 2L + 64;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 시작 엔티티에서 hops 이내의 엔티티와 그 사이 관계. 엔티티가 maxNodes 개를 넘으면 거기서 멈춘다.
+     * 시작 엔티티가 없으면 null.
+     */
+    public Neighborhood neighborhood(String type, String value, int hops, int maxNodes) {
+        lock.readLock().lock();
+        try {
+            int start = find(type, value);
+            if (start < 0) return null;
+
+            Map<Integer, Integer> positions = new LinkedHashMap<>();
+            List<Integer> order = new ArrayList<>();
+            List<Integer> distances = new ArrayList<>();
+            positions.put(start, 0);
+            order.add(start);
+            distances.add(0);
+
+            Map<Long, Integer> edgeWeights = new LinkedHashMap<>();
+            boolean truncated = false;
+            // 한 번에 한 hop 씩 넓히며, 이미 펼친 엔티티로 돌아가는 관계는 펼칠 때 한 번만 센다
+            for (int next = 0; next < order.size(); next++) {
+                int from = order.get(next);
+                int distance = distances.get(next);
+                if (distance >= hops) break;
+
+                int[] documents = adjacency[from];
+                for (int i = 0; i < degrees[from]; i++) {
+                    for (int to : documentEntities[documents[i]]) {
+                        if (to == from) continue;
+                        Integer position = positions.get(to);
+                        if (position == null) {
+                            if (order.size() >= maxNodes) {
+                                truncated = true;
+                                continue;
+                            }
+                            position = order.size();
+                            positions.put(to, position);
+                            order.add(to);
+                            distances.add(distance + 1);
+                        } else if (position < next) {
+                            continue;
+                        }
+                        edgeWeights.merge(((long) next << 32) | position, 1, Integer::sum);
+                    }
+                }
+            }
+
+            List<Node> nodes = new ArrayList<>(order.size());
+            for (int i = 0; i < order.size(); i++) {
+                nodes.add(node(order.get(i), distances.get(i)));
+            }
+            List<Edge> edges = new ArrayList<>(edgeWeights.size());
+            edgeWeights.forEach((key, weight) -> edges.add(new Edge((int) (key >>> 32), (int) (long) key, weight, null)));
+            return new Neighborhood(nodes, edges, truncated);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 두 엔티티 사이의 최단 경로 (양쪽에서 번갈아 가며 더 작은 쪽을 넓히는 양방향 BFS).
+     * 두 엔티티 중 하나라도 없으면 null.
+     */
+    public Path shortestPath(String fromType, String fromValue, String toType, String toValue, int maxHops, int maxVisited) {
+        lock.readLock().lock();
+        try {
+            int from = find(fromType, fromValue);
+            int to = find(toType, toValue);
+            if (from < 0 || to < 0) return null;
+            if (from == to) return new Path(List.of(node(from, 0)), List.of(), false);
+
+            // 엔티티 → (앞 엔티티 << 32 | 거쳐 온 문서)
+            Map<Integer, Long> forward = new HashMap<>();
+            Map<Integer, Long> backward = new HashMap<>();
+            forward.put(from, ROOT);
+            backward.put(to, ROOT);
+            List<Integer> forwardFrontier = List.of(from);
+            List<Integer> backwardFrontier = List.of(to);
+
+            for (int hop = 0; hop < maxHops; hop++) {
+                boolean expandForward = frontierCost(forwardFrontier) <= frontierCost(backwardFrontier);
+                Map<Integer, Long> visited = expandForward ? forward : backward;
+                Map<Integer, Long> other = expandForward ? backward : forward;
+                List<Integer> frontier = expandForward ? forwardFrontier : backwardFrontier;
+
+                List<Integer> nextFrontier = new ArrayList<>();
+                for (int entity : frontier) {
+                    int[] documents = adjacency[entity];
+                    for (int i = 0; i < degrees[entity]; i++) {
+                        int document = documents[i];
+                        for (int neighbor : documentEntities[document]) {
+                            if (visited.containsKey(neighbor)) continue;
+                            visited.put(neighbor, ((long) entity << 32) | document);
+                            if (other.containsKey(neighbor)) {
+                                return buildPath(neighbor, forward, backward);
+                            }
+                            nextFrontier.add(neighbor);
+                        }
+                    }
+                    if (forward.size() + backward.size() > maxVisited) {
+                        return new Path(List.of(), List.of(), true);
+                    }
+                }
+                if (nextFrontier.isEmpty()) break;
+                if (expandForward) forwardFrontier = nextFrontier;
+                else backwardFrontier = nextFrontier;
+            }
+            return new Path(List.of(), List.of(), false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * IOC 를 함께 쓴 작성자를 연결 요소로 묶는다. 작성자가 maxAuthorsPerIoc 명을 넘는 IOC(공용 인프라 등)는 연결에 쓰지 않는다.
+     * seedType / seedValue 가 있으면 그 작성자(또는 IOC) 가 속한 묶음만, 없으면 작성자가 많은 순서로 limit 개.
+     */
+    public List<Cluster> iocClusters(String seedType, String seedValue, int maxAuthorsPerIoc, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] parents = new int[entityCount];
+            Arrays.fill(parents, -1);
+            // 연결에 쓴 IOC → 그 IOC 를 쓴 작성자 중 하나
+            Map<Integer, Integer> sharedIocs = new LinkedHashMap<>();
+
+            for (int ioc = 0; ioc < entityCount; ioc++) {
+                if (entityTypes[ioc] != IOC || degrees[ioc] < 2) continue;
+                Set<Integer> authors = authorsOf(ioc, maxAuthorsPerIoc + 1);
+                if (authors.size() < 2 || authors.size() > maxAuthorsPerIoc) continue;
+
+                int first = authors.iterator().next();
+                for (int author : authors) {
+                    union(parents, first, author);
+                }
+                sharedIocs.put(ioc, first);
+            }
+
+            // 시작 엔티티가 없으면 -1 (모든 묶음)
+            int seedRoot = -1;
+            if (seedType != null) {
+                int seed = find(seedType, seedValue);
+                if (seed < 0) return List.of();
+                if (entityTypes[seed] == AUTHOR) {
+                    seedRoot = root(parents, seed);
+                } else if (sharedIocs.containsKey(seed)) {
+                    seedRoot = root(parents, sharedIocs.get(seed));
+                } else {
+                    return List.of();
+                }
+            }
+
+            Map<Integer, List<Integer>> authorsByRoot = new HashMap<>();
+            for (int author = 0; author < entityCount; author++) {
+                if (entityTypes[author] != AUTHOR || degrees[author] == 0) continue;
+                int root = root(parents, author);
+                if (seedRoot >= 0 && root != seedRoot) continue;
+                authorsByRoot.computeIfAbsent(root, ignored -> new ArrayList<>()).add(author);
+            }
+            Map<Integer, List<Integer>> iocsByRoot = new HashMap<>();
+            for (Map.Entry<Integer, Integer> shared : sharedIocs.entrySet()) {
+                int root = root(parents, shared.getValue());
+                if (seedRoot < 0 || root == seedRoot) {
+                    iocsByRoot.computeIfAbsent(root, ignored -> new ArrayList<>()).add(shared.getKey());
+                }
+            }
+
+            List<Cluster> clusters = new ArrayList<>();
+            for (Map.Entry<Integer, List<Integer>> entry : iocsByRoot.entrySet()) {
+                List<Integer> authors = authorsByRoot.getOrDefault(entry.getKey(), List.of());
+                List<Integer> iocs = entry.getValue();
+                Set<Integer> documents = new HashSet<>();
+                for (int ioc : iocs) {
+                    for (int i = 0; i < degrees[ioc]; i++) documents.add(adjacency[ioc][i]);
+                }
+                clusters.add(new Cluster(
+                        authors.stream().map(author -> node(author, 0)).sorted(BY_DOCUMENTS).toList(),
+                        iocs.stream().map(ioc -> node(ioc, 0)).sorted(BY_DOCUMENTS).toList(),
+                        documents.size()));
+            }
+            clusters.sort(Comparator.comparingInt((Cluster cluster) -> cluster.authors().size()).reversed()
+                    .thenComparing(Comparator.comparingInt(Cluster::documents).reversed()));
+            return clusters.size() > limit ? List.copyOf(clusters.subList(0, limit)) : clusters;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ======= 내부 메서드 =======
+
+    private static final Comparator<Node> BY_DOCUMENTS = Comparator.comparingInt(Node::documents).reversed()
+            .thenComparing(Node::value);
+
+    private int find(String type, String value) {
+        Integer entity = entityIds.get(type + ":" + value);
+        return entity != null && degrees[entity] > 0 ? entity : -1;
+    }
+
+    private Node node(int entity, int hops) {
+        return new Node(TYPES.get(entityTypes[entity]), entityValues[entity], hops, degrees[entity]);
+    }
+
+    private int entity(int type, String value) {
+        String key = TYPES.get(type) + ":" + value;
+        Integer existing = entityIds.get(key);
+        if (existing != null) return existing;
+
+        if (entityCount == entityTypes.length) {
+            int capacity = entityCount * 2;
+            entityTypes = Arrays.copyOf(entityTypes, capacity);
+            entityValues = Arrays.copyOf(entityValues, capacity);
+            adjacency = Arrays.copyOf(adjacency, capacity);
+            degrees = Arrays.copyOf(degrees, capacity);
+        }
+        int entity = entityCount++;
+        entityTypes[entity] = (byte) type;
+        entityValues[entity] = value;
+        adjacency[entity] = EMPTY;
+        entityIds.put(key, entity);
+        return entity;
+    }
+
+    private int allocateDocument(String documentKey) {
+        int document;
+        if (freeCount > 0) {
+            document = freeDocuments[--freeCount];
+        } else {
+            if (documentSlots == documentKeys.length) {
+                documentKeys = Arrays.copyOf(documentKeys, documentSlots * 2);
+                documentEntities = Arrays.copyOf(documentEntities, documentSlots * 2);
+            }
+            document = documentSlots++;
+        }
+        documentKeys[document] = documentKey;
+        documentEntities[document] = EMPTY;
+        documentIds.put(documentKey, document);
+        return document;
+    }
+
+    private void attach(int entity, int document) {
+        int[] documents = adjacency[entity];
+        int degree = degrees[entity];
+        if (degree == documents.length) {
+            documents = Arrays.copyOf(documents, Math.max(4, degree + (degree >> 1)));
+            adjacency[entity] = documents;
+        }
+        documents[degree] = document;
+        degrees[entity] = degree + 1;
+    }
+
+    // 문서의 엔티티 연결을 모두 끊는다 (엔티티 쪽 배열에서는 마지막 원소로 메운다)
+    private void detach(int document) {
+        for (int entity : documentEntities[document]) {
+            int[] documents = adjacency[entity];
+            int last = degrees[entity] - 1;
+            for (int i = last; i >= 0; i--) {
+                if (documents[i] == document) {
+                    documents[i] = documents[last];
+                    degrees[entity] = last;
+                    break;
+                }
+            }
+            if (degrees[entity] == 0) adjacency[entity] = EMPTY;
+        }
+        documentEntities[document] = EMPTY;
+    }
+
+    // 다음에 넓힐 쪽을 고르기 위한 비용 (frontier 엔티티의 문서 수 합)
+    private long frontierCost(List<Integer> frontier) {
+        long cost = 0;
+        for (int entity : frontier) cost += degrees[entity];
+        return cost;
+    }
+
+    private Path buildPath(int meet, Map<Integer, Long> forward, Map<Integer, Long> backward) {
+        List<Integer> entities = new ArrayList<>();
+        List<Integer> documents = new ArrayList<>();
+        for (int entity = meet; ; ) {
+            entities.add(0, entity);
+            long parent = forward.get(entity);
+            if (parent == ROOT) break;
+            documents.add(0, (int) parent);
+            entity = (int) (parent >>> 32);
+        }
+        for (int entity = meet; ; ) {
+            long parent = backward.get(entity);
+            if (parent == ROOT) break;
+            documents.add((int) parent);
+            entity = (int) (parent >>> 32);
+            entities.add(entity);
+        }
+
+        List<Node> nodes = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            nodes.add(node(entities.get(i), i));
+        }
+        List<Edge> edges = new ArrayList<>(documents.size());
+        for (int i = 0; i < documents.size(); i++) {
+            edges.add(new Edge(i, i + 1, sharedDocuments(entities.get(i), entities.get(i + 1)),
+                    List.of(documentKeys[documents.get(i)])));
+        }
+        return new Path(nodes, edges, false);
+    }
+
+    // 두 엔티티가 함께 나오는 문서 수 (문서 수가 적은 쪽을 훑는다)
+    private int sharedDocuments(int a, int b) {
+        if (degrees[a] > degrees[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        int shared = 0;
+        for (int i = 0; i < degrees[a]; i++) {
+            for (int entity : documentEntities[adjacency[a][i]]) {
+                if (entity == b) {
+                    shared++;
+                    break;
+                }
+            }
+        }
+        return shared;
+    }
+
+    // IOC 가 나온 문서의 작성자 (limit 명까지)
+    private Set<Integer> authorsOf(int ioc, int limit) {
+        Set<Integer> authors = new LinkedHashSet<>();
+        int[] documents = adjacency[ioc];
+        for (int i = 0; i < degrees[ioc] && authors.size() < limit; i++) {
+            for (int entity : documentEntities[documents[i]]) {
+                if (entityTypes[entity] == AUTHOR) authors.add(entity);
+            }
+        }
+        return authors;
+    }
+
+    private static int root(int[] parents, int entity) {
+        int root = entity;
+        while (parents[root] >= 0) root = parents[root];
+        // 경로 압축
+        while (parents[entity] >= 0) {
+            int next = parents[entity];
+            parents[entity] = root;
+            entity = next;
+        }
+        return root;
+    }
+
+    private static void union(int[] parents, int a, int b) {
+        int rootA = root(parents, a);
+        int rootB = root(parents, b);
+        if (rootA == rootB) return;
+        // 크기(음수)가 큰 쪽 아래로 붙인다
+        if (parents[rootA] > parents[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parents[rootA] += parents[rootB];
+        parents[rootB] = rootA;
+    }
+}
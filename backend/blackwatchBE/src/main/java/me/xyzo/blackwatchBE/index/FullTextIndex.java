@@ -0,0 +1,148 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * 컬렉션 하나의 Lucene 색인 (IndexWriter + near-real-time SearcherManager).
+ *
+ * 문서는 _id 로 덮어쓰고, 전체 재색인마다 세대 번호(_generation)를 올려 끝난 뒤 이전 세대 문서를 지운다.
+ * 재색인 중에도 기존 문서는 검색되며, 재색인 동안 빠진(삭제된) 문서만 마지막에 정리된다.
+ * 변경은 refresh() 를 호출해야 검색에 보이고, commit() 해야 재시작 후에도 남는다.
+ */
+public final class FullTextIndex implements Closeable {
+
+    public static final String ID = "_id";
+    public static final String GENERATION = "_generation";
+
+    private static final String GENERATION_KEY = "generation";
+
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile long generation;
+
+    /**
+     * path 가 null 이면 메모리 색인 (재시작 시 다시 만든다)
+     */
+    public FullTextIndex(Path path, Analyzer analyzer) throws IOException {
+        if (path != null) {
+            Files.createDirectories(path);
+            this.directory = FSDirectory.open(path);
+        } else {
+            this.directory = new ByteBuffersDirectory();
+        }
+
+        long committed = 0;
+        if (DirectoryReader.indexExists(directory)) {
+            String value = SegmentInfos.readLatestCommit(directory).getUserData().get(GENERATION_KEY);
+            committed = value != null ? Long.parseLong(value) : 0;
+        }
+        this.generation = committed;
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @FunctionalInterface
+    public interface SearcherCallback<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    /**
+     * 마지막으로 시작한 재색인 세대 (재시작 후에는 마지막 commit 의 세대)
+     */
+    public long generation() {
+        return generation;
+    }
+
+    public long nextGeneration() {
+        return ++generation;
+    }
+
+    public int numDocs() {
+        return writer.getDocStats().numDocs;
+    }
+
+    /**
+     * id 문서를 fields 로 바꾼다 (없으면 추가). _id / _generation 필드는 여기서 붙인다.
+     */
+    public void upsert(String id, Document fields) throws IOException {
+        fields.add(new StringField(ID, id, Field.Store.YES));
+        fields.add(new SortedDocValuesField(ID, new BytesRef(id)));
+        fields.add(new LongPoint(GENERATION, generation));
+        writer.updateDocument(new Term(ID, id), fields);
+    }
+
+    public void delete(String id) throws IOException {
+        writer.deleteDocuments(new Term(ID, id));
+    }
+
+    /**
+     * 현재 세대 이전에 색인된 문서를 지운다 (재색인이 끝난 뒤 호출)
+     */
+    public void deleteStale() throws IOException {
+        writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, generation - 1));
+    }
+
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    public void commit() throws IOException {
+        writer.setLiveCommitData(Map.of(GENERATION_KEY, Long.toString(generation)).entrySet());
+        writer.commit();
+    }
+
+    public <T> T search(SearcherCallback<T> callback) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return callback.apply(searcher);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    public long sizeInBytes() {
+        try {
+            long bytes = 0;
+            for (String file : directory.listAll()) {
+                bytes += directory.fileLength(file);
+            }
+            return bytes;
+        } catch (IOException e) {
+            // 병합 중 지워진 파일 등
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
@@ -0,0 +1,193 @@
+package me.xyzo.blackwatchBE.index;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 해시 앞 5자리(20bit) 버킷 단위로 값을 조회하는 k-익명성 range 인덱스 (Pwned Passwords range API 방식).
+ *
+ * 모든 다이제스트를 정렬된 하나의 byte 배열에 두고, 버킷별 시작 위치만 따로 가진다.
+ * 버킷 조회는 배열 구간 하나를 읽는 것이므로 객체 할당 없이 끝난다.
+ * 생성 후에는 바뀌지 않으며, 데이터가 바뀌면 새로 만들어 교체한다.
+ */
+public final class HashPrefixRangeIndex {
+
+    public static final int PREFIX_LENGTH = 5;
+
+    private static final int BUCKET_COUNT = 1 << (PREFIX_LENGTH * 4);
+    private static final HexFormat HEX = HexFormat.of().withUpperCase();
+
+    private final String algorithm;
+    private final int digestLength;
+    private final int[] bucketOffsets;  // 버킷 b 의 항목은 [bucketOffsets[b], bucketOffsets[b + 1])
+    private final byte[] digests;       // 항목 i 의 다이제스트는 [i * digestLength, (i + 1) * digestLength)
+    private final int[] leakOffsets;    // 항목 i 의 leakId 참조는 leakRefs[leakOffsets[i] .. leakOffsets[i + 1])
+    private final int[] leakRefs;
+    private final String[] leakIds;
+
+    private HashPrefixRangeIndex(String algorithm, int digestLength, int[] bucketOffsets, byte[] digests,
+                                 int[] leakOffsets, int[] leakRefs, String[] leakIds) {
+        this.algorithm = algorithm;
+        this.digestLength = digestLength;
+        this.bucketOffsets = bucketOffsets;
+        this.digests = digests;
+        this.leakOffsets = leakOffsets;
+        this.leakRefs = leakRefs;
+        this.leakIds = leakIds;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int size() {
+        return leakOffsets.length - 1;
+    }
+
+    public long memoryBytes() {
+        return (long) bucketOffsets.length * Integer.BYTES + digests.length
+                + (long) leakOffsets.length * Integer.BYTES + (long) leakRefs.length * Integer.BYTES;
+    }
+
+    /**
+     * 5자리 hex 접두사 버킷의 항목을 "SUFFIX:leakId,leakId" 줄로 반환한다 (접두사가 잘못되면 IllegalArgumentException).
+     */
+    public String bucket(String prefix) {
+        int bucket = parsePrefix(prefix);
+        int from = bucketOffsets[bucket];
+        int to = bucketOffsets[bucket + 1];
+
+        StringBuilder sb = new StringBuilder((to - from) * (digestLength * 2 + 32));
+        for (int i = from; i < to; i++) {
+            String hex = HEX.formatHex(digests, i * digestLength, (i + 1) * digestLength);
+            sb.append(hex, PREFIX_LENGTH, hex.length()).append(':');
+            for (int ref = leakOffsets[i]; ref < leakOffsets[i + 1]; ref++) {
+                if (ref > leakOffsets[i]) sb.append(',');
+                sb.append(leakIds[leakRefs[ref]]);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    static int parsePrefix(String prefix) {
+        if (prefix == null || prefix.length() != PREFIX_LENGTH || !prefix.chars().allMatch(HexFormat::isHexDigit)) {
+            throw new IllegalArgumentException("prefix must be " + PREFIX_LENGTH + " hex characters");
+        }
+        return HexFormat.fromHexDigits(prefix);
+    }
+
+    private static int bucketOf(byte[] digest, int offset) {
+        return ((digest[offset] & 0xff) << 12) | ((digest[offset + 1] & 0xff) << 4) | ((digest[offset + 2] & 0xff) >>> 4);
+    }
+
+    /**
+     * 값마다 해시를 계산해 모은 뒤 버킷 순(counting sort) → 버킷 안에서 다이제스트 순으로 정렬한다.
+     */
+    public static final class Builder {
+
+        private final String algorithm;
+        private final MessageDigest messageDigest;
+        private final int digestLength;
+        private final Map<String, Integer> leakIdRefs = new HashMap<>();
+
+        private byte[] digests;
+        private int[] leakOffsets;
+        private int[] leakRefs;
+        private int size;
+        private int refCount;
+
+        public Builder(String algorithm) {
+            try {
+                this.messageDigest = MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException("unsupported algorithm: " + algorithm, e);
+            }
+            this.algorithm = algorithm;
+            this.digestLength = messageDigest.getDigestLength();
+            this.digests = new byte[digestLength * 1024];
+            this.leakOffsets = new int[1025];
+            this.leakRefs = new int[1024];
+        }
+
+        public void add(String value, List<String> valueLeakIds) {
+            if (valueLeakIds.isEmpty()) return;
+
+            if ((size + 1) * digestLength > digests.length) {
+                digests = Arrays.copyOf(digests, digests.length * 2);
+                leakOffsets = Arrays.copyOf(leakOffsets, leakOffsets.length * 2);
+            }
+            byte[] digest = messageDigest.digest(value.getBytes(StandardCharsets.UTF_8));
+            System.arraycopy(digest, 0, digests, size * digestLength, digestLength);
+
+            for (String leakId : valueLeakIds) {
+                if (refCount == leakRefs.length) {
+                    leakRefs = Arrays.copyOf(leakRefs, leakRefs.length * 2);
+                }
+                leakRefs[refCount++] = leakIdRefs.computeIfAbsent(leakId, key -> leakIdRefs.size());
+            }
+            size++;
+            leakOffsets[size] = refCount;
+        }
+
+        public HashPrefixRangeIndex build() {
+            // 버킷별 개수 → 시작 위치
+            int[] bucketOffsets = new int[BUCKET_COUNT + 1];
+            for (int i = 0; i < size; i++) {
+                bucketOffsets[bucketOf(digests, i * digestLength) + 1]++;
+            }
+            for (int b = 0; b < BUCKET_COUNT; b++) {
+                bucketOffsets[b + 1] += bucketOffsets[b];
+            }
+
+            int[] order = new int[size];
+            int[] next = Arrays.copyOf(bucketOffsets, BUCKET_COUNT);
+            for (int i = 0; i < size; i++) {
+                order[next[bucketOf(digests, i * digestLength)]++] = i;
+            }
+
+            // 버킷은 평균 수 개 항목이므로 삽입 정렬
+            for (int b = 0; b < BUCKET_COUNT; b++) {
+                for (int i = bucketOffsets[b] + 1; i < bucketOffsets[b + 1]; i++) {
+                    int entry = order[i];
+                    int j = i - 1;
+                    while (j >= bucketOffsets[b] && compareDigest(order[j], entry) > 0) {
+                        order[j + 1] = order[j];
+                        j--;
+                    }
+                    order[j + 1] = entry;
+                }
+            }
+
+            byte[] sortedDigests = new byte[size * digestLength];
+            int[] sortedLeakOffsets = new int[size + 1];
+            int[] sortedLeakRefs = new int[refCount];
+            int ref = 0;
+            for (int i = 0; i < size; i++) {
+                int entry = order[i];
+                System.arraycopy(digests, entry * digestLength, sortedDigests, i * digestLength, digestLength);
+                int count = leakOffsets[entry + 1] - leakOffsets[entry];
+                System.arraycopy(leakRefs, leakOffsets[entry], sortedLeakRefs, ref, count);
+                ref += count;
+                sortedLeakOffsets[i + 1] = ref;
+            }
+
+            String[] leakIds = new String[leakIdRefs.size()];
+            leakIdRefs.forEach((leakId, index) -> leakIds[index] = leakId);
+
+            return new HashPrefixRangeIndex(algorithm, digestLength, bucketOffsets, sortedDigests,
+                    sortedLeakOffsets, sortedLeakRefs, leakIds);
+        }
+
+        private int compareDigest(int a, int b) {
+            return Arrays.compareUnsigned(digests, a * digestLength, (a + 1) * digestLength,
+                    digests, b * digestLength, (b + 1) * digestLength);
+        }
+    }
+}
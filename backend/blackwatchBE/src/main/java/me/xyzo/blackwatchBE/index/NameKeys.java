@@ -0,0 +1,280 @@
+package me.xyzo.blackwatchBE.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 이름 유사 검색용 키 생성.
+ *
+ * - 자모 키: 한글 음절을 초성/중성/종성 자모로 분해(NFD)하고 공백·구두점·대소문자·발음 구별 기호를 제거한 문자열.
+ *   "김 민수", "김민수" 는 같은 키가 되고, "김민주" 와는 자모 하나 차이가 된다.
+ * - 삭제 변형: 자모 키에서 최대 d 글자를 지운 문자열 (SymSpell 방식).
+ *   저장된 이름과 질의 양쪽의 삭제 변형이 하나라도 같으면 편집 거리 후보가 된다.
+ * - 발음 키: 한글은 로마자(국어의 로마자 표기법)로 바꾼 뒤, 라틴 이름과 같은 규칙으로 자음 부류만 남긴 키.
+ *   성씨 표기 변형(Lee / Yi / Rhee, Park / Pak 등)은 대표 표기로 맞추고, 토큰 순서는 무시한다.
+ */
+public final class NameKeys {
+
+    // 저장 / 질의 키 접두사
+    public static final String JAMO_PREFIX = "j:";
+    public static final String PHONETIC_PREFIX = "p:";
+
+    // 이보다 긴 자모 키는 삭제 변형을 만들지 않는다 (변형 수 제한)
+    public static final int MAX_VARIANT_KEY_LENGTH = 32;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s\\p{Punct}·]+");
+
+    private static final int HANGUL_BASE = 0xAC00;
+    private static final int HANGUL_LAST = 0xD7A3;
+
+    private static final String[] RR_INITIALS = {
+            "g", "kk", "n", "d", "tt", "r", "m", "b", "pp", "s", "ss", "", "j", "jj", "ch", "k", "t", "p", "h"};
+    private static final String[] RR_MEDIALS = {
+            "a", "ae", "ya", "yae", "eo", "e", "yeo", "ye", "o", "wa", "wae", "oe", "yo", "u", "wo", "we", "wi",
+            "yu", "eu", "ui", "i"};
+    private static final String[] RR_FINALS = {
+            "", "k", "k", "k", "n", "n", "n", "t", "l", "k", "m", "l", "l", "l", "p", "l", "m", "p", "p", "t", "t",
+            "ng", "t", "t", "k", "t", "p", "t"};
+
+    // 두 음절 성씨 (한글 이름을 성 / 이름 토큰으로 나눌 때 사용)
+    private static final Set<String> TWO_SYLLABLE_SURNAMES = Set.of(
+            "남궁", "선우", "제갈", "황보", "독고", "사공", "서문", "동방");
+
+    // 흔한 성씨 로마자 표기 변형 → 국어의 로마자 표기법
+    private static final Map<String, String> SURNAME_VARIANTS = Map.ofEntries(
+            Map.entry("lee", "i"), Map.entry("yi", "i"), Map.entry("rhee", "i"), Map.entry("ri", "i"),
+            Map.entry("kim", "gim"), Map.entry("gim", "gim"),
+            Map.entry("park", "bak"), Map.entry("pak", "bak"), Map.entry("bak", "bak"),
+            Map.entry("choi", "choe"), Map.entry("choe", "choe"),
+            Map.entry("jung", "jeong"), Map.entry("chung", "jeong"), Map.entry("jeong", "jeong"),
+            Map.entry("cho", "jo"), Map.entry("jo", "jo"),
+            Map.entry("kang", "gang"), Map.entry("gang", "gang"),
+            Map.entry("yoon", "yun"), Map.entry("yun", "yun"),
+            Map.entry("lim", "im"), Map.entry("im", "im"), Map.entry("rim", "im"),
+            Map.entry("shin", "sin"), Map.entry("sin", "sin"),
+            Map.entry("ryu", "yu"), Map.entry("yoo", "yu"), Map.entry("yu", "yu"),
+            Map.entry("noh", "no"), Map.entry("roh", "no"), Map.entry("no", "no"),
+            Map.entry("oh", "o"), Map.entry("o", "o"),
+            Map.entry("han", "han"), Map.entry("seo", "seo"), Map.entry("suh", "seo"),
+            Map.entry("hwang", "hwang"), Map.entry("ahn", "an"), Map.entry("an", "an"),
+            Map.entry("song", "song"), Map.entry("jeon", "jeon"), Map.entry("chun", "jeon"),
+            Map.entry("hong", "hong"), Map.entry("ko", "go"), Map.entry("koh", "go"), Map.entry("go", "go"),
+            Map.entry("moon", "mun"), Map.entry("mun", "mun"),
+            Map.entry("yang", "yang"), Map.entry("son", "son"), Map.entry("sohn", "son"),
+            Map.entry("bae", "bae"), Map.entry("pae", "bae"), Map.entry("baek", "baek"), Map.entry("paik", "baek"),
+            Map.entry("heo", "heo"), Map.entry("huh", "heo"), Map.entry("nam", "nam"),
+            Map.entry("jang", "jang"), Map.entry("chang", "jang"));
+
+    private NameKeys() {}
+
+    /**
+     * 자모 키 (값이 비면 null)
+     */
+    public static String jamoKey(String name) {
+        if (name == null) return null;
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String key = SEPARATORS.matcher(MARKS.matcher(decomposed).replaceAll("")).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * 자모 키에서 최대 maxDeletes 글자를 지운 변형 (원래 키 포함). 긴 키는 원래 키만.
+     * 자모 키는 NFD 결과이므로 한 글자가 하나의 char 다 (보조 평면 문자는 이름에 쓰이지 않는다).
+     */
+    public static Set<String> deletionVariants(String key, int maxDeletes) {
+        Set<String> variants = new LinkedHashSet<>();
+        variants.add(key);
+        if (key.length() > MAX_VARIANT_KEY_LENGTH) return variants;
+
+        List<String> frontier = List.of(key);
+        for (int depth = 0; depth < maxDeletes; depth++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                if (current.length() <= 1) continue;
+                for (int i = 0; i < current.length(); i++) {
+                    String deleted = current.substring(0, i) + current.substring(i + 1);
+                    if (variants.add(deleted)) next.add(deleted);
+                }
+            }
+            frontier = next;
+        }
+        return variants;
+    }
+
+    /**
+     * 발음 키 (로마자로 표현할 수 없는 이름이면 null)
+     */
+    public static String phoneticKey(String name) {
+        if (name == null) return null;
+
+        List<String> tokens = romanizedTokens(name);
+        if (tokens.isEmpty()) return null;
+
+        // 성씨로 알려진 토큰(앞 또는 끝)을 분리하고 나머지는 이름 하나로 합친다 (Ji Eun Rhee → i / jieun)
+        int surname = -1;
+        if (tokens.size() >= 2) {
+            if (SURNAME_VARIANTS.containsKey(tokens.get(0))) surname = 0;
+            else if (SURNAME_VARIANTS.containsKey(tokens.get(tokens.size() - 1))) surname = tokens.size() - 1;
+        }
+
+        List<String> parts = new ArrayList<>();
+        if (surname >= 0) {
+            parts.add(SURNAME_VARIANTS.get(tokens.get(surname)));
+            StringBuilder given = new StringBuilder();
+            for (int i = 0; i < tokens.size(); i++) {
+                if (i != surname) given.append(tokens.get(i));
+            }
+            parts.add(given.toString());
+        } else {
+            parts.addAll(tokens);
+        }
+
+        List<String> codes = new ArrayList<>();
+        for (String part : parts) {
+            String code = encode(part);
+            if (!code.isEmpty()) codes.add(code);
+        }
+        if (codes.isEmpty()) return null;
+
+        codes.sort(null);
+        return String.join("_", codes);
+    }
+
+    /**
+     * 한글은 로마자로, 라틴 문자는 소문자 ASCII 로 바꾼 토큰.
+     * 띄어쓰기 없는 한글 이름 하나는 성 / 이름 두 토큰으로 나눈다.
+     */
+    static List<String> romanizedTokens(String name) {
+        String folded = MARKS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        // NFD 로 분해된 한글을 다시 음절로 합친다
+        folded = Normalizer.normalize(folded, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+
+        List<String> raw = new ArrayList<>();
+        for (String token : folded.split("[\\s,·]+")) {
+            token = token.replaceAll("[-'.]", "");
+            if (!token.isEmpty()) raw.add(token);
+        }
+
+        List<String> tokens = new ArrayList<>();
+        if (raw.size() == 1 && isHangul(raw.get(0)) && raw.get(0).length() >= 2 && raw.get(0).length() <= 5) {
+            String token = raw.get(0);
+            int surnameLength = token.length() >= 3 && TWO_SYLLABLE_SURNAMES.contains(token.substring(0, 2)) ? 2 : 1;
+            tokens.add(romanize(token.substring(0, surnameLength)));
+            if (token.length() > surnameLength) tokens.add(romanize(token.substring(surnameLength)));
+            return tokens;
+        }
+
+        for (String token : raw) {
+            String romanized = isHangul(token) ? romanize(token) : token.replaceAll("[^a-z]", "");
+            if (!romanized.isEmpty()) tokens.add(romanized);
+        }
+        return tokens;
+    }
+
+    static String romanize(String hangul) {
+        StringBuilder sb = new StringBuilder(hangul.length() * 3);
+        for (int i = 0; i < hangul.length(); i++) {
+            char c = hangul.charAt(i);
+            if (c < HANGUL_BASE || c > HANGUL_LAST) continue;
+            int index = c - HANGUL_BASE;
+            sb.append(RR_INITIALS[index / 588])
+                    .append(RR_MEDIALS[(index % 588) / 28])
+                    .append(RR_FINALS[index % 28]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 자음 부류 키: 모음(y, w 포함)과 h 는 버리고 (단어 첫 모음은 A 로 표시), 같은 부류가 이어지면 하나만 남긴다.
+     * g/k/c/q → K, b/p/f/v → P, d/t → T, l/r → L, s/z/x → S, j/ch → J
+     */
+    static String encode(String token) {
+        StringBuilder code = new StringBuilder();
+        char last = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            char next = i + 1 < token.length() ? token.charAt(i + 1) : 0;
+
+            char mapped;
+            if (c == 'c' && next == 'h') {
+                mapped = 'J';
+                i++;
+            } else if ((c == 's' || c == 't' || c == 'p') && next == 'h') {
+                mapped = c == 's' ? 'S' : c == 't' ? 'T' : 'P';
+                i++;
+            } else {
+                mapped = switch (c) {
+                    case 'g', 'k', 'c', 'q' -> 'K';
+                    case 'b', 'p', 'f', 'v' -> 'P';
+                    case 'd', 't' -> 'T';
+                    case 'l', 'r' -> 'L';
+                    case 's', 'z', 'x' -> 'S';
+                    case 'j' -> 'J';
+                    case 'm' -> 'M';
+                    case 'n' -> 'N';
+                    case 'a', 'e', 'i', 'o', 'u', 'y', 'w' -> 'A';
+                    default -> 0;
+                };
+            }
+
+            if (mapped == 0) continue;
+            if (mapped == 'A') {
+                // 첫 모음만 표시하고, 모음 뒤의 같은 자음은 다시 쓴다 (mun-min → MNMN)
+                if (code.length() == 0) code.append('A');
+                last = 0;
+                continue;
+            }
+            if (mapped != last) code.append(mapped);
+            last = mapped;
+        }
+        return code.toString();
+    }
+
+    /**
+     * 제한 있는 편집 거리 (인접 전치 포함, optimal string alignment). max 를 넘으면 max + 1.
+     */
+    public static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return max + 1;
+
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static boolean isHangul(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < HANGUL_BASE || c > HANGUL_LAST) return false;
+        }
+        return true;
+    }
+}
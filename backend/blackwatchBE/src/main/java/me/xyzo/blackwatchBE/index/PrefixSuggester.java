@@ -0,0 +1,165 @@
+package me.xyzo.blackwatchBE.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 자동완성용 접두사 사전.
+ *
+ * 값을 소문자 키로 정렬한 배열에 두고, 접두사에 해당하는 구간을 이진 탐색으로 찾은 뒤
+ * 구간 안에서 빈도(weight)가 큰 k 개를 고른다. 같은 키(대소문자만 다른 값)는 하나로 합치고
+ * 가장 많이 쓰인 표기를 보여준다. 생성 후에는 바뀌지 않으며, 데이터가 바뀌면 새로 만들어 교체한다.
+ *
+ * 한두 글자 접두사는 구간이 사전 전체에 가까우므로 구간을 훑지 않는다. 정렬 순서 위의 구간 최댓값 트리
+ * (segment tree, 배열 2N 칸)로 구간에서 가장 빈도가 큰 위치를 O(log N) 에 찾고, 고른 위치의 양쪽 구간을
+ * 다시 후보로 넣는 방식으로 k 개를 뽑는다. 조회 한 번은 O(k log N) 이다.
+ */
+public final class PrefixSuggester {
+
+    public static final PrefixSuggester EMPTY = new PrefixSuggester(new String[0], new String[0], new long[0]);
+
+    private final String[] keys;     // 소문자, 오름차순
+    private final String[] values;   // 표시할 원래 표기
+    private final long[] weights;
+    // 구간 최댓값 트리: tree[n + i] = i, tree[p] = 두 자식 중 더 강한 위치
+    private final int[] tree;
+
+    private PrefixSuggester(String[] keys, String[] values, long[] weights) {
+        this.keys = keys;
+        this.values = values;
+        this.weights = weights;
+
+        int n = keys.length;
+        this.tree = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            tree[n + i] = i;
+        }
+        for (int p = n - 1; p >= 1; p--) {
+            tree[p] = stronger(tree[2 * p], tree[2 * p + 1]);
+        }
+    }
+
+    public record Suggestion(String value, long weight) {}
+
+    /**
+     * 값 → 빈도 에서 만든다. 대소문자만 다른 값은 빈도를 합친다.
+     */
+    public static PrefixSuggester build(Map<String, Long> counts) {
+        Map<String, Merged> merged = new HashMap<>();
+        counts.forEach((value, count) -> {
+            if (value == null || value.isEmpty() || count == null || count <= 0) return;
+            merged.computeIfAbsent(key(value), k -> new Merged()).add(value, count);
+        });
+
+        String[] keys = merged.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        String[] values = new String[keys.length];
+        long[] weights = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Merged entry = merged.get(keys[i]);
+            values[i] = entry.display;
+            weights[i] = entry.total;
+        }
+        return new PrefixSuggester(keys, values, weights);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public long memoryBytes() {
+        long bytes = (long) weights.length * Long.BYTES + (long) tree.length * Integer.BYTES;
+        for (int i = 0; i < keys.length; i++) {
+            // 키와 표기가 같으면 String 을 공유한다
+            bytes += 40L + keys[i].length() + (values[i] != keys[i] ? 40L + values[i].length() : 0);
+        }
+        return bytes;
+    }
+
+    /**
+     * prefix 로 시작하는 값 중 빈도 상위 limit 개 (빈도 내림차순, 같으면 값 순)
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = key(prefix);
+        int from = lowerBound(key);
+        int to = prefixEnd(from, key);
+        if (from == to || limit <= 0) return List.of();
+
+        // 후보 구간 {구간 최댓값 위치, 시작, 끝(제외)} 을 최댓값이 강한 순서로 꺼낸다
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> a[0] == b[0] ? 0 : stronger(a[0], b[0]) == a[0] ? -1 : 1);
+        ranges.add(new int[]{strongest(from, to), from, to});
+
+        List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, to - from));
+        while (!ranges.isEmpty() && suggestions.size() < limit) {
+            int[] range = ranges.poll();
+            int best = range[0];
+            suggestions.add(new Suggestion(values[best], weights[best]));
+            if (range[1] < best) ranges.add(new int[]{strongest(range[1], best), range[1], best});
+            if (best + 1 < range[2]) ranges.add(new int[]{strongest(best + 1, range[2]), best + 1, range[2]});
+        }
+        return suggestions;
+    }
+
+    public static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private int lowerBound(String key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    // from 부터 key 로 시작하는 키는 연속해 있으므로 그 끝(제외)을 이진 탐색한다
+    private int prefixEnd(int from, String key) {
+        int low = from;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].startsWith(key)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // [from, to) 에서 빈도가 가장 큰 위치
+    private int strongest(int from, int to) {
+        int n = keys.length;
+        int best = -1;
+        for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) best = stronger(best, tree[l++]);
+            if ((r & 1) == 1) best = stronger(best, tree[--r]);
+        }
+        return best;
+    }
+
+    // 빈도가 크면 강하고, 같으면 앞(키 순서가 빠른) 위치가 강하다
+    private int stronger(int a, int b) {
+        if (a < 0) return b;
+        if (b < 0) return a;
+        if (weights[a] != weights[b]) return weights[a] > weights[b] ? a : b;
+        return Math.min(a, b);
+    }
+
+    // 같은 키의 표기별 빈도를 합치며 가장 많이 쓰인 표기를 고른다
+    private static final class Merged {
+        private String display;
+        private long displayCount;
+        private long total;
+
+        void add(String value, long count) {
+            total += count;
+            if (count > displayCount || (count == displayCount && value.compareTo(display) < 0)) {
+                display = value;
+                displayCount = count;
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package me.xyzo.blackwatchBE.index;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 크기가 늘어나는 Bloom filter (Almeida et al. scalable Bloom filter).
+ *
+ * 슬라이스가 가득 차면 용량 2배, 오탐률 절반인 슬라이스를 추가해 전체 오탐률이 설정값 이하로 유지된다.
+ * 조회(mightContain)는 락 없이 동작하고, 추가(put)는 한 번에 하나씩 처리한다.
+ * 삭제는 지원하지 않는다 (삭제된 값은 오탐으로만 남는다).
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveRate;
+    private volatile List<Slice> slices;
+
+    public ScalableBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+        // 슬라이스 오탐률의 합 p0 * (1 + r + r^2 ...) 이 falsePositiveRate 를 넘지 않도록 시작값을 낮춘다
+        this.slices = List.of(new Slice(Math.max(expectedInsertions, 1024),
+                falsePositiveRate * (1 - TIGHTENING_RATIO)));
+    }
+
+    private ScalableBloomFilter(double falsePositiveRate, List<Slice> slices) {
+        this.falsePositiveRate = falsePositiveRate;
+        this.slices = List.copyOf(slices);
+    }
+
+    public boolean mightContain(String key) {
+        long[] hash = hash(key);
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash[0], hash[1])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 값을 추가한다. 이미 포함된(또는 오탐으로 포함된 것처럼 보이는) 값이면 false.
+     * 중복 값이 슬라이스 용량을 소모하지 않도록 먼저 조회한다.
+     */
+    public synchronized boolean put(String key) {
+        long[] hash = hash(key);
+        List<Slice> current = slices;
+        for (Slice slice : current) {
+            if (slice.mightContain(hash[0], hash[1])) return false;
+        }
+
+        Slice last = current.get(current.size() - 1);
+        if (last.count.get() >= last.capacity) {
+            List<Slice> grown = new ArrayList<>(current);
+            last = new Slice(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+            grown.add(last);
+            slices = List.copyOf(grown);
+        }
+        last.put(hash[0], hash[1]);
+        return true;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public long getEntryCount() {
+        long count = 0;
+        for (Slice slice : slices) count += slice.count.get();
+        return count;
+    }
+
+    public long getMemoryBytes() {
+        long bytes = 0;
+        for (Slice slice : slices) bytes += (long) slice.bits.length() * Long.BYTES;
+        return bytes;
+    }
+
+    public int getSliceCount() {
+        return slices.size();
+    }
+
+    /**
+     * 현재 채워진 비트 비율로 추정한 오탐률: 1 - Π(1 - fill_i^k_i)
+     */
+    public double estimateFalsePositiveRate() {
+        double notFalsePositive = 1.0;
+        for (Slice slice : slices) {
+            notFalsePositive *= 1.0 - Math.pow(slice.fillRatio(), slice.numHashes);
+        }
+        return 1.0 - notFalsePositive;
+    }
+
+    // ======= 스냅샷 직렬화 =======
+
+    /**
+     * 스냅샷 크기 (바이트). 헤더(오탐률, 슬라이스 수) + 슬라이스별 헤더와 비트 배열.
+     */
+    public synchronized long serializedSize() {
+        long size = Double.BYTES + Integer.BYTES;
+        for (Slice slice : slices) {
+            size += Slice.HEADER_BYTES + (long) slice.bits.length() * Long.BYTES;
+        }
+        return size;
+    }
+
+    public synchronized void writeTo(ByteBuffer buffer) {
+        buffer.putDouble(falsePositiveRate);
+        buffer.putInt(slices.size());
+        for (Slice slice : slices) {
+            buffer.putLong(slice.capacity);
+            buffer.putDouble(slice.falsePositiveRate);
+            buffer.putInt(slice.numHashes);
+            buffer.putLong(slice.count.get());
+            buffer.putInt(slice.bits.length());
+            for (int i = 0; i < slice.bits.length(); i++) {
+                buffer.putLong(slice.bits.get(i));
+            }
+        }
+    }
+
+    public static ScalableBloomFilter readFrom(ByteBuffer buffer) {
+        double falsePositiveRate = buffer.getDouble();
+        int sliceCount = buffer.getInt();
+        if (sliceCount <= 0) {
+            throw new IllegalArgumentException("invalid slice count: " + sliceCount);
+        }
+
+        List<Slice> slices = new ArrayList<>(sliceCount);
+        for (int s = 0; s < sliceCount; s++) {
+            long capacity = buffer.getLong();
+            double sliceRate = buffer.getDouble();
+            int numHashes = buffer.getInt();
+            long count = buffer.getLong();
+            int words = buffer.getInt();
+
+            AtomicLongArray bits = new AtomicLongArray(words);
+            for (int i = 0; i < words; i++) {
+                bits.set(i, buffer.getLong());
+            }
+            slices.add(new Slice(capacity, sliceRate, numHashes, bits, count));
+        }
+        return new ScalableBloomFilter(falsePositiveRate, slices);
+    }
+
+    // ======= 해시 =======
+
+    /**
+     * MurmurHash3 x64 128bit (seed 0). 두 64bit 값으로 k 개의 위치를 만든다 (Kirsch-Mitzenmacher).
+     */
+    static long[] hash(String key) {
+        byte[] data = key.getBytes(StandardCharsets.UTF_8);
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLittleEndianLong(data, i * 16);
+            long k2 = getLittleEndianLong(data, i * 16 + 8);
+
+            k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27); h1 += h2; h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31); h2 += h1; h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        switch (data.length & 15) {
+            case 15: k2 ^= (long) (data[tail + 14] & 0xff) << 48;
+            case 14: k2 ^= (long) (data[tail + 13] & 0xff) << 40;
+            case 13: k2 ^= (long) (data[tail + 12] & 0xff) << 32;
+            case 12: k2 ^= (long) (data[tail + 11] & 0xff) << 24;
+            case 11: k2 ^= (long) (data[tail + 10] & 0xff) << 16;
+            case 10: k2 ^= (long) (data[tail + 9] & 0xff) << 8;
+            case 9:
+                k2 ^= data[tail + 8] & 0xff;
+                k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            case 8: k1 ^= (long) (data[tail + 7] & 0xff) << 56;
+            case 7: k1 ^= (long) (data[tail + 6] & 0xff) << 48;
+            case 6: k1 ^= (long) (data[tail + 5] & 0xff) << 40;
+            case 5: k1 ^= (long) (data[tail + 4] & 0xff) << 32;
+            case 4: k1 ^= (long) (data[tail + 3] & 0xff) << 24;
+            case 3: k1 ^= (long) (data[tail + 2] & 0xff) << 16;
+            case 2: k1 ^= (long) (data[tail + 1] & 0xff) << 8;
+            case 1:
+                k1 ^= data[tail] & 0xff;
+                k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+            default:
+                break;
+        }
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long getLittleEndianLong(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xffL);
+        }
+        return value;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    // ======= 슬라이스 =======
+
+    private static final class Slice {
+
+        static final int HEADER_BYTES = Long.BYTES + Double.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+        final long capacity;
+        final double falsePositiveRate;
+        final int numHashes;
+        final AtomicLongArray bits;
+        final long numBits;
+        final AtomicLong count;
+
+        Slice(long capacity, double falsePositiveRate) {
+            this(capacity, falsePositiveRate, optimalNumHashes(capacity, optimalNumBits(capacity, falsePositiveRate)),
+                    new AtomicLongArray(Math.toIntExact(optimalNumBits(capacity, falsePositiveRate) / Long.SIZE)), 0);
+        }
+
+        Slice(long capacity, double falsePositiveRate, int numHashes, AtomicLongArray bits, long count) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.numHashes = numHashes;
+            this.bits = bits;
+            this.numBits = (long) bits.length() * Long.SIZE;
+            this.count = new AtomicLong(count);
+        }
+
+        boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < numHashes; i++) {
+                long index = (combined & Long.MAX_VALUE) % numBits;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) return false;
+                combined += h2;
+            }
+            return true;
+        }
+
+        void put(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < numHashes; i++) {
+                long index = (combined & Long.MAX_VALUE) % numBits;
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long previous;
+                do {
+                    previous = bits.get(word);
+                } while ((previous & mask) == 0 && !bits.compareAndSet(word, previous, previous | mask));
+                combined += h2;
+            }
+            count.incrementAndGet();
+        }
+
+        double fillRatio() {
+            long set = 0;
+            for (int i = 0; i < bits.length(); i++) {
+                set += Long.bitCount(bits.get(i));
+            }
+            return (double) set / numBits;
+        }
+
+        // m = -n ln p / (ln 2)^2, 64bit 단위로 올림
+        static long optimalNumBits(long capacity, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            return Math.max(Long.SIZE, (bits + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        }
+
+        // k = m / n ln 2
+        static int optimalNumHashes(long capacity, long numBits) {
+            return Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package me.xyzo.blackwatchBE.index;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 최근 구간(창)에 자주 나온 값과 평소보다 급증한 값을 고정 메모리로 추적한다.
+ *
+ * 창은 bucketCount 개의 시간 구간 sketch 로 나누고, 구간 sketch 들의 합(window sketch) 을 따로 유지해
+ * 구간이 끝날 때마다 가장 오래된 구간만 빼고 비운다. 끝난 구간의 카운터는 지수 이동 평균(EWMA) 으로
+ * baseline 에 섞어 "평소 구간당 빈도" 를 만든다. baseline 도 같은 칸 배치를 쓰므로 아무 값이나 추정할 수 있다.
+ *
+ * 어떤 값이 있는지는 sketch 로 알 수 없으므로, 창 빈도가 높은 값 capacity 개를 후보(heavy hitter) 로 따로 둔다.
+ * 후보가 가득 차면 지금 빈도가 가장 작은 후보보다 커야 들어온다. 값 수와 무관하게 메모리는 sketch 크기 x (bucketCount + 2) 와
+ * 후보 capacity 개로 고정이다.
+ *
+ * 지나간 시각으로 add 하면 현재 구간에 더한다 (기동 시 과거 데이터를 시간 순서대로 다시 넣을 때는 문제없다).
+ */
+public final class TrendingWindow {
+
+    private final long bucketMillis;
+    private final CountMinSketch[] buckets;
+    private final CountMinSketch window;
+    private final double[] baseline;
+    private final double alpha;
+    private final int capacity;
+
+    // 후보 값 → 칸 위치 / 마지막으로 확인한 창 빈도
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    // 후보가 가득 찼을 때 새 값이 넘어야 하는 빈도 (마지막으로 다시 센 후보 최솟값)
+    private long admissionFloor;
+
+    private int current;
+    private long currentStart = Long.MIN_VALUE;
+    private long completedBuckets;
+
+    private static final class Candidate {
+        final int[] cells;
+        long count;
+
+        Candidate(int[] cells, long count) {
+            this.cells = cells;
+            this.count = count;
+        }
+    }
+
+    /**
+     * 추적 결과. count 는 창 빈도, expected 는 baseline 으로 본 창 빈도,
+     * ratio = (count + 1) / (expected + 1), score 는 (count - expected) / sqrt(expected + 1).
+     */
+    public record Trend(String value, long count, double expected, double ratio, double score) {}
+
+    public TrendingWindow(Duration bucket, int bucketCount, Duration baselineHalfLife, int depth, int width, int capacity) {
+        if (bucketCount < 1 || capacity < 1) throw new IllegalArgumentException("bucketCount and capacity must be positive");
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = new CountMinSketch[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(depth, width);
+        }
+        this.window = new CountMinSketch(depth, width);
+        this.baseline = new double[depth * width];
+        // 반감기 동안 구간 수만큼 섞으면 이전 값의 비중이 절반이 되도록
+        this.alpha = 1 - Math.pow(0.5, (double) bucketMillis / baselineHalfLife.toMillis());
+        this.capacity = capacity;
+    }
+
+    public synchronized void add(String value, long timeMillis) {
+        advanceTo(timeMillis);
+        int[] cells = window.cells(value);
+        buckets[current].add(cells, 1);
+        window.add(cells, 1);
+        long count = window.estimate(cells);
+
+        Candidate candidate = candidates.get(value);
+        if (candidate != null) {
+            candidate.count = count;
+        } else if (candidates.size() < capacity) {
+            candidates.put(value, new Candidate(cells, count));
+        } else if (count > admissionFloor) {
+            // 후보 빈도를 다시 세어 가장 작은 후보보다 크면 바꾼다
+            String weakest = refreshCandidates();
+            if (weakest != null && count > candidates.get(weakest).count) {
+                candidates.remove(weakest);
+                candidates.put(value, new Candidate(cells, count));
+            }
+            refreshFloor();
+        }
+    }
+
+    /**
+     * timeMillis 가 속한 구간까지 창을 옮긴다. 비어 있는 구간이 길면 baseline 감쇠만 한 번에 계산한다.
+     */
+    public synchronized void advanceTo(long timeMillis) {
+        long start = timeMillis - Math.floorMod(timeMillis, bucketMillis);
+        if (currentStart == Long.MIN_VALUE) {
+            currentStart = start;
+            return;
+        }
+        if (start <= currentStart) return;
+
+        long steps = (start - currentStart) / bucketMillis;
+        long rotations = Math.min(steps, buckets.length + 1L);
+        for (long i = 0; i < rotations; i++) {
+            rotate();
+        }
+        if (steps > rotations) {
+            double decay = Math.pow(1 - alpha, steps - rotations);
+            for (int i = 0; i < baseline.length; i++) {
+                baseline[i] *= decay;
+            }
+            completedBuckets += steps - rotations;
+        }
+        currentStart = start;
+
+        refreshCandidates();
+        candidates.values().removeIf(candidate -> candidate.count == 0);
+        refreshFloor();
+    }
+
+    /**
+     * 후보를 score 순서로 limit 개. 창 빈도가 minCount 보다 작은 값은 제외한다.
+     */
+    public synchronized List<Trend> trending(long now, int limit, long minCount) {
+        advanceTo(now);
+        List<Trend> trends = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Candidate> entry : candidates.entrySet()) {
+            Candidate candidate = entry.getValue();
+            long count = window.estimate(candidate.cells);
+            if (count < minCount) continue;
+            double expected = CountMinSketch.estimate(baseline, candidate.cells) * buckets.length;
+            trends.add(new Trend(entry.getKey(), count, expected,
+                    (count + 1) / (expected + 1), (count - expected) / Math.sqrt(expected + 1)));
+        }
+        trends.sort(Comparator.comparingDouble(Trend::score).reversed().thenComparing(Trend::value));
+        return trends.size() > limit ? List.copyOf(trends.subList(0, limit)) : trends;
+    }
+
+    // baseline 이 창 하나 길이 이상 쌓이기 전에는 급증 판단을 믿기 어렵다
+    public synchronized boolean isWarmingUp() {
+        return completedBuckets < buckets.length;
+    }
+
+    public long memoryBytes() {
+        long bytes = window.memoryBytes() * (buckets.length + 1) + (long) baseline.length * Double.BYTES;
+        return bytes + (long) capacity * (window.depth() * Integer.BYTES + 128);
+    }
+
+    // ======= 내부 메서드 =======
+
+    // 현재 구간을 baseline 에 섞고, 다음(가장 오래된) 구간을 창에서 빼고 비운다
+    private void rotate() {
+        buckets[current].blendInto(baseline, alpha);
+        completedBuckets++;
+        current = (current + 1) % buckets.length;
+        window.subtract(buckets[current]);
+        buckets[current].clear();
+    }
+
+    // 후보 창 빈도를 다시 세고 가장 작은 후보를 돌려준다
+    private String refreshCandidates() {
+        String weakest = null;
+        long weakestCount = Long.MAX_VALUE;
+        for (Map.Entry<String, Candidate> entry : candidates.entrySet()) {
+            Candidate candidate = entry.getValue();
+            candidate.count = window.estimate(candidate.cells);
+            if (candidate.count < weakestCount) {
+                weakestCount = candidate.count;
+                weakest = entry.getKey();
+            }
+        }
+        return weakest;
+    }
+
+    private void refreshFloor() {
+        admissionFloor = candidates.size() < capacity
+                ? 0
+                : candidates.values().stream().mapToLong(candidate -> candidate.count).min().orElse(0);
+    }
+}
@@ -0,0 +1,298 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * 부분 일치(*Contains) 후보를 좁히기 위한 필드별 trigram 역색인.
+ *
+ * 문서마다 순번(ordinal)을 붙이고, 소문자로 바꾼 필드 값의 연속된 세 글자마다 순번 목록(Roaring 비트맵, 압축)을 둔다.
+ * 세 글자 이상인 검색어는 검색어의 trigram 목록을 모두 AND 한 결과가 후보가 되며, 실제로 이어져 있는지는
+ * 호출하는 쪽에서 원래 조건(정규식)으로 다시 확인해야 한다 (후보에는 오탐이 있을 수 있지만, 색인에 반영된
+ * 문서에 한해서는 누락이 없다. 아직 put 되지 않은 문서는 후보에 없으므로 최신성은 호출하는 쪽이 보장해야 한다).
+ *
+ * 문서가 바뀌면 새 순번을 붙이고 이전 순번은 live 에서만 뺀다. 죽은 순번은 다음 전체 재구축 때 정리된다.
+ */
+public final class TrigramIndex {
+
+    public static final int GRAM = 3;
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final List<String> fields;
+    private final Map<Long, RoaringBitmap> postings = new HashMap<>();
+    // 순번 → id / contentHash (죽은 순번의 contentHash 는 null)
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> contentHashes = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long modifications;
+
+    public TrigramIndex(List<String> fields) {
+        if (fields.size() > 0xFFFF) throw new IllegalArgumentException("too many fields");
+        this.fields = List.copyOf(fields);
+    }
+
+    public List<String> fields() {
+        return fields;
+    }
+
+    /**
+     * id 문서를 values(필드 → 값 목록) 로 바꾼다. 색인 대상이 아닌 필드는 무시한다.
+     */
+    public void put(String id, String contentHash, Map<String, ? extends Collection<String>> values) {
+        Set<Long> keys = new HashSet<>();
+        for (int field = 0; field < fields.size(); field++) {
+            Collection<String> fieldValues = values.get(fields.get(field));
+            if (fieldValues == null) continue;
+            for (String value : fieldValues) {
+                if (value != null) addKeys(keys, field, value.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = ordinals.get(id);
+            if (previous != null) kill(previous);
+
+            int ordinal = ids.size();
+            ids.add(id);
+            contentHashes.add(contentHash);
+            ordinals.put(id, ordinal);
+            live.add(ordinal);
+            for (Long key : keys) {
+                postings.computeIfAbsent(key, ignored -> new RoaringBitmap()).add(ordinal);
+            }
+            modifications++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = ordinals.remove(id);
+            if (previous != null) {
+                kill(previous);
+                modifications++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * field 값 중 하나라도 substring 을 포함할 수 있는 문서 순번.
+     * substring 이 GRAM 글자보다 짧거나 색인하지 않는 필드면 좁힐 수 없으므로 null.
+     */
+    public RoaringBitmap candidates(String field, String substring) {
+        int fieldIndex = fields.indexOf(field);
+        if (fieldIndex < 0 || substring == null || substring.length() < GRAM) return null;
+
+        Set<Long> keys = new HashSet<>();
+        addKeys(keys, fieldIndex, substring.toLowerCase(Locale.ROOT));
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap[] lists = new RoaringBitmap[keys.size() + 1];
+            int i = 0;
+            for (Long key : keys) {
+                RoaringBitmap list = postings.get(key);
+                if (list == null) return new RoaringBitmap();
+                lists[i++] = list;
+            }
+            lists[i] = live;
+            return FastAggregation.and(lists);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * candidates 가 돌려준 순번을 id 로 바꾼다 (그 사이 바뀐 문서의 이전 순번도 id 로 바꿔 준다)
+     */
+    public List<String> ids(RoaringBitmap candidates) {
+        List<String> result = new ArrayList<>(candidates.getCardinality());
+        lock.readLock().lock();
+        try {
+            candidates.forEach((int ordinal) -> result.add(ids.get(ordinal)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public String contentHash(String id) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(id);
+            return ordinal != null ? contentHashes.get(ordinal) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 살아 있는 문서 (id, contentHash) 를 모두 넘긴다
+    public void forEachDocument(BiConsumer<String, String> consumer) {
+        lock.readLock().lock();
+        try {
+            live.forEach((int ordinal) -> consumer.accept(ids.get(ordinal), contentHashes.get(ordinal)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 바뀌거나 지워져 더 이상 쓰이지 않는 순번 수
+    public int deadCount() {
+        lock.readLock().lock();
+        try {
+            return ids.size() - live.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // put / remove 할 때마다 증가 (스냅샷 이후 변경 여부 확인용)
+    public long modifications() {
+        lock.readLock().lock();
+        try {
+            return modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 대략적인 힙 사용량 (순번 목록 + 키 / 맵 엔트리 오버헤드)
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = live.getLongSizeInBytes();
+            for (RoaringBitmap list : postings.values()) {
+                bytes += list.getLongSizeInBytes() + 64;
+            }
+            return bytes + (long) ids.size() * 120;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * [version][필드 목록][순번별 id / contentHash][live][trigram 수][(key, 순번 목록)...]
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(fields.size());
+            for (String field : fields) {
+                out.writeUTF(field);
+            }
+            out.writeInt(ids.size());
+            for (int ordinal = 0; ordinal < ids.size(); ordinal++) {
+                writeNullable(out, ids.get(ordinal));
+                writeNullable(out, contentHashes.get(ordinal));
+            }
+            live.serialize(out);
+            out.writeInt(postings.size());
+            for (Map.Entry<Long, RoaringBitmap> entry : postings.entrySet()) {
+                out.writeLong(entry.getKey());
+                entry.getValue().serialize(out);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static TrigramIndex readFrom(DataInput in) throws IOException {
+        if (in.readInt() != SNAPSHOT_VERSION) throw new IOException("unsupported trigram index version");
+
+        int fieldCount = in.readInt();
+        List<String> fields = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            fields.add(in.readUTF());
+        }
+        TrigramIndex index = new TrigramIndex(fields);
+
+        int ordinalCount = in.readInt();
+        for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+            index.ids.add(readNullable(in));
+            index.contentHashes.add(readNullable(in));
+        }
+        index.live.deserialize(in);
+        index.live.forEach((int ordinal) -> index.ordinals.put(index.ids.get(ordinal), ordinal));
+
+        int trigramCount = in.readInt();
+        for (int i = 0; i < trigramCount; i++) {
+            long key = in.readLong();
+            RoaringBitmap list = new RoaringBitmap();
+            list.deserialize(in);
+            index.postings.put(key, list);
+        }
+        return index;
+    }
+
+    // ======= 내부 메서드 =======
+
+    // id 는 남겨 둔다 (candidates 와 ids 사이에 바뀐 문서도 후보로 돌려주기 위해)
+    private void kill(int ordinal) {
+        live.remove(ordinal);
+        contentHashes.set(ordinal, null);
+    }
+
+    // (필드 번호 16비트 | 글자 3개 각 16비트)
+    private static void addKeys(Set<Long> keys, int field, String value) {
+        long prefix = (long) field << 48;
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            keys.add(prefix
+                    | ((long) value.charAt(i) << 32)
+                    | ((long) value.charAt(i + 1) << 16)
+                    | value.charAt(i + 2));
+        }
+    }
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,329 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * col_vulnerability 의 읽기 전용 컬럼 스냅샷.
+ *
+ * 행 번호는 id 순서이며, 패싯 컬럼(host, author, 분류, CVE, 제품, 기법)은 정렬된 값 사전과
+ * 값별 행 번호 비트맵(Roaring, 압축)으로 저장한다. CVSS / 업로드 시각은 기본형 배열과
+ * 값 순서로 정렬한 행 번호 배열로 저장해 범위 조건과 정렬을 이진 탐색 / 순회로 처리한다.
+ * 변경이 생기면 통째로 다시 만들어 교체하므로 조회 중에는 잠금이 필요 없다.
+ */
+public final class VulnerabilityColumnStore {
+
+    public static final String FACET_HOST = "host";
+    public static final String FACET_AUTHOR = "author";
+    public static final String FACET_CLASS = "vulnerabilityClass";
+    public static final String FACET_CVE = "cve";
+    public static final String FACET_PRODUCT = "products";
+    public static final String FACET_TECHNIQUE = "exploitationTechnique";
+
+    public static final List<String> FACETS = List.of(
+            FACET_HOST, FACET_AUTHOR, FACET_CLASS, FACET_CVE, FACET_PRODUCT, FACET_TECHNIQUE);
+
+    public static final String SORT_ID = "_id";
+    public static final String SORT_UPLOAD_DATE = "uploadDateTs";
+    public static final String SORT_CVSS = "cvssScore";
+
+    // 업로드 시각을 알 수 없는 행 (정렬 시 가장 앞, 범위 조건에서는 제외)
+    public static final long UNKNOWN_TIME = Long.MIN_VALUE;
+
+    private static final String PREFIX_WILDCARD = "*";
+
+    private final String[] ids;
+    private final String[] contentHashes;
+    private final long[] uploadTimes;
+    private final double[] cvssScores;
+    private final Map<String, FacetColumn> facets;
+
+    // 값 오름차순 (같은 값은 행 번호 = id 순) 으로 정렬한 행 번호, 그리고 행 → 그 순서 내 위치
+    private final int[] uploadOrder;
+    private final int[] uploadRank;
+    private final int[] cvssOrder;
+    private final int[] cvssRank;
+
+    private VulnerabilityColumnStore(String[] ids, String[] contentHashes, long[] uploadTimes, double[] cvssScores,
+                                     Map<String, FacetColumn> facets) {
+        this.ids = ids;
+        this.contentHashes = contentHashes;
+        this.uploadTimes = uploadTimes;
+        this.cvssScores = cvssScores;
+        this.facets = facets;
+        this.uploadOrder = sortedRows(ids.length, Comparator.comparingLong(row -> uploadTimes[row]));
+        this.uploadRank = ranks(uploadOrder);
+        // NaN(점수 없음) 을 가장 앞에 두어 Mongo 의 null 정렬 순서와 맞춘다
+        this.cvssOrder = sortedRows(ids.length, Comparator.comparingDouble(
+                row -> Double.isNaN(cvssScores[row]) ? Double.NEGATIVE_INFINITY : cvssScores[row]));
+        this.cvssRank = ranks(cvssOrder);
+    }
+
+    /**
+     * 한 문서에 해당하는 행. cvss 가 없으면 NaN, 업로드 시각이 없으면 UNKNOWN_TIME.
+     */
+    public record Row(String id, String contentHash, long uploadTime, double cvss, Map<String, ? extends Collection<String>> facets) {
+    }
+
+    public static VulnerabilityColumnStore build(Collection<Row> rows) {
+        List<Row> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(Row::id));
+
+        int n = sorted.size();
+        String[] ids = new String[n];
+        String[] contentHashes = new String[n];
+        long[] uploadTimes = new long[n];
+        double[] cvssScores = new double[n];
+        Map<String, TreeMap<String, RoaringBitmap>> postings = new HashMap<>();
+        for (String facet : FACETS) {
+            postings.put(facet, new TreeMap<>());
+        }
+
+        for (int row = 0; row < n; row++) {
+            Row source = sorted.get(row);
+            ids[row] = source.id();
+            contentHashes[row] = source.contentHash();
+            uploadTimes[row] = source.uploadTime();
+            cvssScores[row] = source.cvss();
+            for (String facet : FACETS) {
+                Collection<String> values = source.facets().get(facet);
+                if (values == null) continue;
+                for (String value : values) {
+                    if (value == null || value.isEmpty()) continue;
+                    postings.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(row);
+                }
+            }
+        }
+
+        Map<String, FacetColumn> facets = new HashMap<>();
+        postings.forEach((facet, values) -> facets.put(facet, FacetColumn.of(values)));
+        return new VulnerabilityColumnStore(ids, contentHashes, uploadTimes, cvssScores, facets);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public String id(int row) {
+        return ids[row];
+    }
+
+    public String contentHash(int row) {
+        return contentHashes[row];
+    }
+
+    public RoaringBitmap all() {
+        RoaringBitmap all = new RoaringBitmap();
+        all.add(0L, ids.length);
+        return all;
+    }
+
+    /**
+     * 값 중 하나라도 가진 행. '*' 로 끝나는 값은 접두사 일치 (DataQueryBuilder 와 같은 규칙).
+     */
+    public RoaringBitmap facet(String facet, Collection<String> values) {
+        FacetColumn column = facets.get(facet);
+        List<RoaringBitmap> matches = new ArrayList<>();
+        for (String value : values) {
+            if (value.endsWith(PREFIX_WILDCARD) && value.length() > 1) {
+                column.prefix(value.substring(0, value.length() - 1), matches);
+            } else {
+                RoaringBitmap posting = column.posting(value);
+                if (posting != null) matches.add(posting);
+            }
+        }
+        return matches.isEmpty() ? new RoaringBitmap() : FastAggregation.or(matches.toArray(new RoaringBitmap[0]));
+    }
+
+    public RoaringBitmap cvssRange(Double min, Double max) {
+        int from = min != null ? lowerBound(cvssOrder, row -> cvssValue(row) >= min) : firstKnownCvss();
+        int to = max != null ? lowerBound(cvssOrder, row -> cvssValue(row) > max) : cvssOrder.length;
+        return rowsOf(cvssOrder, Math.max(from, firstKnownCvss()), to);
+    }
+
+    public RoaringBitmap uploadTimeRange(Long min, Long max) {
+        int known = lowerBound(uploadOrder, row -> uploadTimes[row] != UNKNOWN_TIME);
+        int from = min != null ? lowerBound(uploadOrder, row -> uploadTimes[row] >= min) : known;
+        int to = max != null ? lowerBound(uploadOrder, row -> uploadTimes[row] > max) : uploadOrder.length;
+        return rowsOf(uploadOrder, Math.max(from, known), to);
+    }
+
+    /**
+     * base 에 속한 행 기준 패싯 값별 건수 (건수 내림차순, 같으면 값 순)
+     */
+    public Map<String, Integer> facetCounts(String facet, RoaringBitmap base, int limit) {
+        FacetColumn column = facets.get(facet);
+        List<Map.Entry<String, Integer>> counts = new ArrayList<>();
+        for (int i = 0; i < column.values.length; i++) {
+            int count = RoaringBitmap.andCardinality(base, column.postings[i]);
+            if (count > 0) counts.add(Map.entry(column.values[i], count));
+        }
+        counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : counts.subList(0, Math.min(limit, counts.size()))) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * matches 를 정렬해 offset 부터 limit 개의 행 번호를 반환한다. 같은 값은 id 순 (내림차순이면 id 역순).
+     */
+    public int[] page(RoaringBitmap matches, String sortField, boolean ascending, int offset, int limit) {
+        int total = matches.getCardinality();
+        int count = Math.max(0, Math.min(limit, total - offset));
+        int[] page = new int[count];
+        if (count == 0) return page;
+
+        if (SORT_ID.equals(sortField)) {
+            // 행 번호 = id 순서
+            for (int i = 0; i < count; i++) {
+                page[i] = matches.select(ascending ? offset + i : total - 1 - offset - i);
+            }
+            return page;
+        }
+
+        int[] order = SORT_CVSS.equals(sortField) ? cvssOrder : uploadOrder;
+        int[] rank = SORT_CVSS.equals(sortField) ? cvssRank : uploadRank;
+
+        if ((long) total * 16 < order.length) {
+            // 결과가 적으면 해당 행만 정렬 순서 위치로 정렬
+            int[] positions = new int[total];
+            int i = 0;
+            for (int row : matches) {
+                positions[i++] = rank[row];
+            }
+            Arrays.sort(positions);
+            for (int j = 0; j < count; j++) {
+                page[j] = order[positions[ascending ? offset + j : total - 1 - offset - j]];
+            }
+            return page;
+        }
+
+        // 결과가 많으면 정렬 순서대로 훑으며 일치하는 행만 고른다
+        int skipped = 0;
+        int filled = 0;
+        for (int i = 0; i < order.length && filled < count; i++) {
+            int row = order[ascending ? i : order.length - 1 - i];
+            if (!matches.contains(row)) continue;
+            if (skipped++ < offset) continue;
+            page[filled++] = row;
+        }
+        return page;
+    }
+
+    public static boolean isSortable(String field) {
+        return SORT_ID.equals(field) || SORT_UPLOAD_DATE.equals(field) || SORT_CVSS.equals(field);
+    }
+
+    public long getMemoryBytes() {
+        long bytes = (long) ids.length * (Long.BYTES + Double.BYTES + 4L * Integer.BYTES);
+        for (FacetColumn column : facets.values()) {
+            for (RoaringBitmap posting : column.postings) {
+                bytes += posting.getLongSizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    // ======= 헬퍼 메서드 =======
+
+    private double cvssValue(int row) {
+        return Double.isNaN(cvssScores[row]) ? Double.NEGATIVE_INFINITY : cvssScores[row];
+    }
+
+    private int firstKnownCvss() {
+        return lowerBound(cvssOrder, row -> !Double.isNaN(cvssScores[row]));
+    }
+
+    private RoaringBitmap rowsOf(int[] order, int from, int to) {
+        RoaringBitmap rows = new RoaringBitmap();
+        for (int i = from; i < to; i++) {
+            rows.add(order[i]);
+        }
+        return rows;
+    }
+
+    // order 안에서 condition 이 처음 참이 되는 위치 (condition 은 순서에 대해 단조)
+    private static int lowerBound(int[] order, IntPredicate condition) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (condition.test(order[mid])) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int[] sortedRows(int n, Comparator<Integer> comparator) {
+        Integer[] rows = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            rows[i] = i;
+        }
+        // 안정 정렬이므로 같은 값은 행 번호(id) 순서를 유지한다
+        Arrays.sort(rows, comparator);
+        return Arrays.stream(rows).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] ranks(int[] order) {
+        int[] rank = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            rank[order[i]] = i;
+        }
+        return rank;
+    }
+
+    /**
+     * 사전 인코딩된 패싯 컬럼: 정렬된 값 배열과 값별 행 비트맵
+     */
+    private static final class FacetColumn {
+
+        private final String[] values;
+        private final RoaringBitmap[] postings;
+
+        private FacetColumn(String[] values, RoaringBitmap[] postings) {
+            this.values = values;
+            this.postings = postings;
+        }
+
+        static FacetColumn of(TreeMap<String, RoaringBitmap> postings) {
+            String[] values = postings.keySet().toArray(new String[0]);
+            RoaringBitmap[] bitmaps = new RoaringBitmap[values.length];
+            for (int i = 0; i < values.length; i++) {
+                bitmaps[i] = postings.get(values[i]);
+                bitmaps[i].runOptimize();
+            }
+            return new FacetColumn(values, bitmaps);
+        }
+
+        RoaringBitmap posting(String value) {
+            int index = Arrays.binarySearch(values, value);
+            return index >= 0 ? postings[index] : null;
+        }
+
+        // 정렬된 사전에서 접두사 범위의 비트맵을 모은다
+        void prefix(String prefix, List<RoaringBitmap> matches) {
+            int index = Arrays.binarySearch(values, prefix);
+            if (index < 0) index = -index - 1;
+            while (index < values.length && values[index].startsWith(prefix)) {
+                matches.add(postings[index++]);
+            }
+        }
+    }
+}
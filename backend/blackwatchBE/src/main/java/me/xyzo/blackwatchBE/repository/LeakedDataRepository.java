@@ -20,24 +20,6 @@ public interface LeakedDataRepository extends MongoRepository<LeakedDataDocument
 
     Page<LeakedDataDocument> findByAuthorContaining(String author, Pageable pageable);
 
-    // 복합 검색을 위한 커스텀 쿼리 (필드명 업데이트)
-    @Query("{ $and: [ " +
-            "?#{[0] == null ? {} : {'uploadDate': {$gte: ?0}}}, " +
-            "?#{[1] == null ? {} : {'uploadDate': {$lte: ?1}}}, " +
-            "?#{[2] == null ? {} : {'host': {$regex: ?2, $options: 'i'}}}, " +
-            "?#{[3] == null ? {} : {'path': {$regex: ?3, $options: 'i'}}}, " +
-            "?#{[4] == null ? {} : {'title': {$regex: ?4, $options: 'i'}}}, " +
-            "?#{[5] == null ? {} : {'author': {$regex: ?5, $options: 'i'}}}, " +
-            "?#{[6] == null ? {} : {'recordsCount': {$gte: ?6}}}, " +
-            "?#{[7] == null ? {} : {'recordsCount': {$lte: ?7}}}, " +
-            "?#{[8] == null ? {} : {'iocs': {$regex: ?8, $options: 'i'}}} " +
-            "] }")
-    Page<LeakedDataDocument> findWithFilters(
-            String from, String to, String host,
-            String pathContains, String titleContains, String author,
-            String recordMin, String recordMax, String iocContains,
-            Pageable pageable);
-
     // 전체 텍스트 검색
     @Query("{ $or: [ " +
             "{'title': {$regex: ?0, $options: 'i'}}, " +
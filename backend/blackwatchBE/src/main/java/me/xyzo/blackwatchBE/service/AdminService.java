@@ -30,6 +30,12 @@ public class AdminService {
     @Autowired
     private CredentialDocumentRepository credentialDocumentRepository;
 
+    @Autowired
+    private PersonalDataIndexService personalDataIndexService;
+
+    @Autowired
+    private StatsRollupService statsRollupService;
+
     @Transactional(readOnly = true)
     public List<ContributionApplicationStatusDto> getAllApplications() {
         List<ContributionApplication> applications = applicationRepository.findAll();
@@ -92,6 +98,15 @@ public class AdminService {
         credentialDocumentRepository.deleteByClientId(application.getClientId());
     }
 
+    // 재구축은 별도 스레드에서 진행 (이미 진행 중이면 false)
+    public boolean rebuildPersonalDataIndex() {
+        return personalDataIndexService.rebuildAsync();
+    }
+
+    public boolean rebuildStatsRollup() {
+        return statsRollupService.rebuildAsync();
+    }
+
     public void resetApplicationToPending(String userId) {
         ContributionApplication application = applicationRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("기여자 신청을 찾을 수 없습니다."));
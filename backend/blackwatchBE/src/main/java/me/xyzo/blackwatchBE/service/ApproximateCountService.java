@@ -0,0 +1,109 @@
+package me.xyzo.blackwatchBE.service;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * count=approx 모드에서 사용하는 근사 전체 건수.
+ *
+ * 필터가 없으면 컬렉션 메타데이터 기반 estimatedDocumentCount 를 사용하고,
+ * 필터가 있으면 필터 시그니처별 count 를 캐시해 두고 스케줄러가 백그라운드에서 갱신한다.
+ * 요청 스레드는 시그니처를 처음 볼 때만 countDocuments 비용을 낸다.
+ * 시그니처와 갱신 쿼리는 trigram 후보 $in 을 뺀 필터(DataQueryBuilder.filterObject)를 사용하므로
+ * 후보 목록이 바뀌어도 같은 항목을 쓰고, 갱신 시 이후에 들어온 문서도 센다.
+ */
+@Service
+public class ApproximateCountService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${data.count.approx.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${data.count.approx.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    @Value("${data.count.approx.idle-seconds:1800}")
+    private long idleSeconds;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public long count(Criteria criteria, Class<?> type) {
+        Document criteriaObject = criteria.getCriteriaObject();
+        String collectionName = mongoTemplate.getCollectionName(type);
+
+        if (criteriaObject.isEmpty()) {
+            return mongoTemplate.getCollection(collectionName).estimatedDocumentCount();
+        }
+
+        String signature = collectionName + ":" + DataQueryBuilder.signature(criteria);
+        CachedCount cached = counts.get(signature);
+        if (cached != null) {
+            cached.lastAccessedAt = System.currentTimeMillis();
+            return cached.count;
+        }
+
+        long count = mongoTemplate.count(new Query(criteria), type);
+        if (counts.size() >= maxEntries) {
+            evictLeastRecentlyUsed();
+        }
+        counts.put(signature, new CachedCount(DataQueryBuilder.filterObject(criteria), type, count));
+        return count;
+    }
+
+    /**
+     * 오래된 count 를 다시 계산하고, 일정 시간 조회되지 않은 시그니처는 제거한다.
+     */
+    @Scheduled(fixedDelayString = "${data.count.approx.refresh-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void refreshCounts() {
+        long now = System.currentTimeMillis();
+
+        counts.entrySet().removeIf(entry ->
+                now - entry.getValue().lastAccessedAt > TimeUnit.SECONDS.toMillis(idleSeconds));
+
+        for (CachedCount cached : counts.values()) {
+            if (now - cached.computedAt < TimeUnit.SECONDS.toMillis(refreshSeconds)) continue;
+            try {
+                cached.count = mongoTemplate.count(new BasicQuery(cached.filter), cached.type);
+                cached.computedAt = System.currentTimeMillis();
+            } catch (Exception e) {
+                System.out.println("Approximate count refresh failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        counts.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastAccessedAt))
+                .ifPresent(entry -> counts.remove(entry.getKey()));
+    }
+
+    private static class CachedCount {
+        private final Document filter;
+        private final Class<?> type;
+        private volatile long count;
+        private volatile long computedAt;
+        private volatile long lastAccessedAt;
+
+        CachedCount(Document filter, Class<?> type, long count) {
+            this.filter = filter;
+            this.type = type;
+            this.count = count;
+            this.computedAt = System.currentTimeMillis();
+            this.lastAccessedAt = this.computedAt;
+        }
+    }
+}
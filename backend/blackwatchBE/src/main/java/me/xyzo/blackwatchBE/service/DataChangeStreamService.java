@@ -0,0 +1,212 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PreDestroy;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * col_leaked / col_vulnerability 에 대한 단일 MongoDB change stream.
+ *
+ * 크롤러 서버가 직접 넣는 문서를 포함한 모든 변경을 등록된 DataChangeListener 들에게 전달한다.
+ * 인스턴스당 커서 하나만 열고, 오류 시 마지막 resume token 부터 재시도한다.
+ * (change stream 은 replica set / Atlas 에서만 동작한다)
+ */
+@Service
+public class DataChangeStreamService {
+
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectProvider<DataChangeListener> listeners;
+
+    @Value("${data.change-stream.enabled:true}")
+    private boolean enabled;
+
+    // 마지막으로 커서를 읽은 뒤 이 시간이 지나면 스트림이 멈춘 것으로 본다
+    @Value("${data.change-stream.health-timeout-seconds:30}")
+    private long healthTimeoutSeconds;
+
+    private volatile boolean running;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private volatile long lastPollMillis;
+    // 밀린 이벤트를 처리하는 동안 마지막으로 전달한 이벤트의 clusterTime (ms). 밀린 이벤트가 없으면 0
+    private volatile long appliedEventMillis;
+    private BsonDocument resumeToken;
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) return;
+        running = true;
+        worker = new Thread(this::watchLoop, "data-change-stream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 커서가 열려 있고 최근 health-timeout 안에 tryNext 가 성공했는지.
+     * 재시도(backoff) 중이거나 커서가 멈췄으면 false 이므로, 변경 스트림으로 유지되는 복제본 / 실시간 피드는
+     * 이 값이 false 일 때 Mongo 조회로 돌아가야 한다.
+     */
+    public boolean isHealthy() {
+        return running && cursor != null
+                && System.currentTimeMillis() - lastPollMillis <= TimeUnit.SECONDS.toMillis(healthTimeoutSeconds);
+    }
+
+    /**
+     * 리스너에 전달된 마지막 이벤트가 기록된 뒤 지난 시간 (밀린 이벤트가 없으면 0, 스트림이 멈췄으면 Long.MAX_VALUE).
+     * 리스너는 스트림 스레드에서 차례로 호출되므로, 변경 스트림으로 유지되는 색인은 이 시간만큼 뒤처져 있다.
+     */
+    public long lagMillis() {
+        if (!isHealthy()) return Long.MAX_VALUE;
+        long applied = appliedEventMillis;
+        return applied == 0 ? 0 : Math.max(0, System.currentTimeMillis() - applied);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> current = cursor;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (Exception ignored) {
+                // 종료 중
+            }
+        }
+    }
+
+    private void watchLoop() {
+        long backoff = 1000;
+        while (running) {
+            try {
+                watch();
+                backoff = 1000;
+            } catch (Exception e) {
+                if (!running) break;
+                System.out.println("Data change stream interrupted, retrying in " + backoff + "ms: " + e.getMessage());
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void watch() {
+        List<Bson> pipeline = List.of(Aggregates.match(Filters.and(
+                Filters.in("ns.coll", DataChangeEvent.LEAKED_COLLECTION, DataChangeEvent.VULNERABILITY_COLLECTION),
+                Filters.in("operationType", "insert", "update", "replace", "delete"))));
+
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb().watch(pipeline)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = stream.cursor()) {
+            cursor = opened;
+            lastPollMillis = System.currentTimeMillis();
+            while (running) {
+                ChangeStreamDocument<Document> change = opened.tryNext();
+                lastPollMillis = System.currentTimeMillis();
+                if (change == null) {
+                    appliedEventMillis = 0;
+                    continue;
+                }
+
+                resumeToken = change.getResumeToken();
+                DataChangeEvent event = toEvent(change);
+                if (event != null) {
+                    dispatch(event);
+                }
+                if (change.getClusterTime() != null) {
+                    appliedEventMillis = TimeUnit.SECONDS.toMillis(change.getClusterTime().getTime());
+                }
+            }
+        } finally {
+            cursor = null;
+        }
+    }
+
+    private void dispatch(DataChangeEvent event) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onDataChange(event);
+            } catch (Exception e) {
+                System.out.println("Data change listener " + listener.getClass().getSimpleName()
+                        + " failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private DataChangeEvent toEvent(ChangeStreamDocument<Document> change) {
+        if (change.getNamespace() == null || change.getDocumentKey() == null) return null;
+
+        DataChangeEvent.Operation operation = switch (change.getOperationType()) {
+            case INSERT -> DataChangeEvent.Operation.INSERT;
+            case UPDATE -> DataChangeEvent.Operation.UPDATE;
+            case REPLACE -> DataChangeEvent.Operation.REPLACE;
+            case DELETE -> DataChangeEvent.Operation.DELETE;
+            default -> null;
+        };
+        if (operation == null) return null;
+
+        Set<String> updatedFields = new HashSet<>();
+        if (change.getUpdateDescription() != null) {
+            if (change.getUpdateDescription().getUpdatedFields() != null) {
+                updatedFields.addAll(change.getUpdateDescription().getUpdatedFields().keySet());
+            }
+            if (change.getUpdateDescription().getRemovedFields() != null) {
+                updatedFields.addAll(change.getUpdateDescription().getRemovedFields());
+            }
+        }
+
+        return new DataChangeEvent(
+                change.getNamespace().getCollectionName(),
+                operation,
+                idToString(change.getDocumentKey().get("_id")),
+                change.getFullDocument(),
+                updatedFields);
+    }
+
+    static String idToString(BsonValue id) {
+        if (id == null) return null;
+        if (id.isObjectId()) return id.asObjectId().getValue().toHexString();
+        if (id.isString()) return id.asString().getValue();
+        return id.toString();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
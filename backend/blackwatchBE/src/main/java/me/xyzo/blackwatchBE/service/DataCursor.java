@@ -0,0 +1,133 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 커서 페이지네이션 토큰.
+ *
+ * 정렬 필드 값과 _id(동일 값 사이의 순서 보장용)를 담아 클라이언트에 불투명한 문자열로 전달한다.
+ * 다음 페이지는 skip 없이 (field, _id) 범위 조건으로 인덱스를 이어서 탐색한다.
+ */
+public final class DataCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static final String ID_FIELD = "_id";
+
+    private final String field;
+    private final Sort.Direction direction;
+    private final Object value;
+    private final String id;
+
+    public DataCursor(String field, Sort.Direction direction, Object value, String id) {
+        this.field = field;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    public String getField() { return field; }
+    public Sort.Direction getDirection() { return direction; }
+    public Object getValue() { return value; }
+    public String getId() { return id; }
+
+    /**
+     * 마지막으로 받은 문서 다음부터 조회하는 조건.
+     * DESC: field < v OR (field == v AND _id < id) OR field == null, ASC 는 부등호 반대.
+     * null 값은 ASC 에서 가장 앞, DESC 에서 가장 뒤에 정렬되는 MongoDB 규칙을 따른다.
+     * $lt / $gt 는 같은 타입끼리만 비교하므로 DESC 에서 뒤에 오는 null / 필드 없는 문서는 따로 포함한다.
+     */
+    public Criteria seekCriteria() {
+        boolean desc = direction == Sort.Direction.DESC;
+        if (ID_FIELD.equals(field)) {
+            return desc ? Criteria.where(ID_FIELD).lt(id) : Criteria.where(ID_FIELD).gt(id);
+        }
+
+        Criteria sameValueNextId = desc
+                ? Criteria.where(field).is(value).and(ID_FIELD).lt(id)
+                : Criteria.where(field).is(value).and(ID_FIELD).gt(id);
+
+        if (value == null) {
+            return desc
+                    ? sameValueNextId
+                    : new Criteria().orOperator(sameValueNextId, Criteria.where(field).ne(null));
+        }
+
+        if (desc) {
+            return new Criteria().orOperator(
+                    Criteria.where(field).lt(value), sameValueNextId, Criteria.where(field).is(null));
+        }
+        return new Criteria().orOperator(Criteria.where(field).gt(value), sameValueNextId);
+    }
+
+    public String encode() {
+        String type;
+        String raw;
+        if (value == null) {
+            type = "z";
+            raw = "";
+        } else if (value instanceof Date date) {
+            type = "d";
+            raw = Long.toString(date.getTime());
+        } else if (value instanceof Integer || value instanceof Long) {
+            type = "l";
+            raw = value.toString();
+        } else if (value instanceof Number number) {
+            type = "f";
+            raw = Double.toString(number.doubleValue());
+        } else {
+            type = "s";
+            raw = value.toString();
+        }
+
+        return String.join(".",
+                encodePart(field),
+                encodePart(direction.name()),
+                encodePart(type),
+                encodePart(raw),
+                encodePart(id));
+    }
+
+    public static DataCursor decode(String token) {
+        try {
+            String[] parts = token.split("\\.", -1);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("invalid part count");
+            }
+
+            String field = decodePart(parts[0]);
+            Sort.Direction direction = Sort.Direction.valueOf(decodePart(parts[1]));
+            String type = decodePart(parts[2]);
+            String raw = decodePart(parts[3]);
+            String id = decodePart(parts[4]);
+
+            Object value = switch (type) {
+                case "z" -> null;
+                case "d" -> new Date(Long.parseLong(raw));
+                case "l" -> Long.parseLong(raw);
+                case "f" -> Double.parseDouble(raw);
+                case "s" -> raw;
+                default -> throw new IllegalArgumentException("unknown value type");
+            };
+
+            return new DataCursor(field, direction, value, id);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("유효하지 않은 커서입니다.");
+        }
+    }
+
+    private static String encodePart(String value) {
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePart(String value) {
+        return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+}
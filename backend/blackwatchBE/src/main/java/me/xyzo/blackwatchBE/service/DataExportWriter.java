@@ -0,0 +1,103 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.xyzo.blackwatchBE.dto.ExportFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * export 응답을 한 행씩 NDJSON / CSV 로 기록한다. 행을 모아두지 않으므로 메모리 사용량이 일정하다.
+ */
+class DataExportWriter {
+
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final ExportFormat format;
+    private final List<String> columns;
+    private final OutputStream out;
+    private long rows;
+
+    DataExportWriter(ObjectMapper objectMapper, ExportFormat format, List<String> columns, OutputStream out) {
+        this.objectMapper = objectMapper;
+        this.format = format;
+        this.columns = columns;
+        this.out = new BufferedOutputStream(out, 64 * 1024);
+    }
+
+    void writeHeader() throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeLine(String.join(",", columns.stream().map(this::escapeCsv).toList()));
+        }
+    }
+
+    void writeRow(Map<String, Object> row) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            out.write(objectMapper.writeValueAsBytes(row));
+            out.write('\n');
+        } else {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) line.append(',');
+                line.append(escapeCsv(neutralizeFormula(toCsvValue(row.get(columns.get(i))))));
+            }
+            writeLine(line.toString());
+        }
+
+        if (++rows % FLUSH_EVERY_ROWS == 0) {
+            out.flush();
+        }
+    }
+
+    void finish() throws IOException {
+        out.flush();
+    }
+
+    private void writeLine(String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.write('\n');
+    }
+
+    // 배열은 ';' 로 연결하고, 중첩 객체는 JSON 문자열로 기록한다
+    private String toCsvValue(Object value) throws IOException {
+        if (value == null) return "";
+        if (value instanceof Collection<?> values) {
+            StringBuilder sb = new StringBuilder();
+            for (Object item : values) {
+                if (sb.length() > 0) sb.append(';');
+                sb.append(item);
+            }
+            return sb.toString();
+        }
+        if (value instanceof Map<?, ?>) {
+            return objectMapper.writeValueAsString(value);
+        }
+        return value.toString();
+    }
+
+    /**
+     * 제목 / 작성자 / 본문은 크롤링한 페이지의 값이므로, 스프레드시트가 수식으로 해석하는
+     * 문자(=, +, -, @, 탭, CR)로 시작하면 앞에 ' 를 붙여 문자열로 열리게 한다.
+     */
+    private String neutralizeFormula(String value) {
+        if (value.isEmpty()) return value;
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
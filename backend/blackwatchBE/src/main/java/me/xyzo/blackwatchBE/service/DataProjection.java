@@ -0,0 +1,137 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * /data 조회의 projection 파라미터를 MongoDB 필드 projection 으로 변환한다.
+ *
+ * - 이름 있는 projection (summary, iocs, cves, full) 또는 콤마로 구분한 필드 목록을 받는다.
+ * - full 은 leaked.email / leaked.realname / leaked.username 만 제외하는 exclusion projection 이다.
+ * - 필드 목록에 leaked 가 있으면 개인정보가 아닌 하위 필드(hash, fileName, count)만 포함한다.
+ * 어떤 경우에도 개인정보 하위 필드는 DB 에서 읽어오지 않는다.
+ */
+public final class DataProjection {
+
+    public static final String FULL = "full";
+
+    static final List<String> LEAKED_PII_FIELDS = List.of("leaked.email", "leaked.realname", "leaked.username");
+    private static final List<String> LEAKED_SAFE_SUBFIELDS = List.of("leaked.hash", "leaked.fileName", "leaked.count");
+
+    private static final Set<String> LEAKED_FIELDS = Set.of(
+            "id", "clientId", "host", "path", "title", "author", "uploadDate", "leakType",
+            "recordsCount", "iocs", "price", "article", "ref", "leaked");
+
+    private static final Set<String> VULNERABILITY_FIELDS = Set.of(
+            "id", "clientId", "host", "path", "title", "author", "uploadDate", "cveIds", "cvss",
+            "vulnerabilityClass", "products", "exploitationTechnique", "article", "ref");
+
+    private static final Map<String, List<String>> LEAKED_NAMED = Map.of(
+            "summary", List.of("id", "host", "path", "title", "author", "uploadDate", "leakType",
+                    "recordsCount", "price"),
+            "iocs", List.of("id", "host", "title", "uploadDate", "iocs"));
+
+    private static final Map<String, List<String>> VULNERABILITY_NAMED = Map.of(
+            "summary", List.of("id", "host", "path", "title", "author", "uploadDate", "cveIds", "cvss",
+                    "vulnerabilityClass"),
+            "cves", List.of("id", "title", "uploadDate", "cveIds", "cvss", "products"));
+
+    // null 이면 전체 필드 (개인정보 제외)
+    private final Set<String> fields;
+    private final boolean leaked;
+
+    private DataProjection(Set<String> fields, boolean leaked) {
+        this.fields = fields;
+        this.leaked = leaked;
+    }
+
+    public static DataProjection forLeaked(String projection) {
+        return new DataProjection(resolve(projection, LEAKED_NAMED, LEAKED_FIELDS), true);
+    }
+
+    public static DataProjection forVulnerability(String projection) {
+        return new DataProjection(resolve(projection, VULNERABILITY_NAMED, VULNERABILITY_FIELDS), false);
+    }
+
+    public boolean isFull() {
+        return fields == null;
+    }
+
+    /**
+     * 응답 Map 에 해당 필드를 포함할지 여부
+     */
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * 캐시 키용 정규화 표현 (같은 필드 집합이면 요청 표기와 관계없이 같은 값)
+     */
+    public String signature() {
+        return fields == null ? FULL : String.join(",", new TreeSet<>(fields));
+    }
+
+    public Query apply(Query query) {
+        return apply(query, List.of());
+    }
+
+    /**
+     * 쿼리에 projection 을 적용한다. requiredFields 는 응답에는 없더라도
+     * 서버에서 필요한 필드(예: 커서 정렬 키)로 inclusion projection 에 추가된다.
+     */
+    public Query apply(Query query, Collection<String> requiredFields) {
+        Field projection = query.fields();
+
+        if (fields == null) {
+            if (leaked) {
+                LEAKED_PII_FIELDS.forEach(projection::exclude);
+            }
+            return query;
+        }
+
+        for (String field : fields) {
+            if (leaked && "leaked".equals(field)) {
+                LEAKED_SAFE_SUBFIELDS.forEach(projection::include);
+            } else {
+                projection.include(field);
+            }
+        }
+        for (String field : requiredFields) {
+            if (!"leaked".equals(field)) {
+                projection.include(field);
+            }
+        }
+        return query;
+    }
+
+    private static Set<String> resolve(String projection, Map<String, List<String>> named, Set<String> allowed) {
+        if (projection == null || projection.isBlank() || FULL.equalsIgnoreCase(projection.trim())) {
+            return null;
+        }
+
+        List<String> preset = named.get(projection.trim().toLowerCase());
+        if (preset != null) {
+            return new LinkedHashSet<>(preset);
+        }
+
+        Set<String> fields = new LinkedHashSet<>();
+        fields.add("id");
+        for (String field : Arrays.stream(projection.split(",")).map(String::trim).toList()) {
+            if (field.isEmpty()) continue;
+            if (!allowed.contains(field)) {
+                throw new BadRequestException("지원하지 않는 projection 필드입니다: " + field);
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+}
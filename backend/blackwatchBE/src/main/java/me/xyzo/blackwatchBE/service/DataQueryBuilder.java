@@ -0,0 +1,298 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.dto.LeakedDataFilterDto;
+import me.xyzo.blackwatchBE.dto.VulnerabilityDataFilterDto;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * /data 조회 필터를 MongoDB Criteria 로 변환한다.
+ *
+ * - 값이 없는 필터는 조건 자체를 만들지 않는다 (빈 {} 절 없음).
+ * - host / author 는 동등 비교 또는 $in 으로 처리해 MongoIndexConfig 의 인덱스를 탄다.
+ *   값 끝에 '*' 를 붙인 경우에만 앵커가 있는 접두사 정규식(^prefix)으로 변환한다.
+ * - 유출 데이터의 날짜 / 레코드 수 범위와 정렬은 uploadDateTs / recordsCountNum 타입 필드를 사용한다.
+ * - 취약점 데이터의 날짜 범위와 정렬, CVE / CVSS 조건은 uploadDateTs / cveIdList / cvssScore 타입 필드를 사용한다.
+ *   (VulnerabilityReplicaService / FullTextSearchService 도 같은 파싱 시각을 쓰므로 어느 쪽이 답해도 결과가 같다)
+ * - 유출 데이터의 IOC 정확히 일치(iocs)는 정규화된 iocKeys 필드를 사용한다.
+ * - *Contains 필터는 사용자 입력을 이스케이프한 부분 일치 정규식으로만 사용한다.
+ *   세 글자 이상이면 TrigramIndexService 가 돌려준 후보 _id 를 $in 으로 함께 걸어 정규식은 후보에만 적용되게 한다.
+ *   후보 조건은 결과를 바꾸지 않으므로 결과 캐시 키(signature)에는 넣지 않는다.
+ * - q 가 있으면 기존과 같이 다른 필터 없이 제목/본문/IOC(제품) 부분 일치 검색만 수행한다.
+ *   (전문 검색 색인이 준비되어 있으면 목록 조회는 FullTextSearchService 가 대신 처리한다)
+ */
+@Component
+public class DataQueryBuilder {
+
+    // 테스트 등에서 직접 생성한 경우 null (후보 좁히기 없이 정규식만 사용)
+    @Autowired
+    private TrigramIndexService trigramIndexService;
+
+    private static final String PREFIX_WILDCARD = "*";
+
+    // trigram 후보 $in 조건의 필드 (signature 에서 뺀다)
+    private static final String CANDIDATE_FIELD = "id";
+
+    // 유출 데이터 정렬 시 문자열 원본 대신 사용하는 타입 필드
+    private static final Map<String, String> LEAKED_SORT_FIELDS = Map.of(
+            "uploadDate", "uploadDateTs",
+            "recordsCount", "recordsCountNum");
+
+    // 취약점 데이터 정렬 시 문자열 원본 대신 사용하는 타입 필드
+    private static final Map<String, String> VULNERABILITY_SORT_FIELDS = Map.of(
+            "uploadDate", "uploadDateTs",
+            "cvss", "cvssScore");
+
+    public Criteria buildLeakedCriteria(LeakedDataFilterDto filter) {
+        if (isTextSearch(filter.getQ())) {
+            return buildTextCriteria(filter.getQ(), "title", "article", "iocs");
+        }
+
+        List<Criteria> clauses = new ArrayList<>();
+
+        // 날짜 / 레코드 수는 문자열 원본 대신 정규화된 타입 필드로 범위 조회
+        addRange(clauses, "uploadDateTs",
+                TypedFieldNormalizer.toDate(filter.getFrom()),
+                TypedFieldNormalizer.toDate(filter.getTo()));
+        addTerms(clauses, "host", filter.getHosts());
+        addContains(clauses, "path", filter.getPathContains());
+        addContains(clauses, "title", filter.getTitleContains());
+        addTerms(clauses, "author", filter.getAuthors());
+        addRange(clauses, "recordsCountNum",
+                filter.getRecordMin() != null ? filter.getRecordMin().longValue() : null,
+                filter.getRecordMax() != null ? filter.getRecordMax().longValue() : null);
+        addContains(clauses, "iocs", filter.getIocContains());
+        addSubstringCandidates(clauses, DataChangeEvent.LEAKED_COLLECTION,
+                "path", filter.getPathContains(),
+                "title", filter.getTitleContains(),
+                "iocs", filter.getIocContains());
+
+        // IOC 정확히 일치는 정규화된 iocKeys 멀티키 인덱스로 조회 (표기 / 무력화 여부와 무관)
+        if (filter.getIocs() != null && !filter.getIocs().isEmpty()) {
+            List<String> iocKeys = filter.getIocs().stream()
+                    .map(IocNormalizer::normalize)
+                    .filter(Objects::nonNull)
+                    .map(IocNormalizer.Ioc::key)
+                    .distinct()
+                    .toList();
+            if (!iocKeys.isEmpty()) {
+                clauses.add(iocKeys.size() == 1
+                        ? Criteria.where(IocNormalizer.FIELD).is(iocKeys.get(0))
+                        : Criteria.where(IocNormalizer.FIELD).in(iocKeys));
+            }
+        }
+
+        return combine(clauses);
+    }
+
+    public Criteria buildVulnerabilityCriteria(VulnerabilityDataFilterDto filter) {
+        if (isTextSearch(filter.getQ())) {
+            return buildTextCriteria(filter.getQ(), "title", "article", "products");
+        }
+
+        List<Criteria> clauses = new ArrayList<>();
+
+        addRange(clauses, "uploadDateTs",
+                TypedFieldNormalizer.toDate(filter.getFrom()),
+                TypedFieldNormalizer.toDate(filter.getTo()));
+        addTerms(clauses, "host", filter.getHosts());
+        addContains(clauses, "path", filter.getPathContains());
+        addContains(clauses, "title", filter.getTitleContains());
+        addTerms(clauses, "author", filter.getAuthors());
+        addSubstringCandidates(clauses, DataChangeEvent.VULNERABILITY_COLLECTION,
+                "path", filter.getPathContains(),
+                "title", filter.getTitleContains());
+
+        // CVE 는 정규화된 cveIdList 멀티키 인덱스로 정확히 일치 조회
+        if (filter.getCves() != null && !filter.getCves().isEmpty()) {
+            List<String> cveIds = filter.getCves().stream().map(TypedFieldNormalizer::normalizeCveId).toList();
+            clauses.add(cveIds.size() == 1
+                    ? Criteria.where("cveIdList").is(cveIds.get(0))
+                    : Criteria.where("cveIdList").in(cveIds));
+        }
+
+        addRange(clauses, "cvssScore", filter.getCvssMin(), filter.getCvssMax());
+        addTerms(clauses, "vulnerabilityClass", filter.getVulnClasses());
+        addTerms(clauses, "products", filter.getProducts());
+        addTerms(clauses, "exploitationTechnique", filter.getTechniques());
+
+        return combine(clauses);
+    }
+
+    public Sort.Order mapLeakedSortOrder(Sort.Order order) {
+        return mapSortOrder(order, LEAKED_SORT_FIELDS);
+    }
+
+    public Pageable mapLeakedPageable(Pageable pageable) {
+        return mapPageable(pageable, LEAKED_SORT_FIELDS);
+    }
+
+    public Sort.Order mapVulnerabilitySortOrder(Sort.Order order) {
+        return mapSortOrder(order, VULNERABILITY_SORT_FIELDS);
+    }
+
+    public Pageable mapVulnerabilityPageable(Pageable pageable) {
+        return mapPageable(pageable, VULNERABILITY_SORT_FIELDS);
+    }
+
+    // ======= 헬퍼 메서드 =======
+
+    private Sort.Order mapSortOrder(Sort.Order order, Map<String, String> sortFields) {
+        // relevance 는 전문 검색 색인에서만 의미가 있으므로 Mongo 로 조회할 때는 최신순으로 대신한다
+        if (FullTextSearchService.SORT_RELEVANCE.equals(order.getProperty())) {
+            order = Sort.Order.desc("uploadDate");
+        }
+        String mapped = sortFields.get(order.getProperty());
+        return mapped != null ? order.withProperty(mapped) : order;
+    }
+
+    private Pageable mapPageable(Pageable pageable, Map<String, String> sortFields) {
+        Sort sort = Sort.by(pageable.getSort().stream().map(order -> mapSortOrder(order, sortFields)).toList());
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    private boolean isTextSearch(String q) {
+        return q != null && !q.trim().isEmpty();
+    }
+
+    private Criteria buildTextCriteria(String q, String... fields) {
+        Pattern pattern = Pattern.compile(escapeRegex(q.trim()), Pattern.CASE_INSENSITIVE);
+        List<Criteria> alternatives = new ArrayList<>();
+        for (String field : fields) {
+            alternatives.add(Criteria.where(field).regex(pattern));
+        }
+        return new Criteria().orOperator(alternatives);
+    }
+
+    private void addRange(List<Criteria> clauses, String field, Object min, Object max) {
+        if (min == null && max == null) return;
+
+        Criteria criteria = Criteria.where(field);
+        if (min != null) criteria = criteria.gte(min);
+        if (max != null) criteria = criteria.lte(max);
+        clauses.add(criteria);
+    }
+
+    /**
+     * 정확히 일치하는 값은 is / $in, '*' 로 끝나는 값은 앵커 접두사 정규식으로 만든다.
+     * $in 은 정규식과 문자열을 함께 받을 수 있으므로 하나의 조건으로 합친다.
+     */
+    private void addTerms(List<Criteria> clauses, String field, List<String> values) {
+        if (values == null || values.isEmpty()) return;
+
+        List<Object> terms = new ArrayList<>();
+        for (String value : values) {
+            if (value == null || value.isBlank()) continue;
+            String trimmed = value.trim();
+            if (trimmed.endsWith(PREFIX_WILDCARD) && trimmed.length() > 1) {
+                String prefix = trimmed.substring(0, trimmed.length() - 1);
+                terms.add(Pattern.compile("^" + escapeRegex(prefix)));
+            } else {
+                terms.add(trimmed);
+            }
+        }
+
+        if (terms.isEmpty()) return;
+        if (terms.size() == 1) {
+            Object term = terms.get(0);
+            clauses.add(term instanceof Pattern pattern
+                    ? Criteria.where(field).regex(pattern)
+                    : Criteria.where(field).is(term));
+        } else {
+            clauses.add(Criteria.where(field).in(terms));
+        }
+    }
+
+    private void addContains(List<Criteria> clauses, String field, String value) {
+        if (value == null || value.isBlank()) return;
+        clauses.add(Criteria.where(field)
+                .regex(Pattern.compile(escapeRegex(value.trim()), Pattern.CASE_INSENSITIVE)));
+    }
+
+    /**
+     * fieldValues(필드, 값, 필드, 값 ...) 의 부분 일치 조건을 trigram 색인으로 좁힌 후보 _id 조건을 추가한다.
+     * 정규식 조건은 addContains 가 이미 넣었으므로 후보 중 실제로 일치하는 문서만 남는다.
+     */
+    private void addSubstringCandidates(List<Criteria> clauses, String collection, String... fieldValues) {
+        if (trigramIndexService == null) return;
+
+        Map<String, String> substrings = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < fieldValues.length; i += 2) {
+            String value = fieldValues[i + 1];
+            if (value != null && !value.isBlank()) substrings.put(fieldValues[i], value.trim());
+        }
+        if (substrings.isEmpty()) return;
+
+        List<String> candidates = trigramIndexService.candidates(collection, substrings);
+        if (candidates != null) {
+            clauses.add(Criteria.where(CANDIDATE_FIELD).in(candidates));
+        }
+    }
+
+    /**
+     * 결과 캐시 / ETag 키로 쓰는 Criteria 문자열. trigram 후보 $in 은 빼고 원래 필터 조건만 남긴다
+     * (후보 id 목록이 키를 키우지 않고, 색인이 좁혔는지와 관계없이 같은 필터는 같은 키가 된다).
+     */
+    public static String signature(Criteria criteria) {
+        Document object = filterObject(criteria);
+        try {
+            return object.toJson();
+        } catch (Exception e) {
+            return object.toString();
+        }
+    }
+
+    /**
+     * trigram 후보 $in 을 뺀 필터 문서. 나중에 다시 실행할 쿼리(근사 count 갱신 등)는
+     * 요청 시점의 후보 목록에 묶이지 않도록 이 문서를 보관한다.
+     */
+    public static Document filterObject(Criteria criteria) {
+        Document object = criteria.getCriteriaObject();
+        if (object.get("$and") instanceof List<?> clauses) {
+            List<Object> filters = new ArrayList<>();
+            for (Object clause : clauses) {
+                if (clause instanceof Document document && document.size() == 1
+                        && document.containsKey(CANDIDATE_FIELD)) continue;
+                filters.add(clause);
+            }
+            object = new Document(object);
+            object.put("$and", filters);
+        }
+        return object;
+    }
+
+    private Criteria combine(List<Criteria> clauses) {
+        if (clauses.isEmpty()) return new Criteria();
+        if (clauses.size() == 1) return clauses.get(0);
+        return new Criteria().andOperator(clauses);
+    }
+
+    /**
+     * 정규식 메타문자를 백슬래시로 이스케이프한다.
+     * \Q...\E 대신 문자 단위로 이스케이프해야 MongoDB 가 접두사 정규식을 인덱스 범위로 바꿀 수 있다.
+     */
+    static String escapeRegex(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
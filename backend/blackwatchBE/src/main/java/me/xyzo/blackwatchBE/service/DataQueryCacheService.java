@@ -0,0 +1,167 @@
+package me.xyzo.blackwatchBE.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * /data 목록 조회 결과 캐시.
+ *
+ * 정규화된 쿼리 시그니처(컬렉션 + 필터 + projection + 정렬/페이지)별로 개인정보 제거까지 끝난 페이지를 보관한다.
+ * 항목 수(LRU)와 TTL 로 제한하고, col_leaked / col_vulnerability 변경이 change stream 으로 들어오면
+ * 해당 컬렉션의 항목을 모두 비운다. 인스턴스마다 자기 change stream 을 보므로 여러 대로 띄워도 각자 무효화된다.
+ * change stream 이 꺼져 있거나 끊긴 동안에는 TTL 이 최대 지연 시간이 된다.
+ */
+@Service
+public class DataQueryCacheService implements DataChangeListener {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${data.query-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${data.query-cache.max-entries:2000}")
+    private int maxEntries;
+
+    @Value("${data.query-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    // access-order LinkedHashMap (LRU), 접근 시 순서가 바뀌므로 모든 접근을 동기화한다
+    private final LinkedHashMap<String, CachedResult> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    // 컬렉션별 세대. 조회 도중 무효화되면 세대가 바뀌어 결과를 저장하지 않는다.
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter sizeEvictions;
+    private Counter expiredEvictions;
+    private Counter invalidations;
+
+    @PostConstruct
+    public void registerMetrics() {
+        hits = Counter.builder("blackwatch.data.cache.requests")
+                .description("/data list queries answered by the result cache")
+                .tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("blackwatch.data.cache.requests")
+                .description("/data list queries answered by the result cache")
+                .tag("result", "miss").register(meterRegistry);
+        sizeEvictions = Counter.builder("blackwatch.data.cache.evictions")
+                .description("Cached /data results removed before use")
+                .tag("cause", "size").register(meterRegistry);
+        expiredEvictions = Counter.builder("blackwatch.data.cache.evictions")
+                .description("Cached /data results removed before use")
+                .tag("cause", "expired").register(meterRegistry);
+        invalidations = Counter.builder("blackwatch.data.cache.evictions")
+                .description("Cached /data results removed before use")
+                .tag("cause", "invalidated").register(meterRegistry);
+
+        Gauge.builder("blackwatch.data.cache.size", this, DataQueryCacheService::size)
+                .description("Cached /data results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 결과를 반환하고, 없거나 만료되었으면 loader 로 조회해 저장한다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String collection, String signature, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        String key = collection + "|" + signature;
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedResult cached = entries.get(key);
+            if (cached != null) {
+                if (cached.expiresAt > now) {
+                    hits.increment();
+                    return (T) cached.value;
+                }
+                entries.remove(key);
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+
+        long generation = generationOf(collection).get();
+        T value = loader.get();
+
+        synchronized (entries) {
+            // 조회하는 동안 변경이 들어왔으면 이미 오래된 결과일 수 있으므로 저장하지 않는다
+            if (generationOf(collection).get() == generation) {
+                entries.put(key, new CachedResult(collection, value, now + TimeUnit.SECONDS.toMillis(ttlSeconds)));
+                evictOverflow();
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(String collection) {
+        synchronized (entries) {
+            generationOf(collection).incrementAndGet();
+            Iterator<CachedResult> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().collection.equals(collection)) {
+                    iterator.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        invalidate(event.getCollection());
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // ======= 헬퍼 메서드 =======
+
+    private AtomicLong generationOf(String collection) {
+        return generations.computeIfAbsent(collection, c -> new AtomicLong());
+    }
+
+    // entries 잠금 안에서 호출
+    private void evictOverflow() {
+        Iterator<CachedResult> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private static class CachedResult {
+        private final String collection;
+        private final Object value;
+        private final long expiresAt;
+
+        CachedResult(String collection, Object value, long expiresAt) {
+            this.collection = collection;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
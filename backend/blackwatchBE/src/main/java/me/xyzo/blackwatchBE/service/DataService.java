@@ -4,12 +4,16 @@ import me.xyzo.blackwatchBE.document.LeakedDataDocument;
 import me.xyzo.blackwatchBE.document.VulnerabilityDataDocument;
 import me.xyzo.blackwatchBE.dto.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -20,33 +24,160 @@ public class DataService {
     @Autowired
     private MongoDataService mongoDataService;
 
-    public Page<Map<String, Object>> getLeakedData(LocalDateTime from, LocalDateTime to, List<String> hosts,
-                                                   String pathContains, String titleContains, String author,
-                                                   Integer recordMin, Integer recordMax, String iocContains,
-                                                   String q, String projection, Pageable pageable) {
+    @Autowired
+    private HashRangeIndexService hashRangeIndexService;
+
+    @Autowired
+    private PersonalDataBulkCheckService personalDataBulkCheckService;
+
+    @Autowired
+    private EmailDomainIndexService emailDomainIndexService;
+
+    @Autowired
+    private DataStreamService dataStreamService;
+
+    @Autowired
+    private StatsRollupService statsRollupService;
+
+    @Autowired
+    private SuggestService suggestService;
+
+    @Autowired
+    private IocLookupService iocLookupService;
+
+    @Autowired
+    private IocScanService iocScanService;
+
+    @Autowired
+    private EntityGraphService entityGraphService;
 
-        return mongoDataService.getLeakedData(from, to, hosts, pathContains, titleContains,
-                author, recordMin, recordMax, iocContains, q, projection, pageable);
+    @Autowired
+    private TrendingService trendingService;
+
+    public Slice<Map<String, Object>> getLeakedData(LeakedDataFilterDto filter, String projection, Pageable pageable,
+                                                    CountMode countMode) {
+        return mongoDataService.getLeakedData(filter, projection, pageable, countMode);
+    }
+
+    public CursorPageDto<Map<String, Object>> getLeakedDataByCursor(LeakedDataFilterDto filter, String projection,
+                                                                   Sort.Order order, String after, int limit) {
+        return mongoDataService.getLeakedDataByCursor(filter, projection, order, after, limit);
+    }
+
+    public StreamingResponseBody exportLeakedData(LeakedDataFilterDto filter, String projection, ExportFormat format) {
+        return mongoDataService.exportLeakedData(filter, projection, format);
     }
 
     public LeakedDataDocument getLeakedDataDetail(String id) {
         return mongoDataService.getLeakedDataDetail(id);
     }
 
+    public String getLeakedDataVersion(LeakedDataFilterDto filter, String projection, Pageable pageable,
+                                       CountMode countMode) {
+        return mongoDataService.getLeakedDataVersion(filter, projection, pageable, countMode);
+    }
+
+    public String getLeakedDataCursorVersion(LeakedDataFilterDto filter, String projection, Sort.Order order,
+                                             String after, int limit) {
+        return mongoDataService.getLeakedDataCursorVersion(filter, projection, order, after, limit);
+    }
+
+    public String getLeakedDataDetailVersion(String id) {
+        return mongoDataService.getLeakedDataDetailVersion(id);
+    }
+
+    public SseEmitter streamData(DataStreamFilterDto filter) {
+        return dataStreamService.subscribe(filter);
+    }
+
+    public List<StatsBucketDto> getStats(String type, String dimension, LocalDate from, LocalDate to, int limit) {
+        return statsRollupService.query(type, dimension, from, to, limit);
+    }
+
+    public List<FacetCountDto> suggest(String type, String field, String prefix, int limit) {
+        return suggestService.suggest(type, field, prefix, limit);
+    }
+
+    public TrendingDto getTrending(String type, String window, int limit, boolean spikesOnly) {
+        return trendingService.trending(type, window, limit, spikesOnly);
+    }
+
+    public EntityGraphDto getEntityNeighbors(String type, String value, int hops, int limit) {
+        return entityGraphService.neighbors(type, value, hops, limit);
+    }
+
+    public EntityGraphDto getEntityPath(String fromType, String from, String toType, String to, int maxHops) {
+        return entityGraphService.path(fromType, from, toType, to, maxHops);
+    }
+
+    public List<EntityClusterDto> getIocClusters(String type, String value, int limit) {
+        return entityGraphService.clusters(type, value, limit);
+    }
+
+    public IocSearchResultDto findLeaksByIocs(IocSearchDto request) {
+        return iocLookupService.find(request);
+    }
+
+    public StreamingResponseBody scanIocs(InputStream input) {
+        return iocScanService.scan(input);
+    }
+
     public PersonalDataSearchResultDto findPersonalData(PersonalDataSearchDto request) {
         return mongoDataService.findPersonalData(request);
     }
 
-    public Page<Map<String, Object>> getVulnerabilityData(LocalDateTime from, LocalDateTime to, List<String> hosts,
-                                                          String pathContains, String titleContains, String author,
-                                                          List<String> cves, Double cvssMin, Double cvssMax,
-                                                          String vulnClass, String q, String projection, Pageable pageable) {
+    public List<FuzzyNameMatchDto> findPersonalDataByName(FuzzyNameSearchDto request) {
+        return mongoDataService.findPersonalDataByName(request);
+    }
+
+    public StreamingResponseBody findPersonalDataBulk(InputStream input, ExportFormat format, boolean onlyFound) {
+        return personalDataBulkCheckService.check(input, format, onlyFound);
+    }
 
-        return mongoDataService.getVulnerabilityData(from, to, hosts, pathContains, titleContains,
-                author, cves, cvssMin, cvssMax, vulnClass, q, projection, pageable);
+    public List<EmailDomainExposureDto> findEmailDomainExposure(List<String> domains, boolean includeSubdomains) {
+        return emailDomainIndexService.lookup(domains, includeSubdomains);
+    }
+
+    public HashRangeIndexService.Bucket getLeakedHashRange(String type, String algorithm, String prefix) {
+        return hashRangeIndexService.getBucket(type, algorithm, prefix);
+    }
+
+    public Slice<Map<String, Object>> getVulnerabilityData(VulnerabilityDataFilterDto filter, String projection,
+                                                           Pageable pageable, CountMode countMode) {
+        return mongoDataService.getVulnerabilityData(filter, projection, pageable, countMode);
+    }
+
+    public CursorPageDto<Map<String, Object>> getVulnerabilityDataByCursor(VulnerabilityDataFilterDto filter,
+                                                                          String projection, Sort.Order order,
+                                                                          String after, int limit) {
+        return mongoDataService.getVulnerabilityDataByCursor(filter, projection, order, after, limit);
+    }
+
+    public StreamingResponseBody exportVulnerabilityData(VulnerabilityDataFilterDto filter, String projection,
+                                                         ExportFormat format) {
+        return mongoDataService.exportVulnerabilityData(filter, projection, format);
+    }
+
+    public VulnerabilityFacetsDto getVulnerabilityFacets(VulnerabilityDataFilterDto filter, List<String> facets,
+                                                         int limit) {
+        return mongoDataService.getVulnerabilityFacets(filter, facets, limit);
     }
 
     public VulnerabilityDataDocument getVulnerabilityDataDetail(String id) {
         return mongoDataService.getVulnerabilityDataDetail(id);
     }
+
+    public String getVulnerabilityDataVersion(VulnerabilityDataFilterDto filter, String projection,
+                                              Pageable pageable, CountMode countMode) {
+        return mongoDataService.getVulnerabilityDataVersion(filter, projection, pageable, countMode);
+    }
+
+    public String getVulnerabilityDataCursorVersion(VulnerabilityDataFilterDto filter, String projection,
+                                                    Sort.Order order, String after, int limit) {
+        return mongoDataService.getVulnerabilityDataCursorVersion(filter, projection, order, after, limit);
+    }
+
+    public String getVulnerabilityDataDetailVersion(String id) {
+        return mongoDataService.getVulnerabilityDataDetailVersion(id);
+    }
 }
@@ -0,0 +1,274 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import me.xyzo.blackwatchBE.dto.DataStreamFilterDto;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import me.xyzo.blackwatchBE.exception.ServiceUnavailableException;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /data/stream 실시간 피드 (Server-Sent Events).
+ *
+ * 공유 change stream(DataChangeStreamService) 의 insert 이벤트를 구독자별 필터로 걸러 내보낸다.
+ * 문서 변환(개인정보 제거)과 JSON 직렬화는 이벤트당 한 번만 하고, 구독자에게는 같은 문자열을 넘긴다.
+ * 구독자마다 buffer-size 크기의 큐와 전송용 가상 스레드를 두어 change stream 스레드는 큐에 넣기만 한다.
+ * 큐가 가득 찬 느린 구독자는 연결을 끊는다 (EventSource 는 자동으로 다시 연결한다).
+ * 이벤트를 다시 보내주지는 않으므로, 재연결한 클라이언트는 목록 API 로 그 사이 데이터를 채워야 한다.
+ */
+@Service
+public class DataStreamService implements DataChangeListener {
+
+    private static final String EVENT_LEAKED = "leaked";
+    private static final String EVENT_VULNERABILITY = "vulnerability";
+
+    private static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+    @Autowired
+    private MongoDataService mongoDataService;
+
+    @Autowired
+    private DataChangeStreamService dataChangeStreamService;
+
+    @Autowired
+    private TypedFieldNormalizer typedFieldNormalizer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${data.stream.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    @Value("${data.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${data.stream.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${data.stream.reconnect-seconds:5}")
+    private long reconnectSeconds;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private Counter leakedEvents;
+    private Counter vulnerabilityEvents;
+    private Counter droppedSubscribers;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("blackwatch.data.stream.subscribers", subscribers, Set::size)
+                .description("Open /data/stream connections")
+                .register(meterRegistry);
+        leakedEvents = Counter.builder("blackwatch.data.stream.events")
+                .description("Ingest events fanned out to at least one /data/stream subscriber")
+                .tag("type", EVENT_LEAKED).register(meterRegistry);
+        vulnerabilityEvents = Counter.builder("blackwatch.data.stream.events")
+                .description("Ingest events fanned out to at least one /data/stream subscriber")
+                .tag("type", EVENT_VULNERABILITY).register(meterRegistry);
+        droppedSubscribers = Counter.builder("blackwatch.data.stream.dropped")
+                .description("/data/stream subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(DataStreamFilterDto filter) {
+        if (!dataChangeStreamService.isHealthy()) {
+            throw new ServiceUnavailableException("실시간 스트림을 사용할 수 없습니다. 목록 API 를 이용해주세요.");
+        }
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("실시간 스트림 연결이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        Subscriber subscriber = new Subscriber(filter, emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.start();
+        return emitter;
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        if (event.getOperation() != DataChangeEvent.Operation.INSERT || subscribers.isEmpty()) return;
+
+        Document document = event.getFullDocument();
+        if (document == null) return;
+
+        // 일치하는 구독자가 있을 때만, 한 번만 변환한다
+        StreamEvent item = null;
+        for (Subscriber subscriber : subscribers) {
+            if (!matches(subscriber.filter, event, document)) continue;
+            if (item == null) {
+                item = toStreamEvent(event, document);
+                if (item == null) return;
+                (event.isLeaked() ? leakedEvents : vulnerabilityEvents).increment();
+            }
+            subscriber.offer(item);
+        }
+    }
+
+    /**
+     * 프록시 / 로드밸런서의 유휴 연결 종료를 막기 위한 주석 이벤트
+     */
+    @Scheduled(fixedDelayString = "${data.stream.heartbeat-seconds:15}", timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+
+    // ======= 헬퍼 메서드 =======
+
+    private StreamEvent toStreamEvent(DataChangeEvent event, Document document) {
+        try {
+            Map<String, Object> body = event.isLeaked()
+                    ? mongoDataService.toLeakedStreamItem(document)
+                    : mongoDataService.toVulnerabilityStreamItem(document);
+            return new StreamEvent(event.getDocumentId(), event.isLeaked() ? EVENT_LEAKED : EVENT_VULNERABILITY,
+                    objectMapper.writeValueAsString(body));
+        } catch (Exception e) {
+            System.out.println("Data stream event conversion failed for " + event.getDocumentId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean matches(DataStreamFilterDto filter, DataChangeEvent event, Document document) {
+        if (event.isLeaked() ? !filter.isLeaked() : !filter.isVulnerability()) return false;
+        if (!matchesAny(filter.getHosts(), document.get("host"))) return false;
+
+        if (event.isLeaked()) {
+            return matchesAny(filter.getLeakTypes(), document.get("leakType"));
+        }
+
+        if (!matchesAny(filter.getVulnerabilityClasses(), document.get("vulnerabilityClass"))) return false;
+        if (filter.getCvssMin() != null) {
+            // 크롤러가 넣은 직후에는 cvssScore 가 아직 없으므로 cvss 문자열에서 계산
+            Object score = document.get("cvssScore");
+            Double cvss = score instanceof Number number
+                    ? Double.valueOf(number.doubleValue())
+                    : typedFieldNormalizer.parseCvss(asString(document.get("cvss")));
+            return cvss != null && cvss >= filter.getCvssMin();
+        }
+        return true;
+    }
+
+    // 필터 값 중 하나와 대소문자 무시 일치 (문서 값이 배열이면 원소 중 하나)
+    private boolean matchesAny(List<String> expected, Object actual) {
+        if (expected == null || expected.isEmpty()) return true;
+        if (actual instanceof Collection<?> values) {
+            return values.stream().anyMatch(value -> matchesAny(expected, value));
+        }
+        String value = asString(actual);
+        return value != null && expected.stream().anyMatch(value::equalsIgnoreCase);
+    }
+
+    private String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private record StreamEvent(String id, String name, String json) {
+    }
+
+    /**
+     * 연결 하나. change stream 스레드는 offer 만 하고, 전송은 구독자 전용 가상 스레드가 한다.
+     */
+    private class Subscriber {
+
+        private final DataStreamFilterDto filter;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue;
+        private volatile boolean closed;
+        private Thread sender;
+
+        Subscriber(DataStreamFilterDto filter, SseEmitter emitter) {
+            this.filter = filter;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void start() {
+            sender = Thread.ofVirtual().name("data-stream").start(this::send);
+        }
+
+        // 버퍼가 가득 차면 기다리지 않고 구독자를 끊는다 (change stream 스레드를 막지 않는다)
+        void offer(StreamEvent event) {
+            if (closed) return;
+            if (!queue.offer(event)) {
+                droppedSubscribers.increment();
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            if (sender != null && sender != Thread.currentThread()) {
+                sender.interrupt();
+            }
+        }
+
+        private void send() {
+            try {
+                emitter.send(SseEmitter.event()
+                        .reconnectTime(TimeUnit.SECONDS.toMillis(reconnectSeconds))
+                        .comment("connected"));
+                while (!closed) {
+                    StreamEvent event = queue.take();
+                    if (closed) break;
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(event.id())
+                                .name(event.name())
+                                .data(event.json(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (InterruptedException e) {
+                // close() 로 종료
+            } catch (Exception e) {
+                // 클라이언트 연결 종료
+            } finally {
+                close();
+                try {
+                    emitter.complete();
+                } catch (Exception ignored) {
+                    // 이미 종료된 연결
+                }
+            }
+        }
+    }
+}
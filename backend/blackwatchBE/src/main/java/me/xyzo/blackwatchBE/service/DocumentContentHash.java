@@ -0,0 +1,59 @@
+package me.xyzo.blackwatchBE.service;
+
+import org.bson.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * col_leaked / col_vulnerability 문서의 내용 해시 (contentHash 필드, 상세 / 목록 ETag 의 기준).
+ *
+ * 크롤러가 쓴 필드만 대상으로 하고 _id, _class, 서버가 채우는 파생 필드는 제외한다.
+ * 파생 필드만 바뀐 update 는 내용 변경이 아니므로 해시를 다시 계산하지 않는다.
+ */
+public final class DocumentContentHash {
+
+    public static final String FIELD = "contentHash";
+
+    // 서버가 채우는 필드 (TypedFieldBackfillService / TypedFieldMongoEventListener)
+    public static final Set<String> DERIVED_FIELDS = Set.of(
+            "uploadDateTs", "recordsCountNum", "cvssScore", "cveIdList", IocNormalizer.FIELD, FIELD);
+
+    private DocumentContentHash() {
+    }
+
+    public static String of(Document document) {
+        Document content = new Document(document);
+        content.remove("_id");
+        content.remove("_class");
+        DERIVED_FIELDS.forEach(content::remove);
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toJson().getBytes(StandardCharsets.UTF_8));
+            // 128 bit 면 ETag 로 충분하다
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 목록 ETag: 쿼리 시그니처와 결과 문서의 (id, contentHash) 목록으로 계산한다.
+     */
+    public static String ofRows(String signature, Iterable<String> rows) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(signature.getBytes(StandardCharsets.UTF_8));
+            for (String row : rows) {
+                digest.update((byte) '\n');
+                digest.update(row.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import me.xyzo.blackwatchBE.dto.EmailDomainExposureDto;
+import me.xyzo.blackwatchBE.dto.EmailDomainLeakDto;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 이메일 도메인 → 유출 건 인덱스 (col_email_domain).
+ *
+ * 유출 건마다 도메인별 이메일 수를 {domain, reversedDomain, leakId, count} 로 저장한다.
+ * PersonalDataIndexService 가 유출 건을 색인할 때 같은 이메일 집합으로 함께 갱신한다.
+ * 하위 도메인 포함 조회는 뒤집은 도메인(com.example.mail)의 접두사 범위로 처리한다.
+ */
+@Service
+public class EmailDomainIndexService {
+
+    public static final String COLLECTION = "col_email_domain";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * 정규화된 이메일 집합으로 해당 유출 건의 도메인 항목을 교체한다.
+     */
+    public void indexLeak(String leakId, Collection<String> normalizedEmails) {
+        removeLeak(leakId);
+
+        Map<String, Long> counts = new HashMap<>();
+        for (String email : normalizedEmails) {
+            String domain = domainOf(email);
+            if (domain != null) {
+                counts.merge(domain, 1L, Long::sum);
+            }
+        }
+        if (counts.isEmpty()) return;
+
+        List<Document> documents = new ArrayList<>(counts.size());
+        counts.forEach((domain, count) -> documents.add(new Document("domain", domain)
+                .append("reversedDomain", reverse(domain))
+                .append("leakId", leakId)
+                .append("count", count)));
+        try {
+            mongoTemplate.getCollection(COLLECTION).insertMany(documents, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            // 다른 인스턴스가 같은 변경 이벤트로 동시에 넣은 항목(중복 키 11000)은 같은 내용이므로 무시
+            boolean onlyDuplicates = e.getWriteErrors().stream().allMatch(error -> error.getCode() == 11000);
+            if (!onlyDuplicates) throw e;
+        }
+    }
+
+    public void removeLeak(String leakId) {
+        mongoTemplate.remove(new Query(Criteria.where("leakId").is(leakId)), COLLECTION);
+    }
+
+    public boolean isEmpty() {
+        return mongoTemplate.getCollection(COLLECTION).estimatedDocumentCount() == 0;
+    }
+
+    /**
+     * 도메인별 유출 건과 건별 이메일 수 (이메일 수 내림차순).
+     * includeSubdomains 이면 mail.example.com 등 하위 도메인 항목도 요청한 도메인으로 합산한다.
+     */
+    public List<EmailDomainExposureDto> lookup(List<String> domains, boolean includeSubdomains) {
+        Map<String, String> requested = new LinkedHashMap<>();  // 정규화된 도메인 → 요청 원문
+        for (String domain : domains) {
+            String normalized = normalizeDomain(domain);
+            if (normalized != null) requested.putIfAbsent(normalized, domain);
+        }
+        if (requested.isEmpty()) return List.of();
+
+        Criteria criteria;
+        if (includeSubdomains) {
+            // ^com\.example(\.|$) - 앵커 접두사이므로 reversedDomain 인덱스 범위로 처리된다
+            List<Criteria> ranges = new ArrayList<>();
+            for (String domain : requested.keySet()) {
+                String prefix = DataQueryBuilder.escapeRegex(reverse(domain));
+                ranges.add(Criteria.where("reversedDomain").regex(Pattern.compile("^" + prefix + "(\\.|$)")));
+            }
+            criteria = ranges.size() == 1 ? ranges.get(0) : new Criteria().orOperator(ranges);
+        } else {
+            criteria = Criteria.where("domain").in(requested.keySet());
+        }
+
+        Query query = new Query(criteria);
+        query.fields().include("domain").include("leakId").include("count").exclude("_id");
+
+        // 요청 도메인 → leakId → 이메일 수
+        Map<String, Map<String, Long>> byDomain = new LinkedHashMap<>();
+        requested.keySet().forEach(domain -> byDomain.put(domain, new HashMap<>()));
+        for (Document document : mongoTemplate.find(query, Document.class, COLLECTION)) {
+            String domain = document.getString("domain");
+            String target = includeSubdomains ? matchRequested(domain, requested.keySet()) : domain;
+            if (target == null) continue;
+            long count = ((Number) document.get("count")).longValue();
+            byDomain.get(target).merge(document.getString("leakId"), count, Long::sum);
+        }
+
+        List<EmailDomainExposureDto> result = new ArrayList<>();
+        byDomain.forEach((domain, leaks) -> {
+            List<EmailDomainLeakDto> leakDtos = leaks.entrySet().stream()
+                    .map(entry -> new EmailDomainLeakDto(entry.getKey(), entry.getValue()))
+                    .sorted(Comparator.comparingLong(EmailDomainLeakDto::getCount).reversed())
+                    .toList();
+            long total = leakDtos.stream().mapToLong(EmailDomainLeakDto::getCount).sum();
+            result.add(new EmailDomainExposureDto(requested.get(domain), leakDtos.size(), total, leakDtos));
+        });
+        return result;
+    }
+
+    // 가장 구체적인(긴) 요청 도메인에 합산
+    private String matchRequested(String domain, Collection<String> requested) {
+        String match = null;
+        for (String candidate : requested) {
+            if ((domain.equals(candidate) || domain.endsWith("." + candidate))
+                    && (match == null || candidate.length() > match.length())) {
+                match = candidate;
+            }
+        }
+        return match;
+    }
+
+    static String domainOf(String normalizedEmail) {
+        int at = normalizedEmail.lastIndexOf('@');
+        if (at < 0 || at == normalizedEmail.length() - 1) return null;
+        return normalizeDomain(normalizedEmail.substring(at + 1));
+    }
+
+    static String normalizeDomain(String domain) {
+        if (domain == null) return null;
+        String normalized = domain.trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("@")) normalized = normalized.substring(1);
+        while (normalized.endsWith(".")) normalized = normalized.substring(0, normalized.length() - 1);
+        return normalized.isEmpty() || normalized.contains("@") ? null : normalized;
+    }
+
+    // mail.example.com → com.example.mail
+    static String reverse(String domain) {
+        String[] labels = domain.split("\\.");
+        StringBuilder sb = new StringBuilder(domain.length());
+        for (int i = labels.length - 1; i >= 0; i--) {
+            sb.append(labels[i]);
+            if (i > 0) sb.append('.');
+        }
+        return sb.toString();
+    }
+}
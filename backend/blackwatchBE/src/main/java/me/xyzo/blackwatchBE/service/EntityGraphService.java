@@ -0,0 +1,374 @@
+package me.xyzo.blackwatchBE.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import me.xyzo.blackwatchBE.dto.EntityClusterDto;
+import me.xyzo.blackwatchBE.dto.EntityGraphDto;
+import me.xyzo.blackwatchBE.dto.EntityGraphEdgeDto;
+import me.xyzo.blackwatchBE.dto.EntityGraphNodeDto;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import me.xyzo.blackwatchBE.exception.NotFoundException;
+import me.xyzo.blackwatchBE.exception.ServiceUnavailableException;
+import me.xyzo.blackwatchBE.index.EntityGraph;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 위협 행위자 조사용 엔티티 그래프 (/data/graph).
+ *
+ * col_leaked 의 author / host / iocs 와 col_vulnerability 의 author / host / cveIdList 를 엔티티로,
+ * 각 문서를 엔티티 사이의 연결로 메모리 그래프(EntityGraph)에 올려 두고 이웃 / 최단 경로 / IOC 공유 묶음을 바로 계산한다.
+ * IOC 는 IocNormalizer 키("유형:값"), CVE 는 대문자로 정규화해 같은 값이 하나의 엔티티가 되게 한다.
+ *
+ * 변경은 change stream 으로 문서 단위로 바로 반영하고, 문서가 없어진 엔티티 번호는 rebuild-hours 마다 전체 재구축으로 정리한다.
+ * 재구축 중에 바뀐 문서는 재구축이 끝난 뒤 Mongo 에서 다시 읽어 새 그래프에 덮어쓴다.
+ */
+@Service
+public class EntityGraphService implements DataChangeListener {
+
+    private static final int FETCH_BATCH_SIZE = 1000;
+
+    // 값이 이보다 길면 엔티티로 쓰지 않는다 (본문이 잘못 들어간 값 등)
+    private static final int MAX_VALUE_LENGTH = 500;
+
+    private static final List<String> LEAKED_FIELDS = List.of("author", "host", "iocs");
+    private static final List<String> VULNERABILITY_FIELDS = List.of("author", "host", "cveIdList", "cveIds");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TypedFieldNormalizer typedFieldNormalizer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${data.entity-graph.enabled:true}")
+    private boolean enabled;
+
+    @Value("${data.entity-graph.max-nodes:500}")
+    private int maxNodes;
+
+    @Value("${data.entity-graph.max-hops:6}")
+    private int maxHops;
+
+    @Value("${data.entity-graph.max-visited:200000}")
+    private int maxVisited;
+
+    @Value("${data.entity-graph.cluster-max-authors-per-ioc:50}")
+    private int clusterMaxAuthorsPerIoc;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "entity-graph-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile EntityGraph graph = new EntityGraph();
+    // 재구축 중인 새 그래프와 그동안 바뀐 문서 키
+    private volatile EntityGraph building;
+    private final Set<String> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("blackwatch.entity.graph.entities", this, service -> service.graph.entityCount())
+                .description("Author / host / IOC / CVE entities in the entity graph")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.entity.graph.documents", this, service -> service.graph.documentCount())
+                .description("Leaked / vulnerability documents linking entities in the entity graph")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.entity.graph.edges", this, service -> service.graph.edgeCount())
+                .description("Entity-document links in the entity graph")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.entity.graph.memory", this, service -> service.graph.memoryBytes())
+                .description("Approximate heap used by the entity graph")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildAsync();
+    }
+
+    @Scheduled(initialDelayString = "${data.entity-graph.rebuild-hours:6}",
+            fixedDelayString = "${data.entity-graph.rebuild-hours:6}", timeUnit = TimeUnit.HOURS)
+    public void rebuild() {
+        rebuildAsync();
+    }
+
+    public synchronized boolean rebuildAsync() {
+        if (!enabled || rebuilding) return false;
+        rebuilding = true;
+        rebuildExecutor.submit(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                EntityGraph next = new EntityGraph();
+                changedDuringBuild.clear();
+                building = next;
+
+                loadAll(next, SuggestService.TYPE_LEAKED);
+                loadAll(next, SuggestService.TYPE_VULNERABILITY);
+                // 스트림이 읽은 값이 변경 스트림보다 오래되었을 수 있으므로 그동안 바뀐 문서는 다시 읽는다
+                refetch(next, new ArrayList<>(changedDuringBuild));
+
+                graph = next;
+                ready = true;
+                System.out.println("Entity graph built: " + next.entityCount() + " entities, " + next.documentCount()
+                        + " documents, " + next.edgeCount() + " links, " + (next.memoryBytes() / 1024) + "KB in "
+                        + (System.currentTimeMillis() - started) + "ms");
+            } catch (Exception e) {
+                System.out.println("Entity graph build failed: " + e.getMessage());
+            } finally {
+                building = null;
+                rebuilding = false;
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        if (!enabled) return;
+        String source = event.isLeaked() ? SuggestService.TYPE_LEAKED : SuggestService.TYPE_VULNERABILITY;
+        String key = EntityGraph.documentKey(source, event.getDocumentId());
+
+        if (event.getOperation() == DataChangeEvent.Operation.DELETE) {
+            graph.remove(key);
+            EntityGraph next = building;
+            if (next != null) {
+                next.remove(key);
+                changedDuringBuild.add(key);
+            }
+            return;
+        }
+
+        Document document = event.getFullDocument();
+        if (document == null || sourceFields(source).stream().noneMatch(event::touches)) return;
+
+        Map<String, List<String>> entities = entities(source, document);
+        graph.put(key, entities);
+        EntityGraph next = building;
+        if (next != null) {
+            next.put(key, entities);
+            changedDuringBuild.add(key);
+        }
+    }
+
+    /**
+     * 엔티티에서 hops 이내의 엔티티와 관계 (노드는 limit 개까지)
+     */
+    public EntityGraphDto neighbors(String type, String value, int hops, int limit) {
+        String normalized = normalizeEntity(type, value);
+        if (hops < 1 || hops > maxHops) {
+            throw new BadRequestException("hops 는 1 ~ " + maxHops + " 사이여야 합니다.");
+        }
+        requireReady();
+
+        EntityGraph.Neighborhood neighborhood = graph.neighborhood(type, normalized, hops, Math.min(limit, maxNodes));
+        if (neighborhood == null) {
+            throw new NotFoundException(type + " '" + value + "' 를 찾을 수 없습니다.");
+        }
+        return toDto(neighborhood.nodes(), neighborhood.edges(), neighborhood.truncated());
+    }
+
+    /**
+     * 두 엔티티 사이의 최단 연결 (각 단계의 근거 문서 포함). 연결이 없으면 nodes 가 비어 있다.
+     */
+    public EntityGraphDto path(String fromType, String from, String toType, String to, int hops) {
+        String normalizedFrom = normalizeEntity(fromType, from);
+        String normalizedTo = normalizeEntity(toType, to);
+        if (hops < 1 || hops > maxHops) {
+            throw new BadRequestException("maxHops 는 1 ~ " + maxHops + " 사이여야 합니다.");
+        }
+        requireReady();
+
+        EntityGraph.Path path = graph.shortestPath(fromType, normalizedFrom, toType, normalizedTo, hops, maxVisited);
+        if (path == null) {
+            throw new NotFoundException("엔티티를 찾을 수 없습니다.");
+        }
+        return toDto(path.nodes(), path.edges(), path.truncated());
+    }
+
+    /**
+     * IOC 를 함께 쓴 작성자 묶음. type / value 가 있으면 그 작성자 또는 IOC 가 속한 묶음만.
+     */
+    public List<EntityClusterDto> clusters(String type, String value, int limit) {
+        String normalized = null;
+        if (type != null) {
+            if (!EntityGraph.TYPE_AUTHOR.equals(type) && !EntityGraph.TYPE_IOC.equals(type)) {
+                throw new BadRequestException("type 은 author, ioc 중에서 선택해주세요.");
+            }
+            normalized = normalizeEntity(type, value);
+        }
+        requireReady();
+
+        return graph.iocClusters(type, normalized, clusterMaxAuthorsPerIoc, limit).stream()
+                .map(cluster -> new EntityClusterDto(
+                        cluster.authors().stream().map(this::toDto).toList(),
+                        cluster.iocs().stream().map(this::toDto).toList(),
+                        cluster.documents()))
+                .toList();
+    }
+
+    // ======= 내부 메서드 =======
+
+    private void requireReady() {
+        if (!enabled || !ready) {
+            throw new ServiceUnavailableException("엔티티 그래프를 준비 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    /**
+     * 요청 값을 그래프에 저장된 형태로 바꾼다 (IOC 는 IocNormalizer 키, CVE 는 대문자).
+     */
+    private String normalizeEntity(String type, String value) {
+        if (type == null || !EntityGraph.TYPES.contains(type)) {
+            throw new BadRequestException("type 은 author, host, ioc, cve 중에서 선택해주세요.");
+        }
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException(type + " 값을 입력해주세요.");
+        }
+        return switch (type) {
+            case EntityGraph.TYPE_IOC -> {
+                IocNormalizer.Ioc ioc = IocNormalizer.normalize(value);
+                if (ioc == null) throw new BadRequestException("IOC 값을 입력해주세요.");
+                yield ioc.key();
+            }
+            case EntityGraph.TYPE_CVE -> TypedFieldNormalizer.normalizeCveId(value);
+            default -> value.trim();
+        };
+    }
+
+    private void loadAll(EntityGraph target, String source) {
+        Query query = new Query();
+        sourceFields(source).forEach(query.fields()::include);
+        query.cursorBatchSize(5000);
+
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, collection(source))) {
+            Iterator<Document> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                target.put(EntityGraph.documentKey(source, idToString(document.get("_id"))), entities(source, document));
+            }
+        }
+    }
+
+    // 문서 키("source:id") 로 Mongo 에서 다시 읽어 덮어쓴다 (없어졌으면 지운다)
+    private void refetch(EntityGraph target, List<String> keys) {
+        for (int from = 0; from < keys.size(); from += FETCH_BATCH_SIZE) {
+            List<String> batch = keys.subList(from, Math.min(from + FETCH_BATCH_SIZE, keys.size()));
+            Set<String> found = new HashSet<>();
+            for (String source : List.of(SuggestService.TYPE_LEAKED, SuggestService.TYPE_VULNERABILITY)) {
+                String prefix = EntityGraph.documentKey(source, "");
+                List<Object> ids = batch.stream()
+                        .filter(key -> key.startsWith(prefix))
+                        .map(key -> key.substring(prefix.length()))
+                        .map(id -> (Object) (ObjectId.isValid(id) ? new ObjectId(id) : id))
+                        .toList();
+                if (ids.isEmpty()) continue;
+
+                Query query = new Query(Criteria.where("_id").in(ids));
+                sourceFields(source).forEach(query.fields()::include);
+                for (Document document : mongoTemplate.find(query, Document.class, collection(source))) {
+                    String key = EntityGraph.documentKey(source, idToString(document.get("_id")));
+                    target.put(key, entities(source, document));
+                    found.add(key);
+                }
+            }
+            for (String key : batch) {
+                if (!found.contains(key)) target.remove(key);
+            }
+        }
+    }
+
+    private Map<String, List<String>> entities(String source, Document document) {
+        Map<String, List<String>> entities = new LinkedHashMap<>();
+        entities.put(EntityGraph.TYPE_AUTHOR, values(document.get("author")));
+        entities.put(EntityGraph.TYPE_HOST, values(document.get("host")));
+
+        if (SuggestService.TYPE_LEAKED.equals(source)) {
+            Set<String> iocs = new LinkedHashSet<>();
+            for (String raw : values(document.get("iocs"))) {
+                IocNormalizer.Ioc ioc = IocNormalizer.normalize(raw);
+                if (ioc != null) iocs.add(ioc.key());
+            }
+            entities.put(EntityGraph.TYPE_IOC, new ArrayList<>(iocs));
+        } else {
+            List<String> cves = values(document.get("cveIdList"));
+            if (cves.isEmpty()) {
+                // cveIdList 백필 전 문서는 cveIds 에서 계산
+                cves = typedFieldNormalizer.parseCveIds(document.getString("cveIds"));
+            }
+            entities.put(EntityGraph.TYPE_CVE, cves.stream().map(TypedFieldNormalizer::normalizeCveId).distinct().toList());
+        }
+        return entities;
+    }
+
+    private List<String> values(Object raw) {
+        if (raw == null) return List.of();
+        Collection<?> items = raw instanceof Collection<?> collection ? collection : List.of(raw);
+        List<String> values = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (!(item instanceof String string)) continue;
+            String value = string.trim();
+            if (!value.isEmpty() && value.length() <= MAX_VALUE_LENGTH) values.add(value);
+        }
+        return values;
+    }
+
+    private EntityGraphDto toDto(List<EntityGraph.Node> nodes, List<EntityGraph.Edge> edges, boolean truncated) {
+        return new EntityGraphDto(
+                nodes.stream().map(this::toDto).toList(),
+                edges.stream().map(edge -> new EntityGraphEdgeDto(edge.source(), edge.target(), edge.documents(),
+                        edge.documentKeys())).toList(),
+                truncated);
+    }
+
+    private EntityGraphNodeDto toDto(EntityGraph.Node node) {
+        return new EntityGraphNodeDto(node.type(), node.value(), node.hops(), node.documents());
+    }
+
+    private static List<String> sourceFields(String source) {
+        return SuggestService.TYPE_LEAKED.equals(source) ? LEAKED_FIELDS : VULNERABILITY_FIELDS;
+    }
+
+    private static String collection(String source) {
+        return SuggestService.TYPE_LEAKED.equals(source)
+                ? DataChangeEvent.LEAKED_COLLECTION
+                : DataChangeEvent.VULNERABILITY_COLLECTION;
+    }
+
+    private static String idToString(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+}
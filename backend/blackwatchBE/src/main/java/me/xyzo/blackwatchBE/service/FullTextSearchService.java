@@ -0,0 +1,697 @@
+package me.xyzo.blackwatchBE.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import me.xyzo.blackwatchBE.dto.CountMode;
+import me.xyzo.blackwatchBE.dto.LeakedDataFilterDto;
+import me.xyzo.blackwatchBE.dto.VulnerabilityDataFilterDto;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import me.xyzo.blackwatchBE.index.FullTextIndex;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * q 전문 검색 (Lucene 내장 색인).
+ *
+ * col_leaked / col_vulnerability 를 컬렉션별 Lucene 색인(FullTextIndex)으로 복제해 q 를 BM25 순위로 검색한다.
+ * 제목 / 본문은 Nori(한국어 형태소) 분석기로, IOC / 제품은 StandardAnalyzer 로 색인한다.
+ * q 는 SimpleQueryParser 문법("구문", -제외, 접두사*)으로 해석하므로 정규식으로 쓰이지 않고 잘못된 입력에도 오류가 나지 않는다.
+ * q 와 함께 온 다른 필터도 색인 필드로 같이 적용한다 (Mongo 로 조회할 때는 기존과 같이 q 만 적용).
+ *
+ * 변경은 change stream 이벤트로 색인에 바로 쓰고 refresh-millis 마다 검색에 보이게 한다 (near-real-time).
+ * 기동 시와 reindex-hours 마다 전체를 다시 색인해 놓친 변경과 삭제를 맞춘다 (재색인 중 이벤트로 바뀐 문서는
+ * 끝에 다시 읽는다). 색인은 path 에 남으므로 재시작 직후에도 (재색인이 끝나기 전까지는 마지막 commit 기준으로)
+ * 바로 검색할 수 있다.
+ *
+ * 색인이 준비되지 않았거나 색인으로 표현할 수 없는 조회(지원하지 않는 정렬, max-window 를 넘는 깊은 페이지)는
+ * null 을 반환하고, 호출 측은 Mongo 부분 일치 검색으로 조회한다.
+ */
+@Service
+public class FullTextSearchService implements DataChangeListener {
+
+    public static final String SORT_RELEVANCE = "relevance";
+
+    private static final List<String> COLLECTIONS =
+            List.of(DataChangeEvent.LEAKED_COLLECTION, DataChangeEvent.VULNERABILITY_COLLECTION);
+
+    // 색인 필드
+    private static final String F_TITLE = "title";
+    private static final String F_ARTICLE = "article";
+    private static final String F_IOCS = "iocs";
+    private static final String F_PRODUCTS_TEXT = "products_text";
+    private static final String F_TITLE_LC = "title_lc";
+    private static final String F_PATH_LC = "path_lc";
+    private static final String F_IOCS_LC = "iocs_lc";
+    private static final String F_UPLOAD_TIME = "uploadTime";
+    private static final String F_RECORDS = "recordsCountNum";
+    private static final String F_CVSS = "cvssScore";
+    private static final String F_CONTENT_HASH = DocumentContentHash.FIELD;
+
+    // q 가 찾는 필드와 가중치
+    private static final Map<String, Float> LEAKED_WEIGHTS = Map.of(F_TITLE, 3f, F_ARTICLE, 1f, F_IOCS, 2f);
+    private static final Map<String, Float> VULNERABILITY_WEIGHTS = Map.of(F_TITLE, 3f, F_ARTICLE, 1f, F_PRODUCTS_TEXT, 2f);
+
+    private static final String[] HIGHLIGHT_FIELDS = {F_TITLE, F_ARTICLE};
+    private static final int[] HIGHLIGHT_PASSAGES = {1, 2};
+    private static final Set<String> RESULT_FIELDS = Set.of(FullTextIndex.ID, F_CONTENT_HASH);
+
+    // 요청 정렬 필드 → 색인 정렬 필드
+    private record SortSpec(String field, SortField.Type type) {}
+
+    private static final Map<String, SortSpec> LEAKED_SORTS = Map.of(
+            "id", new SortSpec(FullTextIndex.ID, SortField.Type.STRING),
+            "uploadDate", new SortSpec(F_UPLOAD_TIME, SortField.Type.LONG),
+            "uploadDateTs", new SortSpec(F_UPLOAD_TIME, SortField.Type.LONG),
+            "recordsCount", new SortSpec(F_RECORDS, SortField.Type.LONG),
+            "recordsCountNum", new SortSpec(F_RECORDS, SortField.Type.LONG));
+
+    private static final Map<String, SortSpec> VULNERABILITY_SORTS = Map.of(
+            "id", new SortSpec(FullTextIndex.ID, SortField.Type.STRING),
+            "uploadDate", new SortSpec(F_UPLOAD_TIME, SortField.Type.LONG),
+            "uploadDateTs", new SortSpec(F_UPLOAD_TIME, SortField.Type.LONG),
+            "cvss", new SortSpec(F_CVSS, SortField.Type.DOUBLE),
+            "cvssScore", new SortSpec(F_CVSS, SortField.Type.DOUBLE));
+
+    // 재색인 시 읽는 원본 필드 (개인정보 leaked 는 읽지 않는다)
+    private static final Map<String, List<String>> SOURCE_FIELDS = Map.of(
+            DataChangeEvent.LEAKED_COLLECTION, List.of("title", "article", "iocs", IocNormalizer.FIELD, "host", "author",
+                    "path", "uploadDate", "uploadDateTs", "recordsCount", "recordsCountNum", F_CONTENT_HASH),
+            DataChangeEvent.VULNERABILITY_COLLECTION, List.of("title", "article", "products", "host", "author", "path",
+                    "uploadDate", "uploadDateTs", "cvss", "cvssScore", "cveIds", "cveIdList", "vulnerabilityClass",
+                    "exploitationTechnique", F_CONTENT_HASH));
+
+    // StringField 용어 길이 제한(32KB) 아래로 자른다. 부분 일치 필터는 앞 1,000자까지만 본다
+    private static final int MAX_KEYWORD_LENGTH = 1000;
+
+    private static final int FETCH_BATCH_SIZE = 1000;
+
+    // 하이라이트 오프셋을 postings 에 함께 저장하는 본문 필드
+    private static final FieldType HIGHLIGHTED_TEXT = new FieldType(TextField.TYPE_STORED);
+
+    static {
+        HIGHLIGHTED_TEXT.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        HIGHLIGHTED_TEXT.freeze();
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TypedFieldNormalizer typedFieldNormalizer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${data.full-text.enabled:true}")
+    private boolean enabled;
+
+    @Value("${data.full-text.path:./data/full-text}")
+    private String path;
+
+    @Value("${data.full-text.max-window:10000}")
+    private int maxWindow;
+
+    @Value("${data.full-text.highlight-length:10000}")
+    private int highlightLength;
+
+    private final Analyzer analyzer = createAnalyzer();
+
+    private final ExecutorService reindexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "full-text-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, FullTextIndex> indexes = new ConcurrentHashMap<>();
+    private final Set<String> ready = ConcurrentHashMap.newKeySet();
+    // 재색인 중인 컬렉션 → 그동안 이벤트로 바뀐 문서 id
+    private final Map<String, Set<String>> changedDuringReindex = new ConcurrentHashMap<>();
+    private volatile boolean reindexing;
+
+    private Counter searches;
+
+    /**
+     * 검색 결과 한 페이지 (순위 순서의 id / contentHash / 점수 / 하이라이트).
+     * total 은 CountMode.NONE 이면 -1, query 는 ETag 서명용 색인 쿼리 문자열.
+     */
+    public record SearchPage(List<String> ids, List<String> contentHashes, List<Float> scores,
+                             List<Map<String, String>> highlights, long total, boolean hasNext, String query) {}
+
+    @PostConstruct
+    public void open() {
+        searches = Counter.builder("blackwatch.fulltext.queries")
+                .description("q searches answered from the embedded full-text index")
+                .register(meterRegistry);
+        if (!enabled) return;
+
+        for (String collection : COLLECTIONS) {
+            try {
+                FullTextIndex index = new FullTextIndex(
+                        path == null || path.isBlank() ? null : Path.of(path, collection), analyzer);
+                indexes.put(collection, index);
+                // 이전 실행에서 commit 한 색인은 재색인 전에도 사용한다
+                if (index.numDocs() > 0) ready.add(collection);
+
+                Gauge.builder("blackwatch.fulltext.documents", index, FullTextIndex::numDocs)
+                        .description("Documents in the embedded full-text index")
+                        .tag("collection", collection)
+                        .register(meterRegistry);
+                Gauge.builder("blackwatch.fulltext.size", index, FullTextIndex::sizeInBytes)
+                        .description("Size of the embedded full-text index files")
+                        .tag("collection", collection)
+                        .baseUnit("bytes")
+                        .register(meterRegistry);
+            } catch (IOException e) {
+                System.out.println("Full-text index open failed for " + collection + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnStartup() {
+        reindexAsync();
+    }
+
+    @Scheduled(initialDelayString = "${data.full-text.reindex-hours:24}",
+            fixedDelayString = "${data.full-text.reindex-hours:24}", timeUnit = TimeUnit.HOURS)
+    public void reindex() {
+        reindexAsync();
+    }
+
+    public synchronized boolean reindexAsync() {
+        if (!enabled || indexes.isEmpty() || reindexing) return false;
+        reindexing = true;
+        reindexExecutor.submit(() -> {
+            try {
+                for (String collection : indexes.keySet()) {
+                    reindex(collection);
+                }
+            } catch (Exception e) {
+                System.out.println("Full-text reindex failed: " + e.getMessage());
+            } finally {
+                reindexing = false;
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        FullTextIndex index = indexes.get(event.getCollection());
+        if (index == null) return;
+
+        Set<String> changed = changedDuringReindex.get(event.getCollection());
+        if (changed != null) changed.add(event.getDocumentId());
+
+        try {
+            if (event.getOperation() == DataChangeEvent.Operation.DELETE) {
+                index.delete(event.getDocumentId());
+            } else if (event.getFullDocument() != null) {
+                index.upsert(event.getDocumentId(), toIndexDocument(event.getCollection(), event.getFullDocument()));
+            }
+        } catch (IOException e) {
+            System.out.println("Full-text index update failed for " + event.getDocumentId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 쓰인 변경을 검색에 반영한다 (바뀐 것이 없으면 비용이 거의 없다)
+     */
+    @Scheduled(fixedDelayString = "${data.full-text.refresh-millis:1000}")
+    public void refresh() {
+        for (FullTextIndex index : indexes.values()) {
+            try {
+                index.refresh();
+            } catch (IOException e) {
+                System.out.println("Full-text index refresh failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${data.full-text.commit-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void commit() {
+        for (FullTextIndex index : indexes.values()) {
+            try {
+                index.commit();
+            } catch (IOException e) {
+                System.out.println("Full-text index commit failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (FullTextIndex index : indexes.values()) {
+            try {
+                index.close();
+            } catch (IOException e) {
+                System.out.println("Full-text index close failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public SearchPage searchLeaked(LeakedDataFilterDto filter, Pageable pageable, CountMode countMode) {
+        if (isBlank(filter.getQ())) return null;
+        Sort sort = luceneSort(pageable, LEAKED_SORTS);
+        if (sort == null) return null;
+        return search(DataChangeEvent.LEAKED_COLLECTION, leakedQuery(filter), sort, pageable, countMode);
+    }
+
+    public SearchPage searchVulnerabilities(VulnerabilityDataFilterDto filter, Pageable pageable, CountMode countMode) {
+        if (isBlank(filter.getQ())) return null;
+        Sort sort = luceneSort(pageable, VULNERABILITY_SORTS);
+        if (sort == null) return null;
+        return search(DataChangeEvent.VULNERABILITY_COLLECTION, vulnerabilityQuery(filter), sort, pageable, countMode);
+    }
+
+    // ======= 검색 =======
+
+    private SearchPage search(String collection, Query query, Sort sort, Pageable pageable, CountMode countMode) {
+        FullTextIndex index = indexes.get(collection);
+        if (!enabled || index == null || !ready.contains(collection)) return null;
+
+        // 다음 페이지 여부를 알기 위해 한 건 더 읽는다
+        long window = pageable.getOffset() + pageable.getPageSize() + 1;
+        if (window > maxWindow) return null;
+
+        try {
+            return index.search(searcher -> {
+                TopDocs top = sort == Sort.RELEVANCE
+                        ? searcher.search(query, (int) window)
+                        : searcher.search(query, (int) window, sort, true);
+
+                ScoreDoc[] hits = top.scoreDocs;
+                int from = (int) Math.min(pageable.getOffset(), hits.length);
+                int to = Math.min(from + pageable.getPageSize(), hits.length);
+                ScoreDoc[] page = Arrays.copyOfRange(hits, from, to);
+
+                long total = -1;
+                if (countMode != CountMode.NONE) {
+                    total = top.totalHits.relation == TotalHits.Relation.EQUAL_TO
+                            ? top.totalHits.value
+                            : searcher.count(query);
+                }
+
+                List<String> ids = new ArrayList<>(page.length);
+                List<String> contentHashes = new ArrayList<>(page.length);
+                List<Float> scores = new ArrayList<>(page.length);
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc hit : page) {
+                    org.apache.lucene.document.Document stored = storedFields.document(hit.doc, RESULT_FIELDS);
+                    ids.add(stored.get(FullTextIndex.ID));
+                    contentHashes.add(stored.get(F_CONTENT_HASH));
+                    scores.add(hit.score);
+                }
+
+                UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                        .withMaxLength(highlightLength)
+                        .withMaxNoHighlightPassages(0)
+                        .withFormatter(new DefaultPassageFormatter("<em>", "</em>", "… ", true))
+                        .build();
+                Map<String, String[]> highlighted = highlighter.highlightFields(
+                        HIGHLIGHT_FIELDS, query, new TopDocs(top.totalHits, page), HIGHLIGHT_PASSAGES);
+
+                List<Map<String, String>> highlights = new ArrayList<>(page.length);
+                for (int i = 0; i < page.length; i++) {
+                    Map<String, String> fields = new LinkedHashMap<>();
+                    for (String field : HIGHLIGHT_FIELDS) {
+                        String fragment = highlighted.get(field)[i];
+                        if (fragment != null) fields.put(field, fragment);
+                    }
+                    highlights.add(fields);
+                }
+
+                searches.increment();
+                return new SearchPage(ids, contentHashes, scores, highlights, total, hits.length > to,
+                        query + "|" + sort);
+            });
+        } catch (IOException e) {
+            System.out.println("Full-text search failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 요청 정렬을 색인 정렬로. relevance (또는 정렬 없음) 는 점수순, 색인에 없는 필드면 null.
+     * 값이 없는 문서는 Mongo 와 같이 오름차순에서 맨 앞, 내림차순에서 맨 뒤에 둔다.
+     */
+    private Sort luceneSort(Pageable pageable, Map<String, SortSpec> sorts) {
+        List<SortField> fields = new ArrayList<>();
+        for (org.springframework.data.domain.Sort.Order order : pageable.getSort()) {
+            if (SORT_RELEVANCE.equals(order.getProperty())) {
+                fields.add(SortField.FIELD_SCORE);
+                continue;
+            }
+            SortSpec spec = sorts.get(order.getProperty());
+            if (spec == null) return null;
+
+            SortField field = new SortField(spec.field(), spec.type(), order.isDescending());
+            if (spec.type() == SortField.Type.LONG) field.setMissingValue(Long.MIN_VALUE);
+            if (spec.type() == SortField.Type.DOUBLE) field.setMissingValue(Double.NEGATIVE_INFINITY);
+            fields.add(field);
+        }
+        if (fields.isEmpty() || (fields.size() == 1 && fields.get(0) == SortField.FIELD_SCORE)) {
+            return Sort.RELEVANCE;
+        }
+        return new Sort(fields.toArray(new SortField[0]));
+    }
+
+    /**
+     * DataQueryBuilder.buildLeakedCriteria 와 같은 의미의 필터 + q
+     */
+    private Query leakedQuery(LeakedDataFilterDto filter) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(textQuery(filter.getQ(), LEAKED_WEIGHTS), BooleanClause.Occur.MUST);
+
+        addTimeRange(query, filter.getFrom(), filter.getTo());
+        addTerms(query, "host", filter.getHosts());
+        addContains(query, F_PATH_LC, filter.getPathContains());
+        addContains(query, F_TITLE_LC, filter.getTitleContains());
+        addTerms(query, "author", filter.getAuthors());
+        if (filter.getRecordMin() != null || filter.getRecordMax() != null) {
+            query.add(LongPoint.newRangeQuery(F_RECORDS,
+                    filter.getRecordMin() != null ? filter.getRecordMin() : Long.MIN_VALUE,
+                    filter.getRecordMax() != null ? filter.getRecordMax() : Long.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+        addContains(query, F_IOCS_LC, filter.getIocContains());
+        if (filter.getIocs() != null && !filter.getIocs().isEmpty()) {
+            List<String> iocKeys = filter.getIocs().stream()
+                    .map(IocNormalizer::normalize)
+                    .filter(ioc -> ioc != null)
+                    .map(IocNormalizer.Ioc::key)
+                    .toList();
+            addTerms(query, IocNormalizer.FIELD, iocKeys);
+        }
+        return query.build();
+    }
+
+    /**
+     * DataQueryBuilder.buildVulnerabilityCriteria 와 같은 의미의 필터 + q
+     */
+    private Query vulnerabilityQuery(VulnerabilityDataFilterDto filter) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(textQuery(filter.getQ(), VULNERABILITY_WEIGHTS), BooleanClause.Occur.MUST);
+
+        addTimeRange(query, filter.getFrom(), filter.getTo());
+        addTerms(query, "host", filter.getHosts());
+        addContains(query, F_PATH_LC, filter.getPathContains());
+        addContains(query, F_TITLE_LC, filter.getTitleContains());
+        addTerms(query, "author", filter.getAuthors());
+        if (filter.getCves() != null && !filter.getCves().isEmpty()) {
+            addTerms(query, "cveIdList", filter.getCves().stream().map(TypedFieldNormalizer::normalizeCveId).toList());
+        }
+        if (filter.getCvssMin() != null || filter.getCvssMax() != null) {
+            query.add(DoublePoint.newRangeQuery(F_CVSS,
+                    filter.getCvssMin() != null ? filter.getCvssMin() : Double.NEGATIVE_INFINITY,
+                    filter.getCvssMax() != null ? filter.getCvssMax() : Double.POSITIVE_INFINITY), BooleanClause.Occur.FILTER);
+        }
+        addTerms(query, "vulnerabilityClass", filter.getVulnClasses());
+        addTerms(query, "products", filter.getProducts());
+        addTerms(query, "exploitationTechnique", filter.getTechniques());
+        return query.build();
+    }
+
+    private Query textQuery(String q, Map<String, Float> weights) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, weights);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query parsed = parser.parse(q.trim());
+        return parsed != null ? parsed : new MatchNoDocsQuery("empty q");
+    }
+
+    // 유출 / 취약점 모두 uploadDateTs 기준 (DataQueryBuilder.addRange 와 같이 양 끝 포함)
+    private void addTimeRange(BooleanQuery.Builder query, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) return;
+        query.add(LongPoint.newRangeQuery(F_UPLOAD_TIME,
+                from != null ? TypedFieldNormalizer.toDate(from).getTime() : Long.MIN_VALUE,
+                to != null ? TypedFieldNormalizer.toDate(to).getTime() : Long.MAX_VALUE), BooleanClause.Occur.FILTER);
+    }
+
+    // 정확히 일치, '*' 로 끝나면 접두사 (DataQueryBuilder.addTerms 와 같은 규칙)
+    private void addTerms(BooleanQuery.Builder query, String field, List<String> values) {
+        if (values == null || values.isEmpty()) return;
+
+        BooleanQuery.Builder terms = new BooleanQuery.Builder();
+        int count = 0;
+        for (String value : values) {
+            if (value == null || value.isBlank()) continue;
+            String trimmed = value.trim();
+            if (trimmed.endsWith("*") && trimmed.length() > 1) {
+                terms.add(new PrefixQuery(new Term(field, trimmed.substring(0, trimmed.length() - 1))),
+                        BooleanClause.Occur.SHOULD);
+            } else {
+                terms.add(new TermQuery(new Term(field, trimmed)), BooleanClause.Occur.SHOULD);
+            }
+            count++;
+        }
+        if (count > 0) {
+            query.add(terms.build(), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    // 대소문자 무시 부분 일치 (소문자로 색인한 키워드 필드에 *값* 와일드카드)
+    private void addContains(BooleanQuery.Builder query, String field, String value) {
+        if (isBlank(value)) return;
+        StringBuilder pattern = new StringBuilder("*");
+        for (char c : value.trim().toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == WildcardQuery.WILDCARD_STRING || c == WildcardQuery.WILDCARD_CHAR || c == WildcardQuery.WILDCARD_ESCAPE) {
+                pattern.append(WildcardQuery.WILDCARD_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        pattern.append('*');
+        query.add(new WildcardQuery(new Term(field, pattern.toString())), BooleanClause.Occur.FILTER);
+    }
+
+    // ======= 색인 =======
+
+    private void reindex(String collection) throws IOException {
+        FullTextIndex index = indexes.get(collection);
+        long started = System.currentTimeMillis();
+        Set<String> changed = ConcurrentHashMap.newKeySet();
+        changedDuringReindex.put(collection, changed);
+        index.nextGeneration();
+
+        org.springframework.data.mongodb.core.query.Query query = new org.springframework.data.mongodb.core.query.Query();
+        SOURCE_FIELDS.get(collection).forEach(query.fields()::include);
+        query.cursorBatchSize(1000);
+
+        long documents = 0;
+        try {
+            try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, collection)) {
+                Iterator<Document> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    Document document = iterator.next();
+                    index.upsert(String.valueOf(document.get("_id")), toIndexDocument(collection, document));
+                    documents++;
+                }
+            }
+
+            // 커서가 읽은 값이 이벤트보다 오래되었을 수 있으므로 (이벤트 뒤에 덮어쓰거나 삭제된 문서를 되살림)
+            // 그동안 바뀐 문서는 다시 읽는다
+            refetch(collection, index, new ArrayList<>(changed));
+        } finally {
+            changedDuringReindex.remove(collection);
+        }
+
+        // 재색인 동안 이벤트로 들어온 문서도 새 세대로 쓰였으므로, 이전 세대만 남은 문서는 삭제된 것이다
+        index.deleteStale();
+        index.commit();
+        index.refresh();
+        ready.add(collection);
+        System.out.println("Full-text index rebuilt for " + collection + ": " + documents + " documents in "
+                + (System.currentTimeMillis() - started) + "ms");
+    }
+
+    private void refetch(String collection, FullTextIndex index, List<String> ids) throws IOException {
+        for (int from = 0; from < ids.size(); from += FETCH_BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + FETCH_BATCH_SIZE, ids.size()));
+            List<Object> mongoIds = batch.stream().map(id -> (Object) (ObjectId.isValid(id) ? new ObjectId(id) : id)).toList();
+
+            org.springframework.data.mongodb.core.query.Query query =
+                    new org.springframework.data.mongodb.core.query.Query(Criteria.where("_id").in(mongoIds));
+            SOURCE_FIELDS.get(collection).forEach(query.fields()::include);
+            Set<String> found = new HashSet<>();
+            for (Document document : mongoTemplate.find(query, Document.class, collection)) {
+                String id = String.valueOf(document.get("_id"));
+                index.upsert(id, toIndexDocument(collection, document));
+                found.add(id);
+            }
+            for (String id : batch) {
+                if (!found.contains(id)) index.delete(id);
+            }
+        }
+    }
+
+    private org.apache.lucene.document.Document toIndexDocument(String collection, Document source) {
+        org.apache.lucene.document.Document document = new org.apache.lucene.document.Document();
+        boolean leaked = DataChangeEvent.LEAKED_COLLECTION.equals(collection);
+
+        String title = string(source.get("title"));
+        if (title != null) {
+            document.add(new Field(F_TITLE, title, HIGHLIGHTED_TEXT));
+            document.add(keyword(F_TITLE_LC, title.toLowerCase(Locale.ROOT)));
+        }
+        String article = string(source.get("article"));
+        if (article != null) {
+            document.add(new Field(F_ARTICLE, article, HIGHLIGHTED_TEXT));
+        }
+        String path = string(source.get("path"));
+        if (path != null) {
+            document.add(keyword(F_PATH_LC, path.toLowerCase(Locale.ROOT)));
+        }
+        addKeywords(document, "host", source.get("host"));
+        addKeywords(document, "author", source.get("author"));
+
+        // 타입 필드가 아직 백필되지 않은 문서는 원본 문자열에서 계산
+        Date uploaded = source.get("uploadDateTs") instanceof Date date
+                ? date
+                : typedFieldNormalizer.parseUploadDate(string(source.get("uploadDate")));
+        if (uploaded != null) {
+            document.add(new LongPoint(F_UPLOAD_TIME, uploaded.getTime()));
+            document.add(new NumericDocValuesField(F_UPLOAD_TIME, uploaded.getTime()));
+        }
+
+        String contentHash = string(source.get(F_CONTENT_HASH));
+        if (contentHash != null) {
+            document.add(new StoredField(F_CONTENT_HASH, contentHash));
+        }
+
+        if (leaked) {
+            List<String> iocs = strings(source.get("iocs"));
+            for (String ioc : iocs) {
+                document.add(new TextField(F_IOCS, ioc, Field.Store.NO));
+                document.add(keyword(F_IOCS_LC, ioc.toLowerCase(Locale.ROOT)));
+            }
+            List<String> iocKeys = strings(source.get(IocNormalizer.FIELD));
+            addKeywords(document, IocNormalizer.FIELD, iocKeys.isEmpty() ? IocNormalizer.keys(iocs) : iocKeys);
+
+            Long records = source.get("recordsCountNum") instanceof Number number
+                    ? Long.valueOf(number.longValue())
+                    : typedFieldNormalizer.parseRecordsCount(string(source.get("recordsCount")));
+            if (records != null) {
+                document.add(new LongPoint(F_RECORDS, records));
+                document.add(new NumericDocValuesField(F_RECORDS, records));
+            }
+        } else {
+            List<String> products = strings(source.get("products"));
+            for (String product : products) {
+                document.add(new TextField(F_PRODUCTS_TEXT, product, Field.Store.NO));
+            }
+            addKeywords(document, "products", products);
+            addKeywords(document, "vulnerabilityClass", source.get("vulnerabilityClass"));
+            addKeywords(document, "exploitationTechnique", source.get("exploitationTechnique"));
+
+            List<String> cveIds = strings(source.get("cveIdList"));
+            addKeywords(document, "cveIdList",
+                    cveIds.isEmpty() ? typedFieldNormalizer.parseCveIds(string(source.get("cveIds"))) : cveIds);
+
+            Double cvss = source.get("cvssScore") instanceof Number number
+                    ? Double.valueOf(number.doubleValue())
+                    : typedFieldNormalizer.parseCvss(string(source.get("cvss")));
+            if (cvss != null) {
+                document.add(new DoublePoint(F_CVSS, cvss));
+                document.add(new DoubleDocValuesField(F_CVSS, cvss));
+            }
+        }
+        return document;
+    }
+
+    private void addKeywords(org.apache.lucene.document.Document document, String field, Object values) {
+        for (String value : strings(values)) {
+            document.add(keyword(field, value));
+        }
+    }
+
+    private StringField keyword(String field, String value) {
+        return new StringField(field,
+                value.length() > MAX_KEYWORD_LENGTH ? value.substring(0, MAX_KEYWORD_LENGTH) : value, Field.Store.NO);
+    }
+
+    private static Analyzer createAnalyzer() {
+        Analyzer korean = new KoreanAnalyzer();
+        return new PerFieldAnalyzerWrapper(new StandardAnalyzer(), Map.of(F_TITLE, korean, F_ARTICLE, korean));
+    }
+
+    private String string(Object value) {
+        return value != null && !value.toString().isBlank() ? value.toString() : null;
+    }
+
+    // 문자열 또는 문자열 배열 필드를 리스트로
+    private List<String> strings(Object value) {
+        if (value == null) return List.of();
+        Collection<?> items = value instanceof Collection<?> collection ? collection : List.of(value);
+        List<String> values = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item != null && !item.toString().isBlank()) values.add(item.toString());
+        }
+        return values;
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,165 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import me.xyzo.blackwatchBE.exception.ServiceUnavailableException;
+import me.xyzo.blackwatchBE.index.HashPrefixRangeIndex;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * /data/leaked/range 용 해시 접두사 버킷 인덱스.
+ *
+ * col_pii_lookup 의 email / hash 값(정규화된 값)을 SHA-1 / SHA-256 으로 해시해 버킷으로 나눈다.
+ * 클라이언트는 평문 대신 해시 앞 5자리만 보내고, 버킷 안의 나머지 해시와 leakId 를 받아 로컬에서 비교한다.
+ * 색인이 바뀌면 주기적으로 전체를 새로 만들어 교체한다 (버전이 바뀌기 전까지 버킷 응답은 동일).
+ */
+@Service
+public class HashRangeIndexService {
+
+    // API 파라미터 → MessageDigest 알고리즘
+    private static final Map<String, String> ALGORITHMS = Map.of(
+            "sha1", "SHA-1",
+            "sha256", "SHA-256");
+
+    private static final List<String> TYPES = List.of(
+            PersonalDataNormalizer.TYPE_EMAIL,
+            PersonalDataNormalizer.TYPE_HASH);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PersonalDataIndexService personalDataIndexService;
+
+    @Value("${data.hash-range.enabled:true}")
+    private boolean enabled;
+
+    @Value("${data.hash-range.algorithms:sha1,sha256}")
+    private List<String> algorithms;
+
+    // type + ":" + algorithm → 인덱스
+    private volatile Map<String, HashPrefixRangeIndex> indexes = Map.of();
+    private volatile long version;
+    private long builtRevision = -1;
+
+    /**
+     * 버킷 응답. 버전은 인덱스가 교체될 때만 바뀌므로 ETag 로 사용한다.
+     */
+    public record Bucket(String body, long version) {}
+
+    public Bucket getBucket(String type, String algorithm, String prefix) {
+        String normalizedType = type != null ? type.trim().toLowerCase(Locale.ROOT) : "";
+        String normalizedAlgorithm = algorithm != null ? algorithm.trim().toLowerCase(Locale.ROOT) : "";
+        if (!TYPES.contains(normalizedType)) {
+            throw new BadRequestException("지원하지 않는 type 입니다: " + type);
+        }
+        if (!ALGORITHMS.containsKey(normalizedAlgorithm) || !algorithms.contains(normalizedAlgorithm)) {
+            throw new BadRequestException("지원하지 않는 algorithm 입니다: " + algorithm);
+        }
+
+        HashPrefixRangeIndex index = indexes.get(normalizedType + ":" + normalizedAlgorithm);
+        if (index == null) {
+            throw new ServiceUnavailableException("해시 범위 인덱스를 준비 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        try {
+            return new Bucket(index.bucket(prefix), version);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("prefix 는 " + HashPrefixRangeIndex.PREFIX_LENGTH + "자리 16진수여야 합니다.");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${data.hash-range.refresh-seconds:300}", timeUnit = TimeUnit.SECONDS)
+    public void refresh() {
+        if (!enabled || !personalDataIndexService.isReady()) return;
+
+        long revision = personalDataIndexService.getRevision();
+        if (revision == builtRevision) return;
+
+        try {
+            long started = System.currentTimeMillis();
+            Map<String, HashPrefixRangeIndex> rebuilt = build();
+            indexes = rebuilt;
+            version = started;
+            builtRevision = revision;
+
+            long entries = rebuilt.values().stream().mapToLong(HashPrefixRangeIndex::size).sum();
+            long bytes = rebuilt.values().stream().mapToLong(HashPrefixRangeIndex::memoryBytes).sum();
+            System.out.println("Hash range index rebuilt: " + entries + " entries, " + (bytes / 1024 / 1024)
+                    + "MB in " + (System.currentTimeMillis() - started) + "ms");
+        } catch (Exception e) {
+            System.out.println("Hash range index rebuild failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * col_pii_lookup 을 {type, value, leakId} 인덱스 순서로 읽어 같은 값의 leakId 를 묶는다.
+     */
+    private Map<String, HashPrefixRangeIndex> build() {
+        Map<String, HashPrefixRangeIndex.Builder> builders = new HashMap<>();
+        for (String type : TYPES) {
+            for (String algorithm : algorithms) {
+                String digest = ALGORITHMS.get(algorithm.trim().toLowerCase(Locale.ROOT));
+                if (digest != null) {
+                    builders.put(type + ":" + algorithm.trim().toLowerCase(Locale.ROOT),
+                            new HashPrefixRangeIndex.Builder(digest));
+                }
+            }
+        }
+
+        Query query = new Query(Criteria.where("type").in(TYPES))
+                .with(Sort.by("type", "value", "leakId"));
+        query.fields().include("type").include("value").include("leakId").exclude("_id");
+        query.cursorBatchSize(5000);
+
+        String currentType = null;
+        String currentValue = null;
+        List<String> leakIds = new ArrayList<>();
+        try (Stream<Document> entries = mongoTemplate.stream(query, Document.class, PersonalDataIndexService.COLLECTION)) {
+            Iterator<Document> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                Document entry = iterator.next();
+                String type = entry.getString("type");
+                String value = entry.getString("value");
+                if (!type.equals(currentType) || !value.equals(currentValue)) {
+                    addValue(builders, currentType, currentValue, leakIds);
+                    currentType = type;
+                    currentValue = value;
+                    leakIds = new ArrayList<>();
+                }
+                leakIds.add(entry.getString("leakId"));
+            }
+        }
+        addValue(builders, currentType, currentValue, leakIds);
+
+        Map<String, HashPrefixRangeIndex> built = new HashMap<>();
+        builders.forEach((key, builder) -> built.put(key, builder.build()));
+        return Map.copyOf(built);
+    }
+
+    private void addValue(Map<String, HashPrefixRangeIndex.Builder> builders, String type, String value,
+                          List<String> leakIds) {
+        if (type == null) return;
+        builders.forEach((key, builder) -> {
+            if (key.startsWith(type + ":")) {
+                builder.add(value, leakIds);
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.dto.IocMatchDto;
+import me.xyzo.blackwatchBE.dto.IocSearchDto;
+import me.xyzo.blackwatchBE.dto.IocSearchResultDto;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 대량 IOC 조회 (/data/leaked/find/iocs).
+ *
+ * 입력 IOC 를 IocNormalizer 로 정규화해 중복을 없앤 뒤, batch-size 개씩 iocKeys 멀티키 인덱스에 $in 으로 조회한다.
+ * 방화벽 / EDR 지표 목록처럼 표기가 제각각인 입력(대소문자, hxxp, [.])도 같은 키로 모인다.
+ * 도메인 / IP 지표는 해당 호스트의 URL IOC 가 있는 유출 건과도 일치한다.
+ */
+@Service
+public class IocLookupService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${data.ioc-lookup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${data.ioc-lookup.max-iocs:10000}")
+    private int maxIocs;
+
+    public IocSearchResultDto find(IocSearchDto request) {
+        List<String> iocs = request.getIocs() != null ? request.getIocs() : List.of();
+        if (iocs.size() > maxIocs) {
+            throw new BadRequestException("iocs 는 최대 " + maxIocs + "개까지 조회할 수 있습니다.");
+        }
+
+        // 입력 → 정규화 결과 (입력 순서 유지, 같은 입력은 한 번만)
+        Map<String, IocNormalizer.Ioc> normalized = new LinkedHashMap<>();
+        for (String ioc : iocs) {
+            if (ioc != null && !normalized.containsKey(ioc)) {
+                normalized.put(ioc, IocNormalizer.normalize(ioc));
+            }
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        normalized.values().forEach(ioc -> {
+            if (ioc != null) keys.add(ioc.key());
+        });
+        Map<String, List<String>> leakIdsByKey = lookup(new ArrayList<>(keys));
+
+        List<IocMatchDto> matches = new ArrayList<>();
+        int totalFound = 0;
+        for (Map.Entry<String, IocNormalizer.Ioc> entry : normalized.entrySet()) {
+            IocNormalizer.Ioc ioc = entry.getValue();
+            List<String> leakIds = ioc != null ? leakIdsByKey.getOrDefault(ioc.key(), List.of()) : List.of();
+            boolean found = !leakIds.isEmpty();
+            if (found) totalFound++;
+            if (found || !request.isOnlyFound()) {
+                matches.add(new IocMatchDto(entry.getKey(), ioc != null ? ioc.type() : null,
+                        ioc != null ? ioc.value() : null, found, leakIds));
+            }
+        }
+        return new IocSearchResultDto(matches, normalized.size(), totalFound);
+    }
+
+    /**
+     * IOC 키 → 해당 키를 가진 유출 건 id
+     */
+    private Map<String, List<String>> lookup(List<String> keys) {
+        Map<String, List<String>> leakIdsByKey = new HashMap<>();
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<String> batch = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            Set<String> wanted = new HashSet<>(batch);
+
+            Query query = new Query(Criteria.where(IocNormalizer.FIELD).in(batch));
+            query.fields().include(IocNormalizer.FIELD);
+
+            for (Document document : mongoTemplate.find(query, Document.class, DataChangeEvent.LEAKED_COLLECTION)) {
+                String leakId = String.valueOf(document.get("_id"));
+                for (Object key : document.getList(IocNormalizer.FIELD, Object.class, List.of())) {
+                    if (wanted.contains(key)) {
+                        leakIdsByKey.computeIfAbsent((String) key, k -> new ArrayList<>()).add(leakId);
+                    }
+                }
+            }
+        }
+        return leakIdsByKey;
+    }
+}
@@ -0,0 +1,160 @@
+package me.xyzo.blackwatchBE.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * IOC 정규화 및 유형 분류 (col_leaked.iocKeys).
+ *
+ * 소문자로 바꾸고 무력화 표기(hxxp, [.], [:] 등)를 되돌린 뒤 ip / domain / url / hash / wallet 로 분류해
+ * "유형:값" 키로 만든다. 어느 유형에도 맞지 않는 값은 other 로 저장해 정확히 같은 값으로는 찾을 수 있게 한다.
+ * url 은 호스트의 domain / ip 키도 함께 만들어, 도메인 차단 목록으로 해당 도메인의 URL 이 있는 유출 건도 찾는다.
+ */
+public final class IocNormalizer {
+
+    public static final String FIELD = "iocKeys";
+
+    public static final String TYPE_IP = "ip";
+    public static final String TYPE_DOMAIN = "domain";
+    public static final String TYPE_URL = "url";
+    public static final String TYPE_HASH = "hash";
+    public static final String TYPE_WALLET = "wallet";
+    public static final String TYPE_OTHER = "other";
+
+    private static final Pattern HXXP = Pattern.compile("^h[x*]{2}p(s?)(?=[:\\[])");
+    private static final Pattern DEFANGED_DOT = Pattern.compile("\\[\\.]|\\(\\.\\)|\\{\\.}|\\[dot]|\\(dot\\)|\\{dot}");
+    private static final Pattern DEFANGED_AT = Pattern.compile("\\[@]|\\(@\\)|\\[at]|\\(at\\)");
+    private static final Pattern DEFANGED_COLON = Pattern.compile("\\[:]|\\(:\\)");
+    private static final Pattern DEFANGED_SCHEME = Pattern.compile("\\[://]|\\[:]//");
+
+    private static final Pattern URL = Pattern.compile("^([a-z][a-z0-9+.-]*)://([^/?#]+)(.*)$");
+    private static final Pattern IPV4 = Pattern.compile("^(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})(?::\\d{1,5})?$");
+    private static final Pattern IPV6 = Pattern.compile("^\\[?([0-9a-f]{0,4}(?::[0-9a-f]{0,4}){2,7})]?$");
+    private static final Pattern HASH = Pattern.compile("^(?:[0-9a-f]{32}|[0-9a-f]{40}|[0-9a-f]{64}|[0-9a-f]{128})$");
+    // 해시를 wallet 으로 분류하던 이전 규칙으로 저장된 키 (TypedFieldBackfillService 가 다시 계산한다)
+    public static final Pattern MISTYPED_HASH_KEY =
+            Pattern.compile("^" + TYPE_WALLET + ":(?:[0-9a-f]{32}|[0-9a-f]{40}|[0-9a-f]{64}|[0-9a-f]{128})$");
+    private static final Pattern DOMAIN = Pattern.compile("^(?:[a-z0-9_](?:[a-z0-9_-]{0,61}[a-z0-9])?\\.)+(?:[a-z]{2,63}|xn--[a-z0-9-]{1,59})$");
+
+    // 비트코인 (legacy / bech32), 이더리움, 모네로 - 소문자로 바꾼 뒤 비교
+    private static final List<Pattern> WALLETS = List.of(
+            Pattern.compile("^[13][a-z1-9]{25,34}$"),
+            Pattern.compile("^bc1[02-9ac-hj-np-z]{11,87}$"),
+            Pattern.compile("^0x[0-9a-f]{40}$"),
+            Pattern.compile("^[48][0-9a-z]{94}$"));
+
+    private IocNormalizer() {}
+
+    /**
+     * 정규화된 IOC. key 는 "유형:값".
+     */
+    public record Ioc(String type, String value) {
+        public String key() {
+            return type + ":" + value;
+        }
+    }
+
+    /**
+     * 입력 IOC 하나를 정규화한다 (빈 값이면 null).
+     */
+    public static Ioc normalize(String raw) {
+        if (raw == null) return null;
+        String value = refang(raw.trim().toLowerCase(Locale.ROOT));
+        // 목록에서 흔히 붙어 오는 따옴표 / 끝의 구두점 제거
+        value = value.replaceAll("^[\"'<(\\[]+|[\"'>)\\],;]+$", "");
+        if (value.isEmpty()) return null;
+
+        Matcher url = URL.matcher(value);
+        if (url.matches()) {
+            String path = url.group(3);
+            return new Ioc(TYPE_URL, url.group(1) + "://" + url.group(2) + ("/".equals(path) ? "" : path));
+        }
+
+        String ip = normalizeIp(value);
+        if (ip != null) return new Ioc(TYPE_IP, ip);
+
+        // 1 / 3 으로 시작하고 0 이 없는 MD5 등은 legacy 비트코인 주소 형식과도 맞으므로 해시를 먼저 본다
+        if (HASH.matcher(value).matches()) return new Ioc(TYPE_HASH, value);
+        for (Pattern wallet : WALLETS) {
+            if (wallet.matcher(value).matches()) return new Ioc(TYPE_WALLET, value);
+        }
+
+        String domain = value.endsWith(".") ? value.substring(0, value.length() - 1) : value;
+        if (DOMAIN.matcher(domain).matches()) return new Ioc(TYPE_DOMAIN, domain);
+
+        return new Ioc(TYPE_OTHER, value);
+    }
+
+    /**
+     * 문서의 iocs 배열로 iocKeys 를 만든다 (중복 제거, 정렬). url 은 호스트 키도 함께 넣는다.
+     */
+    public static List<String> keys(Collection<?> iocs) {
+        TreeSet<String> keys = new TreeSet<>();
+        if (iocs == null) return new ArrayList<>();
+        for (Object raw : iocs) {
+            Ioc ioc = normalize(raw != null ? raw.toString() : null);
+            if (ioc == null) continue;
+            keys.add(ioc.key());
+            if (TYPE_URL.equals(ioc.type())) {
+                Ioc host = hostOf(ioc.value());
+                if (host != null) keys.add(host.key());
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    static String refang(String value) {
+        String refanged = HXXP.matcher(value).replaceFirst("http$1");
+        refanged = DEFANGED_SCHEME.matcher(refanged).replaceAll("://");
+        refanged = DEFANGED_DOT.matcher(refanged).replaceAll(".");
+        refanged = DEFANGED_AT.matcher(refanged).replaceAll("@");
+        refanged = DEFANGED_COLON.matcher(refanged).replaceAll(":");
+        return refanged;
+    }
+
+    // url 의 호스트 (사용자 정보 / 포트 제외) 를 ip 또는 domain 으로
+    private static Ioc hostOf(String url) {
+        Matcher matcher = URL.matcher(url);
+        if (!matcher.matches()) return null;
+        String host = matcher.group(2);
+        int at = host.lastIndexOf('@');
+        if (at >= 0) host = host.substring(at + 1);
+
+        host = host.replaceFirst(":\\d{1,5}$", "");
+
+        String ip = normalizeIp(host);
+        if (ip != null) return new Ioc(TYPE_IP, ip);
+
+        if (host.endsWith(".")) host = host.substring(0, host.length() - 1);
+        return DOMAIN.matcher(host).matches() ? new Ioc(TYPE_DOMAIN, host) : null;
+    }
+
+    // IPv4 (포트 제외, 앞자리 0 제거) / IPv6
+    private static String normalizeIp(String value) {
+        Matcher v4 = IPV4.matcher(value);
+        if (v4.matches()) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 1; i <= 4; i++) {
+                int octet = Integer.parseInt(v4.group(i));
+                if (octet > 255) return null;
+                if (i > 1) sb.append('.');
+                sb.append(octet);
+            }
+            return sb.toString();
+        }
+        Matcher v6 = IPV6.matcher(value);
+        if (v6.matches()) {
+            String address = v6.group(1);
+            // 생략(::) 이 없으면 8개 그룹이어야 한다
+            if (address.contains("::") || address.chars().filter(c -> c == ':').count() == 7) {
+                return address;
+            }
+        }
+        return null;
+    }
+}
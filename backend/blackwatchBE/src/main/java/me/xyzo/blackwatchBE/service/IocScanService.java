@@ -0,0 +1,365 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import me.xyzo.blackwatchBE.exception.ServiceUnavailableException;
+import me.xyzo.blackwatchBE.index.AhoCorasickAutomaton;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 업로드된 로그 / 텍스트에서 알려진 IOC 찾기 (/data/leaked/scan).
+ *
+ * col_leaked 의 모든 iocs 값을 IocNormalizer 로 정규화해 Aho-Corasick 오토마톤(base)으로 만들고,
+ * 요청 본문을 청크 단위로 읽으며 한 번에 훑어 IOC 가 나온 위치(바이트 오프셋)와 유출 건 id 를 NDJSON 으로 내보낸다.
+ *
+ * DFA 는 부분 수정이 어려우므로, 마지막 전체 빌드 이후 추가된 IOC 는 작은 오토마톤(delta)으로 따로 만들어
+ * refresh-seconds 마다 교체하고 스캔 시 두 오토마톤을 함께 돌린다. delta 에 있는 값은 base 의 유출 건 id 까지
+ * 합쳐 두고 base 쪽 일치는 건너뛰므로 같은 위치가 두 번 나오지 않는다. 삭제된 유출 건은 결과에서 제외한다.
+ * 수정으로 빠진 IOC 는 다음 전체 빌드(rebuild-minutes, 또는 delta 가 max-pending 건을 넘을 때)까지 남는다.
+ * 전이표가 max-table-mb 를 넘는 빌드는 할당 전에 실패하며, 그동안은 이전 오토마톤으로 스캔한다.
+ */
+@Service
+public class IocScanService implements DataChangeListener {
+
+    private static final String SOURCE_FIELD = "iocs";
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${data.ioc-scan.enabled:true}")
+    private boolean enabled;
+
+    @Value("${data.ioc-scan.min-length:4}")
+    private int minLength;
+
+    @Value("${data.ioc-scan.max-hits:100000}")
+    private long maxHits;
+
+    @Value("${data.ioc-scan.max-pending:50000}")
+    private int maxPending;
+
+    // 오토마톤 하나를 만들 때 전이표에 쓸 수 있는 최대 메모리. 넘으면 빌드를 포기하고 이전 오토마톤을 유지한다
+    @Value("${data.ioc-scan.max-table-mb:512}")
+    private long maxTableMb;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ioc-scan-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 스캔에 쓰는 오토마톤 한 벌. shadowed 는 delta 가 대신하는 base 키워드.
+     */
+    private record Snapshot(AhoCorasickAutomaton base, AhoCorasickAutomaton delta, BitSet shadowed) {
+        long memoryBytes() {
+            return base.memoryBytes() + delta.memoryBytes();
+        }
+    }
+
+    // 유출 건 id → 마지막 전체 빌드 이후 변경 (seq 는 빌드 시작 시점 이전 변경을 가려내는 데 쓴다)
+    private record Pending(long seq, List<String> iocs) {}
+
+    private final Map<String, Pending> added = new ConcurrentHashMap<>();
+    private final Map<String, Long> removed = new ConcurrentHashMap<>();
+    private final AtomicLong seq = new AtomicLong();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private volatile Snapshot snapshot = new Snapshot(AhoCorasickAutomaton.EMPTY, AhoCorasickAutomaton.EMPTY, new BitSet());
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    private Counter scannedBytes;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("blackwatch.ioc.scan.keywords", this,
+                        service -> service.snapshot.base().keywordCount() + service.snapshot.delta().keywordCount())
+                .description("IOC values in the /data/leaked/scan automata")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.ioc.scan.memory", this, service -> service.snapshot.memoryBytes())
+                .description("Approximate heap used by the /data/leaked/scan automata")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        scannedBytes = Counter.builder("blackwatch.ioc.scan.bytes")
+                .description("Bytes scanned by /data/leaked/scan")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildAsync();
+    }
+
+    @Scheduled(initialDelayString = "${data.ioc-scan.rebuild-minutes:60}",
+            fixedDelayString = "${data.ioc-scan.rebuild-minutes:60}", timeUnit = TimeUnit.MINUTES)
+    public void rebuild() {
+        rebuildAsync();
+    }
+
+    public synchronized boolean rebuildAsync() {
+        if (!enabled || rebuilding) return false;
+        rebuilding = true;
+        long startSeq = seq.get();
+        rebuildExecutor.submit(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                AhoCorasickAutomaton base = buildBase();
+                synchronized (this) {
+                    snapshot = new Snapshot(base, AhoCorasickAutomaton.EMPTY, new BitSet());
+                    // 빌드 시작 전 변경은 base 에 반영되었다. 그 뒤 변경은 base 에 있을 수도 있지만 delta 가 합쳐 처리한다
+                    added.values().removeIf(pending -> pending.seq() <= startSeq);
+                    removed.values().removeIf(removedSeq -> removedSeq <= startSeq);
+                    ready = true;
+                    rebuilding = false;
+                }
+                dirty.set(true);
+                refresh();
+                System.out.println("IOC scan automaton built: " + base.keywordCount() + " IOCs, " + base.stateCount()
+                        + " states, " + (base.memoryBytes() / 1024) + "KB in " + (System.currentTimeMillis() - started) + "ms");
+            } catch (Exception e) {
+                System.out.println("IOC scan automaton build failed: " + e.getMessage());
+            } finally {
+                rebuilding = false;
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        if (!enabled || !event.isLeaked()) return;
+
+        if (event.getOperation() == DataChangeEvent.Operation.DELETE) {
+            added.remove(event.getDocumentId());
+            removed.put(event.getDocumentId(), seq.incrementAndGet());
+            dirty.set(true);
+            return;
+        }
+        Document document = event.getFullDocument();
+        if (document == null || !event.touches(SOURCE_FIELD)) return;
+
+        List<String> iocs = stringValues(document.get(SOURCE_FIELD));
+        if (iocs.isEmpty()) return;
+        removed.remove(event.getDocumentId());
+        added.put(event.getDocumentId(), new Pending(seq.incrementAndGet(), iocs));
+        dirty.set(true);
+
+        if (added.size() > maxPending) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * 마지막 전체 빌드 이후 추가된 IOC 로 delta 오토마톤을 다시 만든다.
+     */
+    @Scheduled(fixedDelayString = "${data.ioc-scan.refresh-seconds:5}", timeUnit = TimeUnit.SECONDS)
+    public synchronized void refresh() {
+        if (!enabled || !ready || rebuilding || !dirty.getAndSet(false)) return;
+
+        AhoCorasickAutomaton base = snapshot.base();
+        Map<String, AhoCorasickAutomaton.Keyword> keywords = new HashMap<>();
+        added.forEach((leakId, pending) -> addKeywords(keywords, leakId, pending.iocs()));
+
+        // delta 에 있는 값은 base 의 유출 건 id 를 합치고 base 쪽을 가린다
+        BitSet shadowed = new BitSet();
+        List<AhoCorasickAutomaton.Keyword> merged = new ArrayList<>(keywords.size());
+        for (AhoCorasickAutomaton.Keyword keyword : keywords.values()) {
+            int index = base.indexOf(keyword.text());
+            if (index >= 0) {
+                shadowed.set(index);
+                keyword.refs().addAll(base.refs(index));
+            }
+            merged.add(keyword);
+        }
+        try {
+            snapshot = new Snapshot(base, AhoCorasickAutomaton.build(merged, maxTableBytes()), shadowed);
+        } catch (IllegalArgumentException e) {
+            // 한도를 넘으면 이전 delta 를 유지한다 (새 IOC 는 다음 전체 빌드 전까지 스캔되지 않는다)
+            System.out.println("IOC scan delta automaton build failed: " + e.getMessage());
+        }
+    }
+
+    public StreamingResponseBody scan(InputStream input) {
+        if (!enabled || !ready) {
+            throw new ServiceUnavailableException("IOC 스캐너를 준비 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+        Snapshot current = snapshot;
+        Set<String> removedNow = Set.copyOf(removed.keySet());
+        return out -> new ScanRun(current, removedNow, input, out).run();
+    }
+
+    /**
+     * 요청 하나의 스캔 상태. 청크마다 두 오토마톤을 돌린 뒤 오프셋 순으로 기록한다.
+     */
+    private class ScanRun {
+
+        private record Hit(long offset, AhoCorasickAutomaton automaton, int keyword) {}
+
+        private final Snapshot current;
+        private final Set<String> removedLeaks;
+        private final InputStream input;
+        private final OutputStream out;
+        private final List<Hit> chunkHits = new ArrayList<>();
+        private long hits;
+        private boolean truncated;
+
+        ScanRun(Snapshot current, Set<String> removedLeaks, InputStream input, OutputStream out) {
+            this.current = current;
+            this.removedLeaks = removedLeaks;
+            this.input = input;
+            this.out = new BufferedOutputStream(out, 64 * 1024);
+        }
+
+        void run() throws IOException {
+            AhoCorasickAutomaton.Scanner base = current.base().scanner();
+            AhoCorasickAutomaton.Scanner delta = current.delta().scanner();
+            AhoCorasickAutomaton.HitListener baseListener = (offset, keyword) -> {
+                if (!current.shadowed().get(keyword)) chunkHits.add(new Hit(offset, current.base(), keyword));
+                return true;
+            };
+            AhoCorasickAutomaton.HitListener deltaListener = (offset, keyword) -> {
+                chunkHits.add(new Hit(offset, current.delta(), keyword));
+                return true;
+            };
+
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while (!truncated && (read = input.readNBytes(buffer, 0, buffer.length)) > 0) {
+                base.feed(buffer, 0, read, baseListener);
+                delta.feed(buffer, 0, read, deltaListener);
+                scannedBytes.increment(read);
+                writeHits();
+            }
+            if (!truncated) {
+                base.finish(baseListener);
+                delta.finish(deltaListener);
+                writeHits();
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("bytes", base.position());
+            summary.put("hits", hits);
+            summary.put("truncated", truncated);
+            writeLine(Map.of("summary", summary));
+            out.flush();
+        }
+
+        private void writeHits() throws IOException {
+            chunkHits.sort(Comparator.comparingLong(Hit::offset));
+            for (Hit hit : chunkHits) {
+                List<String> leakIds = hit.automaton().refs(hit.keyword());
+                if (!removedLeaks.isEmpty()) {
+                    leakIds = leakIds.stream().filter(id -> !removedLeaks.contains(id)).toList();
+                    if (leakIds.isEmpty()) continue;
+                }
+                if (hits >= maxHits) {
+                    truncated = true;
+                    break;
+                }
+                hits++;
+
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("offset", hit.offset());
+                line.put("length", hit.automaton().length(hit.keyword()));
+                line.put("ioc", hit.automaton().text(hit.keyword()));
+                line.put("type", hit.automaton().tag(hit.keyword()));
+                line.put("leakIds", leakIds);
+                writeLine(line);
+            }
+            chunkHits.clear();
+            out.flush();
+        }
+
+        private void writeLine(Map<String, ?> line) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+        }
+    }
+
+    // ======= 헬퍼 메서드 =======
+
+    private AhoCorasickAutomaton buildBase() {
+        Query query = new Query();
+        query.fields().include(SOURCE_FIELD);
+        query.cursorBatchSize(5000);
+
+        Map<String, AhoCorasickAutomaton.Keyword> keywords = new HashMap<>();
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, DataChangeEvent.LEAKED_COLLECTION)) {
+            Iterator<Document> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                addKeywords(keywords, String.valueOf(document.get("_id")), stringValues(document.get(SOURCE_FIELD)));
+            }
+        }
+        return AhoCorasickAutomaton.build(keywords.values(), maxTableBytes());
+    }
+
+    private long maxTableBytes() {
+        return maxTableMb * 1024 * 1024;
+    }
+
+    // 정규화한 값이 min-length 보다 짧으면 오탐이 많으므로 제외한다
+    private void addKeywords(Map<String, AhoCorasickAutomaton.Keyword> keywords, String leakId, List<String> iocs) {
+        for (String raw : iocs) {
+            IocNormalizer.Ioc ioc = IocNormalizer.normalize(raw);
+            if (ioc == null || ioc.value().length() < minLength) continue;
+            keywords.computeIfAbsent(ioc.value(),
+                            value -> new AhoCorasickAutomaton.Keyword(value, ioc.type(), new LinkedHashSet<>()))
+                    .refs().add(leakId);
+        }
+    }
+
+    private List<String> stringValues(Object raw) {
+        if (!(raw instanceof List<?> list)) return List.of();
+        List<String> values = new ArrayList<>(list.size());
+        for (Object item : list) {
+            if (item != null) values.add(item.toString());
+        }
+        return values;
+    }
+}
@@ -1,19 +1,36 @@
 package me.xyzo.blackwatchBE.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import me.xyzo.blackwatchBE.document.LeakedDataDocument;
 import me.xyzo.blackwatchBE.document.VulnerabilityDataDocument;
 import me.xyzo.blackwatchBE.dto.*;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.exception.BadRequestException;
 import me.xyzo.blackwatchBE.exception.NotFoundException;
+import me.xyzo.blackwatchBE.exception.ServiceUnavailableException;
 import me.xyzo.blackwatchBE.repository.LeakedDataRepository;
 import me.xyzo.blackwatchBE.repository.VulnerabilityDataRepository;
+import org.bson.Document;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class MongoDataService {
@@ -24,50 +41,323 @@ public class MongoDataService {
     @Autowired
     private VulnerabilityDataRepository vulnerabilityDataRepository;
 
-    // ======= 유출 데이터 조회 메서드 =======
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DataQueryBuilder dataQueryBuilder;
+
+    @Autowired
+    private ApproximateCountService approximateCountService;
 
-    public Page<Map<String, Object>> getLeakedData(
-            LocalDateTime from, LocalDateTime to, List<String> hosts,
-            String pathContains, String titleContains, String author,
-            Integer recordMin, Integer recordMax, String iocContains,
-            String q, String projection, Pageable pageable) {
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PersonalDataIndexService personalDataIndexService;
 
-        Page<LeakedDataDocument> documents;
+    @Autowired
+    private NameMatchIndexService nameMatchIndexService;
 
-        if (q != null && !q.trim().isEmpty()) {
-            // 전체 텍스트 검색
-            documents = leakedDataRepository.findByTextSearch(q, pageable);
-        } else {
-            // 필터 검색 - 타입 변경에 따른 수정
-            String host = hosts != null && !hosts.isEmpty() ? hosts.get(0) : null;
-            String fromStr = from != null ? from.toString() : null;
-            String toStr = to != null ? to.toString() : null;
-            String recordMinStr = recordMin != null ? recordMin.toString() : null;
-            String recordMaxStr = recordMax != null ? recordMax.toString() : null;
+    @Autowired
+    private DataQueryCacheService dataQueryCacheService;
 
-            documents = leakedDataRepository.findWithFilters(
-                    fromStr, toStr, host, pathContains, titleContains, author,
-                    recordMinStr, recordMaxStr, iocContains, pageable);
+    @Autowired
+    private VulnerabilityReplicaService vulnerabilityReplicaService;
+
+    @Autowired
+    private FullTextSearchService fullTextSearchService;
+
+    // export 시 CSV 컬럼 순서
+    private static final List<String> LEAKED_COLUMNS = List.of(
+            "id", "clientId", "host", "path", "title", "author", "uploadDate", "leakType",
+            "recordsCount", "iocs", "price", "article", "ref", "leaked");
+    private static final List<String> VULNERABILITY_COLUMNS = List.of(
+            "id", "clientId", "host", "path", "title", "author", "uploadDate", "cveIds", "cvss",
+            "vulnerabilityClass", "products", "exploitationTechnique", "article", "ref");
+
+    private static final int EXPORT_BATCH_SIZE = 1000;
+
+    // ======= 유출 데이터 조회 메서드 =======
+
+    public Slice<Map<String, Object>> getLeakedData(
+            LeakedDataFilterDto filter, String projection, Pageable pageable, CountMode countMode) {
+
+        // 필터 / 텍스트 검색 - 값이 있는 조건만 Criteria 로 구성
+        Criteria criteria = dataQueryBuilder.buildLeakedCriteria(filter);
+        DataProjection fields = DataProjection.forLeaked(projection);
+        Pageable mapped = dataQueryBuilder.mapLeakedPageable(pageable);
+
+        // q 는 전문 검색 색인에서 순위 순서의 id 를 받고, 본문은 _id 로만 읽는다
+        FullTextSearchService.SearchPage hits = fullTextSearchService.searchLeaked(filter, pageable, countMode);
+        if (hits != null) {
+            List<LeakedDataDocument> documents =
+                    findByIds(hits.ids(), fields, LeakedDataDocument.class, LeakedDataDocument::getId);
+            return searchSlice(hits, documents, LeakedDataDocument::getId,
+                    document -> sanitizeLeakedData(document, fields), pageable, countMode);
         }
 
-        // 개인정보 제거하고 Map으로 변환
-        return documents.map(this::sanitizeLeakedData);
+        return dataQueryCacheService.get(DataChangeEvent.LEAKED_COLLECTION,
+                pageSignature(criteria, fields, mapped, countMode), () -> {
+                    Slice<LeakedDataDocument> documents =
+                            findSlice(criteria, fields, mapped, countMode, LeakedDataDocument.class);
+
+                    // 개인정보 제거하고 Map으로 변환
+                    return documents.map(document -> sanitizeLeakedData(document, fields));
+                });
+    }
+
+    public CursorPageDto<Map<String, Object>> getLeakedDataByCursor(
+            LeakedDataFilterDto filter, String projection, Sort.Order order, String after, int limit) {
+
+        Criteria criteria = dataQueryBuilder.buildLeakedCriteria(filter);
+        DataProjection fields = DataProjection.forLeaked(projection);
+        Sort.Order mapped = dataQueryBuilder.mapLeakedSortOrder(order);
+
+        return dataQueryCacheService.get(DataChangeEvent.LEAKED_COLLECTION,
+                cursorSignature(criteria, fields, mapped, after, limit),
+                () -> findCursorPage(criteria, fields, mapped, after, limit,
+                        LeakedDataDocument.class, LeakedDataDocument::getId)
+                        .map(document -> sanitizeLeakedData(document, fields)));
+    }
+
+    /**
+     * 필터에 맞는 유출 데이터를 커서로 한 건씩 읽어 개인정보를 제거한 뒤 바로 기록한다.
+     * projection / format 검증은 스트리밍 시작 전에 수행되어 400 으로 응답할 수 있다.
+     */
+    public StreamingResponseBody exportLeakedData(LeakedDataFilterDto filter, String projection, ExportFormat format) {
+        Criteria criteria = dataQueryBuilder.buildLeakedCriteria(filter);
+        DataProjection fields = DataProjection.forLeaked(projection);
+        Query query = fields.apply(new Query(criteria)).cursorBatchSize(EXPORT_BATCH_SIZE);
+
+        return out -> {
+            DataExportWriter writer = new DataExportWriter(objectMapper, format, columnsOf(LEAKED_COLUMNS, fields), out);
+            writer.writeHeader();
+            try (Stream<LeakedDataDocument> documents = mongoTemplate.stream(query, LeakedDataDocument.class)) {
+                Iterator<LeakedDataDocument> iterator = documents.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeRow(sanitizeLeakedData(iterator.next(), fields));
+                }
+            }
+            writer.finish();
+        };
     }
 
     public LeakedDataDocument getLeakedDataDetail(String id) {
-        LeakedDataDocument document = leakedDataRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("데이터를 찾을 수 없습니다."));
+        // 개인정보 하위 필드는 DB 단에서 제외하고 읽는다
+        Query query = DataProjection.forLeaked(DataProjection.FULL)
+                .apply(new Query(Criteria.where("id").is(id)));
+        LeakedDataDocument document = mongoTemplate.findOne(query, LeakedDataDocument.class);
+        if (document == null) {
+            throw new NotFoundException("데이터를 찾을 수 없습니다.");
+        }
 
         // 개인정보 제거
         return sanitizeLeakedDataDocument(document);
     }
 
+    // ======= ETag (조건부 요청) =======
+
+    public String getLeakedDataVersion(LeakedDataFilterDto filter, String projection, Pageable pageable,
+                                       CountMode countMode) {
+        Criteria criteria = dataQueryBuilder.buildLeakedCriteria(filter);
+        DataProjection fields = DataProjection.forLeaked(projection);
+        Pageable mapped = dataQueryBuilder.mapLeakedPageable(pageable);
+        String signature = pageSignature(criteria, fields, mapped, countMode);
+
+        FullTextSearchService.SearchPage hits = fullTextSearchService.searchLeaked(filter, pageable, countMode);
+        if (hits != null) {
+            return searchVersion(signature, hits);
+        }
+
+        return dataQueryCacheService.get(DataChangeEvent.LEAKED_COLLECTION, "version|" + signature,
+                () -> listVersion(signature, new Query(criteria).with(mapped).limit(mapped.getPageSize() + 1),
+                        LeakedDataDocument.class, versionTotal(criteria, countMode, LeakedDataDocument.class),
+                        LeakedDataDocument::getId, LeakedDataDocument::getContentHash));
+    }
+
+    public String getLeakedDataCursorVersion(LeakedDataFilterDto filter, String projection, Sort.Order order,
+                                             String after, int limit) {
+        Criteria criteria = dataQueryBuilder.buildLeakedCriteria(filter);
+        DataProjection fields = DataProjection.forLeaked(projection);
+        Sort.Order mapped = dataQueryBuilder.mapLeakedSortOrder(order);
+        String signature = cursorSignature(criteria, fields, mapped, after, limit);
+
+        return dataQueryCacheService.get(DataChangeEvent.LEAKED_COLLECTION, "version|" + signature,
+                () -> listVersion(signature, cursorQuery(criteria, mapped, after).limit(limit + 1),
+                        LeakedDataDocument.class, null,
+                        LeakedDataDocument::getId, LeakedDataDocument::getContentHash));
+    }
+
+    /**
+     * 상세 ETag (contentHash). 아직 해시가 채워지지 않은 문서는 null.
+     */
+    public String getLeakedDataDetailVersion(String id) {
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include(DocumentContentHash.FIELD);
+        LeakedDataDocument document = mongoTemplate.findOne(query, LeakedDataDocument.class);
+        if (document == null) {
+            throw new NotFoundException("데이터를 찾을 수 없습니다.");
+        }
+        return document.getContentHash();
+    }
+
+    public String getVulnerabilityDataVersion(VulnerabilityDataFilterDto filter, String projection,
+                                              Pageable pageable, CountMode countMode) {
+        Criteria criteria = dataQueryBuilder.buildVulnerabilityCriteria(filter);
+        DataProjection fields = DataProjection.forVulnerability(projection);
+        Pageable mapped = dataQueryBuilder.mapVulnerabilityPageable(pageable);
+        String signature = pageSignature(criteria, fields, mapped, countMode);
+
+        FullTextSearchService.SearchPage hits = fullTextSearchService.searchVulnerabilities(filter, pageable, countMode);
+        if (hits != null) {
+            return searchVersion(signature, hits);
+        }
+
+        // 복제본으로 답하는 조회는 버전도 복제본의 (id, contentHash) 와 정확한 건수로 계산한다
+        VulnerabilityReplicaService.ReplicaPage replica = vulnerabilityReplicaService.findPage(filter, mapped);
+        if (replica != null) {
+            List<String> rows = new ArrayList<>();
+            rows.add("total:" + replica.total());
+            for (int i = 0; i < replica.ids().size(); i++) {
+                rows.add(replica.ids().get(i) + ":" + replica.contentHashes().get(i));
+            }
+            return DocumentContentHash.ofRows("replica|" + signature, rows);
+        }
+
+        return dataQueryCacheService.get(DataChangeEvent.VULNERABILITY_COLLECTION, "version|" + signature,
+                () -> listVersion(signature, new Query(criteria).with(mapped).limit(mapped.getPageSize() + 1),
+                        VulnerabilityDataDocument.class, versionTotal(criteria, countMode, VulnerabilityDataDocument.class),
+                        VulnerabilityDataDocument::getId, VulnerabilityDataDocument::getContentHash));
+    }
+
+    public String getVulnerabilityDataCursorVersion(VulnerabilityDataFilterDto filter, String projection,
+                                                    Sort.Order order, String after, int limit) {
+        Criteria criteria = dataQueryBuilder.buildVulnerabilityCriteria(filter);
+        DataProjection fields = DataProjection.forVulnerability(projection);
+        Sort.Order mapped = dataQueryBuilder.mapVulnerabilitySortOrder(order);
+        String signature = cursorSignature(criteria, fields, mapped, after, limit);
+
+        return dataQueryCacheService.get(DataChangeEvent.VULNERABILITY_COLLECTION, "version|" + signature,
+                () -> listVersion(signature, cursorQuery(criteria, mapped, after).limit(limit + 1),
+                        VulnerabilityDataDocument.class, null,
+                        VulnerabilityDataDocument::getId, VulnerabilityDataDocument::getContentHash));
+    }
+
+    public String getVulnerabilityDataDetailVersion(String id) {
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include(DocumentContentHash.FIELD);
+        VulnerabilityDataDocument document = mongoTemplate.findOne(query, VulnerabilityDataDocument.class);
+        if (document == null) {
+            throw new NotFoundException("데이터를 찾을 수 없습니다.");
+        }
+        return document.getContentHash();
+    }
+
+    // ======= 개인정보 조회 메서드 =======
+
     public PersonalDataSearchResultDto findPersonalData(PersonalDataSearchDto request) {
         if ((request.getEmails() == null || request.getEmails().isEmpty()) &&
-                (request.getNames() == null || request.getNames().isEmpty())) {
+                (request.getNames() == null || request.getNames().isEmpty()) &&
+                (request.getUsernames() == null || request.getUsernames().isEmpty())) {
             return new PersonalDataSearchResultDto(new ArrayList<>(), 0);
         }
 
+        // 역색인 재구축 중에는 유출 문서를 직접 조회하는 기존 방식으로 처리
+        if (!personalDataIndexService.isReady()) {
+            return findPersonalDataByScan(request);
+        }
+
+        List<PersonalDataMatchDto> matches = new ArrayList<>();
+        int totalFound = 0;
+
+        if (request.getEmails() != null && !request.getEmails().isEmpty()) {
+            Map<String, List<String>> leakIdsByEmail =
+                    personalDataIndexService.find(PersonalDataNormalizer.TYPE_EMAIL, request.getEmails());
+
+            for (String email : request.getEmails()) {
+                List<String> leakIds = leakIdsByEmail.getOrDefault(
+                        PersonalDataNormalizer.normalize(PersonalDataNormalizer.TYPE_EMAIL, email), List.of());
+
+                boolean found = !leakIds.isEmpty();
+                if (found) totalFound++;
+                matches.add(new PersonalDataMatchDto(email, null, found, leakIds));
+            }
+        }
+
+        if (request.getNames() != null && !request.getNames().isEmpty()) {
+            Map<String, List<String>> leakIdsByName =
+                    personalDataIndexService.find(PersonalDataNormalizer.TYPE_NAME, request.getNames());
+
+            for (String name : request.getNames()) {
+                List<String> leakIds = leakIdsByName.getOrDefault(
+                        PersonalDataNormalizer.normalize(PersonalDataNormalizer.TYPE_NAME, name), List.of());
+
+                boolean found = !leakIds.isEmpty();
+                if (found) totalFound++;
+                matches.add(new PersonalDataMatchDto(null, name, found, leakIds));
+            }
+        }
+
+        if (request.getUsernames() != null && !request.getUsernames().isEmpty()) {
+            Map<String, List<String>> leakIdsByUsername =
+                    personalDataIndexService.find(PersonalDataNormalizer.TYPE_USERNAME, request.getUsernames());
+
+            for (String username : request.getUsernames()) {
+                List<String> leakIds = leakIdsByUsername.getOrDefault(
+                        PersonalDataNormalizer.normalize(PersonalDataNormalizer.TYPE_USERNAME, username), List.of());
+
+                boolean found = !leakIds.isEmpty();
+                if (found) totalFound++;
+                matches.add(new PersonalDataMatchDto(null, null, username, found, leakIds));
+            }
+        }
+
+        return new PersonalDataSearchResultDto(matches, totalFound);
+    }
+
+    /**
+     * 이름 유사 검색: col_name_key 로 후보 이름을 찾고, 후보 이름의 leakId 를 col_pii_lookup 에서 한 번에 조회한다.
+     */
+    public List<FuzzyNameMatchDto> findPersonalDataByName(FuzzyNameSearchDto request) {
+        if (request.getNames() == null || request.getNames().isEmpty()) {
+            return new ArrayList<>();
+        }
+        // 이름 키는 역색인과 함께 재구축되므로 재구축 중에는 결과가 불완전하다
+        if (!personalDataIndexService.isReady()) {
+            throw new ServiceUnavailableException("개인정보 색인을 재구축 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+        int maxDistance = request.getMaxDistance() != null ? request.getMaxDistance() : nameMatchIndexService.getMaxDistance();
+
+        NameMatchIndexService.Candidates found = nameMatchIndexService.findCandidates(request.getNames(), maxDistance);
+        Map<String, Map<String, FuzzyNameLeakDto>> candidates = found.matches();
+
+        Set<String> values = new HashSet<>();
+        candidates.values().forEach(byValue -> values.addAll(byValue.keySet()));
+        Map<String, List<String>> leakIdsByValue = values.isEmpty()
+                ? Map.of()
+                : personalDataIndexService.lookup(PersonalDataNormalizer.TYPE_NAME, values);
+
+        List<FuzzyNameMatchDto> results = new ArrayList<>();
+        for (String name : request.getNames()) {
+            // 같은 유출 건에 여러 후보가 있으면 가장 가까운 일치만 남긴다
+            Map<String, FuzzyNameLeakDto> byLeak = new LinkedHashMap<>();
+            candidates.getOrDefault(name, Map.of()).forEach((value, match) -> {
+                for (String leakId : leakIdsByValue.getOrDefault(value, List.of())) {
+                    byLeak.merge(leakId, new FuzzyNameLeakDto(leakId, match.getDistance(), match.getMatchType()),
+                            NameMatchIndexService::better);
+                }
+            });
+
+            List<FuzzyNameLeakDto> leaks = byLeak.values().stream()
+                    .sorted(Comparator.comparingInt(NameMatchIndexService::rank))
+                    .collect(Collectors.toList());
+            results.add(new FuzzyNameMatchDto(name, !leaks.isEmpty(), leaks, found.truncated().contains(name)));
+        }
+        return results;
+    }
+
+    private PersonalDataSearchResultDto findPersonalDataByScan(PersonalDataSearchDto request) {
         List<PersonalDataMatchDto> matches = new ArrayList<>();
         int totalFound = 0;
 
@@ -109,37 +399,101 @@ public class MongoDataService {
             }
         }
 
+        if (request.getUsernames() != null && !request.getUsernames().isEmpty()) {
+            List<LeakedDataDocument> usernameMatches =
+                    leakedDataRepository.findByLeakedUsernameIn(request.getUsernames());
+
+            for (String username : request.getUsernames()) {
+                List<String> leakIds = usernameMatches.stream()
+                        .filter(doc -> {
+                            List<String> usernames = doc.getLeakedUsername();
+                            return usernames != null && usernames.contains(username);
+                        })
+                        .map(LeakedDataDocument::getId)
+                        .collect(Collectors.toList());
+
+                boolean found = !leakIds.isEmpty();
+                if (found) totalFound++;
+                matches.add(new PersonalDataMatchDto(null, null, username, found, leakIds));
+            }
+        }
+
         return new PersonalDataSearchResultDto(matches, totalFound);
     }
 
     // ======= 취약점 데이터 조회 메서드 =======
 
-    public Page<Map<String, Object>> getVulnerabilityData(
-            LocalDateTime from, LocalDateTime to, List<String> hosts,
-            String pathContains, String titleContains, String author,
-            List<String> cves, Double cvssMin, Double cvssMax,
-            String vulnClass, String q, String projection, Pageable pageable) {
+    public Slice<Map<String, Object>> getVulnerabilityData(
+            VulnerabilityDataFilterDto filter, String projection, Pageable pageable, CountMode countMode) {
 
-        Page<VulnerabilityDataDocument> documents;
+        // 필터 / 텍스트 검색 - 값이 있는 조건만 Criteria 로 구성
+        Criteria criteria = dataQueryBuilder.buildVulnerabilityCriteria(filter);
+        DataProjection fields = DataProjection.forVulnerability(projection);
+        Pageable mapped = dataQueryBuilder.mapVulnerabilityPageable(pageable);
 
-        if (q != null && !q.trim().isEmpty()) {
-            // 전체 텍스트 검색
-            documents = vulnerabilityDataRepository.findByTextSearch(q, pageable);
-        } else {
-            // 필터 검색 - CVSS String 타입으로 처리
-            String host = hosts != null && !hosts.isEmpty() ? hosts.get(0) : null;
-            String fromStr = from != null ? from.toString() : null;
-            String toStr = to != null ? to.toString() : null;
-            String cvesStr = cves != null && !cves.isEmpty() ? String.join(",", cves) : null;
-            String cvssMinStr = cvssMin != null ? cvssMin.toString() : null;
-            String cvssMaxStr = cvssMax != null ? cvssMax.toString() : null;
+        FullTextSearchService.SearchPage hits = fullTextSearchService.searchVulnerabilities(filter, pageable, countMode);
+        if (hits != null) {
+            List<VulnerabilityDataDocument> documents =
+                    findByIds(hits.ids(), fields, VulnerabilityDataDocument.class, VulnerabilityDataDocument::getId);
+            return searchSlice(hits, documents, VulnerabilityDataDocument::getId,
+                    document -> convertVulnerabilityToMap(document, fields), pageable, countMode);
+        }
 
-            documents = vulnerabilityDataRepository.findWithFilters(
-                    fromStr, toStr, host, pathContains, titleContains, author,
-                    cvesStr, cvssMinStr, cvssMaxStr, vulnClass, pageable);
+        // 메모리 복제본으로 답할 수 있으면 id 순서와 건수는 복제본에서, 본문은 _id 로만 읽는다
+        VulnerabilityReplicaService.ReplicaPage replica = vulnerabilityReplicaService.findPage(filter, mapped);
+        if (replica != null) {
+            List<Map<String, Object>> content = findVulnerabilitiesByIds(replica.ids(), fields).stream()
+                    .map(document -> convertVulnerabilityToMap(document, fields))
+                    .collect(Collectors.toList());
+            return countMode == CountMode.NONE
+                    ? new SliceImpl<>(content, mapped, mapped.getOffset() + replica.ids().size() < replica.total())
+                    : new PageImpl<>(content, mapped, replica.total());
         }
 
-        return documents.map(this::convertVulnerabilityToMap);
+        return dataQueryCacheService.get(DataChangeEvent.VULNERABILITY_COLLECTION,
+                pageSignature(criteria, fields, mapped, countMode),
+                () -> findSlice(criteria, fields, mapped, countMode, VulnerabilityDataDocument.class)
+                        .map(document -> convertVulnerabilityToMap(document, fields)));
+    }
+
+    public CursorPageDto<Map<String, Object>> getVulnerabilityDataByCursor(
+            VulnerabilityDataFilterDto filter, String projection, Sort.Order order, String after, int limit) {
+
+        Criteria criteria = dataQueryBuilder.buildVulnerabilityCriteria(filter);
+        DataProjection fields = DataProjection.forVulnerability(projection);
+        Sort.Order mapped = dataQueryBuilder.mapVulnerabilitySortOrder(order);
+
+        return dataQueryCacheService.get(DataChangeEvent.VULNERABILITY_COLLECTION,
+                cursorSignature(criteria, fields, mapped, after, limit),
+                () -> findCursorPage(criteria, fields, mapped, after, limit,
+                        VulnerabilityDataDocument.class, VulnerabilityDataDocument::getId)
+                        .map(document -> convertVulnerabilityToMap(document, fields)));
+    }
+
+    public StreamingResponseBody exportVulnerabilityData(VulnerabilityDataFilterDto filter, String projection,
+                                                         ExportFormat format) {
+        Criteria criteria = dataQueryBuilder.buildVulnerabilityCriteria(filter);
+        DataProjection fields = DataProjection.forVulnerability(projection);
+        Query query = fields.apply(new Query(criteria)).cursorBatchSize(EXPORT_BATCH_SIZE);
+
+        return out -> {
+            DataExportWriter writer =
+                    new DataExportWriter(objectMapper, format, columnsOf(VULNERABILITY_COLUMNS, fields), out);
+            writer.writeHeader();
+            try (Stream<VulnerabilityDataDocument> documents =
+                         mongoTemplate.stream(query, VulnerabilityDataDocument.class)) {
+                Iterator<VulnerabilityDataDocument> iterator = documents.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeRow(convertVulnerabilityToMap(iterator.next(), fields));
+                }
+            }
+            writer.finish();
+        };
+    }
+
+    public VulnerabilityFacetsDto getVulnerabilityFacets(VulnerabilityDataFilterDto filter, List<String> facets,
+                                                         int limit) {
+        return vulnerabilityReplicaService.facets(filter, facets, limit);
     }
 
     public VulnerabilityDataDocument getVulnerabilityDataDetail(String id) {
@@ -147,33 +501,256 @@ public class MongoDataService {
                 .orElseThrow(() -> new NotFoundException("데이터를 찾을 수 없습니다."));
     }
 
+    // ======= 실시간 스트림 (/data/stream) =======
+
+    /**
+     * change stream 으로 받은 원본 문서를 목록 응답과 같은 형태로 변환한다 (개인정보 제거).
+     */
+    public Map<String, Object> toLeakedStreamItem(Document document) {
+        LeakedDataDocument leaked = mongoTemplate.getConverter().read(LeakedDataDocument.class, document);
+        return sanitizeLeakedData(leaked, DataProjection.forLeaked(DataProjection.FULL));
+    }
+
+    public Map<String, Object> toVulnerabilityStreamItem(Document document) {
+        VulnerabilityDataDocument vulnerability =
+                mongoTemplate.getConverter().read(VulnerabilityDataDocument.class, document);
+        return convertVulnerabilityToMap(vulnerability, DataProjection.forVulnerability(DataProjection.FULL));
+    }
+
     // ======= 헬퍼 메서드 =======
 
-    private Map<String, Object> sanitizeLeakedData(LeakedDataDocument data) {
+    /**
+     * count 모드에 따라 Page(정확/근사 total) 또는 Slice(hasNext 만)를 반환한다.
+     */
+    private <T> Slice<T> findSlice(Criteria criteria, DataProjection fields, Pageable pageable,
+                                   CountMode countMode, Class<T> type) {
+        switch (countMode) {
+            case NONE: {
+                // limit + 1 건을 읽어 다음 페이지 존재 여부만 판단
+                Query query = fields.apply(new Query(criteria)).with(pageable).limit(pageable.getPageSize() + 1);
+                List<T> documents = mongoTemplate.find(query, type);
+                boolean hasNext = documents.size() > pageable.getPageSize();
+                List<T> content = hasNext ? documents.subList(0, pageable.getPageSize()) : documents;
+                return new SliceImpl<>(new ArrayList<>(content), pageable, hasNext);
+            }
+            case APPROX: {
+                List<T> content = mongoTemplate.find(fields.apply(new Query(criteria)).with(pageable), type);
+                long total = approximateCountService.count(criteria, type);
+                return new PageImpl<>(content, pageable, total);
+            }
+            default:
+                return findPage(criteria, fields, pageable, type);
+        }
+    }
+
+    // 복제본이 정한 순서대로 문서를 읽는다 (그 사이 삭제된 문서는 빠진다)
+    private List<VulnerabilityDataDocument> findVulnerabilitiesByIds(List<String> ids, DataProjection fields) {
+        return findByIds(ids, fields, VulnerabilityDataDocument.class, VulnerabilityDataDocument::getId);
+    }
+
+    private <T> List<T> findByIds(List<String> ids, DataProjection fields, Class<T> type, Function<T, String> idGetter) {
+        if (ids.isEmpty()) return List.of();
+        Map<String, T> byId = mongoTemplate
+                .find(fields.apply(new Query(Criteria.where("id").in(ids))), type)
+                .stream()
+                .collect(Collectors.toMap(idGetter, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * 전문 검색 결과 페이지. 각 항목에 점수(score)와 일치 부분 하이라이트(highlight)를 붙인다.
+     */
+    private <T> Slice<Map<String, Object>> searchSlice(FullTextSearchService.SearchPage hits, List<T> documents,
+                                                       Function<T, String> idGetter,
+                                                       Function<T, Map<String, Object>> converter,
+                                                       Pageable pageable, CountMode countMode) {
+        Map<String, Integer> rank = new HashMap<>();
+        for (int i = 0; i < hits.ids().size(); i++) {
+            rank.put(hits.ids().get(i), i);
+        }
+
+        List<Map<String, Object>> content = new ArrayList<>(documents.size());
+        for (T document : documents) {
+            int i = rank.get(idGetter.apply(document));
+            Map<String, Object> item = converter.apply(document);
+            if (!Float.isNaN(hits.scores().get(i))) {
+                item.put("score", hits.scores().get(i));
+            }
+            if (!hits.highlights().get(i).isEmpty()) {
+                item.put("highlight", hits.highlights().get(i));
+            }
+            content.add(item);
+        }
+        return countMode == CountMode.NONE
+                ? new SliceImpl<>(content, pageable, hits.hasNext())
+                : new PageImpl<>(content, pageable, hits.total());
+    }
+
+    // 전문 검색으로 답하는 조회는 버전도 색인의 (id, contentHash) 와 건수로 계산한다
+    private String searchVersion(String signature, FullTextSearchService.SearchPage hits) {
+        List<String> rows = new ArrayList<>();
+        rows.add("total:" + hits.total());
+        for (int i = 0; i < hits.ids().size(); i++) {
+            rows.add(hits.ids().get(i) + ":" + hits.contentHashes().get(i));
+        }
+        return DocumentContentHash.ofRows("search|" + signature + "|" + hits.query(), rows);
+    }
+
+    private <T> Page<T> findPage(Criteria criteria, DataProjection fields, Pageable pageable, Class<T> type) {
+        List<T> content = mongoTemplate.find(fields.apply(new Query(criteria)).with(pageable), type);
+        // 첫 페이지에서 결과가 limit 보다 적으면 count 쿼리를 생략한다
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> exactCount(criteria, type));
+    }
+
+    /**
+     * (정렬 필드, _id) 기준 keyset 페이지 조회. skip 과 count 없이 limit + 1 건만 읽어 다음 페이지 여부를 판단한다.
+     */
+    private <T> CursorPageDto<T> findCursorPage(Criteria criteria, DataProjection fields, Sort.Order order,
+                                                String after, int limit, Class<T> type,
+                                                Function<T, String> idGetter) {
+        if (limit < 1) {
+            throw new BadRequestException("limit 은 1 이상이어야 합니다.");
+        }
+        String field = cursorField(order);
+        Sort.Direction direction = order.getDirection();
+
+        // 다음 커서를 만들기 위해 정렬 키는 projection 과 무관하게 읽는다
+        Query query = fields.apply(cursorQuery(criteria, order, after), List.of(field)).limit(limit + 1);
+
+        List<T> documents = mongoTemplate.find(query, type);
+        boolean hasNext = documents.size() > limit;
+        List<T> content = hasNext ? documents.subList(0, limit) : documents;
+
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            Object value = DataCursor.ID_FIELD.equals(field) ? null : readSortValue(last, field);
+            nextCursor = new DataCursor(field, direction, value, idGetter.apply(last)).encode();
+        }
+
+        return new CursorPageDto<>(new ArrayList<>(content), limit, hasNext, nextCursor);
+    }
+
+    // after 이후를 (정렬 필드, _id) 순서로 읽는 쿼리 (projection / limit 은 호출 측에서 지정)
+    private Query cursorQuery(Criteria criteria, Sort.Order order, String after) {
+        String field = cursorField(order);
+        Sort.Direction direction = order.getDirection();
+
+        Query query = new Query(criteria);
+        if (after != null && !after.isBlank()) {
+            DataCursor cursor = DataCursor.decode(after);
+            if (!cursor.getField().equals(field) || cursor.getDirection() != direction) {
+                throw new BadRequestException("커서의 정렬 기준이 요청한 정렬과 다릅니다.");
+            }
+            query.addCriteria(cursor.seekCriteria());
+        }
+
+        Sort sort = DataCursor.ID_FIELD.equals(field)
+                ? Sort.by(direction, DataCursor.ID_FIELD)
+                : Sort.by(direction, field).and(Sort.by(direction, DataCursor.ID_FIELD));
+        return query.with(sort);
+    }
+
+    private String cursorField(Sort.Order order) {
+        return isIdField(order.getProperty()) ? DataCursor.ID_FIELD : order.getProperty();
+    }
+
+    /**
+     * 목록 ETag. 응답과 같은 쿼리를 _id / contentHash 만 읽도록 실행해 (id, 해시) 목록으로 계산하므로
+     * 본문 문서를 읽거나 변환하지 않는다. total 이 응답에 포함되는 모드는 total 도 반영한다.
+     */
+    private <T> String listVersion(String signature, Query query, Class<T> type, Long total,
+                                   Function<T, String> idGetter, Function<T, String> hashGetter) {
+        query.fields().include(DocumentContentHash.FIELD);
+
+        List<String> rows = new ArrayList<>();
+        if (total != null) {
+            rows.add("total:" + total);
+        }
+        for (T document : mongoTemplate.find(query, type)) {
+            rows.add(idGetter.apply(document) + ":" + hashGetter.apply(document));
+        }
+        return DocumentContentHash.ofRows(signature, rows);
+    }
+
+    // 응답 본문과 같은 total 을 해시해야 다른 페이지의 변경으로 건수만 바뀐 경우에도 304 가 나가지 않는다
+    // (exact 는 응답과 같은 캐시된 count, approx 는 응답과 같은 근사값)
+    private Long versionTotal(Criteria criteria, CountMode countMode, Class<?> type) {
+        switch (countMode) {
+            case NONE:
+                return null;
+            case APPROX:
+                return approximateCountService.count(criteria, type);
+            default:
+                return exactCount(criteria, type);
+        }
+    }
+
+    // 필터 전체 건수. 목록 본문과 ETag 가 같은 값을 쓰도록 결과 캐시에 함께 보관한다
+    private long exactCount(Criteria criteria, Class<?> type) {
+        return dataQueryCacheService.get(mongoTemplate.getCollectionName(type), "count|" + criteriaSignature(criteria),
+                () -> mongoTemplate.count(new Query(criteria), type));
+    }
+
+    // 결과 캐시 키: 변환된 Criteria 와 정렬 / 페이지 / projection 으로 구성해 같은 쿼리면 요청 표기와 관계없이 같은 키
+    private String pageSignature(Criteria criteria, DataProjection fields, Pageable pageable, CountMode countMode) {
+        return "page|" + criteriaSignature(criteria) + "|" + fields.signature() + "|"
+                + pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort() + "|" + countMode;
+    }
+
+    private String cursorSignature(Criteria criteria, DataProjection fields, Sort.Order order, String after, int limit) {
+        return "cursor|" + criteriaSignature(criteria) + "|" + fields.signature() + "|"
+                + order.getProperty() + ":" + order.getDirection() + "|" + (after == null ? "" : after) + "|" + limit;
+    }
+
+    private String criteriaSignature(Criteria criteria) {
+        return DataQueryBuilder.signature(criteria);
+    }
+
+    private Object readSortValue(Object document, String field) {
+        BeanWrapper wrapper = new BeanWrapperImpl(document);
+        if (!wrapper.isReadableProperty(field)) {
+            throw new BadRequestException("정렬할 수 없는 필드입니다: " + field);
+        }
+        return wrapper.getPropertyValue(field);
+    }
+
+    private List<String> columnsOf(List<String> columns, DataProjection fields) {
+        return columns.stream().filter(fields::includes).toList();
+    }
+
+    private boolean isIdField(String field) {
+        return "id".equals(field) || DataCursor.ID_FIELD.equals(field);
+    }
+
+    private Map<String, Object> sanitizeLeakedData(LeakedDataDocument data, DataProjection fields) {
         Map<String, Object> result = new HashMap<>();
-        result.put("id", data.getId());
-        result.put("clientId", data.getClientId());
-        result.put("host", data.getHost());
-        result.put("path", data.getPath());
-        result.put("title", data.getTitle());
-        result.put("author", data.getAuthor());
-        result.put("uploadDate", data.getUploadDate());
-        result.put("leakType", data.getLeakType());
-        result.put("recordsCount", data.getRecordsCount());
-        result.put("iocs", data.getIocs());
-        result.put("price", data.getPrice());
+        putIfProjected(result, fields, "id", data.getId());
+        putIfProjected(result, fields, "clientId", data.getClientId());
+        putIfProjected(result, fields, "host", data.getHost());
+        putIfProjected(result, fields, "path", data.getPath());
+        putIfProjected(result, fields, "title", data.getTitle());
+        putIfProjected(result, fields, "author", data.getAuthor());
+        putIfProjected(result, fields, "uploadDate", data.getUploadDate());
+        putIfProjected(result, fields, "leakType", data.getLeakType());
+        putIfProjected(result, fields, "recordsCount", data.getRecordsCount());
+        putIfProjected(result, fields, "iocs", data.getIocs());
+        putIfProjected(result, fields, "price", data.getPrice());
 
         // 개인정보 제거
-        String sanitizedArticle = data.getArticle();
-        if (sanitizedArticle != null) {
-            sanitizedArticle = sanitizedArticle.replaceAll("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}", "[이메일]");
-            sanitizedArticle = sanitizedArticle.replaceAll("[가-힣]{3,}", "[이름]");
+        if (fields.includes("article")) {
+            String sanitizedArticle = data.getArticle();
+            if (sanitizedArticle != null) {
+                sanitizedArticle = sanitizedArticle.replaceAll("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}", "[이메일]");
+                sanitizedArticle = sanitizedArticle.replaceAll("[가-힣]{3,}", "[이름]");
+            }
+            result.put("article", sanitizedArticle);
         }
-        result.put("article", sanitizedArticle);
-        result.put("ref", data.getRef());
+        putIfProjected(result, fields, "ref", data.getRef());
 
-        // leaked 객체에서 개인정보 제거된 버전 생성
-        if (data.getLeaked() != null) {
+        // leaked 객체는 DB projection 에서 개인정보 하위 필드가 이미 제외됨 (방어적으로 한 번 더 제거)
+        if (fields.includes("leaked") && data.getLeaked() != null) {
             Map<String, Object> sanitizedLeaked = new HashMap<>(data.getLeaked());
             sanitizedLeaked.remove("email");
             sanitizedLeaked.remove("realname");
@@ -211,23 +788,29 @@ public class MongoDataService {
         return data;
     }
 
-    private Map<String, Object> convertVulnerabilityToMap(VulnerabilityDataDocument data) {
+    private Map<String, Object> convertVulnerabilityToMap(VulnerabilityDataDocument data, DataProjection fields) {
         Map<String, Object> result = new HashMap<>();
-        result.put("id", data.getId());
-        result.put("clientId", data.getClientId());
-        result.put("host", data.getHost());
-        result.put("path", data.getPath());
-        result.put("title", data.getTitle());
-        result.put("author", data.getAuthor());
-        result.put("uploadDate", data.getUploadDate());
-        result.put("cveIds", data.getCveIds()); // PDF 명세에 맞게 cveIds 사용
-        result.put("cvss", data.getCvss());
-        result.put("vulnerabilityClass", data.getVulnerabilityClass());
-        result.put("products", data.getProducts());
-        result.put("exploitationTechnique", data.getExploitationTechnique());
-        result.put("article", data.getArticle());
-        result.put("ref", data.getRef());
+        putIfProjected(result, fields, "id", data.getId());
+        putIfProjected(result, fields, "clientId", data.getClientId());
+        putIfProjected(result, fields, "host", data.getHost());
+        putIfProjected(result, fields, "path", data.getPath());
+        putIfProjected(result, fields, "title", data.getTitle());
+        putIfProjected(result, fields, "author", data.getAuthor());
+        putIfProjected(result, fields, "uploadDate", data.getUploadDate());
+        putIfProjected(result, fields, "cveIds", data.getCveIds()); // PDF 명세에 맞게 cveIds 사용
+        putIfProjected(result, fields, "cvss", data.getCvss());
+        putIfProjected(result, fields, "vulnerabilityClass", data.getVulnerabilityClass());
+        putIfProjected(result, fields, "products", data.getProducts());
+        putIfProjected(result, fields, "exploitationTechnique", data.getExploitationTechnique());
+        putIfProjected(result, fields, "article", data.getArticle());
+        putIfProjected(result, fields, "ref", data.getRef());
 
         return result;
     }
+
+    private void putIfProjected(Map<String, Object> result, DataProjection fields, String key, Object value) {
+        if (fields.includes(key)) {
+            result.put(key, value);
+        }
+    }
 }
\ No newline at end of file
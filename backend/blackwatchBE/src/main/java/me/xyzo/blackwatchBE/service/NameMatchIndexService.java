@@ -0,0 +1,192 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import me.xyzo.blackwatchBE.dto.FuzzyNameLeakDto;
+import me.xyzo.blackwatchBE.index.NameKeys;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 이름 유사 검색 인덱스 (col_name_key).
+ *
+ * 정규화된 이름마다 자모 키의 삭제 변형(최대 max-distance 글자)과 발음 키를 {k, v} 로 저장한다.
+ * 검색은 질의 이름의 삭제 변형 / 발음 키를 $in 으로 한 번에 조회해 후보를 얻고,
+ * 후보만 실제 편집 거리로 검증한다 (leakId 는 호출 측에서 col_pii_lookup 으로 찾는다).
+ * realname 전체를 정규식으로 훑지 않는다.
+ * 이름 단위로 저장하므로 여러 유출 건에 나오는 같은 이름은 한 번만 저장된다.
+ */
+@Service
+public class NameMatchIndexService {
+
+    public static final String COLLECTION = "col_name_key";
+
+    public static final String MATCH_EXACT = "exact";
+    public static final String MATCH_EDIT = "edit";
+    public static final String MATCH_PHONETIC = "phonetic";
+
+    private static final int WRITE_BATCH_SIZE = 5000;
+    private static final int MAX_CANDIDATES = 5000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // 저장하는 삭제 변형 깊이 = 검색 가능한 최대 편집 거리
+    @Value("${data.name-index.max-distance:1}")
+    private int indexedDistance;
+
+    public int getMaxDistance() {
+        return indexedDistance;
+    }
+
+    public boolean isEmpty() {
+        return mongoTemplate.getCollection(COLLECTION).estimatedDocumentCount() == 0;
+    }
+
+    /**
+     * 정규화된 이름들의 키를 추가한다. 이미 있는 (키, 이름) 은 unique 인덱스로 무시된다.
+     * 유출 건이 삭제되어도 키는 남지만, leakId 는 col_pii_lookup 에서 찾으므로 결과에는 나오지 않는다.
+     */
+    public void indexNames(Collection<String> normalizedNames) {
+        List<Document> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        for (String name : normalizedNames) {
+            for (String key : keysOf(name, indexedDistance)) {
+                batch.add(new Document("k", key).append("v", name));
+                if (batch.size() == WRITE_BATCH_SIZE) {
+                    insertBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch);
+        }
+    }
+
+    /**
+     * 질의 이름별 후보 이름(정규화된 값)과 일치 정보. 후보의 leakId 는 col_pii_lookup 에서 찾는다.
+     * truncated 는 후보 한도(MAX_CANDIDATES) 때문에 일부 키를 다 읽지 못한 질의 이름이다.
+     */
+    public record Candidates(Map<String, Map<String, FuzzyNameLeakDto>> matches, Set<String> truncated) {}
+
+    public Candidates findCandidates(List<String> names, int maxDistance) {
+        int distance = Math.max(0, Math.min(maxDistance, indexedDistance));
+
+        // 질의 키 → 질의 이름 (여러 이름의 키를 한 번의 $in 으로 조회).
+        // 한도에 걸려도 가까운 일치가 먼저 남도록 자모 키 원형 → 삭제 변형 → 발음 키 순서로 나눠 읽는다
+        List<Map<String, Set<String>>> tiers = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        Map<String, String> jamoKeys = new HashMap<>();
+        Map<String, String> phoneticKeys = new HashMap<>();
+        for (String name : names) {
+            String normalized = PersonalDataNormalizer.normalize(PersonalDataNormalizer.TYPE_NAME, name);
+            String jamoKey = NameKeys.jamoKey(normalized);
+            if (jamoKey == null) continue;
+
+            jamoKeys.put(name, jamoKey);
+            String phoneticKey = NameKeys.phoneticKey(normalized);
+            if (phoneticKey != null) phoneticKeys.put(name, phoneticKey);
+            String exactKey = NameKeys.JAMO_PREFIX + jamoKey;
+            for (String key : keysOf(normalized, distance)) {
+                int tier = key.equals(exactKey) ? 0 : key.startsWith(NameKeys.PHONETIC_PREFIX) ? 2 : 1;
+                tiers.get(tier).computeIfAbsent(key, k -> new HashSet<>()).add(name);
+            }
+        }
+
+        Map<String, Map<String, FuzzyNameLeakDto>> candidates = new HashMap<>();
+        Set<String> truncated = new HashSet<>();
+        int remaining = MAX_CANDIDATES;
+        for (Map<String, Set<String>> queryKeys : tiers) {
+            if (queryKeys.isEmpty()) continue;
+            if (remaining == 0) {
+                queryKeys.values().forEach(truncated::addAll);
+                continue;
+            }
+
+            Query query = new Query(Criteria.where("k").in(queryKeys.keySet())).limit(remaining);
+            query.fields().include("k").include("v").exclude("_id");
+            List<Document> documents = mongoTemplate.find(query, Document.class, COLLECTION);
+            remaining -= documents.size();
+            if (remaining == 0) {
+                // 이 단계에서 한도에 걸렸으므로 어떤 키가 덜 읽혔는지 알 수 없다
+                queryKeys.values().forEach(truncated::addAll);
+            }
+
+            for (Document document : documents) {
+                String key = document.getString("k");
+                String value = document.getString("v");
+                for (String name : queryKeys.getOrDefault(key, Set.of())) {
+                    FuzzyNameLeakDto match = verify(jamoKeys.get(name), phoneticKeys.get(name), key, value, distance);
+                    if (match != null) {
+                        candidates.computeIfAbsent(name, n -> new HashMap<>()).merge(value, match, NameMatchIndexService::better);
+                    }
+                }
+            }
+        }
+        return new Candidates(candidates, truncated);
+    }
+
+    // exact < edit(거리순) < phonetic
+    public static int rank(FuzzyNameLeakDto match) {
+        return MATCH_PHONETIC.equals(match.getMatchType()) ? 1000 + match.getDistance() : match.getDistance();
+    }
+
+    public static FuzzyNameLeakDto better(FuzzyNameLeakDto a, FuzzyNameLeakDto b) {
+        return rank(b) < rank(a) ? b : a;
+    }
+
+    // ======= 헬퍼 메서드 =======
+
+    private List<String> keysOf(String normalizedName, int deletes) {
+        List<String> keys = new ArrayList<>();
+        String jamoKey = NameKeys.jamoKey(normalizedName);
+        if (jamoKey == null) return keys;
+
+        for (String variant : NameKeys.deletionVariants(jamoKey, deletes)) {
+            keys.add(NameKeys.JAMO_PREFIX + variant);
+        }
+        String phoneticKey = NameKeys.phoneticKey(normalizedName);
+        if (phoneticKey != null) {
+            keys.add(NameKeys.PHONETIC_PREFIX + phoneticKey);
+        }
+        return keys;
+    }
+
+    // 삭제 변형이 겹친 후보는 실제 편집 거리로 검증, 발음 키가 같은 후보는 발음 일치로 인정
+    private FuzzyNameLeakDto verify(String queryJamoKey, String queryPhoneticKey, String matchedKey,
+                                    String value, int maxDistance) {
+        String valueJamoKey = NameKeys.jamoKey(value);
+        if (valueJamoKey == null) return null;
+
+        int distance = NameKeys.distance(queryJamoKey, valueJamoKey, Math.max(maxDistance, valueJamoKey.length()));
+        if (distance == 0) return new FuzzyNameLeakDto(null, 0, MATCH_EXACT);
+        if (distance <= maxDistance) return new FuzzyNameLeakDto(null, distance, MATCH_EDIT);
+        if (matchedKey.startsWith(NameKeys.PHONETIC_PREFIX)
+                && matchedKey.substring(NameKeys.PHONETIC_PREFIX.length()).equals(queryPhoneticKey)) {
+            return new FuzzyNameLeakDto(null, distance, MATCH_PHONETIC);
+        }
+        return null;
+    }
+
+    private void insertBatch(List<Document> batch) {
+        try {
+            mongoTemplate.getCollection(COLLECTION).insertMany(new ArrayList<>(batch), new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            // 이미 저장된 (키, 이름) 중복(11000)은 무시
+            boolean onlyDuplicates = e.getWriteErrors().stream().allMatch(error -> error.getCode() == 11000);
+            if (!onlyDuplicates) throw e;
+        }
+    }
+}
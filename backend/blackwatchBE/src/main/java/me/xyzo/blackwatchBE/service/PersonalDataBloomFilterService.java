@@ -0,0 +1,312 @@
+package me.xyzo.blackwatchBE.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import me.xyzo.blackwatchBE.index.ScalableBloomFilter;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * 개인정보 역색인(col_pii_lookup) 앞단의 Bloom filter.
+ *
+ * 어떤 유출에도 없는 값은 Mongo 조회 없이 바로 "없음"으로 응답한다.
+ * 기동 시 스냅샷 파일을 메모리 매핑으로 읽고, 스냅샷 이후 색인된 항목만 col_pii_lookup 에서 이어서 추가한다.
+ * 스냅샷이 없으면 col_pii_lookup 전체로 새로 만든다. 색인되는 값은 PersonalDataIndexService 가 바로 추가한다.
+ */
+@Service
+public class PersonalDataBloomFilterService {
+
+    private static final int SNAPSHOT_MAGIC = 0x42574246; // "BWBF"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES;
+
+    // 스냅샷 직전에 들어온 항목이 누락되지 않도록 이어받기 시작 시점을 앞당긴다
+    private static final long CATCH_UP_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${data.pii-bloom.enabled:true}")
+    private boolean enabled;
+
+    @Value("${data.pii-bloom.snapshot-path:./data/pii-bloom.bin}")
+    private String snapshotPath;
+
+    @Value("${data.pii-bloom.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${data.pii-bloom.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile ScalableBloomFilter filter;
+    // 재구축 중인 새 필터 (재구축 동안 추가되는 값은 양쪽에 모두 넣는다)
+    private volatile ScalableBloomFilter rebuilding;
+    private volatile boolean ready;
+    private volatile long snapshotEntryCount = -1;
+
+    private Counter negativeLookups;
+    private Counter positiveLookups;
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void registerMetrics() {
+        negativeLookups = Counter.builder("blackwatch.pii.bloom.lookups")
+                .description("Personal data values checked against the Bloom filter")
+                .tag("result", "negative").register(meterRegistry);
+        positiveLookups = Counter.builder("blackwatch.pii.bloom.lookups")
+                .description("Personal data values checked against the Bloom filter")
+                .tag("result", "positive").register(meterRegistry);
+        falsePositives = Counter.builder("blackwatch.pii.bloom.false.positives")
+                .description("Bloom filter positives that matched no leak in col_pii_lookup")
+                .register(meterRegistry);
+
+        Gauge.builder("blackwatch.pii.bloom.fpp.estimated", this, service -> service.metric(ScalableBloomFilter::estimateFalsePositiveRate))
+                .description("False positive rate estimated from the Bloom filter fill ratio")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.pii.bloom.fpp.target", this, service -> falsePositiveRate)
+                .description("Configured Bloom filter false positive rate")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.pii.bloom.memory", this, service -> service.metric(ScalableBloomFilter::getMemoryBytes))
+                .description("Bloom filter bit array size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.pii.bloom.entries", this, service -> service.metric(ScalableBloomFilter::getEntryCount))
+                .description("Distinct values added to the Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.pii.bloom.slices", this, service -> service.metric(ScalableBloomFilter::getSliceCount))
+                .description("Bloom filter slices (grows when capacity is exceeded)")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) return;
+
+        Thread loader = new Thread(() -> {
+            try {
+                initialize();
+            } catch (Exception e) {
+                System.out.println("Personal data Bloom filter load failed: " + e.getMessage());
+            }
+        }, "pii-bloom-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * 필터가 준비되어 있고 값이 확실히 없으면 true. 준비 전에는 항상 false (Mongo 조회 필요).
+     */
+    public boolean isDefinitelyAbsent(String type, String normalizedValue) {
+        ScalableBloomFilter current = filter;
+        if (!ready || current == null) return false;
+
+        boolean absent = !current.mightContain(key(type, normalizedValue));
+        (absent ? negativeLookups : positiveLookups).increment();
+        return absent;
+    }
+
+    // 필터는 통과했지만 col_pii_lookup 에 없었던 값 (실측 오탐)
+    public void recordFalsePositives(int count) {
+        if (count > 0) falsePositives.increment(count);
+    }
+
+    public void add(String type, String normalizedValue) {
+        String key = key(type, normalizedValue);
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        ScalableBloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 역색인 재구축 후 삭제된 값을 털어내기 위해 필터를 새로 만든다.
+     * 새 필터가 완성될 때까지는 기존 필터로 응답한다.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) return;
+
+        ScalableBloomFilter rebuilt = new ScalableBloomFilter(initialCapacity(), falsePositiveRate);
+        rebuilding = rebuilt;
+        long added;
+        try {
+            added = addLookupEntries(rebuilt, null);
+            filter = rebuilt;
+            ready = true;
+        } finally {
+            rebuilding = null;
+        }
+        System.out.println("Personal data Bloom filter rebuilt with " + added + " values");
+        writeSnapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${data.pii-bloom.snapshot-interval-seconds:600}",
+            initialDelayString = "${data.pii-bloom.snapshot-interval-seconds:600}", timeUnit = TimeUnit.SECONDS)
+    public void snapshotIfChanged() {
+        ScalableBloomFilter current = filter;
+        if (!ready || current == null || current.getEntryCount() == snapshotEntryCount) return;
+        writeSnapshot();
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        if (ready) {
+            writeSnapshot();
+        }
+    }
+
+    // ======= 내부 메서드 =======
+
+    private void initialize() {
+        Path path = Path.of(snapshotPath);
+        if (Files.exists(path)) {
+            try {
+                long snapshotMillis = readSnapshot(path);
+                long added = addLookupEntries(filter, snapshotMillis - CATCH_UP_MARGIN_MILLIS);
+                ready = true;
+                System.out.println("Personal data Bloom filter loaded from snapshot (+" + added + " values since)");
+                return;
+            } catch (Exception e) {
+                System.out.println("Personal data Bloom filter snapshot unusable, rebuilding: " + e.getMessage());
+            }
+        }
+
+        // 스냅샷이 없으면 col_pii_lookup 전체로 생성 (그동안 들어오는 값도 바로 추가되도록 먼저 공개)
+        filter = new ScalableBloomFilter(initialCapacity(), falsePositiveRate);
+        long added = addLookupEntries(filter, null);
+        ready = true;
+        System.out.println("Personal data Bloom filter built with " + added + " values");
+        writeSnapshot();
+    }
+
+    /**
+     * col_pii_lookup 의 (type, value) 를 필터에 추가한다. sinceMillis 가 있으면 그 이후 생성된 항목만.
+     * {type, value, leakId} 인덱스만으로 읽히도록 _id 조건이 없으면 인덱스 순서로 스캔한다.
+     */
+    private long addLookupEntries(ScalableBloomFilter target, Long sinceMillis) {
+        Query query = new Query();
+        if (sinceMillis != null) {
+            query.addCriteria(Criteria.where("_id").gte(minObjectId(sinceMillis)));
+        } else {
+            query.with(Sort.by("type", "value", "leakId"));
+        }
+        query.fields().include("type").include("value").exclude("_id");
+        query.cursorBatchSize(5000);
+
+        long added = 0;
+        try (Stream<Document> entries = mongoTemplate.stream(query, Document.class, PersonalDataIndexService.COLLECTION)) {
+            Iterator<Document> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                Document entry = iterator.next();
+                if (target.put(key(entry.getString("type"), entry.getString("value")))) {
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * 스냅샷: [magic][version][작성 시각 millis][필터]. 임시 파일에 매핑해 쓴 뒤 원자적으로 교체한다.
+     */
+    private synchronized void writeSnapshot() {
+        ScalableBloomFilter current = filter;
+        if (current == null) return;
+
+        Path path = Path.of(snapshotPath);
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+            long writtenAt = System.currentTimeMillis();
+            long entryCount = current.getEntryCount();
+            long size = SNAPSHOT_HEADER_BYTES + current.serializedSize();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(SNAPSHOT_MAGIC);
+                buffer.putInt(SNAPSHOT_VERSION);
+                buffer.putLong(writtenAt);
+                current.writeTo(buffer);
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotEntryCount = entryCount;
+        } catch (Exception e) {
+            System.out.println("Personal data Bloom filter snapshot failed: " + e.getMessage());
+        }
+    }
+
+    // 스냅샷을 읽어 filter 에 설정하고 작성 시각을 반환한다
+    private long readSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException("unsupported snapshot format");
+            }
+            long writtenAt = buffer.getLong();
+            ScalableBloomFilter loaded = ScalableBloomFilter.readFrom(buffer);
+            if (loaded.getFalsePositiveRate() != falsePositiveRate) {
+                throw new IOException("false positive rate changed");
+            }
+            filter = loaded;
+            snapshotEntryCount = loaded.getEntryCount();
+            return writtenAt;
+        }
+    }
+
+    private long initialCapacity() {
+        long indexed = mongoTemplate.getCollection(PersonalDataIndexService.COLLECTION).estimatedDocumentCount();
+        return Math.max(expectedInsertions, indexed);
+    }
+
+    // 해당 시각 이전에 생성된 ObjectId 보다 크거나 같은 최소 ObjectId
+    private ObjectId minObjectId(long millis) {
+        return new ObjectId(String.format("%08x", Math.max(0, millis / 1000)) + "0000000000000000");
+    }
+
+    private double metric(ToDoubleFunction<ScalableBloomFilter> reader) {
+        ScalableBloomFilter current = filter;
+        return current != null ? reader.applyAsDouble(current) : 0;
+    }
+
+    private static String key(String type, String normalizedValue) {
+        return type + ":" + normalizedValue;
+    }
+}
@@ -0,0 +1,271 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.xyzo.blackwatchBE.dto.ExportFormat;
+import me.xyzo.blackwatchBE.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 대량 개인정보 유출 여부 확인 (/data/leaked/find/bulk).
+ *
+ * 업로드된 CSV / NDJSON 을 한 줄씩 읽어 타입별로 batch-size 개씩 묶고,
+ * 묶음마다 가상 스레드에서 col_pii_lookup $in 조회를 실행한다 (동시 실행 수는 max-concurrency 로 제한).
+ * 결과는 묶음이 끝나는 순서대로 NDJSON 으로 바로 내보내므로 전체 결과를 메모리에 모으지 않는다.
+ * 동시 실행 한도에 도달하면 입력 읽기도 멈추므로 업로드 크기와 관계없이 메모리 사용량이 일정하다.
+ */
+@Service
+public class PersonalDataBulkCheckService {
+
+    // 입력 컬럼 / 필드명 → 조회 키 타입
+    private static final Map<String, String> INPUT_FIELDS = Map.of(
+            "email", PersonalDataNormalizer.TYPE_EMAIL,
+            "username", PersonalDataNormalizer.TYPE_USERNAME,
+            "name", PersonalDataNormalizer.TYPE_NAME);
+
+    @Autowired
+    private PersonalDataIndexService personalDataIndexService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${data.pii-bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${data.pii-bulk.max-concurrency:8}")
+    private int maxConcurrency;
+
+    @Value("${data.pii-bulk.max-values:1000000}")
+    private long maxValues;
+
+    public StreamingResponseBody check(InputStream input, ExportFormat format, boolean onlyFound) {
+        // 역색인 재구축 중에는 대량 조회를 받지 않는다 (기존 방식으로는 감당할 수 없는 규모)
+        if (!personalDataIndexService.isReady()) {
+            throw new ServiceUnavailableException("개인정보 색인을 재구축 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+        return out -> new BulkRun(input, format, onlyFound, out).run();
+    }
+
+    /**
+     * 요청 하나의 실행 상태 (입력 파싱, 묶음 제출, 결과 기록)
+     */
+    private class BulkRun {
+
+        private final InputStream input;
+        private final ExportFormat format;
+        private final boolean onlyFound;
+        private final OutputStream out;
+
+        private final Semaphore permits = new Semaphore(maxConcurrency);
+        private final Map<String, List<String>> pending = new HashMap<>();
+        private final AtomicLong checked = new AtomicLong();
+        private final AtomicLong found = new AtomicLong();
+        private volatile boolean aborted;
+        private long values;
+
+        BulkRun(InputStream input, ExportFormat format, boolean onlyFound, OutputStream out) {
+            this.input = input;
+            this.format = format;
+            this.onlyFound = onlyFound;
+            this.out = new BufferedOutputStream(out, 64 * 1024);
+        }
+
+        void run() throws IOException {
+            String error = null;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+                try {
+                    error = read(reader, executor);
+                    for (Map.Entry<String, List<String>> entry : pending.entrySet()) {
+                        if (!entry.getValue().isEmpty()) {
+                            submit(executor, entry.getKey(), entry.getValue());
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    aborted = true;
+                }
+                // executor close() 가 남은 묶음이 끝날 때까지 기다린다
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("checked", checked.get());
+            summary.put("found", found.get());
+            if (error != null) summary.put("error", error);
+            writeLine(Map.of("summary", summary));
+            synchronized (out) {
+                out.flush();
+            }
+        }
+
+        // 입력을 끝까지 읽는다. 입력 오류나 한도 초과 시 그 위치에서 멈추고 오류 메시지를 반환한다.
+        private String read(BufferedReader reader, ExecutorService executor) throws IOException, InterruptedException {
+            List<String> csvColumns = null;
+            long lineNumber = 0;
+            String line;
+            while (!aborted && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+
+                Map<String, String> record;
+                if (format == ExportFormat.CSV) {
+                    if (csvColumns == null) {
+                        csvColumns = parseCsvLine(line).stream().map(c -> c.trim().toLowerCase(Locale.ROOT)).toList();
+                        if (csvColumns.stream().noneMatch(INPUT_FIELDS::containsKey)) {
+                            return "CSV 헤더에 email, username, name 중 하나 이상이 필요합니다.";
+                        }
+                        continue;
+                    }
+                    record = csvRecord(csvColumns, parseCsvLine(line));
+                } else {
+                    try {
+                        record = jsonRecord(objectMapper.readTree(line));
+                    } catch (IOException e) {
+                        return lineNumber + "번째 줄이 올바른 JSON 이 아닙니다.";
+                    }
+                }
+
+                for (Map.Entry<String, String> entry : record.entrySet()) {
+                    if (++values > maxValues) {
+                        return "최대 " + maxValues + "개까지 확인할 수 있습니다.";
+                    }
+                    List<String> batch = pending.computeIfAbsent(entry.getKey(), key -> new ArrayList<>(batchSize));
+                    batch.add(entry.getValue());
+                    if (batch.size() == batchSize) {
+                        pending.put(entry.getKey(), new ArrayList<>(batchSize));
+                        submit(executor, entry.getKey(), batch);
+                    }
+                }
+            }
+            return null;
+        }
+
+        // 동시 실행 한도에 도달하면 자리가 날 때까지 입력 읽기를 멈춘다
+        private void submit(ExecutorService executor, String type, List<String> batch) throws InterruptedException {
+            permits.acquire();
+            executor.submit(() -> {
+                try {
+                    if (!aborted) process(type, batch);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        private void process(String type, List<String> batch) {
+            Map<String, List<String>> leakIdsByValue;
+            try {
+                leakIdsByValue = personalDataIndexService.find(type, batch);
+            } catch (Exception e) {
+                writeLine(Map.of("type", type, "count", batch.size(), "error", "조회 중 오류가 발생했습니다."));
+                return;
+            }
+
+            for (String value : batch) {
+                List<String> leakIds = leakIdsByValue.getOrDefault(PersonalDataNormalizer.normalize(type, value), List.of());
+                checked.incrementAndGet();
+                if (!leakIds.isEmpty()) found.incrementAndGet();
+                if (onlyFound && leakIds.isEmpty()) continue;
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("type", type);
+                result.put("value", value);
+                result.put("found", !leakIds.isEmpty());
+                result.put("leakIds", leakIds);
+                writeLine(result);
+            }
+            synchronized (out) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    aborted = true;
+                }
+            }
+        }
+
+        // 여러 가상 스레드가 기록하므로 줄 단위로 동기화한다. 클라이언트가 끊기면 남은 묶음은 건너뛴다.
+        private void writeLine(Map<String, ?> line) {
+            try {
+                byte[] bytes = objectMapper.writeValueAsBytes(line);
+                synchronized (out) {
+                    out.write(bytes);
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                aborted = true;
+            }
+        }
+    }
+
+    private Map<String, String> jsonRecord(JsonNode node) {
+        Map<String, String> record = new LinkedHashMap<>();
+        for (Map.Entry<String, String> field : INPUT_FIELDS.entrySet()) {
+            JsonNode value = node.get(field.getKey());
+            if (value != null && value.isTextual() && !value.asText().isBlank()) {
+                record.put(field.getValue(), value.asText());
+            }
+        }
+        return record;
+    }
+
+    private Map<String, String> csvRecord(List<String> columns, List<String> cells) {
+        Map<String, String> record = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size() && i < cells.size(); i++) {
+            String type = INPUT_FIELDS.get(columns.get(i));
+            if (type != null && !cells.get(i).isBlank()) {
+                record.put(type, cells.get(i));
+            }
+        }
+        return record;
+    }
+
+    // 한 줄짜리 CSV 레코드 (따옴표 안의 콤마와 "" 이스케이프 지원)
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
@@ -0,0 +1,254 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 개인정보 역색인 (col_pii_lookup).
+ *
+ * 정규화된 (type, value) → leakId 항목을 유출 건마다 저장한다.
+ * 조회는 {type, value, leakId} 인덱스만으로 끝나는 $in 쿼리이며 유출 문서 본문을 읽지 않는다.
+ * col_leaked 변경은 change stream 으로 받아 해당 유출 건의 항목만 교체한다.
+ * 이메일 도메인 인덱스(col_email_domain)와 이름 키 인덱스(col_name_key)도 같은 시점에 함께 갱신한다.
+ */
+@Service
+public class PersonalDataIndexService implements DataChangeListener {
+
+    public static final String COLLECTION = "col_pii_lookup";
+
+    private static final String LEAKED_COLLECTION = "col_leaked";
+    private static final int WRITE_BATCH_SIZE = 5000;
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PersonalDataBloomFilterService personalDataBloomFilterService;
+
+    @Autowired
+    private EmailDomainIndexService emailDomainIndexService;
+
+    @Autowired
+    private NameMatchIndexService nameMatchIndexService;
+
+    @Value("${data.pii-index.rebuild-on-empty:true}")
+    private boolean rebuildOnEmpty;
+
+    // 유출 건 단위 색인은 순서대로 처리 (change stream 스레드를 막지 않도록 분리)
+    private final ExecutorService indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pii-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean rebuilding;
+
+    // 색인 내용이 바뀔 때마다 증가 (파생 인덱스의 재생성 여부 판단용)
+    private final AtomicLong revision = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (!rebuildOnEmpty) return;
+        try {
+            boolean lookupEmpty = mongoTemplate.getCollection(COLLECTION).estimatedDocumentCount() == 0;
+            boolean leaksExist = mongoTemplate.getCollection(LEAKED_COLLECTION).estimatedDocumentCount() > 0;
+            // 도메인 / 이름 키 인덱스가 추가되기 전에 만들어진 색인이면 함께 채우기 위해 재구축
+            boolean domainsMissing = !lookupEmpty && emailDomainIndexService.isEmpty()
+                    && mongoTemplate.exists(new Query(Criteria.where("type").is(PersonalDataNormalizer.TYPE_EMAIL)), COLLECTION);
+            boolean nameKeysMissing = !lookupEmpty && nameMatchIndexService.isEmpty()
+                    && mongoTemplate.exists(new Query(Criteria.where("type").is(PersonalDataNormalizer.TYPE_NAME)), COLLECTION);
+            if ((lookupEmpty && leaksExist) || domainsMissing || nameKeysMissing) {
+                rebuildAsync();
+            }
+        } catch (Exception e) {
+            System.out.println("Personal data index check failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 재구축 중에는 색인이 불완전하므로 조회 측에서 기존 방식으로 대체해야 한다.
+     */
+    public boolean isReady() {
+        return !rebuilding;
+    }
+
+    public long getRevision() {
+        return revision.get();
+    }
+
+    public synchronized boolean rebuildAsync() {
+        if (rebuilding) return false;
+        rebuilding = true;
+        indexExecutor.submit(() -> {
+            try {
+                long indexed = rebuild();
+                System.out.println("Personal data index rebuilt for " + indexed + " leaks");
+                // 재구축으로 사라진 값이 Bloom filter 에 오탐으로 남지 않도록 함께 재생성
+                personalDataBloomFilterService.rebuild();
+            } catch (Exception e) {
+                System.out.println("Personal data index rebuild failed: " + e.getMessage());
+            } finally {
+                rebuilding = false;
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 모든 유출 문서를 커서로 읽어 유출 건 단위로 항목을 교체한다.
+     * 컬렉션을 비우지 않으므로 재구축 중에도 기존 항목은 유지된다.
+     */
+    long rebuild() {
+        Query query = new Query();
+        query.fields().include("leaked.email").include("leaked.realname").include("leaked.username")
+                .include("leaked.hash");
+        query.cursorBatchSize(100);
+
+        long count = 0;
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, LEAKED_COLLECTION)) {
+            Iterator<Document> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                indexLeak(idOf(document.get("_id")), document.get("leaked"));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void indexLeak(String leakId, Object leaked) {
+        removeLeak(leakId);
+
+        Map<String, Set<String>> values = PersonalDataNormalizer.extract(leaked);
+        List<Document> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        for (Map.Entry<String, Set<String>> entry : values.entrySet()) {
+            for (String value : entry.getValue()) {
+                batch.add(new Document("type", entry.getKey()).append("value", value).append("leakId", leakId));
+                if (batch.size() == WRITE_BATCH_SIZE) {
+                    insertBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch);
+        }
+
+        emailDomainIndexService.indexLeak(leakId, values.get(PersonalDataNormalizer.TYPE_EMAIL));
+        nameMatchIndexService.indexNames(values.get(PersonalDataNormalizer.TYPE_NAME));
+        revision.incrementAndGet();
+
+        // col_pii_lookup 에 기록된 뒤 Bloom filter 에 추가 (조회 시 Mongo 보다 먼저 "있음"이 되지 않도록)
+        for (Map.Entry<String, Set<String>> entry : values.entrySet()) {
+            for (String value : entry.getValue()) {
+                personalDataBloomFilterService.add(entry.getKey(), value);
+            }
+        }
+    }
+
+    public void removeLeak(String leakId) {
+        mongoTemplate.remove(new Query(Criteria.where("leakId").is(leakId)), COLLECTION);
+        emailDomainIndexService.removeLeak(leakId);
+        revision.incrementAndGet();
+    }
+
+    /**
+     * 요청 값을 정규화해 한 번에 조회한다 (정규화된 값 → leakId 목록).
+     * Bloom filter 에서 확실히 없는 값은 조회 대상에서 뺀다.
+     */
+    public Map<String, List<String>> find(String type, Collection<String> values) {
+        Set<String> candidates = new LinkedHashSet<>();
+        for (String value : values) {
+            String normalized = PersonalDataNormalizer.normalize(type, value);
+            if (normalized != null && !personalDataBloomFilterService.isDefinitelyAbsent(type, normalized)) {
+                candidates.add(normalized);
+            }
+        }
+        if (candidates.isEmpty()) return Map.of();
+
+        Map<String, List<String>> result = lookup(type, candidates);
+        if (personalDataBloomFilterService.isReady()) {
+            personalDataBloomFilterService.recordFalsePositives(candidates.size() - result.size());
+        }
+        return result;
+    }
+
+    /**
+     * 정규화된 값 목록을 $in 으로 조회해 값 → leakId 목록을 반환한다 (인덱스만 사용).
+     */
+    public Map<String, List<String>> lookup(String type, Collection<String> normalizedValues) {
+        Map<String, List<String>> result = new HashMap<>();
+        List<String> values = new ArrayList<>(normalizedValues);
+
+        for (int from = 0; from < values.size(); from += LOOKUP_BATCH_SIZE) {
+            List<String> chunk = values.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, values.size()));
+            Query query = new Query(Criteria.where("type").is(type).and("value").in(chunk));
+            query.fields().include("value").include("leakId").exclude("_id");
+
+            for (Document document : mongoTemplate.find(query, Document.class, COLLECTION)) {
+                result.computeIfAbsent(document.getString("value"), key -> new ArrayList<>())
+                        .add(document.getString("leakId"));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        if (!event.isLeaked() || !event.touches("leaked")) return;
+
+        String leakId = event.getDocumentId();
+        Document document = event.getFullDocument();
+        indexExecutor.submit(() -> {
+            try {
+                if (event.getOperation() == DataChangeEvent.Operation.DELETE || document == null) {
+                    removeLeak(leakId);
+                } else {
+                    indexLeak(leakId, document.get("leaked"));
+                }
+            } catch (Exception e) {
+                System.out.println("Personal data index update failed for " + leakId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void insertBatch(List<Document> batch) {
+        try {
+            mongoTemplate.getCollection(COLLECTION).insertMany(new ArrayList<>(batch), new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            // 동시 색인으로 인한 중복 키(11000)는 무시
+            boolean onlyDuplicates = e.getWriteErrors().stream().allMatch(error -> error.getCode() == 11000);
+            if (!onlyDuplicates) throw e;
+        }
+    }
+
+    private String idOf(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+}
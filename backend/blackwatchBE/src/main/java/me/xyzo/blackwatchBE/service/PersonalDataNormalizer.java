@@ -0,0 +1,88 @@
+package me.xyzo.blackwatchBE.service;
+
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 개인정보 조회 키 정규화 및 leaked 필드에서 값 추출.
+ *
+ * leaked 는 {email: [...], realname: [...], username: [...], hash: ...} 객체이거나,
+ * 크롤러 서버 형식인 [{email: ..., realname: ..., username: ...}, ...] 배열일 수 있다.
+ */
+public final class PersonalDataNormalizer {
+
+    public static final String TYPE_EMAIL = "email";
+    public static final String TYPE_NAME = "name";
+    public static final String TYPE_USERNAME = "username";
+    public static final String TYPE_HASH = "hash";
+
+    // leaked 객체의 필드명 → 조회 키 타입
+    private static final Map<String, String> LEAKED_FIELD_TYPES = Map.of(
+            "email", TYPE_EMAIL,
+            "realname", TYPE_NAME,
+            "username", TYPE_USERNAME,
+            "hash", TYPE_HASH);
+
+    private PersonalDataNormalizer() {}
+
+    public static String normalize(String type, String value) {
+        if (value == null) return null;
+        String normalized = switch (type) {
+            case TYPE_NAME -> Normalizer.normalize(value, Normalizer.Form.NFC)
+                    .trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            default -> value.trim().toLowerCase(Locale.ROOT);
+        };
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * leaked 값에서 타입별 정규화된 개인정보 집합을 추출한다.
+     */
+    public static Map<String, Set<String>> extract(Object leaked) {
+        Map<String, Set<String>> values = new LinkedHashMap<>();
+        values.put(TYPE_EMAIL, new LinkedHashSet<>());
+        values.put(TYPE_NAME, new LinkedHashSet<>());
+        values.put(TYPE_USERNAME, new LinkedHashSet<>());
+        values.put(TYPE_HASH, new LinkedHashSet<>());
+
+        if (leaked instanceof Map<?, ?> map) {
+            collect(map, values);
+        } else if (leaked instanceof List<?> entries) {
+            for (Object entry : entries) {
+                if (entry instanceof Map<?, ?> map) {
+                    collect(map, values);
+                }
+            }
+        }
+        return values;
+    }
+
+    private static void collect(Map<?, ?> leaked, Map<String, Set<String>> values) {
+        for (Map.Entry<String, String> field : LEAKED_FIELD_TYPES.entrySet()) {
+            Object raw = leaked.get(field.getKey());
+            String type = field.getValue();
+            if (raw instanceof Collection<?> items) {
+                for (Object item : items) {
+                    add(values.get(type), type, item);
+                }
+            } else {
+                add(values.get(type), type, raw);
+            }
+        }
+    }
+
+    private static void add(Set<String> target, String type, Object raw) {
+        if (raw instanceof String value) {
+            String normalized = normalize(type, value);
+            if (normalized != null) {
+                target.add(normalized);
+            }
+        }
+    }
+}
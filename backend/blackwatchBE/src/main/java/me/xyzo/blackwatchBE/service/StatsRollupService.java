@@ -0,0 +1,362 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.dto.StatsBucketDto;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * /data/stats 집계 (col_stats_rollup).
+ *
+ * {t, dim, d, k} 행마다 건수(count)와 유출 레코드 수 합계(records)를 누적한다.
+ * d 는 업로드 일자(UTC, yyyy-MM-dd)이며, 기간 없는 조회를 위해 d = "all" 인 전체 합계 행도 함께 유지한다.
+ * 조회는 (기간 일수 × 키 수) 행만 읽으므로 원본 컬렉션 크기와 무관하다.
+ *
+ * 문서별로 어떤 행에 더했는지를 col_stats_ledger 에 남겨 두고, 변경 시 이전 기여분을 빼고 새 기여분을 더한다.
+ * 같은 이벤트가 다시 와도 기여분이 같으면 아무것도 하지 않으므로 change stream 재전달에도 중복 집계되지 않는다.
+ * 모든 갱신과 재구축은 한 스레드에서 순서대로 처리한다.
+ */
+@Service
+public class StatsRollupService implements DataChangeListener {
+
+    public static final String ROLLUP_COLLECTION = "col_stats_rollup";
+    public static final String LEDGER_COLLECTION = "col_stats_ledger";
+
+    public static final String TYPE_LEAKED = "leaked";
+    public static final String TYPE_VULNERABILITY = "vulnerability";
+
+    public static final String DIMENSION_DAY = "day";
+    public static final String DIMENSION_HOST = "host";
+    public static final String DIMENSION_LEAK_TYPE = "leakType";
+    public static final String DIMENSION_VULNERABILITY_CLASS = "vulnerabilityClass";
+    public static final String DIMENSION_CVSS = "cvss";
+
+    private static final Map<String, Set<String>> DIMENSIONS = Map.of(
+            TYPE_LEAKED, Set.of(DIMENSION_DAY, DIMENSION_HOST, DIMENSION_LEAK_TYPE),
+            TYPE_VULNERABILITY, Set.of(DIMENSION_DAY, DIMENSION_HOST, DIMENSION_VULNERABILITY_CLASS, DIMENSION_CVSS));
+
+    // 키 순서로 정렬해 반환하는 차원 (나머지는 건수 내림차순)
+    private static final Set<String> ORDERED_DIMENSIONS = Set.of(DIMENSION_DAY, DIMENSION_CVSS);
+
+    private static final String ALL_DAYS = "all";
+    private static final String UNKNOWN = "unknown";
+    private static final int WRITE_BATCH_SIZE = 5000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TypedFieldNormalizer typedFieldNormalizer;
+
+    @Value("${data.stats.rebuild-on-empty:true}")
+    private boolean rebuildOnEmpty;
+
+    private final ExecutorService rollupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stats-rollup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean rebuilding;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (!rebuildOnEmpty) return;
+        try {
+            boolean rollupEmpty = mongoTemplate.getCollection(ROLLUP_COLLECTION).estimatedDocumentCount() == 0;
+            boolean dataExists = mongoTemplate.getCollection(DataChangeEvent.LEAKED_COLLECTION).estimatedDocumentCount() > 0
+                    || mongoTemplate.getCollection(DataChangeEvent.VULNERABILITY_COLLECTION).estimatedDocumentCount() > 0;
+            if (rollupEmpty && dataExists) {
+                rebuildAsync();
+            }
+        } catch (Exception e) {
+            System.out.println("Stats rollup check failed: " + e.getMessage());
+        }
+    }
+
+    public synchronized boolean rebuildAsync() {
+        if (rebuilding) return false;
+        rebuilding = true;
+        rollupExecutor.submit(() -> {
+            try {
+                long documents = rebuild();
+                System.out.println("Stats rollup rebuilt from " + documents + " documents");
+            } catch (Exception e) {
+                System.out.println("Stats rollup rebuild failed: " + e.getMessage());
+            } finally {
+                rebuilding = false;
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 기간 [from, to] 의 차원별 집계. 기간이 없으면 전체 합계 행만 읽는다.
+     */
+    public List<StatsBucketDto> query(String type, String dimension, LocalDate from, LocalDate to, int limit) {
+        Set<String> dimensions = DIMENSIONS.get(type);
+        if (dimensions == null || !dimensions.contains(dimension)) {
+            throw new BadRequestException("지원하지 않는 통계 차원입니다: " + dimension);
+        }
+
+        Criteria criteria = Criteria.where("t").is(type).and("dim").is(dimension);
+        if (from != null || to != null) {
+            // yyyy-MM-dd 문자열은 사전순 = 날짜순 ("all" / "unknown" 은 범위 밖)
+            criteria.and("d").gte(from != null ? from.toString() : "0000-00-00")
+                    .lte(to != null ? to.toString() : "9999-12-31");
+        } else if (DIMENSION_DAY.equals(dimension)) {
+            criteria.and("d").ne(ALL_DAYS);
+        } else {
+            criteria.and("d").is(ALL_DAYS);
+        }
+
+        Query query = new Query(criteria);
+        query.fields().include("d").include("k").include("count").include("records").exclude("_id");
+
+        // 키별 합계 (기간 조회는 일자 행을 더한다)
+        Map<String, long[]> totals = new HashMap<>();
+        for (Document row : mongoTemplate.find(query, Document.class, ROLLUP_COLLECTION)) {
+            String key = DIMENSION_DAY.equals(dimension) ? row.getString("d") : row.getString("k");
+            long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+            total[0] += longOf(row.get("count"));
+            total[1] += longOf(row.get("records"));
+        }
+
+        boolean leaked = TYPE_LEAKED.equals(type);
+        Comparator<StatsBucketDto> order = ORDERED_DIMENSIONS.contains(dimension)
+                ? Comparator.comparing(StatsBucketDto::getKey)
+                : Comparator.comparingLong(StatsBucketDto::getCount).reversed().thenComparing(StatsBucketDto::getKey);
+        return totals.entrySet().stream()
+                .filter(entry -> entry.getValue()[0] > 0)
+                .map(entry -> new StatsBucketDto(entry.getKey(), entry.getValue()[0], leaked ? entry.getValue()[1] : null))
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        // 서버가 채우는 파생 필드만 바뀐 경우는 집계 대상 필드가 그대로다
+        if (event.onlyTouches(DocumentContentHash.DERIVED_FIELDS)) return;
+
+        String type = event.isLeaked() ? TYPE_LEAKED : TYPE_VULNERABILITY;
+        String documentId = event.getDocumentId();
+        Document document = event.getFullDocument();
+        rollupExecutor.submit(() -> {
+            try {
+                Contribution next = event.getOperation() == DataChangeEvent.Operation.DELETE || document == null
+                        ? null
+                        : contributionOf(type, document);
+                apply(type, documentId, next);
+            } catch (Exception e) {
+                System.out.println("Stats rollup update failed for " + documentId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    // ======= 헬퍼 메서드 =======
+
+    /**
+     * 문서 하나의 기여분을 교체한다 (next 가 null 이면 삭제)
+     */
+    private void apply(String type, String documentId, Contribution next) {
+        String ledgerId = type + ":" + documentId;
+        Query byId = new Query(Criteria.where("_id").is(ledgerId));
+        Document previous = next == null
+                ? mongoTemplate.findAndRemove(byId, Document.class, LEDGER_COLLECTION)
+                : mongoTemplate.findAndReplace(byId, toLedger(ledgerId, next),
+                        FindAndReplaceOptions.options().upsert(), LEDGER_COLLECTION);
+
+        Contribution old = previous != null ? fromLedger(previous) : null;
+        if (Objects.equals(old, next)) return;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ROLLUP_COLLECTION);
+        if (old != null) {
+            forEachRow(type, old, (row, records) ->
+                    bulk.upsert(rowQuery(row), new Update().inc("count", -1).inc("records", -records)));
+        }
+        if (next != null) {
+            forEachRow(type, next, (row, records) ->
+                    bulk.upsert(rowQuery(row), new Update().inc("count", 1).inc("records", records)));
+        }
+        bulk.execute();
+    }
+
+    /**
+     * 원본 두 컬렉션을 읽어 메모리에서 집계한 뒤 장부와 집계 행을 한 번에 교체한다.
+     */
+    long rebuild() {
+        mongoTemplate.remove(new Query(), LEDGER_COLLECTION);
+
+        Map<RowKey, long[]> rows = new HashMap<>();
+        List<Document> ledger = new ArrayList<>(WRITE_BATCH_SIZE);
+        long count = 0;
+
+        for (String type : List.of(TYPE_LEAKED, TYPE_VULNERABILITY)) {
+            Query query = new Query();
+            if (TYPE_LEAKED.equals(type)) {
+                query.fields().include("uploadDate").include("host").include("leakType").include("recordsCount");
+            } else {
+                query.fields().include("uploadDate").include("host").include("vulnerabilityClass").include("cvss");
+            }
+            query.cursorBatchSize(1000);
+            String collection = TYPE_LEAKED.equals(type)
+                    ? DataChangeEvent.LEAKED_COLLECTION
+                    : DataChangeEvent.VULNERABILITY_COLLECTION;
+
+            try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, collection)) {
+                Iterator<Document> iterator = documents.iterator();
+                while (iterator.hasNext()) {
+                    Document document = iterator.next();
+                    Contribution contribution = contributionOf(type, document);
+                    forEachRow(type, contribution, (row, records) -> {
+                        long[] total = rows.computeIfAbsent(row, r -> new long[2]);
+                        total[0]++;
+                        total[1] += records;
+                    });
+
+                    ledger.add(toLedger(type + ":" + idOf(document.get("_id")), contribution));
+                    if (ledger.size() == WRITE_BATCH_SIZE) {
+                        mongoTemplate.getCollection(LEDGER_COLLECTION).insertMany(new ArrayList<>(ledger));
+                        ledger.clear();
+                    }
+                    count++;
+                }
+            }
+        }
+        if (!ledger.isEmpty()) {
+            mongoTemplate.getCollection(LEDGER_COLLECTION).insertMany(ledger);
+        }
+
+        List<Document> rollup = new ArrayList<>(rows.size());
+        rows.forEach((row, total) -> rollup.add(new Document("t", row.type()).append("dim", row.dimension())
+                .append("d", row.day()).append("k", row.key())
+                .append("count", total[0]).append("records", total[1])));
+
+        mongoTemplate.remove(new Query(), ROLLUP_COLLECTION);
+        for (int from = 0; from < rollup.size(); from += WRITE_BATCH_SIZE) {
+            mongoTemplate.getCollection(ROLLUP_COLLECTION)
+                    .insertMany(rollup.subList(from, Math.min(from + WRITE_BATCH_SIZE, rollup.size())));
+        }
+        return count;
+    }
+
+    private Contribution contributionOf(String type, Document document) {
+        List<String> keys = new ArrayList<>();
+        keys.add(DIMENSION_HOST + ":" + valueOf(document.get("host")));
+
+        long records = 0;
+        if (TYPE_LEAKED.equals(type)) {
+            keys.add(DIMENSION_LEAK_TYPE + ":" + valueOf(document.get("leakType")));
+            Long parsed = typedFieldNormalizer.parseRecordsCount(asString(document.get("recordsCount")));
+            records = parsed != null ? parsed : 0;
+        } else {
+            Object classes = document.get("vulnerabilityClass");
+            if (classes instanceof Collection<?> values && !values.isEmpty()) {
+                values.stream().map(this::valueOf).distinct()
+                        .forEach(value -> keys.add(DIMENSION_VULNERABILITY_CLASS + ":" + value));
+            } else {
+                keys.add(DIMENSION_VULNERABILITY_CLASS + ":" + valueOf(classes));
+            }
+            keys.add(DIMENSION_CVSS + ":" + cvssBucket(typedFieldNormalizer.parseCvss(asString(document.get("cvss")))));
+        }
+        keys.sort(null);
+
+        Date uploadDate = typedFieldNormalizer.parseUploadDate(asString(document.get("uploadDate")));
+        String day = uploadDate != null
+                ? uploadDate.toInstant().atZone(TypedFieldNormalizer.DEFAULT_ZONE).toLocalDate().toString()
+                : UNKNOWN;
+        return new Contribution(day, keys, records);
+    }
+
+    // 기여분이 더해지는 행: (일자, 전체) × (일자 합계 + 각 차원 키)
+    private void forEachRow(String type, Contribution contribution, RowConsumer consumer) {
+        for (String day : List.of(contribution.day(), ALL_DAYS)) {
+            consumer.accept(new RowKey(type, DIMENSION_DAY, day, ""), contribution.records());
+            for (String key : contribution.keys()) {
+                int separator = key.indexOf(':');
+                consumer.accept(new RowKey(type, key.substring(0, separator), day, key.substring(separator + 1)),
+                        contribution.records());
+            }
+        }
+    }
+
+    private Query rowQuery(RowKey row) {
+        return new Query(Criteria.where("t").is(row.type()).and("dim").is(row.dimension())
+                .and("d").is(row.day()).and("k").is(row.key()));
+    }
+
+    private Document toLedger(String ledgerId, Contribution contribution) {
+        return new Document("_id", ledgerId)
+                .append("d", contribution.day())
+                .append("keys", contribution.keys())
+                .append("r", contribution.records());
+    }
+
+    private Contribution fromLedger(Document document) {
+        return new Contribution(document.getString("d"), document.getList("keys", String.class),
+                longOf(document.get("r")));
+    }
+
+    // CVSS 0.0 ~ 10.0 을 정수 구간으로 (10.0 은 9 구간에 포함)
+    private String cvssBucket(Double score) {
+        if (score == null) return UNKNOWN;
+        return String.valueOf(Math.min(9, (int) Math.floor(score)));
+    }
+
+    private String valueOf(Object value) {
+        String text = asString(value);
+        return text == null || text.isBlank() ? UNKNOWN : text.trim();
+    }
+
+    private String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private long longOf(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    private String idOf(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+
+    private record Contribution(String day, List<String> keys, long records) {
+    }
+
+    private record RowKey(String type, String dimension, String day, String key) {
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(RowKey row, long records);
+    }
+}
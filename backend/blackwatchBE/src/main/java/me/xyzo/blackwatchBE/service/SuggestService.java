@@ -0,0 +1,262 @@
+package me.xyzo.blackwatchBE.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import me.xyzo.blackwatchBE.dto.FacetCountDto;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import me.xyzo.blackwatchBE.exception.ServiceUnavailableException;
+import me.xyzo.blackwatchBE.index.PrefixSuggester;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * /data/suggest 자동완성.
+ *
+ * (type, field) 별로 값 → 문서 수 를 메모리에 두고, 이를 정렬 배열(PrefixSuggester)로 만들어 조회한다.
+ * 새로 들어온 문서(insert)는 change stream 으로 바로 더하고 refresh-seconds 마다 배열을 다시 만든다.
+ * 수정 / 삭제는 이전 값을 알 수 없으므로 rebuild-minutes 마다 전체를 다시 세어 맞춘다 (그 사이 빈도는 근사값).
+ */
+@Service
+public class SuggestService implements DataChangeListener {
+
+    public static final String TYPE_LEAKED = "leaked";
+    public static final String TYPE_VULNERABILITY = "vulnerability";
+
+    public static final String FIELD_HOST = "host";
+    public static final String FIELD_AUTHOR = "author";
+    public static final String FIELD_PRODUCT = "product";
+    public static final String FIELD_CVE = "cve";
+
+    // 값이 이보다 길면 자동완성 대상에서 제외 (본문이 잘못 들어간 값 등)
+    private static final int MAX_VALUE_LENGTH = 200;
+
+    // (type, field) → 문서 필드
+    private static final Map<String, Map<String, String>> SOURCE_FIELDS = Map.of(
+            TYPE_LEAKED, Map.of(
+                    FIELD_HOST, "host",
+                    FIELD_AUTHOR, "author"),
+            TYPE_VULNERABILITY, Map.of(
+                    FIELD_HOST, "host",
+                    FIELD_AUTHOR, "author",
+                    FIELD_PRODUCT, "products",
+                    FIELD_CVE, "cveIdList"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TypedFieldNormalizer typedFieldNormalizer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${data.suggest.enabled:true}")
+    private boolean enabled;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggest-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // type:field → 값 → 문서 수
+    private volatile Map<String, Map<String, Long>> counts = Map.of();
+    private volatile Map<String, PrefixSuggester> suggesters = Map.of();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("blackwatch.data.suggest.values", this,
+                        service -> service.suggesters.values().stream().mapToLong(PrefixSuggester::size).sum())
+                .description("Distinct values available to /data/suggest")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.data.suggest.memory", this,
+                        service -> service.suggesters.values().stream().mapToLong(PrefixSuggester::memoryBytes).sum())
+                .description("Approximate heap used by /data/suggest prefix arrays")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildAsync();
+    }
+
+    @Scheduled(initialDelayString = "${data.suggest.rebuild-minutes:60}",
+            fixedDelayString = "${data.suggest.rebuild-minutes:60}", timeUnit = TimeUnit.MINUTES)
+    public void rebuild() {
+        rebuildAsync();
+    }
+
+    public synchronized boolean rebuildAsync() {
+        if (!enabled || rebuilding) return false;
+        rebuilding = true;
+        rebuildExecutor.submit(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                Map<String, Map<String, Long>> recounted = new ConcurrentHashMap<>();
+                long documents = 0;
+                for (String type : SOURCE_FIELDS.keySet()) {
+                    documents += countValues(type, recounted);
+                }
+                // 재집계 도중 들어온 insert 는 새 집계에 이미 포함되었거나 다음 재집계에서 맞춰진다
+                counts = recounted;
+                dirty.set(true);
+                ready = true;
+                refresh();
+                System.out.println("Suggest index rebuilt from " + documents + " documents in "
+                        + (System.currentTimeMillis() - started) + "ms");
+            } catch (Exception e) {
+                System.out.println("Suggest index rebuild failed: " + e.getMessage());
+            } finally {
+                rebuilding = false;
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        if (!enabled || !ready || event.getOperation() != DataChangeEvent.Operation.INSERT) return;
+        Document document = event.getFullDocument();
+        if (document == null) return;
+
+        String type = event.isLeaked() ? TYPE_LEAKED : TYPE_VULNERABILITY;
+        addValues(type, document, counts);
+        dirty.set(true);
+    }
+
+    /**
+     * 바뀐 빈도로 접두사 배열을 다시 만든다.
+     */
+    @Scheduled(fixedDelayString = "${data.suggest.refresh-seconds:5}", timeUnit = TimeUnit.SECONDS)
+    public synchronized void refresh() {
+        if (!enabled || !ready || !dirty.getAndSet(false)) return;
+        Map<String, PrefixSuggester> rebuilt = new HashMap<>();
+        counts.forEach((key, values) -> rebuilt.put(key, PrefixSuggester.build(values)));
+        suggesters = Map.copyOf(rebuilt);
+    }
+
+    /**
+     * prefix 로 시작하는 값 상위 limit 개. type 이 없으면 두 컬렉션의 빈도를 합친다.
+     */
+    public List<FacetCountDto> suggest(String type, String field, String prefix, int limit) {
+        if (type != null && !SOURCE_FIELDS.containsKey(type)) {
+            throw new BadRequestException("type 은 leaked, vulnerability 중에서 선택해주세요.");
+        }
+        List<String> types = type != null ? List.of(type) : List.of(TYPE_LEAKED, TYPE_VULNERABILITY);
+        if (types.stream().noneMatch(t -> SOURCE_FIELDS.get(t).containsKey(field))) {
+            throw new BadRequestException("지원하지 않는 field 입니다: " + field);
+        }
+        if (!enabled || !ready) {
+            throw new ServiceUnavailableException("자동완성 색인을 준비 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        String normalized = prefix != null ? prefix : "";
+        Map<String, PrefixSuggester> current = suggesters;
+        List<PrefixSuggester.Suggestion> merged = new ArrayList<>();
+        for (String t : types) {
+            PrefixSuggester suggester = current.get(t + ":" + field);
+            if (suggester != null) {
+                merged.addAll(suggester.suggest(normalized, limit));
+            }
+        }
+        if (types.size() == 1) {
+            return merged.stream().map(s -> new FacetCountDto(s.value(), s.weight())).toList();
+        }
+
+        // 양쪽 상위 limit 개를 키별로 합쳐 다시 고른다
+        Map<String, FacetCountDto> byKey = new LinkedHashMap<>();
+        for (PrefixSuggester.Suggestion suggestion : merged) {
+            byKey.merge(PrefixSuggester.key(suggestion.value()), new FacetCountDto(suggestion.value(), suggestion.weight()),
+                    (a, b) -> new FacetCountDto(a.getCount() >= b.getCount() ? a.getValue() : b.getValue(),
+                            a.getCount() + b.getCount()));
+        }
+        return byKey.values().stream()
+                .sorted(Comparator.comparingLong(FacetCountDto::getCount).reversed()
+                        .thenComparing(FacetCountDto::getValue))
+                .limit(limit)
+                .toList();
+    }
+
+    // ======= 헬퍼 메서드 =======
+
+    private long countValues(String type, Map<String, Map<String, Long>> target) {
+        String collection = TYPE_LEAKED.equals(type)
+                ? DataChangeEvent.LEAKED_COLLECTION
+                : DataChangeEvent.VULNERABILITY_COLLECTION;
+
+        Query query = new Query();
+        SOURCE_FIELDS.get(type).values().forEach(query.fields()::include);
+        if (TYPE_VULNERABILITY.equals(type)) {
+            // cveIdList 백필 전 문서는 cveIds 에서 계산
+            query.fields().include("cveIds");
+        }
+        query.cursorBatchSize(5000);
+
+        long documents = 0;
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class, collection)) {
+            Iterator<Document> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                addValues(type, iterator.next(), target);
+                documents++;
+            }
+        }
+        return documents;
+    }
+
+    private void addValues(String type, Document document, Map<String, Map<String, Long>> target) {
+        SOURCE_FIELDS.get(type).forEach((field, sourceField) -> {
+            Object raw = document.get(sourceField);
+            if (FIELD_CVE.equals(field) && (raw == null || (raw instanceof Collection<?> list && list.isEmpty()))) {
+                raw = typedFieldNormalizer.parseCveIds(document.getString("cveIds"));
+            }
+            Map<String, Long> values = target.computeIfAbsent(type + ":" + field, k -> new ConcurrentHashMap<>());
+            for (String value : stringValues(raw)) {
+                values.merge(value, 1L, Long::sum);
+            }
+        });
+    }
+
+    // 한 문서 안의 중복 값은 한 번만 센다
+    private Collection<String> stringValues(Object raw) {
+        if (raw == null) return List.of();
+        Collection<?> items = raw instanceof Collection<?> collection ? collection : List.of(raw);
+        List<String> values = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item == null) continue;
+            String value = item.toString().trim();
+            if (!value.isEmpty() && value.length() <= MAX_VALUE_LENGTH && !values.contains(value)) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+}
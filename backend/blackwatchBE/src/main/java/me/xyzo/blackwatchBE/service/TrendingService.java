@@ -0,0 +1,321 @@
+package me.xyzo.blackwatchBE.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import me.xyzo.blackwatchBE.dto.TrendingDto;
+import me.xyzo.blackwatchBE.dto.TrendingItemDto;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import me.xyzo.blackwatchBE.exception.ServiceUnavailableException;
+import me.xyzo.blackwatchBE.index.TrendingWindow;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * "지금 뜨는" CVE / 호스트 / IOC (/data/trending).
+ *
+ * 새로 들어온 문서(insert)의 CVE, host, IOC 언급을 change stream 으로 받아 창(hour, day) 별 TrendingWindow 에 더한다.
+ * 창 빈도는 구간별 Count-Min sketch 의 합으로, 평소 빈도는 끝난 구간을 섞은 EWMA baseline 으로 추정하고,
+ * 창 빈도가 높은 값만 후보로 따로 두므로 유입량과 무관하게 메모리가 고정이다.
+ *
+ * 기동 시에는 최근 prime-days 일 동안 생성된 문서를 _id(생성 시각) 순서로 한 번만 다시 넣어 baseline 을 채운다.
+ * 그동안 들어온 변경은 모아 두었다가 끝난 뒤 반영한다. 이후에는 Mongo 를 다시 집계하지 않는다.
+ */
+@Service
+public class TrendingService implements DataChangeListener {
+
+    public static final String TYPE_CVE = "cve";
+    public static final String TYPE_HOST = "host";
+    public static final String TYPE_IOC = "ioc";
+
+    public static final String WINDOW_HOUR = "hour";
+    public static final String WINDOW_DAY = "day";
+
+    private static final List<String> TYPES = List.of(TYPE_CVE, TYPE_HOST, TYPE_IOC);
+
+    // 값이 이보다 길면 집계하지 않는다 (본문이 잘못 들어간 값 등)
+    private static final int MAX_VALUE_LENGTH = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TypedFieldNormalizer typedFieldNormalizer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${data.trending.enabled:true}")
+    private boolean enabled;
+
+    @Value("${data.trending.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${data.trending.sketch-width:2048}")
+    private int sketchWidth;
+
+    @Value("${data.trending.candidates:500}")
+    private int candidates;
+
+    @Value("${data.trending.min-count:10}")
+    private long minCount;
+
+    @Value("${data.trending.spike-ratio:3.0}")
+    private double spikeRatio;
+
+    @Value("${data.trending.hour-baseline-hours:24}")
+    private long hourBaselineHours;
+
+    @Value("${data.trending.day-baseline-days:7}")
+    private long dayBaselineDays;
+
+    @Value("${data.trending.prime-days:7}")
+    private long primeDays;
+
+    // 유형 → 창 → 추적기
+    private final Map<String, Map<String, TrendingWindow>> windows = new LinkedHashMap<>();
+
+    // 기동 시 과거 문서를 다시 넣는 동안 들어온 언급
+    private record Mention(String type, String value, long timeMillis) {}
+
+    private final Queue<Mention> pending = new ConcurrentLinkedQueue<>();
+    private volatile boolean ready;
+
+    private final Map<String, Counter> mentionCounters = new HashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        for (String type : TYPES) {
+            Map<String, TrendingWindow> byWindow = new LinkedHashMap<>();
+            byWindow.put(WINDOW_HOUR, new TrendingWindow(Duration.ofMinutes(1), 60,
+                    Duration.ofHours(hourBaselineHours), sketchDepth, sketchWidth, candidates));
+            byWindow.put(WINDOW_DAY, new TrendingWindow(Duration.ofHours(1), 24,
+                    Duration.ofDays(dayBaselineDays), sketchDepth, sketchWidth, candidates));
+            windows.put(type, byWindow);
+
+            mentionCounters.put(type, Counter.builder("blackwatch.trending.mentions")
+                    .description("CVE / host / IOC mentions fed into trending detection")
+                    .tag("type", type).register(meterRegistry));
+        }
+        Gauge.builder("blackwatch.trending.memory", this, service -> service.windows.values().stream()
+                        .flatMap(byWindow -> byWindow.values().stream())
+                        .mapToLong(TrendingWindow::memoryBytes).sum())
+                .description("Fixed heap used by trending sketches and heavy-hitter candidates")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void primeOnStartup() {
+        if (!enabled) return;
+
+        Thread loader = new Thread(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                long documents = prime(started);
+                System.out.println("Trending sketches primed from " + documents + " documents in "
+                        + (System.currentTimeMillis() - started) + "ms");
+            } catch (Exception e) {
+                System.out.println("Trending sketch priming failed: " + e.getMessage());
+            } finally {
+                synchronized (this) {
+                    Mention mention;
+                    while ((mention = pending.poll()) != null) {
+                        record(mention.type(), mention.value(), mention.timeMillis());
+                    }
+                    ready = true;
+                }
+            }
+        }, "trending-prime");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        if (!enabled || event.getOperation() != DataChangeEvent.Operation.INSERT) return;
+        Document document = event.getFullDocument();
+        if (document == null) return;
+
+        long now = System.currentTimeMillis();
+        Map<String, Set<String>> mentions = mentions(event.isLeaked(), document);
+        if (!ready) {
+            synchronized (this) {
+                if (!ready) {
+                    mentions.forEach((type, values) -> values.forEach(value -> pending.add(new Mention(type, value, now))));
+                    return;
+                }
+            }
+        }
+        mentions.forEach((type, values) -> values.forEach(value -> record(type, value, now)));
+    }
+
+    /**
+     * 언급이 없어도 구간이 넘어가도록 창을 현재 시각으로 옮긴다 (조회 시에도 옮기므로 빠르게 돌 필요는 없다).
+     */
+    @Scheduled(fixedDelayString = "${data.trending.tick-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void tick() {
+        if (!enabled || !ready) return;
+        long now = System.currentTimeMillis();
+        windows.values().forEach(byWindow -> byWindow.values().forEach(window -> window.advanceTo(now)));
+    }
+
+    /**
+     * window(hour, day) 의 유형별 급상승 값. type 이 없으면 모든 유형. spikesOnly 면 spiking 인 값만.
+     */
+    public TrendingDto trending(String type, String window, int limit, boolean spikesOnly) {
+        if (type != null && !TYPES.contains(type)) {
+            throw new BadRequestException("type 은 cve, host, ioc 중에서 선택해주세요.");
+        }
+        if (!WINDOW_HOUR.equals(window) && !WINDOW_DAY.equals(window)) {
+            throw new BadRequestException("window 는 hour, day 중에서 선택해주세요.");
+        }
+        if (!enabled || !ready) {
+            throw new ServiceUnavailableException("급상승 집계를 준비 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        long now = System.currentTimeMillis();
+        boolean warmingUp = false;
+        Map<String, List<TrendingItemDto>> items = new LinkedHashMap<>();
+        for (String t : type != null ? List.of(type) : TYPES) {
+            TrendingWindow tracker = windows.get(t).get(window);
+            warmingUp |= tracker.isWarmingUp();
+
+            List<TrendingItemDto> trends = new ArrayList<>();
+            // spikesOnly 면 걸러낸 뒤에도 limit 개가 남도록 후보 전체를 본다
+            for (TrendingWindow.Trend trend : tracker.trending(now, spikesOnly ? Integer.MAX_VALUE : limit, minCount)) {
+                boolean spiking = trend.ratio() >= spikeRatio;
+                if (spikesOnly && !spiking) continue;
+                trends.add(new TrendingItemDto(trend.value(), trend.count(), trend.expected(),
+                        trend.ratio(), trend.score(), spiking));
+                if (trends.size() >= limit) break;
+            }
+            items.put(t, trends);
+        }
+        return new TrendingDto(window, warmingUp, items);
+    }
+
+    // ======= 내부 메서드 =======
+
+    private void record(String type, String value, long timeMillis) {
+        for (TrendingWindow window : windows.get(type).values()) {
+            window.add(value, timeMillis);
+        }
+        mentionCounters.get(type).increment();
+    }
+
+    /**
+     * 두 컬렉션에서 [now - prime-days, now) 에 생성된 문서를 _id 순서로 합쳐 다시 넣는다.
+     */
+    private long prime(long now) {
+        ObjectId from = minObjectId(now - TimeUnit.DAYS.toMillis(primeDays));
+        ObjectId to = minObjectId(now);
+
+        long documents = 0;
+        try (Stream<Document> leaked = primeStream(DataChangeEvent.LEAKED_COLLECTION, from, to, "host", "iocs");
+             Stream<Document> vulnerabilities = primeStream(DataChangeEvent.VULNERABILITY_COLLECTION, from, to,
+                     "host", "cveIdList", "cveIds")) {
+            Iterator<Document> leakedIterator = leaked.iterator();
+            Iterator<Document> vulnerabilityIterator = vulnerabilities.iterator();
+            Document nextLeaked = leakedIterator.hasNext() ? leakedIterator.next() : null;
+            Document nextVulnerability = vulnerabilityIterator.hasNext() ? vulnerabilityIterator.next() : null;
+
+            while (nextLeaked != null || nextVulnerability != null) {
+                boolean takeLeaked = nextVulnerability == null || (nextLeaked != null
+                        && nextLeaked.getObjectId("_id").compareTo(nextVulnerability.getObjectId("_id")) <= 0);
+                Document document = takeLeaked ? nextLeaked : nextVulnerability;
+                long timeMillis = document.getObjectId("_id").getDate().getTime();
+                mentions(takeLeaked, document).forEach((type, values) ->
+                        values.forEach(value -> record(type, value, timeMillis)));
+                documents++;
+
+                if (takeLeaked) {
+                    nextLeaked = leakedIterator.hasNext() ? leakedIterator.next() : null;
+                } else {
+                    nextVulnerability = vulnerabilityIterator.hasNext() ? vulnerabilityIterator.next() : null;
+                }
+            }
+        }
+        return documents;
+    }
+
+    // ObjectId _id 범위 조건이므로 문자열 _id 문서는 제외된다 (생성 시각을 알 수 없음)
+    private Stream<Document> primeStream(String collection, ObjectId from, ObjectId to, String... fields) {
+        Query query = new Query(Criteria.where("_id").gte(from).lt(to)).with(Sort.by("_id"));
+        for (String field : fields) {
+            query.fields().include(field);
+        }
+        query.cursorBatchSize(5000);
+        return mongoTemplate.stream(query, Document.class, collection);
+    }
+
+    // 문서 하나의 유형별 언급 (한 문서 안의 중복은 한 번만)
+    private Map<String, Set<String>> mentions(boolean leaked, Document document) {
+        Map<String, Set<String>> mentions = new LinkedHashMap<>();
+        mentions.put(TYPE_HOST, new LinkedHashSet<>(values(document.get("host"))));
+
+        if (leaked) {
+            Set<String> iocs = new LinkedHashSet<>();
+            for (String raw : values(document.get("iocs"))) {
+                IocNormalizer.Ioc ioc = IocNormalizer.normalize(raw);
+                if (ioc != null) iocs.add(ioc.key());
+            }
+            mentions.put(TYPE_IOC, iocs);
+        } else {
+            List<String> cves = values(document.get("cveIdList"));
+            if (cves.isEmpty()) {
+                // cveIdList 백필 전 문서는 cveIds 에서 계산
+                cves = typedFieldNormalizer.parseCveIds(document.getString("cveIds"));
+            }
+            Set<String> normalized = new LinkedHashSet<>();
+            cves.forEach(cve -> normalized.add(TypedFieldNormalizer.normalizeCveId(cve)));
+            mentions.put(TYPE_CVE, normalized);
+        }
+        return mentions;
+    }
+
+    private List<String> values(Object raw) {
+        if (raw == null) return List.of();
+        Collection<?> items = raw instanceof Collection<?> collection ? collection : List.of(raw);
+        List<String> values = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (!(item instanceof String string)) continue;
+            String value = string.trim();
+            if (!value.isEmpty() && value.length() <= MAX_VALUE_LENGTH) values.add(value);
+        }
+        return values;
+    }
+
+    // 해당 시각 이전에 생성된 ObjectId 보다 크거나 같은 최소 ObjectId
+    private ObjectId minObjectId(long millis) {
+        return new ObjectId(String.format("%08x", Math.max(0, millis / 1000)) + "0000000000000000");
+    }
+}
@@ -0,0 +1,436 @@
+package me.xyzo.blackwatchBE.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import me.xyzo.blackwatchBE.index.TrigramIndex;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * pathContains / titleContains / iocContains 부분 일치 필터용 trigram 색인.
+ *
+ * DataQueryBuilder 는 세 글자 이상인 부분 일치 조건을 만들 때 이 색인에서 후보 _id 를 받아 $in 조건을 함께 건다.
+ * 정규식 조건은 그대로 남겨 최종 확인에 쓰므로, Mongo 는 컬렉션 전체 대신 후보 문서만 읽고 정규식을 검사한다.
+ * 색인이 준비되지 않았거나 후보가 max-candidates 를 넘으면 좁히지 않고 기존처럼 정규식만으로 조회한다.
+ *
+ * 색인은 변경 스트림으로 뒤따라가므로 최종 일관성이다. 방금 쓰인 문서는 이벤트가 반영되기 전까지 후보에 없을 수 있어,
+ * 변경 스트림이 멈췄거나 max-lag-seconds 보다 뒤처져 있으면 좁히지 않는다. 그 이하의 지연 동안에는
+ * 막 추가 / 수정된 문서가 부분 일치 결과에서 잠시 빠질 수 있다.
+ *
+ * 컬렉션마다 스냅샷 파일을 두고, 기동 시 스냅샷을 읽은 뒤 contentHash 가 달라졌거나 새로 생긴 문서만 다시 읽는다.
+ * 이후 변경은 변경 스트림으로 반영한다. 바뀐 문서의 이전 순번은 rebuild-hours 마다, 또는 죽은 순번이
+ * 살아 있는 문서 수를 넘으면 전체 재구축으로 정리한다.
+ */
+@Service
+public class TrigramIndexService implements DataChangeListener {
+
+    private static final int SNAPSHOT_MAGIC = 0x42575447; // "BWTG"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int FETCH_BATCH_SIZE = 1000;
+
+    private static final Map<String, List<String>> FIELDS = Map.of(
+            DataChangeEvent.LEAKED_COLLECTION, List.of("path", "title", "iocs"),
+            DataChangeEvent.VULNERABILITY_COLLECTION, List.of("path", "title"));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataChangeStreamService dataChangeStreamService;
+
+    @Value("${data.trigram.enabled:true}")
+    private boolean enabled;
+
+    @Value("${data.trigram.snapshot-dir:./data/trigram}")
+    private String snapshotDir;
+
+    @Value("${data.trigram.max-candidates:10000}")
+    private int maxCandidates;
+
+    // 변경 스트림이 이보다 뒤처져 있으면 색인이 최근 쓰기를 놓쳤을 수 있으므로 좁히지 않는다
+    @Value("${data.trigram.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trigram-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 컬렉션 하나의 색인 상태. 재구축 중에는 새 색인(building)에도 변경을 반영하고,
+     * 그동안 바뀐 id 는 재구축이 끝난 뒤 Mongo 에서 다시 읽어 덮어쓴다.
+     */
+    private static final class CollectionIndex {
+        final String collection;
+        final List<String> fields;
+        volatile TrigramIndex index;
+        volatile TrigramIndex building;
+        final Set<String> changedDuringBuild = ConcurrentHashMap.newKeySet();
+        volatile boolean ready;
+        volatile boolean rebuilding;
+        volatile long snapshotModifications = -1;
+
+        CollectionIndex(String collection, List<String> fields) {
+            this.collection = collection;
+            this.fields = fields;
+            this.index = new TrigramIndex(fields);
+        }
+    }
+
+    private final Map<String, CollectionIndex> indexes = new HashMap<>();
+
+    private Counter narrowedQueries;
+    private Counter skippedQueries;
+
+    @PostConstruct
+    public void registerMetrics() {
+        for (Map.Entry<String, List<String>> entry : FIELDS.entrySet()) {
+            CollectionIndex state = new CollectionIndex(entry.getKey(), entry.getValue());
+            indexes.put(entry.getKey(), state);
+
+            Gauge.builder("blackwatch.trigram.documents", state, s -> s.index.size())
+                    .description("Documents in the substring filter trigram index")
+                    .tag("collection", entry.getKey()).register(meterRegistry);
+            Gauge.builder("blackwatch.trigram.grams", state, s -> s.index.trigramCount())
+                    .description("Distinct trigrams in the substring filter trigram index")
+                    .tag("collection", entry.getKey()).register(meterRegistry);
+            Gauge.builder("blackwatch.trigram.memory", state, s -> s.index.memoryBytes())
+                    .description("Approximate heap used by the substring filter trigram index")
+                    .baseUnit("bytes")
+                    .tag("collection", entry.getKey()).register(meterRegistry);
+        }
+        narrowedQueries = Counter.builder("blackwatch.trigram.queries")
+                .description("Substring filters checked against the trigram index")
+                .tag("result", "narrowed").register(meterRegistry);
+        skippedQueries = Counter.builder("blackwatch.trigram.queries")
+                .description("Substring filters checked against the trigram index")
+                .tag("result", "skipped").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) return;
+        for (CollectionIndex state : indexes.values()) {
+            rebuildExecutor.submit(() -> initialize(state));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${data.trigram.rebuild-hours:24}",
+            fixedDelayString = "${data.trigram.rebuild-hours:24}", timeUnit = TimeUnit.HOURS)
+    public void rebuild() {
+        for (CollectionIndex state : indexes.values()) {
+            rebuildAsync(state);
+        }
+    }
+
+    /**
+     * substrings(필드 → 부분 일치 값) 를 모두 만족할 수 있는 후보 _id.
+     * 좁힐 수 없으면(준비 전, 변경 스트림 지연, 세 글자 미만, 후보가 너무 많음) null 이며 이때는 정규식만으로 조회해야 한다.
+     */
+    public List<String> candidates(String collection, Map<String, String> substrings) {
+        CollectionIndex state = indexes.get(collection);
+        if (!enabled || state == null || !state.ready || substrings.isEmpty()) return null;
+        if (dataChangeStreamService.lagMillis() > TimeUnit.SECONDS.toMillis(maxLagSeconds)) {
+            skippedQueries.increment();
+            return null;
+        }
+
+        TrigramIndex index = state.index;
+        RoaringBitmap matches = null;
+        for (Map.Entry<String, String> entry : substrings.entrySet()) {
+            RoaringBitmap candidates = index.candidates(entry.getKey(), entry.getValue());
+            if (candidates == null) continue;
+            matches = matches == null ? candidates : RoaringBitmap.and(matches, candidates);
+        }
+
+        if (matches == null || matches.getCardinality() > maxCandidates) {
+            skippedQueries.increment();
+            return null;
+        }
+        narrowedQueries.increment();
+        return index.ids(matches);
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        CollectionIndex state = indexes.get(event.getCollection());
+        if (!enabled || state == null) return;
+
+        if (event.getOperation() == DataChangeEvent.Operation.DELETE) {
+            state.index.remove(event.getDocumentId());
+            TrigramIndex next = state.building;
+            if (next != null) {
+                next.remove(event.getDocumentId());
+                state.changedDuringBuild.add(event.getDocumentId());
+            }
+            return;
+        }
+
+        Document document = event.getFullDocument();
+        if (document == null || state.fields.stream().noneMatch(event::touches)) return;
+
+        Map<String, List<String>> values = values(document, state.fields);
+        String contentHash = document.getString(DocumentContentHash.FIELD);
+        state.index.put(event.getDocumentId(), contentHash, values);
+        TrigramIndex next = state.building;
+        if (next != null) {
+            next.put(event.getDocumentId(), contentHash, values);
+            state.changedDuringBuild.add(event.getDocumentId());
+        }
+    }
+
+    /**
+     * 바뀐 색인을 스냅샷으로 남긴다. 죽은 순번이 너무 많으면 대신 재구축한다.
+     */
+    @Scheduled(fixedDelayString = "${data.trigram.snapshot-interval-seconds:600}",
+            initialDelayString = "${data.trigram.snapshot-interval-seconds:600}", timeUnit = TimeUnit.SECONDS)
+    public void snapshotIfChanged() {
+        for (CollectionIndex state : indexes.values()) {
+            TrigramIndex index = state.index;
+            if (!state.ready || state.rebuilding) continue;
+            if (index.deadCount() > Math.max(index.size(), 10000)) {
+                rebuildAsync(state);
+            } else if (index.modifications() != state.snapshotModifications) {
+                writeSnapshot(state);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        rebuildExecutor.shutdownNow();
+        for (CollectionIndex state : indexes.values()) {
+            if (state.ready && !state.rebuilding && state.index.modifications() != state.snapshotModifications) {
+                writeSnapshot(state);
+            }
+        }
+    }
+
+    // ======= 내부 메서드 =======
+
+    private void initialize(CollectionIndex state) {
+        Path path = snapshotPath(state);
+        if (Files.exists(path)) {
+            try {
+                TrigramIndex loaded = readSnapshot(path, state.fields);
+                state.index = loaded;
+                int refreshed = catchUp(state, loaded);
+                state.ready = true;
+                System.out.println("Trigram index for " + state.collection + " loaded from snapshot ("
+                        + loaded.size() + " documents, " + refreshed + " refreshed)");
+                if (refreshed > 0) writeSnapshot(state);
+                return;
+            } catch (Exception e) {
+                System.out.println("Trigram index snapshot for " + state.collection + " unusable, rebuilding: " + e.getMessage());
+            }
+        }
+        build(state);
+    }
+
+    private synchronized void rebuildAsync(CollectionIndex state) {
+        if (!enabled || state.rebuilding) return;
+        state.rebuilding = true;
+        rebuildExecutor.submit(() -> build(state));
+    }
+
+    private void build(CollectionIndex state) {
+        state.rebuilding = true;
+        try {
+            long started = System.currentTimeMillis();
+            TrigramIndex next = new TrigramIndex(state.fields);
+            state.changedDuringBuild.clear();
+            state.building = next;
+
+            Query query = new Query();
+            includeFields(query, state.fields);
+            query.cursorBatchSize(5000);
+            try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, state.collection)) {
+                Iterator<Document> iterator = documents.iterator();
+                while (iterator.hasNext()) {
+                    put(next, iterator.next(), state.fields);
+                }
+            }
+
+            // 스트림이 읽은 값이 변경 스트림보다 오래되었을 수 있으므로 그동안 바뀐 문서는 다시 읽는다
+            List<String> changed = new ArrayList<>(state.changedDuringBuild);
+            refetch(state, next, changed);
+
+            state.index = next;
+            state.building = null;
+            state.ready = true;
+            System.out.println("Trigram index for " + state.collection + " built: " + next.size() + " documents, "
+                    + next.trigramCount() + " trigrams, " + (next.memoryBytes() / 1024) + "KB in "
+                    + (System.currentTimeMillis() - started) + "ms");
+            writeSnapshot(state);
+        } catch (Exception e) {
+            System.out.println("Trigram index build for " + state.collection + " failed: " + e.getMessage());
+        } finally {
+            state.building = null;
+            state.rebuilding = false;
+        }
+    }
+
+    /**
+     * 스냅샷 이후 바뀐 문서를 반영한다. contentHash 가 다르거나 없는 문서는 다시 읽고, 없어진 문서는 지운다.
+     */
+    private int catchUp(CollectionIndex state, TrigramIndex index) {
+        Query query = new Query();
+        query.fields().include("_id").include(DocumentContentHash.FIELD);
+        query.cursorBatchSize(5000);
+
+        Set<String> seen = new HashSet<>();
+        List<String> changed = new ArrayList<>();
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, state.collection)) {
+            Iterator<Document> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                String id = idToString(document.get("_id"));
+                String contentHash = document.getString(DocumentContentHash.FIELD);
+                seen.add(id);
+                if (contentHash == null || !contentHash.equals(index.contentHash(id))) {
+                    changed.add(id);
+                }
+            }
+        }
+
+        List<String> removed = new ArrayList<>();
+        index.forEachDocument((id, contentHash) -> {
+            if (!seen.contains(id)) removed.add(id);
+        });
+        removed.forEach(index::remove);
+
+        refetch(state, index, changed);
+        return changed.size() + removed.size();
+    }
+
+    // ids 문서를 Mongo 에서 다시 읽어 색인에 덮어쓴다 (없어졌으면 지운다)
+    private void refetch(CollectionIndex state, TrigramIndex index, List<String> ids) {
+        for (int from = 0; from < ids.size(); from += FETCH_BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + FETCH_BATCH_SIZE, ids.size()));
+            List<Object> mongoIds = batch.stream().map(id -> (Object) (ObjectId.isValid(id) ? new ObjectId(id) : id)).toList();
+
+            Query query = new Query(Criteria.where("_id").in(mongoIds));
+            includeFields(query, state.fields);
+            Set<String> found = new HashSet<>();
+            for (Document document : mongoTemplate.find(query, Document.class, state.collection)) {
+                found.add(put(index, document, state.fields));
+            }
+            for (String id : batch) {
+                if (!found.contains(id)) index.remove(id);
+            }
+        }
+    }
+
+    private String put(TrigramIndex index, Document document, List<String> fields) {
+        String id = idToString(document.get("_id"));
+        index.put(id, document.getString(DocumentContentHash.FIELD), values(document, fields));
+        return id;
+    }
+
+    private void includeFields(Query query, List<String> fields) {
+        query.fields().include(DocumentContentHash.FIELD);
+        for (String field : fields) {
+            query.fields().include(field);
+        }
+    }
+
+    private Map<String, List<String>> values(Document document, List<String> fields) {
+        Map<String, List<String>> values = new HashMap<>();
+        for (String field : fields) {
+            Object value = document.get(field);
+            if (value instanceof Collection<?> collection) {
+                values.put(field, collection.stream().filter(String.class::isInstance).map(String.class::cast).toList());
+            } else if (value instanceof String string) {
+                values.put(field, List.of(string));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 스냅샷: [magic][version][작성 시각 millis][색인]. 임시 파일에 쓴 뒤 원자적으로 교체한다.
+     */
+    private synchronized void writeSnapshot(CollectionIndex state) {
+        TrigramIndex index = state.index;
+        Path path = snapshotPath(state);
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+            long modifications = index.modifications();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(System.currentTimeMillis());
+                index.writeTo(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            state.snapshotModifications = modifications;
+        } catch (Exception e) {
+            System.out.println("Trigram index snapshot for " + state.collection + " failed: " + e.getMessage());
+        }
+    }
+
+    private TrigramIndex readSnapshot(Path path, List<String> fields) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("unsupported snapshot format");
+            }
+            in.readLong(); // 작성 시각 (이어받기는 contentHash 로 판단)
+            TrigramIndex loaded = TrigramIndex.readFrom(in);
+            if (!loaded.fields().equals(fields)) {
+                throw new IOException("indexed fields changed");
+            }
+            return loaded;
+        }
+    }
+
+    private Path snapshotPath(CollectionIndex state) {
+        return Path.of(snapshotDir).resolve(state.collection + ".bin");
+    }
+
+    private static String idToString(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+}
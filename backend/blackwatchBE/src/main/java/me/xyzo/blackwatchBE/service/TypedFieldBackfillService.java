@@ -0,0 +1,263 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 타입 필드가 없는 문서(기존 데이터, 크롤러 서버가 직접 넣은 문서)를 배치 단위로 채운다.
+ * 기동 직후 한 번 전체를 채우고, 이후에는 change stream 이 멈춰 있던 동안 들어온 문서만 다시 찾는다.
+ * (스트림이 정상이면 아래 리스너가 신규 / 수정 문서를 채우므로 주기 실행은 조회 없이 끝난다.
+ *  exists(false) / iocKeys 정규식 조회는 인덱스를 타지 않으므로 매 주기 실행하지 않는다)
+ * 파싱할 수 없는 값도 null 로 기록해 다시 조회되지 않게 한다.
+ * change stream 으로 받은 신규 문서는 주기를 기다리지 않고 바로 채우고, 원본 필드가 수정되면 다시 계산한다.
+ * 같은 방식으로 문서 내용 해시(contentHash, ETag 기준)도 채우고, 크롤러가 내용을 수정하면 다시 계산한다.
+ * 유출 데이터의 IOC 키(iocKeys)도 같은 방식으로 채우고, iocs 가 바뀌면 다시 계산한다.
+ */
+@Service
+public class TypedFieldBackfillService implements DataChangeListener {
+
+    private static final String LEAKED_COLLECTION = "col_leaked";
+    private static final String VULNERABILITY_COLLECTION = "col_vulnerability";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TypedFieldNormalizer typedFieldNormalizer;
+
+    @Autowired
+    private DataChangeStreamService dataChangeStreamService;
+
+    @Value("${data.typed-fields.backfill-batch-size:1000}")
+    private int batchSize;
+
+    // 전체 백필을 한 번 끝까지 마쳤는지
+    private volatile boolean completed;
+    // change stream 이 멈춰 있던 적이 있어 리스너가 놓친 문서가 있을 수 있는지
+    private volatile boolean streamGap;
+
+    @Scheduled(fixedDelayString = "${data.typed-fields.backfill-interval-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void backfill() {
+        boolean streamHealthy = dataChangeStreamService.isHealthy();
+        if (!streamHealthy) streamGap = true;
+        if (completed && !streamGap) return;
+
+        try {
+            int leaked = backfillLeaked();
+            int vulnerability = backfillVulnerability();
+            if (leaked > 0 || vulnerability > 0) {
+                System.out.println("Typed field backfill updated " + leaked + " leaked / "
+                        + vulnerability + " vulnerability documents");
+            }
+
+            int iocs = backfillIocKeys();
+            if (iocs > 0) {
+                System.out.println("IOC key backfill updated " + iocs + " leaked documents");
+            }
+
+            int hashed = backfillContentHash(LEAKED_COLLECTION) + backfillContentHash(VULNERABILITY_COLLECTION);
+            if (hashed > 0) {
+                System.out.println("Content hash backfill updated " + hashed + " documents");
+            }
+
+            // 스트림이 멈춰 있는 동안에는 매 주기 실행하고, 정상으로 돌아온 뒤 한 번 더 훑고 멈춘다
+            completed = true;
+            streamGap = !streamHealthy;
+        } catch (Exception e) {
+            System.out.println("Typed field backfill failed: " + e.getMessage());
+        }
+    }
+
+    public int backfillLeaked() {
+        int updated = 0;
+        while (true) {
+            Query query = new Query(Criteria.where("uploadDateTs").exists(false)).limit(batchSize);
+            query.fields().include("uploadDate").include("recordsCount");
+
+            List<Document> documents = mongoTemplate.find(query, Document.class, LEAKED_COLLECTION);
+            if (documents.isEmpty()) break;
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LEAKED_COLLECTION);
+            for (Document document : documents) {
+                Update update = new Update()
+                        .set("uploadDateTs", typedFieldNormalizer.parseUploadDate(asString(document.get("uploadDate"))))
+                        .set("recordsCountNum", typedFieldNormalizer.parseRecordsCount(asString(document.get("recordsCount"))));
+                bulk.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))), update);
+            }
+            bulk.execute();
+
+            updated += documents.size();
+            if (documents.size() < batchSize) break;
+        }
+        return updated;
+    }
+
+    public int backfillVulnerability() {
+        int updated = 0;
+        while (true) {
+            Query query = new Query(new Criteria().orOperator(
+                    Criteria.where("cvssScore").exists(false),
+                    Criteria.where("uploadDateTs").exists(false))).limit(batchSize);
+            query.fields().include("uploadDate").include("cvss").include("cveIds");
+
+            List<Document> documents = mongoTemplate.find(query, Document.class, VULNERABILITY_COLLECTION);
+            if (documents.isEmpty()) break;
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, VULNERABILITY_COLLECTION);
+            for (Document document : documents) {
+                Update update = new Update()
+                        .set("uploadDateTs", typedFieldNormalizer.parseUploadDate(asString(document.get("uploadDate"))))
+                        .set("cvssScore", typedFieldNormalizer.parseCvss(asString(document.get("cvss"))))
+                        .set("cveIdList", typedFieldNormalizer.parseCveIds(asString(document.get("cveIds"))));
+                bulk.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))), update);
+            }
+            bulk.execute();
+
+            updated += documents.size();
+            if (documents.size() < batchSize) break;
+        }
+        return updated;
+    }
+
+    /**
+     * iocKeys 가 없는 유출 문서에 정규화된 IOC 키를 채운다 (IOC 가 없으면 빈 배열).
+     * 해시를 wallet 으로 분류해 저장한 문서도 다시 계산한다.
+     */
+    public int backfillIocKeys() {
+        int updated = 0;
+        while (true) {
+            Query query = new Query(new Criteria().orOperator(
+                    Criteria.where(IocNormalizer.FIELD).exists(false),
+                    Criteria.where(IocNormalizer.FIELD).regex(IocNormalizer.MISTYPED_HASH_KEY))).limit(batchSize);
+            query.fields().include("iocs");
+
+            List<Document> documents = mongoTemplate.find(query, Document.class, LEAKED_COLLECTION);
+            if (documents.isEmpty()) break;
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LEAKED_COLLECTION);
+            for (Document document : documents) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))),
+                        new Update().set(IocNormalizer.FIELD, IocNormalizer.keys(iocsOf(document))));
+            }
+            bulk.execute();
+
+            updated += documents.size();
+            if (documents.size() < batchSize) break;
+        }
+        return updated;
+    }
+
+    /**
+     * contentHash 가 없는 문서(기존 데이터, change stream 이 꺼져 있던 동안 들어온 문서)에 내용 해시를 채운다.
+     * 해시는 문서 전체로 계산하므로 projection 없이 읽는다.
+     */
+    public int backfillContentHash(String collection) {
+        int updated = 0;
+        while (true) {
+            Query query = new Query(Criteria.where(DocumentContentHash.FIELD).exists(false)).limit(batchSize);
+
+            List<Document> documents = mongoTemplate.find(query, Document.class, collection);
+            if (documents.isEmpty()) break;
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document document : documents) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))),
+                        new Update().set(DocumentContentHash.FIELD, DocumentContentHash.of(document)));
+            }
+            bulk.execute();
+
+            updated += documents.size();
+            if (documents.size() < batchSize) break;
+        }
+        return updated;
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        if (event.getOperation() == DataChangeEvent.Operation.DELETE) return;
+        // 이 서비스가 기록한 파생 필드만 바뀐 update 는 다시 처리하지 않는다
+        if (event.onlyTouches(DocumentContentHash.DERIVED_FIELDS)) return;
+
+        Document document = event.getFullDocument();
+        if (document == null) return;
+
+        boolean created = event.getOperation() == DataChangeEvent.Operation.INSERT
+                || event.getOperation() == DataChangeEvent.Operation.REPLACE;
+        try {
+            Update update = new Update();
+            // 원본 문자열이 바뀌었거나 아직 타입 필드가 없으면 다시 계산 (크롤러의 $set 도 포함)
+            if (event.isLeaked() && (event.touches("uploadDate") || event.touches("recordsCount")
+                    || !document.containsKey("uploadDateTs"))) {
+                setIfChanged(update, document, "uploadDateTs",
+                        typedFieldNormalizer.parseUploadDate(asString(document.get("uploadDate"))));
+                setIfChanged(update, document, "recordsCountNum",
+                        typedFieldNormalizer.parseRecordsCount(asString(document.get("recordsCount"))));
+            } else if (event.isVulnerability()) {
+                if (event.touches("uploadDate") || !document.containsKey("uploadDateTs")) {
+                    setIfChanged(update, document, "uploadDateTs",
+                            typedFieldNormalizer.parseUploadDate(asString(document.get("uploadDate"))));
+                }
+                if (event.touches("cvss") || event.touches("cveIds") || !document.containsKey("cvssScore")) {
+                    setIfChanged(update, document, "cvssScore",
+                            typedFieldNormalizer.parseCvss(asString(document.get("cvss"))));
+                    setIfChanged(update, document, "cveIdList",
+                            typedFieldNormalizer.parseCveIds(asString(document.get("cveIds"))));
+                }
+            }
+
+            // iocs 가 바뀌었거나 아직 키가 없으면 다시 계산
+            if (event.isLeaked() && (created || event.touches("iocs") || !document.containsKey(IocNormalizer.FIELD))) {
+                List<String> iocKeys = IocNormalizer.keys(iocsOf(document));
+                if (!iocKeys.equals(document.get(IocNormalizer.FIELD))) {
+                    update.set(IocNormalizer.FIELD, iocKeys);
+                }
+            }
+
+            // 내용이 바뀐 경우에만 해시 갱신 (애플리케이션 저장은 이미 같은 해시를 기록했다)
+            String contentHash = DocumentContentHash.of(document);
+            if (!contentHash.equals(document.getString(DocumentContentHash.FIELD))) {
+                update.set(DocumentContentHash.FIELD, contentHash);
+            }
+
+            if (!update.getUpdateObject().isEmpty()) {
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(document.get("_id"))), update, event.getCollection());
+            }
+        } catch (Exception e) {
+            // 다음 주기 백필에서 다시 처리
+            streamGap = true;
+            System.out.println("Typed field update failed for " + event.getDocumentId() + ": " + e.getMessage());
+        }
+    }
+
+    // 이미 같은 값이면 다시 쓰지 않는다 (필드가 없던 경우는 null 이어도 기록해 백필 대상에서 빠지게 한다)
+    private void setIfChanged(Update update, Document document, String field, Object value) {
+        if (!document.containsKey(field) || !Objects.equals(document.get(field), value)) {
+            update.set(field, value);
+        }
+    }
+
+    // iocs 는 배열이지만 크롤러가 문자열 하나로 넣은 문서도 있다
+    private List<?> iocsOf(Document document) {
+        Object iocs = document.get("iocs");
+        if (iocs instanceof List<?> list) return list;
+        return iocs != null ? List.of(iocs) : List.of();
+    }
+
+    private String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
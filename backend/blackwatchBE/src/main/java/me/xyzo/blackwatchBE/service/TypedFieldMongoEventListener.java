@@ -0,0 +1,40 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.document.LeakedDataDocument;
+import me.xyzo.blackwatchBE.document.VulnerabilityDataDocument;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * 애플리케이션에서 저장하는 문서의 타입 필드와 contentHash 를 저장 직전에 채운다.
+ * 크롤러 서버가 직접 넣은 문서는 TypedFieldBackfillService 가 채운다.
+ */
+@Component
+public class TypedFieldMongoEventListener extends AbstractMongoEventListener<Object> {
+
+    @Autowired
+    private TypedFieldNormalizer typedFieldNormalizer;
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Object> event) {
+        if (event.getSource() instanceof LeakedDataDocument leaked) {
+            typedFieldNormalizer.normalize(leaked);
+        } else if (event.getSource() instanceof VulnerabilityDataDocument vulnerability) {
+            typedFieldNormalizer.normalize(vulnerability);
+        }
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Object> event) {
+        if (event.getSource() instanceof LeakedDataDocument || event.getSource() instanceof VulnerabilityDataDocument) {
+            Document document = event.getDocument();
+            if (document != null) {
+                document.put(DocumentContentHash.FIELD, DocumentContentHash.of(document));
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.document.LeakedDataDocument;
+import me.xyzo.blackwatchBE.document.VulnerabilityDataDocument;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 크롤러가 문자열로 저장한 필드를 범위 조회가 가능한 타입 필드로 변환한다.
+ *
+ * - uploadDate (문자열) → uploadDateTs (BSON Date, 시간대가 없으면 UTC 로 간주, 유출 / 취약점 공통)
+ * - recordsCount (문자열, "1,234" / "1.2M" 등) → recordsCountNum (long)
+ * - cvss (문자열, "9.8" / "9.8 (Critical)" 등) → cvssScore (double, 0.0 ~ 10.0)
+ * - cveIds (콤마로 이어진 문자열) → cveIdList (대문자 CVE ID 배열)
+ * - iocs (문자열 배열) → iocKeys (정규화된 "유형:값" 배열, IocNormalizer)
+ * 파싱할 수 없는 값은 null 로 둔다.
+ */
+@Component
+public class TypedFieldNormalizer {
+
+    public static final ZoneOffset DEFAULT_ZONE = ZoneOffset.UTC;
+
+    private static final Pattern CVE_PATTERN = Pattern.compile("CVE-\\d{4}-\\d{4,}", Pattern.CASE_INSENSITIVE);
+    // "CVSS:3.1/AV:N/..." 벡터 접두사의 버전 번호는 점수가 아니므로 제외
+    private static final Pattern CVSS_VECTOR_PREFIX = Pattern.compile("CVSS:\\d+(\\.\\d+)?/?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SCORE_PATTERN = Pattern.compile("\\d{1,2}(\\.\\d+)?");
+
+    private static final List<DateTimeFormatter> LOCAL_DATE_TIME_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
+            DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss"),
+            DateTimeFormatter.ofPattern("yyyy.MM.dd HH:mm:ss"));
+
+    private static final List<DateTimeFormatter> LOCAL_DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("yyyy/MM/dd"),
+            DateTimeFormatter.ofPattern("yyyy.MM.dd"),
+            DateTimeFormatter.BASIC_ISO_DATE);
+
+    public void normalize(LeakedDataDocument document) {
+        document.setUploadDateTs(parseUploadDate(document.getUploadDate()));
+        document.setRecordsCountNum(parseRecordsCount(document.getRecordsCount()));
+        document.setIocKeys(IocNormalizer.keys(document.getIocs()));
+    }
+
+    public void normalize(VulnerabilityDataDocument document) {
+        document.setUploadDateTs(parseUploadDate(document.getUploadDate()));
+        document.setCvssScore(parseCvss(document.getCvss()));
+        document.setCveIdList(parseCveIds(document.getCveIds()));
+    }
+
+    public static Date toDate(LocalDateTime value) {
+        return value != null ? Date.from(value.toInstant(DEFAULT_ZONE)) : null;
+    }
+
+    public Date parseUploadDate(String value) {
+        if (value == null || value.isBlank()) return null;
+        String trimmed = value.trim();
+
+        // epoch millis / seconds
+        if (trimmed.chars().allMatch(Character::isDigit) && trimmed.length() >= 10) {
+            long epoch = Long.parseLong(trimmed);
+            return new Date(trimmed.length() <= 10 ? epoch * 1000 : epoch);
+        }
+
+        try {
+            return Date.from(OffsetDateTime.parse(trimmed).toInstant());
+        } catch (DateTimeParseException ignored) {
+            // 오프셋이 없는 형식 시도
+        }
+        try {
+            return Date.from(Instant.parse(trimmed));
+        } catch (DateTimeParseException ignored) {
+            // 로컬 형식 시도
+        }
+
+        for (DateTimeFormatter format : LOCAL_DATE_TIME_FORMATS) {
+            try {
+                return toDate(LocalDateTime.parse(trimmed, format));
+            } catch (DateTimeParseException ignored) {
+                // 다음 형식 시도
+            }
+        }
+        for (DateTimeFormatter format : LOCAL_DATE_FORMATS) {
+            try {
+                return toDate(LocalDate.parse(trimmed, format).atStartOfDay());
+            } catch (DateTimeParseException ignored) {
+                // 다음 형식 시도
+            }
+        }
+        return null;
+    }
+
+    public Long parseRecordsCount(String value) {
+        if (value == null || value.isBlank()) return null;
+        String cleaned = value.trim().replace(",", "").replace(" ", "").replace("+", "").toUpperCase();
+
+        long multiplier = 1;
+        if (cleaned.endsWith("K")) {
+            multiplier = 1_000L;
+        } else if (cleaned.endsWith("M")) {
+            multiplier = 1_000_000L;
+        } else if (cleaned.endsWith("B")) {
+            multiplier = 1_000_000_000L;
+        }
+        if (multiplier > 1) {
+            cleaned = cleaned.substring(0, cleaned.length() - 1);
+        }
+
+        try {
+            return new BigDecimal(cleaned).multiply(BigDecimal.valueOf(multiplier)).longValue();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Double parseCvss(String value) {
+        if (value == null || value.isBlank()) return null;
+
+        Matcher matcher = SCORE_PATTERN.matcher(CVSS_VECTOR_PREFIX.matcher(value).replaceAll(""));
+        while (matcher.find()) {
+            double score = Double.parseDouble(matcher.group());
+            if (score >= 0.0 && score <= 10.0) {
+                return score;
+            }
+        }
+        return null;
+    }
+
+    public List<String> parseCveIds(String value) {
+        if (value == null || value.isBlank()) return new ArrayList<>();
+
+        Set<String> ids = new LinkedHashSet<>();
+        Matcher matcher = CVE_PATTERN.matcher(value);
+        while (matcher.find()) {
+            ids.add(matcher.group().toUpperCase(Locale.ROOT));
+        }
+        return new ArrayList<>(ids);
+    }
+
+    public static String normalizeCveId(String value) {
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+}
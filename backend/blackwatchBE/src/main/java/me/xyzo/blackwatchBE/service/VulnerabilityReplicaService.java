@@ -0,0 +1,408 @@
+package me.xyzo.blackwatchBE.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import me.xyzo.blackwatchBE.dto.FacetCountDto;
+import me.xyzo.blackwatchBE.dto.VulnerabilityDataFilterDto;
+import me.xyzo.blackwatchBE.dto.VulnerabilityFacetsDto;
+import me.xyzo.blackwatchBE.event.DataChangeEvent;
+import me.xyzo.blackwatchBE.event.DataChangeListener;
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import me.xyzo.blackwatchBE.exception.ServiceUnavailableException;
+import me.xyzo.blackwatchBE.index.VulnerabilityColumnStore;
+import org.bson.Document;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * col_vulnerability 의 메모리 컬럼 복제본 (VulnerabilityColumnStore).
+ *
+ * 기동 시 필터 / 정렬에 쓰는 필드만 읽어 행을 만들고, 이후에는 change stream 이벤트로 행을 갱신한다.
+ * 갱신된 행은 refresh-millis 마다 한 번 모아 스냅샷을 새로 만들어 교체하므로, 목록 결과는 그만큼 늦을 수 있다.
+ * 부분 일치(q / pathContains / titleContains)와 커서 조회는 복제본에 없는 값이 필요하므로 Mongo 로 조회한다.
+ * change stream 이 멈춰 있으면 복제본이 뒤처질 수 있으므로 사용하지 않고 Mongo 로 조회한다.
+ */
+@Service
+public class VulnerabilityReplicaService implements DataChangeListener {
+
+    private static final String CLAUSE_UPLOAD_DATE = "uploadDate";
+    private static final String CLAUSE_CVSS = "cvss";
+
+    // 조회 시 복제본 행으로 읽는 필드
+    private static final List<String> FIELDS = List.of(
+            "host", "author", "uploadDate", "uploadDateTs", "cvss", "cvssScore", "cveIds", "cveIdList",
+            "vulnerabilityClass", "products", "exploitationTechnique", DocumentContentHash.FIELD);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TypedFieldNormalizer typedFieldNormalizer;
+
+    @Autowired
+    private DataChangeStreamService dataChangeStreamService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${data.vulnerability-replica.enabled:true}")
+    private boolean enabled;
+
+    private final ExecutorService loadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "vulnerability-replica");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // id → 행. change stream 이벤트와 전체 적재 병합은 rows 잠금 안에서 처리한다
+    private final Map<String, VulnerabilityColumnStore.Row> rows = new ConcurrentHashMap<>();
+    private final Set<String> changedDuringLoad = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private volatile VulnerabilityColumnStore store;
+    private volatile boolean loading;
+    private volatile boolean loaded;
+
+    private Counter servedQueries;
+    private Counter fallbackQueries;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("blackwatch.vulnerability.replica.rows", this, service -> service.store != null ? service.store.size() : 0)
+                .description("Vulnerability documents in the in-memory columnar replica")
+                .register(meterRegistry);
+        Gauge.builder("blackwatch.vulnerability.replica.memory", this,
+                        service -> service.store != null ? service.store.getMemoryBytes() : 0)
+                .description("Approximate heap used by the vulnerability replica columns and bitmaps")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        servedQueries = Counter.builder("blackwatch.vulnerability.replica.queries")
+                .description("/data/vulnerability list queries by where they were answered")
+                .tag("source", "replica").register(meterRegistry);
+        fallbackQueries = Counter.builder("blackwatch.vulnerability.replica.queries")
+                .description("/data/vulnerability list queries by where they were answered")
+                .tag("source", "mongo").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            reloadAsync();
+        }
+    }
+
+    /**
+     * change stream 이 끊겼다 재시작되는 동안 놓친 변경이 있을 수 있으므로 주기적으로 전체를 다시 읽는다.
+     */
+    @Scheduled(initialDelayString = "${data.vulnerability-replica.reload-minutes:60}",
+            fixedDelayString = "${data.vulnerability-replica.reload-minutes:60}", timeUnit = TimeUnit.MINUTES)
+    public void reload() {
+        reloadAsync();
+    }
+
+    public synchronized boolean reloadAsync() {
+        if (!enabled || loading) return false;
+        loading = true;
+        loadExecutor.submit(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                int documents = load();
+                refresh();
+                System.out.println("Vulnerability replica loaded: " + documents + " documents, "
+                        + (store.getMemoryBytes() / 1024) + "KB in " + (System.currentTimeMillis() - started) + "ms");
+            } catch (Exception e) {
+                System.out.println("Vulnerability replica load failed: " + e.getMessage());
+            } finally {
+                loading = false;
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void onDataChange(DataChangeEvent event) {
+        if (!enabled || !event.isVulnerability()) return;
+        // 서버가 채우는 파생 필드만 바뀐 경우는 원본 필드 갱신 때 이미 반영되었다
+        if (event.getOperation() == DataChangeEvent.Operation.UPDATE
+                && event.onlyTouches(DocumentContentHash.DERIVED_FIELDS)
+                && !event.touches(DocumentContentHash.FIELD)) {
+            return;
+        }
+
+        synchronized (rows) {
+            if (loading) {
+                changedDuringLoad.add(event.getDocumentId());
+            }
+            Document document = event.getFullDocument();
+            if (event.getOperation() == DataChangeEvent.Operation.DELETE || document == null) {
+                // update 후 조회 시점에 이미 삭제된 문서도 fullDocument 가 null
+                rows.remove(event.getDocumentId());
+            } else {
+                rows.put(event.getDocumentId(), toRow(event.getDocumentId(), document));
+            }
+        }
+        dirty.set(true);
+    }
+
+    /**
+     * 모아 둔 행 변경을 새 스냅샷으로 반영한다.
+     */
+    @Scheduled(fixedDelayString = "${data.vulnerability-replica.refresh-millis:1000}")
+    public synchronized void refresh() {
+        // 첫 적재가 끝나기 전에는 이벤트로 받은 일부 행만 있으므로 만들지 않는다
+        if (!enabled || !loaded || !dirty.getAndSet(false)) return;
+        store = VulnerabilityColumnStore.build(List.copyOf(rows.values()));
+    }
+
+    /**
+     * 목록 한 페이지에 해당하는 id / contentHash 와 전체 건수. 복제본으로 답할 수 없는 조회면 null.
+     */
+    public ReplicaPage findPage(VulnerabilityDataFilterDto filter, Pageable pageable) {
+        VulnerabilityColumnStore snapshot = usableStore();
+        if (snapshot == null || !isSupported(filter) || !isSortable(pageable.getSort())
+                || pageable.getOffset() > Integer.MAX_VALUE) {
+            fallbackQueries.increment();
+            return null;
+        }
+        servedQueries.increment();
+
+        Map<String, RoaringBitmap> clauses = clauses(snapshot, filter);
+        RoaringBitmap matches = intersect(snapshot, clauses.values());
+
+        // 정렬이 없으면 id 순
+        Sort.Order order = pageable.getSort().isSorted() ? pageable.getSort().iterator().next() : null;
+        String field = order != null ? order.getProperty() : VulnerabilityColumnStore.SORT_ID;
+        boolean ascending = order == null || order.isAscending();
+        int[] page = snapshot.page(matches, "id".equals(field) ? VulnerabilityColumnStore.SORT_ID : field,
+                ascending, (int) pageable.getOffset(), pageable.getPageSize());
+
+        List<String> ids = new ArrayList<>(page.length);
+        List<String> contentHashes = new ArrayList<>(page.length);
+        for (int row : page) {
+            ids.add(snapshot.id(row));
+            contentHashes.add(snapshot.contentHash(row));
+        }
+        return new ReplicaPage(ids, contentHashes, matches.getLongCardinality());
+    }
+
+    /**
+     * 필터 사이드바용 패싯 건수. 각 패싯은 자기 조건을 뺀 나머지 조건으로 센다.
+     */
+    public VulnerabilityFacetsDto facets(VulnerabilityDataFilterDto filter, List<String> facets, int limit) {
+        if (!isSupported(filter)) {
+            throw new BadRequestException("패싯 집계는 q / pathContains / titleContains 조건을 지원하지 않습니다.");
+        }
+        List<String> requested = facets != null ? facets : VulnerabilityColumnStore.FACETS;
+        for (String facet : requested) {
+            if (!VulnerabilityColumnStore.FACETS.contains(facet)) {
+                throw new BadRequestException("지원하지 않는 패싯입니다: " + facet
+                        + " (" + String.join(", ", VulnerabilityColumnStore.FACETS) + ")");
+            }
+        }
+
+        VulnerabilityColumnStore snapshot = usableStore();
+        if (snapshot == null) {
+            throw new ServiceUnavailableException("취약점 패싯 집계를 준비 중입니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        Map<String, RoaringBitmap> clauses = clauses(snapshot, filter);
+        RoaringBitmap matches = intersect(snapshot, clauses.values());
+
+        Map<String, List<FacetCountDto>> result = new LinkedHashMap<>();
+        for (String facet : requested) {
+            RoaringBitmap base = matches;
+            if (clauses.containsKey(facet)) {
+                Map<String, RoaringBitmap> others = new HashMap<>(clauses);
+                others.remove(facet);
+                base = intersect(snapshot, others.values());
+            }
+            List<FacetCountDto> counts = new ArrayList<>();
+            snapshot.facetCounts(facet, base, limit).forEach((value, count) -> counts.add(new FacetCountDto(value, count)));
+            result.put(facet, counts);
+        }
+        return new VulnerabilityFacetsDto(matches.getLongCardinality(), result);
+    }
+
+    public boolean isReady() {
+        return usableStore() != null;
+    }
+
+    /**
+     * 복제본 조회 결과 (정렬 순서의 id / contentHash 와 필터 전체 건수)
+     */
+    public record ReplicaPage(List<String> ids, List<String> contentHashes, long total) {}
+
+    // ======= 헬퍼 메서드 =======
+
+    private VulnerabilityColumnStore usableStore() {
+        if (!enabled || !dataChangeStreamService.isHealthy()) return null;
+        return store;
+    }
+
+    // 복제본에 있는 필드 조건만 있는지
+    private boolean isSupported(VulnerabilityDataFilterDto filter) {
+        return isBlank(filter.getQ()) && isBlank(filter.getPathContains()) && isBlank(filter.getTitleContains());
+    }
+
+    // 정렬 없음 또는 id / uploadDateTs / cvssScore 중 하나로만 정렬 (DataQueryBuilder 가 변환한 정렬)
+    private boolean isSortable(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.isEmpty()) return true;
+        if (orders.size() > 1) return false;
+        String property = orders.get(0).getProperty();
+        return "id".equals(property) || VulnerabilityColumnStore.isSortable(property);
+    }
+
+    /**
+     * 필터 조건별 비트맵 (DataQueryBuilder.buildVulnerabilityCriteria 와 같은 의미)
+     */
+    private Map<String, RoaringBitmap> clauses(VulnerabilityColumnStore snapshot, VulnerabilityDataFilterDto filter) {
+        Map<String, RoaringBitmap> clauses = new HashMap<>();
+
+        if (filter.getFrom() != null || filter.getTo() != null) {
+            clauses.put(CLAUSE_UPLOAD_DATE, snapshot.uploadTimeRange(
+                    filter.getFrom() != null ? TypedFieldNormalizer.toDate(filter.getFrom()).getTime() : null,
+                    filter.getTo() != null ? TypedFieldNormalizer.toDate(filter.getTo()).getTime() : null));
+        }
+        if (filter.getCvssMin() != null || filter.getCvssMax() != null) {
+            clauses.put(CLAUSE_CVSS, snapshot.cvssRange(filter.getCvssMin(), filter.getCvssMax()));
+        }
+
+        addTerms(clauses, snapshot, VulnerabilityColumnStore.FACET_HOST, filter.getHosts());
+        addTerms(clauses, snapshot, VulnerabilityColumnStore.FACET_AUTHOR, filter.getAuthors());
+        addTerms(clauses, snapshot, VulnerabilityColumnStore.FACET_CLASS, filter.getVulnClasses());
+        addTerms(clauses, snapshot, VulnerabilityColumnStore.FACET_PRODUCT, filter.getProducts());
+        addTerms(clauses, snapshot, VulnerabilityColumnStore.FACET_TECHNIQUE, filter.getTechniques());
+        if (filter.getCves() != null && !filter.getCves().isEmpty()) {
+            clauses.put(VulnerabilityColumnStore.FACET_CVE, snapshot.facet(VulnerabilityColumnStore.FACET_CVE,
+                    filter.getCves().stream().map(TypedFieldNormalizer::normalizeCveId).toList()));
+        }
+        return clauses;
+    }
+
+    private void addTerms(Map<String, RoaringBitmap> clauses, VulnerabilityColumnStore snapshot,
+                          String facet, List<String> values) {
+        if (values == null) return;
+        List<String> terms = values.stream()
+                .filter(value -> value != null && !value.isBlank())
+                .map(String::trim)
+                .toList();
+        if (!terms.isEmpty()) {
+            clauses.put(facet, snapshot.facet(facet, terms));
+        }
+    }
+
+    private RoaringBitmap intersect(VulnerabilityColumnStore snapshot, Collection<RoaringBitmap> clauses) {
+        if (clauses.isEmpty()) return snapshot.all();
+        if (clauses.size() == 1) return clauses.iterator().next();
+        return FastAggregation.and(clauses.toArray(new RoaringBitmap[0]));
+    }
+
+    /**
+     * col_vulnerability 전체를 필요한 필드만 읽어 rows 를 교체한다.
+     * 읽는 동안 이벤트로 바뀐 문서는 이벤트 쪽 상태를 유지한다.
+     */
+    private int load() {
+        synchronized (rows) {
+            changedDuringLoad.clear();
+        }
+
+        Query query = new Query();
+        FIELDS.forEach(query.fields()::include);
+        query.cursorBatchSize(5000);
+
+        Map<String, VulnerabilityColumnStore.Row> loaded = new HashMap<>();
+        try (Stream<Document> documents =
+                     mongoTemplate.stream(query, Document.class, DataChangeEvent.VULNERABILITY_COLLECTION)) {
+            Iterator<Document> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                String id = String.valueOf(document.get("_id"));
+                loaded.put(id, toRow(id, document));
+            }
+        }
+
+        synchronized (rows) {
+            rows.keySet().removeIf(id -> !loaded.containsKey(id) && !changedDuringLoad.contains(id));
+            loaded.forEach((id, row) -> {
+                if (!changedDuringLoad.contains(id)) {
+                    rows.put(id, row);
+                }
+            });
+            changedDuringLoad.clear();
+        }
+        dirty.set(true);
+        this.loaded = true;
+        return loaded.size();
+    }
+
+    private VulnerabilityColumnStore.Row toRow(String id, Document document) {
+        // 타입 필드가 아직 백필되지 않은 문서는 원본 문자열에서 계산
+        Object score = document.get("cvssScore");
+        Double cvss = score instanceof Number number
+                ? Double.valueOf(number.doubleValue())
+                : typedFieldNormalizer.parseCvss(document.getString("cvss"));
+
+        List<String> cveIds = stringList(document.get("cveIdList"));
+        if (cveIds.isEmpty()) {
+            cveIds = typedFieldNormalizer.parseCveIds(document.getString("cveIds"));
+        }
+
+        Date uploadDate = document.get("uploadDateTs") instanceof Date date
+                ? date
+                : typedFieldNormalizer.parseUploadDate(document.getString("uploadDate"));
+
+        Map<String, List<String>> facets = new HashMap<>();
+        facets.put(VulnerabilityColumnStore.FACET_HOST, stringList(document.get("host")));
+        facets.put(VulnerabilityColumnStore.FACET_AUTHOR, stringList(document.get("author")));
+        facets.put(VulnerabilityColumnStore.FACET_CLASS, stringList(document.get("vulnerabilityClass")));
+        facets.put(VulnerabilityColumnStore.FACET_CVE, cveIds != null ? cveIds : List.of());
+        facets.put(VulnerabilityColumnStore.FACET_PRODUCT, stringList(document.get("products")));
+        facets.put(VulnerabilityColumnStore.FACET_TECHNIQUE, stringList(document.get("exploitationTechnique")));
+
+        return new VulnerabilityColumnStore.Row(id, document.getString(DocumentContentHash.FIELD),
+                uploadDate != null ? uploadDate.getTime() : VulnerabilityColumnStore.UNKNOWN_TIME,
+                cvss != null ? cvss : Double.NaN, facets);
+    }
+
+    // 문자열 또는 문자열 배열 필드를 리스트로
+    private List<String> stringList(Object value) {
+        if (value == null) return List.of();
+        if (value instanceof Collection<?> values) {
+            return values.stream().filter(item -> item != null).map(Object::toString).toList();
+        }
+        return List.of(value.toString());
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,151 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AhoCorasickAutomatonTests {
+
+    private static AhoCorasickAutomaton automaton(String... texts) {
+        List<AhoCorasickAutomaton.Keyword> keywords = new ArrayList<>();
+        for (String text : texts) {
+            keywords.add(new AhoCorasickAutomaton.Keyword(text, "ioc", Set.of("leak-" + text)));
+        }
+        return AhoCorasickAutomaton.build(keywords);
+    }
+
+    // "offset:keyword" 목록. chunk 바이트씩 나눠 넣는다
+    private static List<String> scan(AhoCorasickAutomaton automaton, String body, int chunk) {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        List<String> hits = new ArrayList<>();
+        AhoCorasickAutomaton.HitListener listener = (offset, keyword) -> hits.add(offset + ":" + automaton.text(keyword));
+        AhoCorasickAutomaton.Scanner scanner = automaton.scanner();
+        for (int offset = 0; offset < data.length; offset += chunk) {
+            assertTrue(scanner.feed(data, offset, Math.min(chunk, data.length - offset), listener));
+        }
+        assertTrue(scanner.finish(listener));
+        hits.sort(null);
+        return hits;
+    }
+
+    @Test
+    void findsOverlappingKeywordsWithOffsets() {
+        AhoCorasickAutomaton automaton = automaton("evil.com", "mail.evil.com", "10.0.0.1");
+
+        assertEquals(List.of("0:mail.evil.com", "21:10.0.0.1", "5:evil.com"),
+                scan(automaton, "mail.evil.com called 10.0.0.1 twice", 1024));
+    }
+
+    @Test
+    void requiresWordBoundariesOnBothSides() {
+        AhoCorasickAutomaton automaton = automaton("1.1.1.1", "bad-host");
+
+        assertTrue(scan(automaton, "11.1.1.15 and xbad-host and bad-hosts", 1024).isEmpty());
+        assertEquals(List.of("17:bad-host", "3:1.1.1.1"), scan(automaton, "ip=1.1.1.1, host=bad-host.", 1024));
+    }
+
+    @Test
+    void matchesAsciiCaseInsensitively() {
+        AhoCorasickAutomaton automaton = automaton("evil.com");
+
+        assertEquals(List.of("4:evil.com"), scan(automaton, "see EVIL.Com now", 1024));
+    }
+
+    @Test
+    void chunkBoundariesDoNotChangeHits() {
+        AhoCorasickAutomaton automaton = automaton("evil.com", "10.0.0.1", "deadbeefdeadbeef", "x.io");
+        String body = "start evil.com 10.0.0.1 deadbeefdeadbeef xx.io x.io 10.0.0.12 evil.com";
+        List<String> expected = scan(automaton, body, body.length());
+
+        // xx.io / 10.0.0.12 는 경계 불일치로 빠진다
+        assertEquals(5, expected.size());
+        for (int chunk = 1; chunk <= 17; chunk++) {
+            assertEquals(expected, scan(automaton, body, chunk), "chunk=" + chunk);
+        }
+    }
+
+    @Test
+    void boundaryCheckSpansChunksAtTheEnd() {
+        AhoCorasickAutomaton automaton = automaton("evil.com");
+
+        // 마지막 청크 끝에서 끝난 일치는 다음 바이트를 보고 판단한다
+        assertEquals(List.of("0:evil.com"), scan(automaton, "evil.com", 4));
+        assertTrue(scan(automaton, "evil.comx", 8).isEmpty());
+        assertTrue(scan(automaton, "xevil.com", 1).isEmpty());
+    }
+
+    @Test
+    void listenerCanStopTheScan() {
+        AhoCorasickAutomaton automaton = automaton("evil.com");
+        byte[] data = "evil.com evil.com evil.com".getBytes(StandardCharsets.UTF_8);
+        List<Long> offsets = new ArrayList<>();
+
+        AhoCorasickAutomaton.Scanner scanner = automaton.scanner();
+        boolean completed = scanner.feed(data, 0, data.length, (offset, keyword) -> {
+            offsets.add(offset);
+            return offsets.size() < 2;
+        });
+
+        assertFalse(completed);
+        assertEquals(List.of(0L, 9L), offsets);
+        assertFalse(scanner.finish((offset, keyword) -> true));
+    }
+
+    @Test
+    void mergesDuplicateTextsAndLooksThemUp() {
+        AhoCorasickAutomaton automaton = AhoCorasickAutomaton.build(List.of(
+                new AhoCorasickAutomaton.Keyword("evil.com", "domain", List.of("a")),
+                new AhoCorasickAutomaton.Keyword("evil.com", "other", List.of("b")),
+                new AhoCorasickAutomaton.Keyword("evil.co", "domain", List.of("c"))));
+
+        int keyword = automaton.indexOf("evil.com");
+        assertEquals(2, automaton.keywordCount());
+        assertEquals("domain", automaton.tag(keyword));
+        assertEquals(List.of("a", "b"), automaton.refs(keyword));
+        assertEquals(-1, automaton.indexOf("evil.c"));
+        assertEquals(-1, automaton.indexOf("good.com"));
+    }
+
+    @Test
+    void patchedDeltaCarriesBaseRefs() {
+        // IocScanService 가 base 에 이미 있는 값을 delta 로 덮을 때와 같은 순서
+        AhoCorasickAutomaton base = automaton("evil.com", "10.0.0.1");
+        int index = base.indexOf("evil.com");
+        List<String> refs = new ArrayList<>(List.of("new-leak"));
+        refs.addAll(base.refs(index));
+        AhoCorasickAutomaton delta = AhoCorasickAutomaton.build(List.of(
+                new AhoCorasickAutomaton.Keyword("evil.com", "domain", refs)));
+
+        assertEquals(List.of("new-leak", "leak-evil.com"), delta.refs(delta.indexOf("evil.com")));
+        assertEquals(List.of("0:evil.com"), scan(delta, "evil.com 10.0.0.1", 3));
+    }
+
+    @Test
+    void sizesTrieByDistinctPrefixes() {
+        AhoCorasickAutomaton automaton = automaton("abcd", "abce", "ABCF", "xyz");
+
+        // 루트 + abc(3) + d/e/f(3) + xyz(3)
+        assertEquals(10, automaton.stateCount());
+    }
+
+    @Test
+    void rejectsTablesOverTheBudgetBeforeAllocating() {
+        List<AhoCorasickAutomaton.Keyword> keywords = new ArrayList<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 2_000; i++) {
+            keywords.add(new AhoCorasickAutomaton.Keyword(Long.toHexString(random.nextLong()), "hash", List.of()));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> AhoCorasickAutomaton.build(keywords, 64 * 1024));
+        assertTrue(AhoCorasickAutomaton.build(keywords, 64L * 1024 * 1024).keywordCount() > 0);
+    }
+}
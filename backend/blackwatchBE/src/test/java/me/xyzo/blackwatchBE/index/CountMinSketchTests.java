@@ -0,0 +1,91 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTests {
+
+    @Test
+    void neverUnderestimatesAndStaysWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(4, 2_048);
+        Random random = new Random(5);
+        Map<String, Integer> counts = new HashMap<>();
+        int total = 50_000;
+        for (int i = 0; i < total; i++) {
+            // 앞쪽 값일수록 자주 나오는 치우친 분포
+            String key = "host-" + (int) Math.floor(Math.pow(random.nextDouble(), 3) * 5_000);
+            counts.merge(key, 1, Integer::sum);
+            sketch.add(sketch.cells(key), 1);
+        }
+
+        // 초과분은 e / width * total 이하 (깊이 4 이므로 거의 모든 값에서 성립)
+        double bound = Math.E / sketch.width() * total;
+        int overBound = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            long estimate = sketch.estimate(sketch.cells(entry.getKey()));
+            assertTrue(estimate >= entry.getValue(), entry.getKey());
+            if (estimate - entry.getValue() > bound) overBound++;
+        }
+        assertTrue(overBound <= counts.size() / 50, "overBound=" + overBound);
+    }
+
+    @Test
+    void cellsAreStablePerRow() {
+        CountMinSketch sketch = new CountMinSketch(3, 100);
+        int[] cells = sketch.cells("evil.com");
+
+        assertEquals(3, cells.length);
+        for (int row = 0; row < cells.length; row++) {
+            assertTrue(cells[row] >= row * 100 && cells[row] < (row + 1) * 100, "row=" + row);
+        }
+        assertEquals(cells[2], new CountMinSketch(3, 100).cells("evil.com")[2]);
+    }
+
+    @Test
+    void subtractRemovesAnEarlierAddition() {
+        CountMinSketch window = new CountMinSketch(4, 64);
+        CountMinSketch bucket = new CountMinSketch(4, 64);
+        int[] a = window.cells("a");
+        int[] b = window.cells("b");
+        window.add(a, 3);
+        bucket.add(b, 5);
+        window.add(b, 5);
+
+        window.subtract(bucket);
+
+        assertEquals(3, window.estimate(a));
+        assertEquals(0, window.estimate(b));
+        bucket.clear();
+        assertEquals(0, bucket.estimate(b));
+        assertThrows(IllegalArgumentException.class, () -> window.subtract(new CountMinSketch(4, 32)));
+    }
+
+    @Test
+    void blendIntoMovesBaselineTowardCounts() {
+        CountMinSketch sketch = new CountMinSketch(2, 8);
+        int[] cells = sketch.cells("a");
+        sketch.add(cells, 10);
+        double[] baseline = new double[16];
+
+        sketch.blendInto(baseline, 0.5);
+        assertEquals(5.0, CountMinSketch.estimate(baseline, cells), 1e-9);
+        sketch.blendInto(baseline, 0.5);
+        assertEquals(7.5, CountMinSketch.estimate(baseline, cells), 1e-9);
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.blendInto(new double[8], 0.5));
+    }
+
+    @Test
+    void rejectsEmptyShape() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 0));
+        assertEquals(4L * 10 * Integer.BYTES, new CountMinSketch(4, 10).memoryBytes());
+    }
+}
@@ -0,0 +1,139 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityGraphTests {
+
+    // alice -1.2.3.4- bob -evil.com- carol, alice / CVE 는 forum.onion 으로 연결, dave / erin / frank 는 공용 IOC 하나
+    private static EntityGraph sampleGraph() {
+        EntityGraph graph = new EntityGraph();
+        graph.put("leaked:1", Map.of("author", List.of("alice"), "host", List.of("forum.onion"), "ioc", List.of("1.2.3.4")));
+        graph.put("leaked:2", Map.of("author", List.of("bob"), "ioc", List.of("1.2.3.4", "evil.com")));
+        graph.put("leaked:3", Map.of("author", List.of("carol"), "ioc", List.of("evil.com")));
+        graph.put("vulnerability:1", Map.of("cve", List.of("CVE-2024-0001"), "host", List.of("forum.onion")));
+        graph.put("leaked:4", Map.of("author", List.of("dave"), "ioc", List.of("cdn.example")));
+        graph.put("leaked:5", Map.of("author", List.of("erin"), "ioc", List.of("cdn.example")));
+        graph.put("leaked:6", Map.of("author", List.of("frank"), "ioc", List.of("cdn.example")));
+        return graph;
+    }
+
+    private static List<String> values(List<EntityGraph.Node> nodes) {
+        return nodes.stream().map(EntityGraph.Node::value).toList();
+    }
+
+    @Test
+    void countsEntitiesDocumentsAndLinks() {
+        EntityGraph graph = sampleGraph();
+
+        assertEquals(11, graph.entityCount());
+        assertEquals(7, graph.documentCount());
+        assertEquals(16, graph.edgeCount());
+        assertEquals("leaked:7", EntityGraph.documentKey("leaked", "7"));
+    }
+
+    @Test
+    void neighborhoodExpandsOneHopAtATime() {
+        EntityGraph graph = sampleGraph();
+
+        EntityGraph.Neighborhood one = graph.neighborhood("author", "alice", 1, 100);
+        assertEquals("alice", one.nodes().get(0).value());
+        assertEquals(0, one.nodes().get(0).hops());
+        assertEquals(List.of("1.2.3.4", "forum.onion"), values(one.nodes()).subList(1, 3).stream().sorted().toList());
+        assertEquals(1, one.nodes().get(1).hops());
+        assertEquals(2, one.edges().size());
+        assertFalse(one.truncated());
+
+        EntityGraph.Neighborhood two = graph.neighborhood("author", "alice", 2, 100);
+        assertTrue(values(two.nodes()).containsAll(List.of("bob", "evil.com", "CVE-2024-0001")));
+        assertFalse(values(two.nodes()).contains("carol"));
+        for (EntityGraph.Node node : two.nodes()) {
+            if (node.value().equals("bob")) assertEquals(2, node.hops());
+            if (node.value().equals("1.2.3.4")) assertEquals(2, node.documents());
+        }
+
+        EntityGraph.Neighborhood capped = graph.neighborhood("author", "alice", 3, 3);
+        assertEquals(3, capped.nodes().size());
+        assertTrue(capped.truncated());
+
+        assertNull(graph.neighborhood("author", "nobody", 1, 100));
+    }
+
+    @Test
+    void shortestPathReturnsEvidenceDocuments() {
+        EntityGraph graph = sampleGraph();
+
+        EntityGraph.Path path = graph.shortestPath("author", "alice", "author", "carol", 6, 1_000);
+
+        assertEquals(List.of("alice", "1.2.3.4", "evil.com", "carol"), values(path.nodes()));
+        assertEquals(3, path.edges().size());
+        assertEquals(List.of("leaked:1"), path.edges().get(0).documentKeys());
+        assertEquals(List.of("leaked:2"), path.edges().get(1).documentKeys());
+        assertEquals(List.of("leaked:3"), path.edges().get(2).documentKeys());
+        assertEquals(3, path.nodes().get(3).hops());
+        assertFalse(path.truncated());
+    }
+
+    @Test
+    void shortestPathHandlesSameMissingAndUnreachable() {
+        EntityGraph graph = sampleGraph();
+
+        assertEquals(1, graph.shortestPath("author", "alice", "author", "alice", 6, 1_000).nodes().size());
+        assertNull(graph.shortestPath("author", "alice", "author", "nobody", 6, 1_000));
+
+        EntityGraph.Path unreachable = graph.shortestPath("author", "alice", "author", "dave", 6, 1_000);
+        assertTrue(unreachable.nodes().isEmpty());
+        assertFalse(unreachable.truncated());
+
+        // carol 까지는 세 hop 이 필요하다
+        assertTrue(graph.shortestPath("author", "alice", "author", "carol", 2, 1_000).nodes().isEmpty());
+        assertTrue(graph.shortestPath("author", "alice", "author", "carol", 6, 2).truncated());
+    }
+
+    @Test
+    void putReplacesAndRemoveDetachesDocuments() {
+        EntityGraph graph = sampleGraph();
+
+        graph.put("leaked:2", Map.of("author", List.of("bob"), "ioc", List.of("1.2.3.4")));
+        assertTrue(graph.shortestPath("author", "alice", "author", "carol", 6, 1_000).nodes().isEmpty());
+        assertEquals(7, graph.documentCount());
+
+        graph.remove("leaked:1");
+        assertNull(graph.neighborhood("author", "alice", 1, 100));
+        assertEquals(6, graph.documentCount());
+
+        // 지운 문서 번호를 다시 써도 다른 문서와 섞이지 않는다
+        graph.put("leaked:7", Map.of("author", List.of("alice"), "ioc", List.of("evil.com")));
+        EntityGraph.Path path = graph.shortestPath("author", "alice", "author", "carol", 6, 1_000);
+        assertEquals(List.of("alice", "evil.com", "carol"), values(path.nodes()));
+        assertEquals(List.of("leaked:7"), path.edges().get(0).documentKeys());
+    }
+
+    @Test
+    void clustersAuthorsBySharedIocsAndSkipsCommonInfrastructure() {
+        EntityGraph graph = sampleGraph();
+
+        List<EntityGraph.Cluster> clusters = graph.iocClusters(null, null, 2, 10);
+        assertEquals(1, clusters.size());
+        assertEquals(List.of("alice", "bob", "carol"), values(clusters.get(0).authors()).stream().sorted().toList());
+        assertEquals(List.of("1.2.3.4", "evil.com"), values(clusters.get(0).iocs()).stream().sorted().toList());
+        assertEquals(3, clusters.get(0).documents());
+
+        List<EntityGraph.Cluster> wider = graph.iocClusters(null, null, 3, 10);
+        assertEquals(2, wider.size());
+        assertEquals(3, wider.get(0).authors().size());
+        assertEquals(1, graph.iocClusters(null, null, 3, 1).size());
+
+        assertEquals(clusters, graph.iocClusters("ioc", "evil.com", 2, 10));
+        assertEquals(clusters, graph.iocClusters("author", "carol", 2, 10));
+        assertTrue(graph.iocClusters("author", "dave", 2, 10).isEmpty());
+        assertTrue(graph.iocClusters("host", "forum.onion", 2, 10).isEmpty());
+    }
+}
@@ -0,0 +1,78 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashPrefixRangeIndexTests {
+
+    @Test
+    void answersKnownSha1Suffix() {
+        HashPrefixRangeIndex.Builder builder = new HashPrefixRangeIndex.Builder("SHA-1");
+        builder.add("password", List.of("leak-1", "leak-2"));
+        builder.add("letmein", List.of("leak-2"));
+        HashPrefixRangeIndex index = builder.build();
+
+        // SHA-1("password") = 5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8
+        assertEquals("1E4C9B93F3F0682250B6CF8331B7EE68FD8:leak-1,leak-2\n", index.bucket("5BAA6"));
+        assertEquals(index.bucket("5BAA6"), index.bucket("5baa6"));
+        assertEquals("", index.bucket("00000"));
+        assertEquals(2, index.size());
+        assertEquals("SHA-1", index.getAlgorithm());
+    }
+
+    @Test
+    void skipsValuesWithoutLeaks() {
+        HashPrefixRangeIndex.Builder builder = new HashPrefixRangeIndex.Builder("SHA-1");
+        builder.add("password", List.of());
+
+        assertEquals(0, builder.build().size());
+    }
+
+    @Test
+    void rejectsMalformedPrefixAndAlgorithm() {
+        HashPrefixRangeIndex index = new HashPrefixRangeIndex.Builder("SHA-1").build();
+
+        assertThrows(IllegalArgumentException.class, () -> index.bucket("5BAA"));
+        assertThrows(IllegalArgumentException.class, () -> index.bucket("5BAA6F"));
+        assertThrows(IllegalArgumentException.class, () -> index.bucket("5BAG6"));
+        assertThrows(IllegalArgumentException.class, () -> index.bucket(null));
+        assertThrows(IllegalArgumentException.class, () -> new HashPrefixRangeIndex.Builder("NOPE-1"));
+    }
+
+    @Test
+    void bucketsMatchSortedDigestsOnLargeInput() throws Exception {
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        HexFormat hex = HexFormat.of().withUpperCase();
+        HashPrefixRangeIndex.Builder builder = new HashPrefixRangeIndex.Builder("SHA-256");
+        // 접두사 → (나머지 → leakId), 빌더가 내부 배열을 여러 번 늘리도록 1,024 건을 넘긴다
+        Map<String, TreeMap<String, String>> expected = new TreeMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            String value = "user" + i + "@example.com";
+            builder.add(value, List.of("leak-" + (i % 7)));
+            String digest = hex.formatHex(sha256.digest(value.getBytes(StandardCharsets.UTF_8)));
+            expected.computeIfAbsent(digest.substring(0, 5), key -> new TreeMap<>())
+                    .put(digest.substring(5), "leak-" + (i % 7));
+        }
+        HashPrefixRangeIndex index = builder.build();
+
+        assertEquals(5_000, index.size());
+        assertTrue(index.memoryBytes() > 5_000L * 32);
+        List<String> prefixes = new ArrayList<>(expected.keySet());
+        for (String prefix : prefixes.subList(0, 500)) {
+            StringBuilder lines = new StringBuilder();
+            expected.get(prefix).forEach((suffix, leakId) -> lines.append(suffix).append(':').append(leakId).append('\n'));
+            assertEquals(lines.toString(), index.bucket(prefix), prefix);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NameKeysTests {
+
+    @Test
+    void jamoKeyIgnoresSpacingPunctuationCaseAndMarks() {
+        assertEquals(NameKeys.jamoKey("김민수"), NameKeys.jamoKey("김 민수"));
+        assertEquals(NameKeys.jamoKey("김민수"), NameKeys.jamoKey("김·민수"));
+        assertEquals("jose", NameKeys.jamoKey("José"));
+        assertEquals("maryjane", NameKeys.jamoKey("Mary-Jane"));
+        assertNull(NameKeys.jamoKey(" - "));
+        assertNull(NameKeys.jamoKey(null));
+    }
+
+    @Test
+    void hangulSyllableDiffersByOneJamo() {
+        String minsu = NameKeys.jamoKey("김민수");
+        String minju = NameKeys.jamoKey("김민주");
+
+        // 음절 세 개가 초성 / 중성 / 종성 자모로 분해된다
+        assertEquals(8, minsu.length());
+        assertEquals(1, NameKeys.distance(minsu, minju, 2));
+    }
+
+    @Test
+    void deletionVariantsShareAKeyWithinDistance() {
+        assertEquals(Set.of("abc", "bc", "ac", "ab"), NameKeys.deletionVariants("abc", 1));
+        assertEquals(Set.of("abc", "bc", "ac", "ab", "a", "b", "c"), NameKeys.deletionVariants("abc", 2));
+
+        Set<String> shared = new HashSet<>(NameKeys.deletionVariants(NameKeys.jamoKey("김민수"), 1));
+        shared.retainAll(NameKeys.deletionVariants(NameKeys.jamoKey("김민주"), 1));
+        assertFalse(shared.isEmpty());
+
+        String longKey = "a".repeat(NameKeys.MAX_VARIANT_KEY_LENGTH + 1);
+        assertEquals(Set.of(longKey), NameKeys.deletionVariants(longKey, 2));
+    }
+
+    @Test
+    void phoneticKeyMatchesRomanizedSpellingsAndOrder() {
+        String hangul = NameKeys.phoneticKey("이지은");
+
+        assertNotNull(hangul);
+        assertEquals(hangul, NameKeys.phoneticKey("Ji Eun Lee"));
+        assertEquals(hangul, NameKeys.phoneticKey("Rhee Ji-Eun"));
+        assertEquals(hangul, NameKeys.phoneticKey("Yi Jieun"));
+        assertEquals(NameKeys.phoneticKey("박민수"), NameKeys.phoneticKey("Minsoo Park"));
+        assertEquals(NameKeys.phoneticKey("박민수"), NameKeys.phoneticKey("Pak Min-su"));
+        assertFalse(hangul.equals(NameKeys.phoneticKey("박민수")));
+        assertNull(NameKeys.phoneticKey("1234"));
+    }
+
+    @Test
+    void romanizesWithRevisedRomanization() {
+        assertEquals("gimminsu", NameKeys.romanize("김민수"));
+        assertEquals(List.of("namgung", "minsu"), NameKeys.romanizedTokens("남궁민수"));
+        assertEquals(List.of("bak", "jieun"), NameKeys.romanizedTokens("박지은"));
+    }
+
+    @Test
+    void distanceCountsTranspositionsAndStopsAtMax() {
+        assertEquals(0, NameKeys.distance("minsu", "minsu", 2));
+        assertEquals(1, NameKeys.distance("minsu", "misnu", 2));
+        assertEquals(1, NameKeys.distance("minsu", "minju", 2));
+        assertEquals(3, NameKeys.distance("kitten", "sitting", 3));
+        assertEquals(3, NameKeys.distance("kitten", "sitting", 2));
+        assertEquals(3, NameKeys.distance("ab", "abcdef", 2));
+        assertEquals(3, NameKeys.distance("", "abc", 3));
+    }
+}
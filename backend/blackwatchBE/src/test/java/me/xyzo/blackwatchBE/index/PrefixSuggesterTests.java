@@ -0,0 +1,77 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixSuggesterTests {
+
+    @Test
+    void ranksByWeightThenValue() {
+        PrefixSuggester suggester = PrefixSuggester.build(Map.of(
+                "forum.onion", 5L, "forge.onion", 9L, "fox.onion", 5L, "market.onion", 100L));
+
+        List<PrefixSuggester.Suggestion> suggestions = suggester.suggest("fo", 10);
+
+        assertEquals(List.of("forge.onion", "forum.onion", "fox.onion"),
+                suggestions.stream().map(PrefixSuggester.Suggestion::value).toList());
+        assertEquals(9L, suggestions.get(0).weight());
+    }
+
+    @Test
+    void mergesCaseVariantsAndShowsMostUsedSpelling() {
+        PrefixSuggester suggester = PrefixSuggester.build(Map.of("LockBit", 3L, "lockbit", 1L, "LOCKBIT", 2L));
+
+        List<PrefixSuggester.Suggestion> suggestions = suggester.suggest("LOCK", 5);
+
+        assertEquals(1, suggestions.size());
+        assertEquals("LockBit", suggestions.get(0).value());
+        assertEquals(6L, suggestions.get(0).weight());
+    }
+
+    @Test
+    void emptyResultsForUnknownPrefixOrZeroLimit() {
+        PrefixSuggester suggester = PrefixSuggester.build(Map.of("alpha", 1L, "beta", 2L));
+
+        assertTrue(suggester.suggest("gamma", 5).isEmpty());
+        assertTrue(suggester.suggest("a", 0).isEmpty());
+        assertTrue(PrefixSuggester.EMPTY.suggest("a", 5).isEmpty());
+    }
+
+    @Test
+    void matchesFullScanOnRandomDictionary() {
+        Random random = new Random(7);
+        Map<String, Long> counts = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder value = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                value.append((char) ('a' + random.nextInt(4)));
+            }
+            counts.merge(value.toString(), (long) 1 + random.nextInt(50), Long::sum);
+        }
+        PrefixSuggester suggester = PrefixSuggester.build(counts);
+
+        for (String prefix : List.of("", "a", "b", "ab", "dca", "cccc", "abcdab", "z")) {
+            for (int limit : List.of(1, 3, 10, 100)) {
+                List<PrefixSuggester.Suggestion> expected = new ArrayList<>();
+                counts.forEach((value, weight) -> {
+                    if (value.startsWith(prefix)) expected.add(new PrefixSuggester.Suggestion(value, weight));
+                });
+                expected.sort(Comparator.comparingLong(PrefixSuggester.Suggestion::weight).reversed()
+                        .thenComparing(PrefixSuggester.Suggestion::value));
+
+                assertEquals(expected.subList(0, Math.min(limit, expected.size())), suggester.suggest(prefix, limit),
+                        "prefix=" + prefix + " limit=" + limit);
+            }
+        }
+    }
+}
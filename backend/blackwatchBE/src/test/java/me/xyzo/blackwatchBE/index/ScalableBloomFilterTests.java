@@ -0,0 +1,93 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScalableBloomFilterTests {
+
+    @Test
+    void putReportsNewValuesOnce() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        assertTrue(filter.put("user@example.com"));
+        assertFalse(filter.put("user@example.com"));
+        assertTrue(filter.mightContain("user@example.com"));
+        assertEquals(1, filter.getEntryCount());
+    }
+
+    @Test
+    void growsWithoutFalseNegativesAndKeepsTheErrorBound() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_024, 0.01);
+        int inserted = 0;
+        for (int i = 0; i < 20_000; i++) {
+            if (filter.put("present-" + i)) inserted++;
+        }
+
+        assertTrue(filter.getSliceCount() > 1, "slices=" + filter.getSliceCount());
+        assertEquals(inserted, filter.getEntryCount());
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(filter.mightContain("present-" + i), "present-" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("absent-" + i)) falsePositives++;
+        }
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed <= 0.01, "observed=" + observed);
+        assertTrue(filter.estimateFalsePositiveRate() <= 0.01, "estimated=" + filter.estimateFalsePositiveRate());
+    }
+
+    @Test
+    void snapshotRoundTripKeepsMembershipAndSize() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_024, 0.001);
+        for (int i = 0; i < 5_000; i++) {
+            filter.put("value-" + i);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(filter.serializedSize()));
+        filter.writeTo(buffer);
+        assertEquals(0, buffer.remaining());
+        buffer.flip();
+        ScalableBloomFilter restored = ScalableBloomFilter.readFrom(buffer);
+
+        assertEquals(filter.getSliceCount(), restored.getSliceCount());
+        assertEquals(filter.getEntryCount(), restored.getEntryCount());
+        assertEquals(filter.getMemoryBytes(), restored.getMemoryBytes());
+        assertEquals(0.001, restored.getFalsePositiveRate(), 0.0);
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(restored.mightContain("value-" + i));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            String probe = "probe-" + i;
+            assertEquals(filter.mightContain(probe), restored.mightContain(probe), probe);
+        }
+        assertFalse(restored.put("value-42"));
+    }
+
+    @Test
+    void rejectsCorruptSnapshot() {
+        ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES + Integer.BYTES);
+        buffer.putDouble(0.01).putInt(0).flip();
+
+        assertThrows(IllegalArgumentException.class, () -> ScalableBloomFilter.readFrom(buffer));
+    }
+
+    @Test
+    void hashesUtf8KeysDeterministically() {
+        assertEquals(0L, ScalableBloomFilter.hash("")[0]);
+        assertEquals(0L, ScalableBloomFilter.hash("")[1]);
+        long[] first = ScalableBloomFilter.hash("홍길동@example.com");
+        long[] second = ScalableBloomFilter.hash("홍길동@example.com");
+        assertEquals(first[0], second[0]);
+        assertEquals(first[1], second[1]);
+        assertFalse(first[0] == ScalableBloomFilter.hash("홍길동@example.org")[0]);
+    }
+}
@@ -0,0 +1,142 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrendingWindowTests {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+    // 1분 구간 3개 = 3분 창
+    private static TrendingWindow window(int capacity) {
+        return new TrendingWindow(Duration.ofMinutes(1), 3, Duration.ofMinutes(10), 4, 1_024, capacity);
+    }
+
+    private static void add(TrendingWindow window, String value, int times, long timeMillis) {
+        for (int i = 0; i < times; i++) {
+            window.add(value, timeMillis);
+        }
+    }
+
+    private static long count(TrendingWindow window, String value, long now) {
+        return window.trending(now, 100, 0).stream()
+                .filter(trend -> trend.value().equals(value))
+                .mapToLong(TrendingWindow.Trend::count)
+                .findFirst().orElse(0);
+    }
+
+    @Test
+    void oldestBucketLeavesTheWindowOnRotation() {
+        TrendingWindow window = window(10);
+        add(window, "lockbit", 2, 0);
+        add(window, "lockbit", 3, MINUTE + 10);
+
+        assertEquals(5, count(window, "lockbit", MINUTE + 20));
+        assertEquals(5, count(window, "lockbit", 3 * MINUTE - 1));
+        // 0분 구간이 빠진다
+        assertEquals(3, count(window, "lockbit", 3 * MINUTE));
+        // 1분 구간도 빠지면 후보에서 사라진다
+        assertTrue(window.trending(4 * MINUTE, 10, 0).isEmpty());
+    }
+
+    @Test
+    void longGapClearsTheWindowAndDecaysBaseline() {
+        TrendingWindow window = window(10);
+        for (int minute = 0; minute < 10; minute++) {
+            add(window, "steady", 10, minute * MINUTE);
+        }
+        add(window, "steady", 10, 10 * MINUTE);
+        double before = window.trending(10 * MINUTE, 10, 0).get(0).expected();
+
+        add(window, "steady", 1, 1_000 * MINUTE);
+        TrendingWindow.Trend after = window.trending(1_000 * MINUTE, 10, 0).get(0);
+
+        assertEquals(1, after.count());
+        // 반감기(10분) 동안 구간 10개를 섞었으므로 baseline 은 구간당 10 의 절반, 창(3구간) 기준 15
+        assertEquals(15.0, before, 1e-6);
+        assertTrue(after.expected() < 0.01, "after=" + after.expected());
+    }
+
+    @Test
+    void warmsUpAfterOneWindowOfBuckets() {
+        TrendingWindow window = window(10);
+        window.advanceTo(0);
+        assertTrue(window.isWarmingUp());
+
+        window.advanceTo(2 * MINUTE);
+        assertTrue(window.isWarmingUp());
+        window.advanceTo(3 * MINUTE);
+        assertFalse(window.isWarmingUp());
+    }
+
+    @Test
+    void spikeOutranksSteadyTraffic() {
+        TrendingWindow window = window(10);
+        for (int minute = 0; minute < 60; minute++) {
+            add(window, "steady", 10, minute * MINUTE);
+        }
+        add(window, "spike", 10, 59 * MINUTE);
+
+        List<TrendingWindow.Trend> trends = window.trending(59 * MINUTE + 30_000, 10, 0);
+
+        assertEquals("spike", trends.get(0).value());
+        assertEquals(10, trends.get(0).count());
+        assertTrue(trends.get(0).ratio() > 5, "ratio=" + trends.get(0).ratio());
+        TrendingWindow.Trend steady = trends.get(1);
+        assertEquals("steady", steady.value());
+        assertEquals(30, steady.count());
+        // 평소와 같은 빈도이므로 기대값에 가깝다
+        assertEquals(30.0, steady.expected(), 3.0);
+        assertTrue(Math.abs(steady.score()) < 1, "score=" + steady.score());
+    }
+
+    @Test
+    void fullCandidateSetAdmitsOnlyHeavierValues() {
+        TrendingWindow window = window(2);
+        add(window, "a", 5, 0);
+        add(window, "b", 4, 0);
+        add(window, "c", 3, 0);
+
+        assertEquals(List.of("a", "b"), window.trending(0, 10, 0).stream().map(TrendingWindow.Trend::value).sorted().toList());
+
+        add(window, "c", 3, 0);
+        assertEquals(List.of("a", "c"), window.trending(0, 10, 0).stream().map(TrendingWindow.Trend::value).sorted().toList());
+        assertEquals(6, count(window, "c", 0));
+    }
+
+    @Test
+    void trendingAppliesLimitAndMinCount() {
+        TrendingWindow window = window(10);
+        add(window, "a", 5, 0);
+        add(window, "b", 2, 0);
+        add(window, "c", 1, 0);
+
+        assertEquals(2, window.trending(0, 2, 0).size());
+        assertEquals(List.of("a", "b"), window.trending(0, 10, 2).stream().map(TrendingWindow.Trend::value).toList());
+    }
+
+    @Test
+    void lateEventsCountInTheCurrentBucket() {
+        TrendingWindow window = window(10);
+        window.advanceTo(10 * MINUTE);
+        add(window, "late", 2, 0);
+
+        assertEquals(2, count(window, "late", 12 * MINUTE));
+        assertEquals(0, count(window, "late", 13 * MINUTE));
+    }
+
+    @Test
+    void rejectsEmptyWindow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TrendingWindow(Duration.ofMinutes(1), 0, Duration.ofMinutes(10), 4, 64, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TrendingWindow(Duration.ofMinutes(1), 3, Duration.ofMinutes(10), 4, 64, 0));
+    }
+}
@@ -0,0 +1,139 @@
+package me.xyzo.blackwatchBE.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTests {
+
+    private static final List<String> FIELDS = List.of("path", "title");
+
+    private static Map<String, List<String>> values(String path, String title) {
+        return Map.of("path", List.of(path), "title", List.of(title));
+    }
+
+    private static List<String> candidates(TrigramIndex index, String field, String substring) {
+        List<String> ids = index.ids(index.candidates(field, substring));
+        ids.sort(null);
+        return ids;
+    }
+
+    private static TrigramIndex roundTrip(TrigramIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        return TrigramIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    void narrowsByFieldCaseInsensitively() {
+        TrigramIndex index = new TrigramIndex(FIELDS);
+        index.put("a", "h1", values("/forum/LockBit/dump", "LockBit leak"));
+        index.put("b", "h2", values("/forum/blackcat", "BlackCat notice"));
+        index.put("c", "h3", values("/market", "lockbit mirror"));
+
+        assertEquals(List.of("a", "c"), candidates(index, "title", "LOCKBIT"));
+        assertEquals(List.of("a"), candidates(index, "path", "lockbit"));
+        assertEquals(List.of("a", "b"), candidates(index, "path", "/forum/"));
+        assertTrue(candidates(index, "title", "conti").isEmpty());
+    }
+
+    @Test
+    void cannotNarrowShortOrUnknownFields() {
+        TrigramIndex index = new TrigramIndex(FIELDS);
+        index.put("a", "h1", values("/forum", "leak"));
+
+        assertNull(index.candidates("title", "le"));
+        assertNull(index.candidates("article", "leak"));
+    }
+
+    @Test
+    void updatesAndRemovalsLeaveOnlyLiveDocuments() {
+        TrigramIndex index = new TrigramIndex(FIELDS);
+        index.put("a", "h1", values("/forum", "lockbit"));
+        index.put("b", "h2", values("/forum", "lockbit"));
+        index.put("a", "h1b", values("/forum", "blackcat"));
+        index.remove("b");
+
+        assertTrue(candidates(index, "title", "lockbit").isEmpty());
+        assertEquals(List.of("a"), candidates(index, "title", "blackcat"));
+        assertEquals(1, index.size());
+        assertEquals(2, index.deadCount());
+        assertEquals("h1b", index.contentHash("a"));
+        assertNull(index.contentHash("b"));
+    }
+
+    @Test
+    void snapshotRoundTripKeepsCandidatesAndLiveSet() throws IOException {
+        TrigramIndex index = new TrigramIndex(FIELDS);
+        index.put("a", "h1", values("/forum/lockbit", "LockBit leak"));
+        index.put("b", "h2", values("/forum/blackcat", "BlackCat notice"));
+        index.put("c", "h3", values("/market", "lockbit mirror"));
+        index.put("c", "h3b", values("/market", "8base mirror"));
+        index.remove("b");
+
+        TrigramIndex restored = roundTrip(index);
+
+        assertEquals(FIELDS, restored.fields());
+        assertEquals(index.size(), restored.size());
+        assertEquals(index.deadCount(), restored.deadCount());
+        assertEquals(index.trigramCount(), restored.trigramCount());
+        assertEquals(List.of("a"), candidates(restored, "title", "lockbit"));
+        assertEquals(List.of("c"), candidates(restored, "title", "8base"));
+        assertTrue(candidates(restored, "path", "blackcat").isEmpty());
+        assertEquals("h3b", restored.contentHash("c"));
+        assertNull(restored.contentHash("b"));
+
+        // 복원한 색인에도 이어서 쓸 수 있다
+        restored.put("d", "h4", values("/forum/lockbit/2", "lockbit again"));
+        assertEquals(List.of("a", "d"), candidates(restored, "title", "lockbit"));
+    }
+
+    @Test
+    void randomCorpusMatchesSubstringScanAfterRoundTrip() throws IOException {
+        Random random = new Random(11);
+        TrigramIndex index = new TrigramIndex(FIELDS);
+        Map<String, String> titles = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int j = 0; j < 12; j++) {
+                title.append((char) ('a' + random.nextInt(5)));
+            }
+            String id = "doc" + random.nextInt(300);
+            titles.put(id, title.toString());
+            index.put(id, null, values("/p", title.toString()));
+        }
+        TrigramIndex restored = roundTrip(index);
+
+        for (String substring : List.of("abc", "eeee", "dcba", "aaab", "bcdea")) {
+            List<String> candidates = candidates(restored, "title", substring);
+            List<String> expected = new ArrayList<>();
+            titles.forEach((id, title) -> {
+                if (title.contains(substring)) expected.add(id);
+            });
+            // 후보에는 오탐이 있을 수 있지만 실제로 포함한 문서는 모두 들어 있어야 한다
+            assertTrue(candidates.containsAll(expected), "substring=" + substring);
+        }
+    }
+
+    @Test
+    void rejectsUnknownSnapshotVersion() {
+        byte[] bytes = {0, 0, 0, 99};
+
+        assertThrows(IOException.class,
+                () -> TrigramIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes))));
+    }
+}
@@ -0,0 +1,169 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DataCursorTests {
+
+    private static final String FIELD = "uploadDateTs";
+
+    // 날짜가 있는 문서, null 인 문서, 필드가 없는 문서가 섞인 컬렉션 (같은 날짜도 둘씩)
+    private static List<Document> corpus() {
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Document document = new Document(DataCursor.ID_FIELD, String.format("id%02d", i));
+            if (i < 8) {
+                document.put(FIELD, new Date(1_700_000_000_000L + (i / 2) * 86_400_000L));
+            } else if (i < 10) {
+                document.put(FIELD, null);
+            }
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    // MongoDB 정렬 규칙: null / 필드 없음이 가장 작고, 같은 값은 _id 순
+    private static List<Document> sorted(List<Document> documents, Sort.Direction direction) {
+        Comparator<Document> order = Comparator
+                .comparing((Document document) -> (Date) document.get(FIELD), Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(document -> document.getString(DataCursor.ID_FIELD));
+        List<Document> result = new ArrayList<>(documents);
+        result.sort(direction == Sort.Direction.DESC ? order.reversed() : order);
+        return result;
+    }
+
+    // 매 페이지마다 토큰을 인코딩 / 디코딩해 seekCriteria 로 다음 페이지를 읽는다
+    private static List<String> readAllPages(List<Document> documents, Sort.Direction direction, int limit) {
+        List<Document> ordered = sorted(documents, direction);
+        List<String> ids = new ArrayList<>();
+        String after = null;
+        for (int pages = 0; pages <= documents.size(); pages++) {
+            Document seek = after == null ? new Document() : DataCursor.decode(after).seekCriteria().getCriteriaObject();
+            List<Document> page = ordered.stream().filter(document -> matches(document, seek)).limit(limit).toList();
+            if (page.isEmpty()) return ids;
+            page.forEach(document -> ids.add(document.getString(DataCursor.ID_FIELD)));
+            Document last = page.get(page.size() - 1);
+            after = new DataCursor(FIELD, direction, last.get(FIELD), last.getString(DataCursor.ID_FIELD)).encode();
+        }
+        throw new AssertionError("커서가 끝나지 않는다");
+    }
+
+    // seekCriteria 가 만드는 연산자($or / 동등 / $lt / $gt / $ne)만 MongoDB 의미대로 평가한다
+    private static boolean matches(Document document, Document criteria) {
+        for (Map.Entry<String, Object> entry : criteria.entrySet()) {
+            if (entry.getKey().equals("$or")) {
+                if (((List<?>) entry.getValue()).stream().noneMatch(clause -> matches(document, (Document) clause))) {
+                    return false;
+                }
+            } else if (!matchesField(document.get(entry.getKey()), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean matchesField(Object actual, Object condition) {
+        if (!(condition instanceof Document operators)) {
+            // { field: null } 은 null 과 필드 없음을 모두 찾는다
+            return condition == null ? actual == null : condition.equals(actual);
+        }
+        for (Map.Entry<String, Object> operator : operators.entrySet()) {
+            Object operand = operator.getValue();
+            boolean ok = switch (operator.getKey()) {
+                case "$ne" -> operand == null ? actual != null : !operand.equals(actual);
+                // 비교 연산은 같은 타입끼리만 일치한다
+                case "$lt" -> actual != null && actual.getClass() == operand.getClass()
+                        && ((Comparable) actual).compareTo(operand) < 0;
+                case "$gt" -> actual != null && actual.getClass() == operand.getClass()
+                        && ((Comparable) actual).compareTo(operand) > 0;
+                default -> throw new AssertionError("지원하지 않는 연산자: " + operator.getKey());
+            };
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    @Test
+    void descendingCursorCrossesIntoNullValues() {
+        List<Document> documents = corpus();
+        List<String> expected = sorted(documents, Sort.Direction.DESC).stream()
+                .map(document -> document.getString(DataCursor.ID_FIELD)).toList();
+
+        for (int limit = 1; limit <= 5; limit++) {
+            assertEquals(expected, readAllPages(documents, Sort.Direction.DESC, limit), "limit=" + limit);
+        }
+    }
+
+    @Test
+    void ascendingCursorCrossesOutOfNullValues() {
+        List<Document> documents = corpus();
+        List<String> expected = sorted(documents, Sort.Direction.ASC).stream()
+                .map(document -> document.getString(DataCursor.ID_FIELD)).toList();
+
+        for (int limit = 1; limit <= 5; limit++) {
+            assertEquals(expected, readAllPages(documents, Sort.Direction.ASC, limit), "limit=" + limit);
+        }
+    }
+
+    @Test
+    void descendingSeekFromValueIncludesNullAndMissing() {
+        Date value = new Date(1_700_000_000_000L);
+        Document seek = new DataCursor(FIELD, Sort.Direction.DESC, value, "id05").seekCriteria().getCriteriaObject();
+
+        assertEquals(true, matches(new Document(FIELD, null).append(DataCursor.ID_FIELD, "id99"), seek));
+        assertEquals(true, matches(new Document(DataCursor.ID_FIELD, "id99"), seek));
+        assertEquals(true, matches(new Document(FIELD, value).append(DataCursor.ID_FIELD, "id04"), seek));
+        assertEquals(false, matches(new Document(FIELD, value).append(DataCursor.ID_FIELD, "id06"), seek));
+        assertEquals(false, matches(new Document(FIELD, new Date(value.getTime() + 1)).append(DataCursor.ID_FIELD, "id00"), seek));
+    }
+
+    @Test
+    void idCursorSeeksOnIdOnly() {
+        assertEquals(new Document(DataCursor.ID_FIELD, new Document("$lt", "id05")),
+                new DataCursor(DataCursor.ID_FIELD, Sort.Direction.DESC, null, "id05").seekCriteria().getCriteriaObject());
+        assertEquals(new Document(DataCursor.ID_FIELD, new Document("$gt", "id05")),
+                new DataCursor(DataCursor.ID_FIELD, Sort.Direction.ASC, null, "id05").seekCriteria().getCriteriaObject());
+    }
+
+    @Test
+    void encodeDecodeKeepsValueTypes() {
+        Date date = new Date(1_700_000_000_123L);
+        for (Object value : new Object[]{date, 42L, 7.5, "forum.onion", "a.b=c", null}) {
+            DataCursor decoded = DataCursor.decode(new DataCursor(FIELD, Sort.Direction.DESC, value, "01HZ.x").encode());
+
+            assertEquals(FIELD, decoded.getField());
+            assertEquals(Sort.Direction.DESC, decoded.getDirection());
+            assertEquals(value, decoded.getValue());
+            assertEquals("01HZ.x", decoded.getId());
+        }
+        // int 는 long 으로 돌아온다 (Mongo 비교는 숫자 타입을 구분하지 않는다)
+        assertEquals(3L, DataCursor.decode(new DataCursor(FIELD, Sort.Direction.ASC, 3, "id").encode()).getValue());
+        assertNull(DataCursor.decode(new DataCursor(DataCursor.ID_FIELD, Sort.Direction.ASC, null, "id").encode()).getValue());
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String token = new DataCursor(FIELD, Sort.Direction.DESC, 1L, "id").encode();
+        String[] parts = token.split("\\.");
+
+        assertThrows(BadRequestException.class, () -> DataCursor.decode("not-a-cursor"));
+        assertThrows(BadRequestException.class, () -> DataCursor.decode(token + ".eA"));
+        assertThrows(BadRequestException.class, () -> DataCursor.decode(token.replace(parts[1], "VVA")));
+        assertThrows(BadRequestException.class, () -> DataCursor.decode(token.replace(parts[2], "cQ")));
+        assertThrows(BadRequestException.class, () -> DataCursor.decode(token.replace(parts[3], "eA")));
+        assertThrows(BadRequestException.class, () -> DataCursor.decode(token.replace(parts[0], "!!")));
+    }
+}
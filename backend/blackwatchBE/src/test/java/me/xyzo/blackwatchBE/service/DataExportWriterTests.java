@@ -0,0 +1,44 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.xyzo.blackwatchBE.dto.ExportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DataExportWriterTests {
+
+    private static String csv(Map<String, Object> row) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataExportWriter writer = new DataExportWriter(new ObjectMapper(), ExportFormat.CSV, List.of("title", "iocs"), out);
+        writer.writeHeader();
+        writer.writeRow(row);
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void prefixesCellsThatSpreadsheetsReadAsFormulas() throws IOException {
+        assertEquals("title,iocs\n\"'=HYPERLINK(\"\"http://x\"\")\",\n", csv(Map.of("title", "=HYPERLINK(\"http://x\")")));
+        assertEquals("title,iocs\n'+1,'@SUM(A1)\n", csv(Map.of("title", "+1", "iocs", List.of("@SUM(A1)"))));
+        assertEquals("title,iocs\n'-2,'\tcmd\n", csv(Map.of("title", "-2", "iocs", "\tcmd")));
+        assertEquals("title,iocs\n\"'\rx\",\n", csv(Map.of("title", "\rx")));
+    }
+
+    @Test
+    void leavesOrdinaryCellsAlone() throws IOException {
+        Map<String, Object> row = new HashMap<>();
+        row.put("title", "a, \"b\"");
+        row.put("iocs", List.of("evil.com", "1.2.3.4"));
+
+        assertEquals("title,iocs\n\"a, \"\"b\"\"\",evil.com;1.2.3.4\n", csv(row));
+        assertEquals("title,iocs\n,\n", csv(new HashMap<>()));
+    }
+}
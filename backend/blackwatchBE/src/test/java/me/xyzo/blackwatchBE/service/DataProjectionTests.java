@@ -0,0 +1,87 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.exception.BadRequestException;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataProjectionTests {
+
+    private static Document fieldsOf(DataProjection projection, List<String> requiredFields) {
+        return projection.apply(new Query(), requiredFields).getFieldsObject();
+    }
+
+    private static void assertNoPersonalData(Document fields) {
+        for (String field : DataProjection.LEAKED_PII_FIELDS) {
+            Object value = fields.get(field);
+            assertTrue(value == null || value.equals(0), field + "=" + value);
+        }
+        assertFalse(Integer.valueOf(1).equals(fields.get("leaked")), "leaked 전체를 포함하면 안 된다");
+    }
+
+    @Test
+    void fullLeakedProjectionExcludesPersonalData() {
+        for (String projection : new String[]{null, "", "  ", "full", "FULL"}) {
+            DataProjection fields = DataProjection.forLeaked(projection);
+
+            assertTrue(fields.isFull());
+            assertEquals(new Document("leaked.email", 0).append("leaked.realname", 0).append("leaked.username", 0),
+                    fieldsOf(fields, List.of()));
+        }
+    }
+
+    @Test
+    void leakedFieldListReadsOnlySafeSubfields() {
+        DataProjection fields = DataProjection.forLeaked("title, leaked");
+        Document projection = fieldsOf(fields, List.of("uploadDateTs", "leaked"));
+
+        assertEquals(new Document("id", 1).append("title", 1)
+                .append("leaked.hash", 1).append("leaked.fileName", 1).append("leaked.count", 1)
+                .append("uploadDateTs", 1), projection);
+        assertNoPersonalData(projection);
+        assertTrue(fields.includes("leaked"));
+        assertFalse(fields.includes("author"));
+    }
+
+    @Test
+    void namedProjectionsNeverIncludePersonalData() {
+        for (String name : new String[]{"summary", "iocs", "Summary"}) {
+            Document projection = fieldsOf(DataProjection.forLeaked(name), List.of());
+
+            assertEquals(1, projection.get("id"));
+            assertNoPersonalData(projection);
+        }
+    }
+
+    @Test
+    void rejectsPersonalDataAndUnknownFields() {
+        assertThrows(BadRequestException.class, () -> DataProjection.forLeaked("leaked.email"));
+        assertThrows(BadRequestException.class, () -> DataProjection.forLeaked("title,leaked.realname"));
+        assertThrows(BadRequestException.class, () -> DataProjection.forLeaked("nope"));
+        assertThrows(BadRequestException.class, () -> DataProjection.forVulnerability("leaked"));
+    }
+
+    @Test
+    void fullVulnerabilityProjectionReadsEverything() {
+        DataProjection fields = DataProjection.forVulnerability("full");
+
+        assertTrue(fieldsOf(fields, List.of("uploadDateTs")).isEmpty());
+        assertEquals(new Document("id", 1).append("title", 1).append("uploadDate", 1).append("cveIds", 1)
+                        .append("cvss", 1).append("products", 1),
+                fieldsOf(DataProjection.forVulnerability("cves"), List.of()));
+    }
+
+    @Test
+    void signatureIgnoresOrderAndSpacing() {
+        assertEquals(DataProjection.forLeaked("title,host").signature(), DataProjection.forLeaked(" host , title,").signature());
+        assertEquals("host,id,title", DataProjection.forLeaked("title,host").signature());
+        assertEquals(DataProjection.FULL, DataProjection.forLeaked(null).signature());
+    }
+}
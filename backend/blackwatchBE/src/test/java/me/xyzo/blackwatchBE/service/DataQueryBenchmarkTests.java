@@ -0,0 +1,176 @@
+package me.xyzo.blackwatchBE.service;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import me.xyzo.blackwatchBE.dto.LeakedDataFilterDto;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 기존 SpEL + $regex 필터 쿼리와 DataQueryBuilder 쿼리를 시드 컬렉션에서 비교한다.
+ *
+ * 실행: BENCHMARK_MONGODB_URI=mongodb://localhost:27017 ./gradlew test --tests '*DataQueryBenchmarkTests'
+ * 시드 크기는 -Dbenchmark.seed.size 로 조정 (기본 100,000건).
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_MONGODB_URI", matches = ".+")
+class DataQueryBenchmarkTests {
+
+    private static final String DATABASE = "blackwatch_benchmark";
+    private static final int RUNS = 5;
+
+    private MongoClient client;
+    private MongoCollection<Document> collection;
+    private final DataQueryBuilder builder = new DataQueryBuilder();
+
+    @BeforeAll
+    void seed() {
+        client = MongoClients.create(System.getenv("BENCHMARK_MONGODB_URI"));
+        collection = client.getDatabase(DATABASE).getCollection("col_leaked");
+        collection.drop();
+
+        int size = Integer.getInteger("benchmark.seed.size", 100_000);
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Document> batch = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            batch.add(new Document("clientId", "bench")
+                    .append("host", String.format("forum%02d.onion", random.nextInt(50)))
+                    .append("path", "/thread/" + i)
+                    .append("title", "leak dump " + i)
+                    .append("author", String.format("actor%03d", random.nextInt(500)))
+                    .append("uploadDate", base.plusMinutes(i).toString())
+                    .append("leakType", "combo")
+                    .append("recordsCount", Integer.toString(random.nextInt(1_000_000)))
+                    .append("iocs", List.of("10.0." + random.nextInt(255) + "." + random.nextInt(255))));
+            if (batch.size() == 5_000) {
+                collection.insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) collection.insertMany(batch);
+
+        // MongoIndexConfig 와 같은 인덱스
+        collection.createIndex(Indexes.ascending("host"));
+        collection.createIndex(Indexes.ascending("author"));
+        collection.createIndex(Indexes.descending("uploadDate"));
+        collection.createIndex(Indexes.compoundIndex(Indexes.ascending("host"), Indexes.descending("uploadDate")),
+                new IndexOptions());
+        collection.createIndex(Indexes.compoundIndex(Indexes.ascending("author"), Indexes.descending("uploadDate")),
+                new IndexOptions());
+    }
+
+    @AfterAll
+    void cleanup() {
+        if (client != null) {
+            client.getDatabase(DATABASE).drop();
+            client.close();
+        }
+    }
+
+    @Test
+    void hostFilter() {
+        // 기존 쿼리는 hosts.get(0) 만 사용하고 대소문자 무시 부분 일치 정규식이었다.
+        // 시드 값은 자릿수를 맞춰 두었으므로 부분 일치와 정확 일치가 같은 문서를 고른다
+        Query before = new BasicQuery("{ $and: [ {}, {}, {'host': {$regex: 'forum07.onion', $options: 'i'}}, " +
+                "{}, {}, {}, {}, {}, {} ] }");
+
+        LeakedDataFilterDto filter = new LeakedDataFilterDto();
+        filter.setHosts(List.of("forum07.onion"));
+        Query after = new Query(builder.buildLeakedCriteria(filter));
+
+        compare("host", before, after);
+    }
+
+    @Test
+    void authorFilter() {
+        Query before = new BasicQuery("{ $and: [ {}, {}, {}, {}, {}, " +
+                "{'author': {$regex: 'actor042', $options: 'i'}}, {}, {}, {} ] }");
+
+        LeakedDataFilterDto filter = new LeakedDataFilterDto();
+        filter.setAuthors(List.of("actor042"));
+        Query after = new Query(builder.buildLeakedCriteria(filter));
+
+        compare("author", before, after);
+    }
+
+    @Test
+    void hostPrefixFilter() {
+        Query before = new BasicQuery("{ $and: [ {}, {}, {'host': {$regex: 'forum1', $options: 'i'}}, " +
+                "{}, {}, {}, {}, {}, {} ] }");
+
+        LeakedDataFilterDto filter = new LeakedDataFilterDto();
+        filter.setHosts(List.of("forum1*"));
+        Query after = new Query(builder.buildLeakedCriteria(filter));
+
+        compare("host prefix", before, after);
+    }
+
+    private void compare(String name, Query before, Query after) {
+        Stats beforeStats = measure(before);
+        Stats afterStats = measure(after);
+
+        // 같은 문서를 고르는 쿼리끼리 비교해야 차이가 쿼리 형태에서 온 것이다
+        assertEquals(beforeStats.matched, afterStats.matched, name + " 필터의 결과 건수가 기존 쿼리와 다릅니다.");
+
+        System.out.printf("[%s] before: matched=%d docsExamined=%d keysExamined=%d median=%dms%n",
+                name, beforeStats.matched, beforeStats.docsExamined, beforeStats.keysExamined, beforeStats.medianMillis);
+        System.out.printf("[%s] after : matched=%d docsExamined=%d keysExamined=%d median=%dms%n",
+                name, afterStats.matched, afterStats.docsExamined, afterStats.keysExamined, afterStats.medianMillis);
+
+        assertTrue(afterStats.docsExamined <= beforeStats.docsExamined,
+                name + " 필터가 기존 쿼리보다 많은 문서를 검사했습니다.");
+    }
+
+    private Stats measure(Query query) {
+        Document filter = query.getQueryObject();
+        Document sort = new Document("uploadDate", -1);
+
+        Document explain = collection.find(filter).sort(sort).limit(200)
+                .explain(ExplainVerbosity.EXECUTION_STATS);
+        Document executionStats = explain.get("executionStats", Document.class);
+
+        long matched = 0;
+        long[] timings = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            collection.find(filter).sort(sort).limit(200).into(new ArrayList<>());
+            matched = collection.countDocuments(filter);
+            timings[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        java.util.Arrays.sort(timings);
+
+        Stats stats = new Stats();
+        stats.docsExamined = executionStats.get("totalDocsExamined", Number.class).longValue();
+        stats.keysExamined = executionStats.get("totalKeysExamined", Number.class).longValue();
+        stats.medianMillis = timings[RUNS / 2];
+        stats.matched = matched;
+        return stats;
+    }
+
+    private static class Stats {
+        long docsExamined;
+        long keysExamined;
+        long medianMillis;
+        long matched;
+    }
+}
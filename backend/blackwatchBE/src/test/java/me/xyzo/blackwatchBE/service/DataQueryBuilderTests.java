@@ -0,0 +1,66 @@
+package me.xyzo.blackwatchBE.service;
+
+import me.xyzo.blackwatchBE.dto.LeakedDataFilterDto;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataQueryBuilderTests {
+
+    // trigram 색인 대신 정해진 후보 목록을 돌려준다
+    private static DataQueryBuilder builder(List<String> candidates) {
+        DataQueryBuilder builder = new DataQueryBuilder();
+        ReflectionTestUtils.setField(builder, "trigramIndexService", new TrigramIndexService() {
+            @Override
+            public List<String> candidates(String collection, Map<String, String> substrings) {
+                return candidates;
+            }
+        });
+        return builder;
+    }
+
+    private static LeakedDataFilterDto titleFilter(String titleContains) {
+        LeakedDataFilterDto filter = new LeakedDataFilterDto();
+        filter.setTitleContains(titleContains);
+        filter.setHosts(List.of("forum.onion"));
+        return filter;
+    }
+
+    @Test
+    void signatureIgnoresTrigramCandidates() {
+        Criteria plain = new DataQueryBuilder().buildLeakedCriteria(titleFilter("dump"));
+        Criteria narrowed = builder(List.of("a", "b")).buildLeakedCriteria(titleFilter("dump"));
+        Criteria other = builder(List.of("c")).buildLeakedCriteria(titleFilter("dump"));
+
+        assertTrue(narrowed.getCriteriaObject().toJson().contains("\"$in\""));
+        assertEquals(DataQueryBuilder.signature(plain), DataQueryBuilder.signature(narrowed));
+        assertEquals(DataQueryBuilder.signature(plain), DataQueryBuilder.signature(other));
+        assertNotEquals(DataQueryBuilder.signature(plain),
+                DataQueryBuilder.signature(new DataQueryBuilder().buildLeakedCriteria(titleFilter("dumps"))));
+    }
+
+    @Test
+    void filterObjectKeepsOnlyUserFilters() {
+        Document filter = DataQueryBuilder.filterObject(builder(List.of("a")).buildLeakedCriteria(titleFilter("dump")));
+
+        List<?> clauses = (List<?>) filter.get("$and");
+        assertEquals(2, clauses.size());
+        assertFalse(filter.toJson().contains("\"id\""));
+        assertEquals(new DataQueryBuilder().buildLeakedCriteria(titleFilter("dump")).getCriteriaObject().toJson(),
+                filter.toJson());
+    }
+
+    @Test
+    void signatureOfUnfilteredQueryIsEmptyDocument() {
+        assertEquals("{}", DataQueryBuilder.signature(new DataQueryBuilder().buildLeakedCriteria(new LeakedDataFilterDto())));
+    }
+}
@@ -0,0 +1,61 @@
+package me.xyzo.blackwatchBE.service;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentContentHashTests {
+
+    private static Document crawled() {
+        return new Document("host", "forum.onion")
+                .append("title", "customer db")
+                .append("uploadDate", "2024-05-01 12:00")
+                .append("iocs", List.of("evil.com"));
+    }
+
+    @Test
+    void ignoresIdClassAndDerivedFields() {
+        String hash = DocumentContentHash.of(crawled());
+
+        Document stored = crawled()
+                .append("_id", "01HZ")
+                .append("_class", "me.xyzo.blackwatchBE.document.LeakedDataDocument")
+                .append("uploadDateTs", new Date(1_714_564_800_000L))
+                .append("recordsCountNum", 10L)
+                .append(IocNormalizer.FIELD, List.of("domain:evil.com"))
+                .append(DocumentContentHash.FIELD, "stale");
+
+        assertEquals(hash, DocumentContentHash.of(stored));
+        assertTrue(hash.matches("[0-9a-f]{32}"), hash);
+    }
+
+    @Test
+    void changesWhenCrawledContentChanges() {
+        String hash = DocumentContentHash.of(crawled());
+
+        assertNotEquals(hash, DocumentContentHash.of(crawled().append("title", "customer db v2")));
+        assertNotEquals(hash, DocumentContentHash.of(crawled().append("iocs", List.of("evil.com", "1.2.3.4"))));
+        assertNotEquals(hash, DocumentContentHash.of(crawled().append("price", "100")));
+    }
+
+    @Test
+    void listVersionDependsOnSignatureRowsAndOrder() {
+        List<String> rows = List.of("total:2", "a:1111", "b:2222");
+        String version = DocumentContentHash.ofRows("page|{}|full", rows);
+
+        assertEquals(version, DocumentContentHash.ofRows("page|{}|full", List.of("total:2", "a:1111", "b:2222")));
+        // 다른 쿼리, 문서 내용, 순서, 전체 건수는 다른 ETag
+        assertNotEquals(version, DocumentContentHash.ofRows("page|{}|summary", rows));
+        assertNotEquals(version, DocumentContentHash.ofRows("page|{}|full", List.of("total:2", "a:1111", "b:3333")));
+        assertNotEquals(version, DocumentContentHash.ofRows("page|{}|full", List.of("total:2", "b:2222", "a:1111")));
+        assertNotEquals(version, DocumentContentHash.ofRows("page|{}|full", List.of("total:3", "a:1111", "b:2222")));
+        assertNotEquals(version, DocumentContentHash.ofRows("page|{}|full", List.of("a:1111", "b:2222")));
+        assertTrue(version.matches("[0-9a-f]{32}"), version);
+    }
+}
@@ -0,0 +1,80 @@
+package me.xyzo.blackwatchBE.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IocNormalizerTests {
+
+    private static String key(String raw) {
+        return IocNormalizer.normalize(raw).key();
+    }
+
+    @Test
+    void refangsDefangedNotation() {
+        assertEquals("https://evil.com/a", IocNormalizer.refang("hxxps[:]//evil[.]com/a"));
+        assertEquals("http://evil.com", IocNormalizer.refang("hxxp[://]evil(.)com"));
+        assertEquals("user@evil.com", IocNormalizer.refang("user[at]evil[dot]com"));
+
+        assertEquals("url:https://evil.com/a", key("hXXps[:]//EVIL[.]com/a"));
+        assertEquals("domain:evil.com", key("evil[.]com"));
+        assertEquals("ip:1.1.1.1", key("1[.]1[.]1[.]1"));
+    }
+
+    @Test
+    void classifiesHexDigestsAsHashes() {
+        assertEquals("hash:d41d8cd98f00b204e9800998ecf8427e", key("D41D8CD98F00B204E9800998ECF8427E"));
+        assertEquals("hash:da39a3ee5e6b4b0d3255bfef95601890afd80709", key("da39a3ee5e6b4b0d3255bfef95601890afd80709"));
+        assertEquals("hash:e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                key("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855"));
+        // legacy 비트코인 주소 형식과도 맞는 MD5 (1 / 3 으로 시작, 0 없음)
+        assertEquals("hash:1abcdef123456789abcdef123456789a", key("1abcdef123456789abcdef123456789a"));
+        assertEquals("hash:3b9f5e7c1d2a4b6c8e9f1a2b3c4d5e6f", key("3b9f5e7c1d2a4b6c8e9f1a2b3c4d5e6f"));
+        // 길이가 다른 hex 는 해시가 아니다
+        assertEquals("other:d41d8cd98f00b204e9800998ecf8427", key("d41d8cd98f00b204e9800998ecf8427"));
+    }
+
+    @Test
+    void classifiesWalletAddresses() {
+        assertEquals("wallet:1a1zp1ep5qgefi2dmptftl5slmv7divfna", key("1A1zP1eP5QGefi2DMPTfTL5SLmv7DivfNa"));
+        assertEquals("wallet:bc1qar0srrr7xfkvy5l643lydnw9re59gtzzwf5mdq", key("bc1qar0srrr7xfkvy5l643lydnw9re59gtzzwf5mdq"));
+        // 0x 가 붙은 40자리 hex 는 SHA-1 이 아니라 이더리움 주소
+        assertEquals("wallet:0xde0b295669a9fd93d5f28d9ec85e40f4cb697bae", key("0xDE0B295669a9FD93d5F28D9Ec85E40f4cb697BAe"));
+    }
+
+    @Test
+    void mistypedHashKeyMatchesOnlyOldWalletClassification() {
+        assertTrue(IocNormalizer.MISTYPED_HASH_KEY.matcher("wallet:1abcdef123456789abcdef123456789a").matches());
+        assertFalse(IocNormalizer.MISTYPED_HASH_KEY.matcher("hash:1abcdef123456789abcdef123456789a").matches());
+        assertFalse(IocNormalizer.MISTYPED_HASH_KEY.matcher("wallet:1a1zp1ep5qgefi2dmptftl5slmv7divfna").matches());
+        assertFalse(IocNormalizer.MISTYPED_HASH_KEY.matcher("wallet:0xde0b295669a9fd93d5f28d9ec85e40f4cb697bae").matches());
+    }
+
+    @Test
+    void separatesIpsFromDomains() {
+        assertEquals("ip:10.1.2.3", key("010.001.002.003"));
+        assertEquals("ip:10.0.0.1", key("10.0.0.1:8080"));
+        assertEquals("ip:2001:db8::1", key("2001:DB8::1"));
+        assertEquals("other:256.1.1.1", key("256.1.1.1"));
+        assertEquals("domain:mail.evil.com", key("Mail.Evil.com."));
+        assertEquals("domain:xn--80ak6aa92e.com", key("xn--80ak6aa92e.com"));
+        assertEquals("domain:1.2.3.example", key("1.2.3.example"));
+        assertEquals("other:not a domain", key("not a domain"));
+    }
+
+    @Test
+    void keysAddUrlHostsAndDeduplicate() {
+        List<String> keys = IocNormalizer.keys(Arrays.asList(
+                "hxxps://user@evil[.]com:8443/x", "EVIL.com", "http://10.0.0.1/", " ", null, "'evil.com',"));
+
+        assertEquals(List.of("domain:evil.com", "ip:10.0.0.1", "url:http://10.0.0.1", "url:https://user@evil.com:8443/x"), keys);
+        assertTrue(IocNormalizer.keys(null).isEmpty());
+        assertNull(IocNormalizer.normalize("  "));
+    }
+}